@@ -1,14 +1,27 @@
 package com.liquidthoughts.blog;
 
+import com.liquidthoughts.blog.config.NativeRuntimeHints;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@MapperScan("com.liquidthoughts.blog.mapper")
+@MapperScan(basePackages = "com.liquidthoughts.blog.mapper", sqlSessionTemplateRef = "sqlSessionTemplate")
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class BlogBackendApplication {
 
+    /**
+     * Startup steps buffered for {@link com.liquidthoughts.blog.service.StartupReportService}.
+     */
+    public static final int STARTUP_STEPS = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(BlogBackendApplication.class, args);
+        SpringApplication application = new SpringApplication(BlogBackendApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 }
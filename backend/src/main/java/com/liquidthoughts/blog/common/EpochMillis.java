@@ -0,0 +1,194 @@
+package com.liquidthoughts.blog.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Timestamps are stored as epoch millis and written to JSON as UTC ISO-8601 strings with exactly three fraction
+ * digits, so the strings also sort in time order.
+ * <p>
+ * {@link #parse} reads the ISO-8601 forms clients send, {@code 2026-02-07}, {@code 2026-02-07T10:00:00Z},
+ * {@code 2026-02-07T10:00:00.5+08:00} and the like, by hand and returns null for anything else, so filter input
+ * never throws.
+ */
+public final class EpochMillis {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private EpochMillis() {
+    }
+
+    public static String format(Long millis) {
+        return millis == null ? null : FORMAT.format(Instant.ofEpochMilli(millis));
+    }
+
+    public static Long parse(String value) {
+        return parse(value, false);
+    }
+
+    /**
+     * Parses the start of a range: a date alone means its first millisecond.
+     */
+    public static Long parseStart(String value) {
+        return parse(value, false);
+    }
+
+    /**
+     * Parses the end of a range: a date alone means its last millisecond.
+     */
+    public static Long parseEnd(String value) {
+        return parse(value, true);
+    }
+
+    private static Long parse(String value, boolean endOfDay) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.trim();
+        int length = text.length();
+        if (length < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return null;
+        }
+        long midnight = daysFromCivil(year, month, day) * MILLIS_PER_DAY;
+        if (length == 10) {
+            return endOfDay ? midnight + MILLIS_PER_DAY - 1 : midnight;
+        }
+
+        char separator = text.charAt(10);
+        if ((separator != 'T' && separator != 't' && separator != ' ') || length < 16 || text.charAt(13) != ':') {
+            return null;
+        }
+        int hour = digits(text, 11, 13);
+        int minute = digits(text, 14, 16);
+        int second = 0;
+        int position = 16;
+        if (position < length && text.charAt(position) == ':') {
+            second = digits(text, 17, 19);
+            position = 19;
+        }
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || position > length) {
+            return null;
+        }
+
+        int millis = 0;
+        if (position < length && (text.charAt(position) == '.' || text.charAt(position) == ',')) {
+            int start = ++position;
+            while (position < length && isDigit(text.charAt(position))) {
+                if (position - start < 3) {
+                    millis = millis * 10 + (text.charAt(position) - '0');
+                }
+                position++;
+            }
+            if (position == start) {
+                return null;
+            }
+            for (int scale = position - start; scale < 3; scale++) {
+                millis *= 10;
+            }
+        }
+
+        long offsetMillis;
+        if (position == length - 1 && (text.charAt(position) == 'Z' || text.charAt(position) == 'z')) {
+            offsetMillis = 0;
+        } else if (position + 6 == length && (text.charAt(position) == '+' || text.charAt(position) == '-')
+                && text.charAt(position + 3) == ':') {
+            int offsetHours = digits(text, position + 1, position + 3);
+            int offsetMinutes = digits(text, position + 4, position + 6);
+            if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59) {
+                return null;
+            }
+            offsetMillis = (offsetHours * 60L + offsetMinutes) * 60_000L * (text.charAt(position) == '-' ? -1 : 1);
+        } else {
+            return null;
+        }
+        return midnight + ((hour * 60L + minute) * 60L + second) * 1000L + millis - offsetMillis;
+    }
+
+    private static int digits(String text, int from, int to) {
+        if (to > text.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int index = from; index < to; index++) {
+            char ch = text.charAt(index);
+            if (!isDigit(ch)) {
+                return -1;
+            }
+            value = value * 10 + (ch - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static int daysInMonth(int year, int month) {
+        boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+        return month == 2 && leap ? 29 : DAYS_IN_MONTH[month - 1];
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date.
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Writes epoch millis as an ISO-8601 string.
+     */
+    public static class Serializer extends JsonSerializer<Long> {
+
+        @Override
+        public void serialize(Long value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeString(format(value));
+        }
+    }
+
+    /**
+     * Reads an ISO-8601 string, or a number of epoch millis, into epoch millis.
+     */
+    public static class Deserializer extends JsonDeserializer<Long> {
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return parser.getLongValue();
+            }
+            String text = parser.getValueAsString();
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            Long millis = parse(text);
+            if (millis == null) {
+                return (Long) context.handleWeirdStringValue(Long.class, text, "not an ISO-8601 timestamp");
+            }
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.liquidthoughts.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.analytics")
+public class AnalyticsProperties {
+
+    /**
+     * Interval between flushes of in-memory view/like counters into hourly buckets.
+     */
+    private long flushIntervalMs = 10_000;
+
+    /**
+     * Interval between roll-ups of hourly and daily buckets past their retention.
+     */
+    private long compactIntervalMs = 3_600_000;
+
+    /**
+     * Hourly buckets older than this are rolled up into daily buckets.
+     */
+    private int hourRetentionHours = 48;
+
+    /**
+     * Daily buckets older than this are rolled up into monthly buckets.
+     */
+    private int dayRetentionDays = 90;
+
+    /**
+     * Monthly buckets older than this are dropped.
+     */
+    private int monthRetentionMonths = 24;
+}
@@ -0,0 +1,79 @@
+package com.liquidthoughts.blog.config;
+
+import com.liquidthoughts.blog.service.AssetStore;
+import com.liquidthoughts.blog.service.LocalAssetStore;
+import com.liquidthoughts.blog.service.S3AssetStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Creates the {@link AssetStore} named by {@code app.storage.backend}: {@code local} (the default) or {@code s3}.
+ * The native image and the fast-start build evaluate this when they are built, so they keep the backend of the
+ * profile they were built for.
+ */
+@Configuration
+public class AssetStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.storage", name = "backend", havingValue = "local", matchIfMissing = true)
+    public LocalAssetStore localAssetStore(StorageProperties storageProperties) {
+        Path root = Path.of(storageProperties.getRootPath(), storageProperties.getUploadSubDir()).toAbsolutePath().normalize();
+        return new LocalAssetStore(root, storageProperties.getAssetWriterThreads());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.storage", name = "backend", havingValue = "s3")
+    public S3Client s3Client(S3StorageProperties properties) {
+        var builder = S3Client.builder()
+                .region(Region.of(properties.getRegion()))
+                .credentialsProvider(credentials(properties))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(properties.isPathStyleAccess()).build());
+        if (StringUtils.hasText(properties.getEndpoint())) {
+            builder.endpointOverride(URI.create(properties.getEndpoint()));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.storage", name = "backend", havingValue = "s3")
+    public S3Presigner s3Presigner(S3StorageProperties properties) {
+        var builder = S3Presigner.builder()
+                .region(Region.of(properties.getRegion()))
+                .credentialsProvider(credentials(properties))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(properties.isPathStyleAccess()).build());
+        if (StringUtils.hasText(properties.getEndpoint())) {
+            builder.endpointOverride(URI.create(properties.getEndpoint()));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.storage", name = "backend", havingValue = "s3")
+    public S3AssetStore s3AssetStore(S3Client s3Client, S3Presigner s3Presigner, S3StorageProperties properties) {
+        if (!StringUtils.hasText(properties.getBucket())) {
+            throw new IllegalStateException("app.storage.s3.bucket is required when app.storage.backend is s3");
+        }
+        return new S3AssetStore(s3Client, s3Presigner, properties);
+    }
+
+    private AwsCredentialsProvider credentials(S3StorageProperties properties) {
+        if (StringUtils.hasText(properties.getAccessKey())) {
+            return StaticCredentialsProvider.create(
+                    AwsBasicCredentials.create(properties.getAccessKey(), properties.getSecretKey()));
+        }
+        return DefaultCredentialsProvider.create();
+    }
+}
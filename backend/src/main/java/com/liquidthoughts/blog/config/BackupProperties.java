@@ -0,0 +1,37 @@
+package com.liquidthoughts.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.backup")
+public class BackupProperties {
+
+    /**
+     * Directory holding one sub directory per backup. Storage snapshots are hard links, so it should be on the same
+     * file system as the storage root; otherwise files are copied.
+     */
+    private String rootPath = "./backups";
+
+    /**
+     * Directory into which backups are restored, one sub directory per backup.
+     */
+    private String restorePath = "./restore";
+
+    /**
+     * Database pages copied per step of the online backup.
+     */
+    private int pagesPerStep = 256;
+
+    /**
+     * Pause between two backup steps, so the backup does not saturate the disk the live database is on.
+     */
+    private int stepPauseMs = 5;
+
+    /**
+     * Times a step is retried while the database is busy before the backup fails.
+     */
+    private int busyRetries = 100;
+}
@@ -0,0 +1,31 @@
+package com.liquidthoughts.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    /**
+     * Time a cached public read is served as is after it was loaded.
+     */
+    private long freshMs = 2000;
+
+    /**
+     * Time after the fresh period in which the previous value is still served while one background refresh runs.
+     */
+    private long staleMs = 30000;
+
+    /**
+     * Entries kept per cache; the least recently read entry is dropped beyond this.
+     */
+    private int maxEntries = 1000;
+
+    /**
+     * Threads running background refreshes of stale entries.
+     */
+    private int refreshThreads = 2;
+}
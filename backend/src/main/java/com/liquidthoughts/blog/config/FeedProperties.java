@@ -0,0 +1,26 @@
+package com.liquidthoughts.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.feed")
+public class FeedProperties {
+
+    /**
+     * Public address of the site, used to build post links in the sitemap and feeds.
+     */
+    private String siteUrl = "http://localhost:9001";
+
+    /**
+     * Number of newest published posts listed in the RSS and Atom feeds.
+     */
+    private int feedSize = 20;
+
+    /**
+     * Maximum URLs per sitemap file. Past this the sitemap is split and {@code /sitemap.xml} becomes an index.
+     */
+    private int sitemapChunkSize = 50000;
+}
@@ -0,0 +1,59 @@
+package com.liquidthoughts.blog.config;
+
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.mybatis.spring.mapper.MapperScannerConfigurer;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.aot.BeanRegistrationExcludeFilter;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.RegisteredBean;
+
+/**
+ * Makes {@code @MapperScan} work with Spring AOT. The mapper bean definitions are already part of the generated
+ * code, so the scanner must not be registered again at runtime, where it would rescan and clash with them. The
+ * mapper interfaces are also registered as JDK proxies with reflective access to their annotated methods, which
+ * MyBatis reads when it builds the statements in a native image.
+ */
+public class MapperAotProcessor implements BeanRegistrationExcludeFilter, BeanFactoryInitializationAotProcessor {
+
+    @Override
+    public boolean isExcludedFromAotProcessing(RegisteredBean registeredBean) {
+        return MapperScannerConfigurer.class.equals(registeredBean.getBeanClass());
+    }
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        String[] beanNames = beanFactory.getBeanNamesForType(MapperFactoryBean.class, true, false);
+        if (beanNames.length == 0) {
+            return null;
+        }
+        return (generationContext, code) -> {
+            RuntimeHints hints = generationContext.getRuntimeHints();
+            for (String beanName : beanNames) {
+                Class<?> mapperInterface = mapperInterface(beanFactory.getBeanDefinition(beanName.replace("&", "")));
+                if (mapperInterface != null) {
+                    hints.proxies().registerJdkProxy(mapperInterface);
+                    hints.reflection().registerType(mapperInterface, MemberCategory.INVOKE_PUBLIC_METHODS);
+                }
+            }
+        };
+    }
+
+    static Class<?> mapperInterface(BeanDefinition beanDefinition) {
+        Object value = beanDefinition.getPropertyValues().get("mapperInterface");
+        if (value instanceof Class<?> type) {
+            return type;
+        }
+        if (value instanceof String name) {
+            try {
+                return Class.forName(name, false, MapperAotProcessor.class.getClassLoader());
+            } catch (ClassNotFoundException ex) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
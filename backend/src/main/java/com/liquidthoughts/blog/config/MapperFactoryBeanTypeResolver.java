@@ -0,0 +1,31 @@
+package com.liquidthoughts.blog.config;
+
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.ResolvableType;
+
+/**
+ * Gives scanned {@link MapperFactoryBean} definitions a concrete generic type and constructor argument, so that
+ * Spring AOT can generate their registrations and resolve mapper injection points by type.
+ */
+class MapperFactoryBeanTypeResolver implements MergedBeanDefinitionPostProcessor {
+
+    @Override
+    public void postProcessMergedBeanDefinition(RootBeanDefinition beanDefinition, Class<?> beanType, String beanName) {
+        if (!beanDefinition.hasBeanClass()
+                || !MapperFactoryBean.class.isAssignableFrom(beanDefinition.getBeanClass())
+                || !beanDefinition.getResolvableType().hasUnresolvableGenerics()) {
+            return;
+        }
+        Class<?> mapperInterface = MapperAotProcessor.mapperInterface(beanDefinition);
+        if (mapperInterface == null) {
+            return;
+        }
+        ConstructorArgumentValues arguments = new ConstructorArgumentValues();
+        arguments.addGenericArgumentValue(mapperInterface);
+        beanDefinition.setConstructorArgumentValues(arguments);
+        beanDefinition.setTargetType(ResolvableType.forClassWithGenerics(beanDefinition.getBeanClass(), mapperInterface));
+    }
+}
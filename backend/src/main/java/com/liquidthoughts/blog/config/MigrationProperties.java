@@ -0,0 +1,26 @@
+package com.liquidthoughts.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.migrations")
+public class MigrationProperties {
+
+    /**
+     * Location scanned for versioned scripts named {@code V<version>__<description>.sql}.
+     */
+    private String location = "classpath:db/migration";
+
+    /**
+     * Rows processed per backfill transaction.
+     */
+    private int backfillBatchSize = 500;
+
+    /**
+     * Pause between backfill batches so request writers can take the SQLite write lock.
+     */
+    private long backfillPauseMs = 50;
+}
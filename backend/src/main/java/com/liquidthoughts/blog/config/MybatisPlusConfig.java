@@ -15,4 +15,9 @@ public class MybatisPlusConfig {
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.SQLITE));
         return interceptor;
     }
+
+    @Bean
+    static MapperFactoryBeanTypeResolver mapperFactoryBeanTypeResolver() {
+        return new MapperFactoryBeanTypeResolver();
+    }
 }
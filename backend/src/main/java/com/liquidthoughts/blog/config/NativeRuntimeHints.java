@@ -0,0 +1,127 @@
+package com.liquidthoughts.blog.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.SerializedLambda;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Reachability metadata for the native image that Spring AOT cannot infer on its own. Entities and DTOs are read
+ * and written reflectively by MyBatis-Plus and Jackson, MyBatis loads its language drivers, caches and log
+ * adapters by name, and jjwt creates its implementation classes by name. The serializable
+ * {@code LambdaQueryWrapper} lambdas additionally need their capturing classes listed in
+ * {@code META-INF/native-image/com.liquidthoughts/blog-backend-mybatis/serialization-config.json}. sqlite-jdbc ships
+ * its own metadata, including the bundled native library.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> BINDING_PACKAGES = List.of(
+            "com.liquidthoughts.blog.entity",
+            "com.liquidthoughts.blog.dto",
+            "com.liquidthoughts.blog.common"
+    );
+
+    private static final List<String> MYBATIS_TYPES = List.of(
+            "org.apache.ibatis.scripting.defaults.RawLanguageDriver",
+            "org.apache.ibatis.scripting.xmltags.XMLLanguageDriver",
+            "com.baomidou.mybatisplus.core.MybatisXMLLanguageDriver",
+            "org.apache.ibatis.logging.slf4j.Slf4jImpl",
+            "org.apache.ibatis.logging.stdout.StdOutImpl",
+            "org.apache.ibatis.logging.nologging.NoLoggingImpl",
+            "org.apache.ibatis.cache.impl.PerpetualCache",
+            "org.apache.ibatis.cache.decorators.LruCache",
+            "org.apache.ibatis.cache.decorators.FifoCache",
+            "org.apache.ibatis.cache.decorators.SoftCache",
+            "org.apache.ibatis.cache.decorators.WeakCache",
+            "org.apache.ibatis.javassist.util.proxy.ProxyFactory",
+            "org.apache.ibatis.javassist.util.proxy.RuntimeSupport",
+            "com.baomidou.mybatisplus.core.conditions.AbstractWrapper",
+            "com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper",
+            "com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper",
+            "com.baomidou.mybatisplus.core.mapper.BaseMapper",
+            "com.baomidou.mybatisplus.extension.plugins.pagination.Page",
+            "com.baomidou.mybatisplus.extension.plugins.pagination.dialects.SQLiteDialect"
+    );
+
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+        for (Class<?> type : scan(classLoader)) {
+            bindingRegistrar.registerReflectionHints(hints.reflection(), type);
+            hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS);
+        }
+
+        registerByName(hints, classLoader, MYBATIS_TYPES, MemberCategory.values());
+        registerByName(hints, classLoader, JJWT_TYPES,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.DECLARED_FIELDS);
+
+        hints.serialization().registerType(SerializedLambda.class);
+        hints.reflection().registerType(SerializedLambda.class,
+                MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        hints.resources()
+                .registerPattern("db/migration/*.sql")
+                .registerPattern("org/apache/ibatis/builder/xml/*.dtd")
+                .registerPattern("org/apache/ibatis/builder/xml/*.xsd")
+                .registerPattern("META-INF/services/io.jsonwebtoken.*");
+    }
+
+    private List<Class<?>> scan(ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isIndependent();
+            }
+        };
+        scanner.addIncludeFilter(new RegexPatternTypeFilter(Pattern.compile(".*")));
+        return BINDING_PACKAGES.stream()
+                .flatMap(basePackage -> scanner.findCandidateComponents(basePackage).stream())
+                .map(BeanDefinition::getBeanClassName)
+                .<Class<?>>map(name -> ClassUtils.resolveClassName(name, classLoader))
+                .toList();
+    }
+
+    private void registerByName(RuntimeHints hints, ClassLoader classLoader, List<String> typeNames,
+                                MemberCategory... categories) {
+        for (String typeName : typeNames) {
+            if (ClassUtils.isPresent(typeName, classLoader)) {
+                hints.reflection().registerType(TypeReference.of(typeName), categories);
+            }
+        }
+    }
+}
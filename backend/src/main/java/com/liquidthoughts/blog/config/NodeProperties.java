@@ -0,0 +1,56 @@
+package com.liquidthoughts.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.node")
+public class NodeProperties {
+
+    public static final String WRITER = "writer";
+    public static final String READER = "reader";
+
+    /**
+     * {@code writer} owns the database and background jobs; {@code reader} nodes open the database read-only,
+     * reject writes and follow the writer through the node channel.
+     */
+    private String role = WRITER;
+
+    /**
+     * Append-only file, on storage shared by all nodes, through which the writer announces changes to readers.
+     */
+    private String channelPath = "./storage/node-channel.log";
+
+    /**
+     * How often reader nodes check the node channel for new entries.
+     */
+    private long channelPollMs = 200;
+
+    /**
+     * How often the writer appends queued changes to the node channel.
+     */
+    private long channelFlushMs = 100;
+
+    /**
+     * Size past which the writer starts the node channel over; readers then rebuild their caches from the database.
+     */
+    private long channelMaxBytes = 16L * 1024 * 1024;
+
+    /**
+     * Base URL of the writer node as reader nodes reach it, e.g. {@code http://blog-writer:9002}. Readers forward
+     * logouts there, because only the writer can record a revocation for every node.
+     */
+    private String writerUrl;
+
+    /**
+     * Part of every generated post id, between 0 and 1023. Nodes that create posts in the same database need
+     * different worker ids.
+     */
+    private int workerId = 0;
+
+    public boolean isReader() {
+        return READER.equalsIgnoreCase(role);
+    }
+}
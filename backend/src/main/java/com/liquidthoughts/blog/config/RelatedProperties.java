@@ -0,0 +1,26 @@
+package com.liquidthoughts.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.related")
+public class RelatedProperties {
+
+    /**
+     * Number of most similar posts precomputed for every published post.
+     */
+    private int topK = 10;
+
+    /**
+     * How many times a title term counts compared to a content term.
+     */
+    private int titleWeight = 3;
+
+    /**
+     * How many times a summary term counts compared to a content term.
+     */
+    private int summaryWeight = 2;
+}
@@ -0,0 +1,21 @@
+package com.liquidthoughts.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.revisions")
+public class RevisionProperties {
+
+    /**
+     * Maximum number of deltas stored against one snapshot before a new snapshot is taken.
+     */
+    private int snapshotInterval = 20;
+
+    /**
+     * Number of snapshot generations kept per post; older revisions are pruned.
+     */
+    private int keepSnapshots = 10;
+}
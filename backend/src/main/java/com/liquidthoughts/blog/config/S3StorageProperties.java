@@ -0,0 +1,63 @@
+package com.liquidthoughts.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.storage.s3")
+public class S3StorageProperties {
+
+    /**
+     * Bucket holding uploaded assets when {@code app.storage.backend} is {@code s3}.
+     */
+    private String bucket;
+
+    /**
+     * Region used to sign requests; S3-compatible servers usually accept any value.
+     */
+    private String region = "us-east-1";
+
+    /**
+     * Endpoint of an S3-compatible server such as MinIO; empty for AWS.
+     */
+    private String endpoint;
+
+    /**
+     * Whether the bucket goes into the path instead of the host name, which most S3-compatible servers need.
+     */
+    private boolean pathStyleAccess;
+
+    /**
+     * Static credentials; when empty the default AWS credential chain is used.
+     */
+    private String accessKey;
+
+    private String secretKey;
+
+    /**
+     * Prefix put in front of every asset key in the bucket.
+     */
+    private String keyPrefix = "uploads/";
+
+    /**
+     * Files larger than this are sent as multipart uploads.
+     */
+    private long multipartThreshold = 16 * 1024 * 1024;
+
+    /**
+     * Size of every part of a multipart upload except the last one; S3 requires at least 5 MB.
+     */
+    private int partSize = 8 * 1024 * 1024;
+
+    /**
+     * Threads sending objects and parts, shared by all uploads.
+     */
+    private int uploadThreads = 4;
+
+    /**
+     * Lifetime of the presigned URLs downloads are redirected to.
+     */
+    private long presignTtlMs = 15 * 60 * 1000L;
+}
@@ -0,0 +1,18 @@
+package com.liquidthoughts.blog.config;
+
+import com.liquidthoughts.blog.service.SchemaMigrationService;
+import org.springframework.boot.sql.init.dependency.AbstractBeansOfTypeDatabaseInitializerDetector;
+
+import java.util.Set;
+
+/**
+ * Marks {@link SchemaMigrationService} as a database initializer so MyBatis and every other bean that depends on
+ * database initialization is created only after the migrations have run.
+ */
+public class SchemaMigrationInitializerDetector extends AbstractBeansOfTypeDatabaseInitializerDetector {
+
+    @Override
+    protected Set<Class<?>> getDatabaseInitializerBeanTypes() {
+        return Set.of(SchemaMigrationService.class);
+    }
+}
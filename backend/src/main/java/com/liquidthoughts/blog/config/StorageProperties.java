@@ -9,6 +9,12 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "app.storage")
 public class StorageProperties {
 
+    /**
+     * Where uploaded assets are kept: {@code local} under the upload directory, or {@code s3} in the bucket
+     * configured under {@code app.storage.s3}.
+     */
+    private String backend = "local";
+
     /**
      * Local root path for uploaded assets and generated markdown snapshots.
      */
@@ -19,9 +25,81 @@ public class StorageProperties {
      */
     private String uploadSubDir = "uploads";
 
+    /**
+     * Threads flushing stored assets to disk with the local backend.
+     */
+    private int assetWriterThreads = 2;
+
+    /**
+     * Whether the local upload directory is watched for files added or removed outside the app, so the media
+     * library follows them.
+     */
+    private boolean watchAssets = true;
+
+    /**
+     * Time a watched file must go without changes before it is indexed, so files still being copied are read once.
+     */
+    private long assetWatchDebounceMs = 1000;
+
+    /**
+     * Whether the upload directory is compared with the media library on startup, catching changes made while the
+     * app was down.
+     */
+    private boolean reconcileAssetsOnStartup = true;
+
     /**
      * Sub directory used for markdown backups.
      */
     private String postMarkdownDir = "posts";
-}
 
+    /**
+     * Delay used to coalesce rapid re-saves of the same post before its markdown mirror is written.
+     */
+    private long markdownFlushDelayMs = 200;
+
+    /**
+     * Number of threads writing markdown mirror files of one drained batch.
+     */
+    private int markdownWriterThreads = 4;
+
+    /**
+     * Delay before a failed markdown mirror write is retried; it doubles with every further failure of the same post.
+     */
+    private long markdownRetryInitialDelayMs = 1000;
+
+    /**
+     * Longest delay between retries of a failed markdown mirror write.
+     */
+    private long markdownRetryMaxDelayMs = 5 * 60 * 1000L;
+
+    /**
+     * Whether markdown mirror files are compared with the database on startup and repaired when they drifted.
+     */
+    private boolean reconcileMarkdownOnStartup = true;
+
+    /**
+     * Sub directory holding the partial files of resumable uploads and direct uploads on their way to the asset
+     * store; it is not served and not backed up.
+     */
+    private String uploadSessionDir = "upload-sessions";
+
+    /**
+     * Size of every chunk of a resumable upload except the last one.
+     */
+    private int uploadChunkSize = 8 * 1024 * 1024;
+
+    /**
+     * Largest file accepted by a resumable upload.
+     */
+    private long maxUploadBytes = 5L * 1024 * 1024 * 1024;
+
+    /**
+     * Time after the last received chunk at which an unfinished upload is discarded.
+     */
+    private long uploadSessionTtlMs = 24 * 60 * 60 * 1000L;
+
+    /**
+     * Interval between purges of expired upload sessions and orphaned partial files.
+     */
+    private long uploadPurgeIntervalMs = 60 * 60 * 1000L;
+}
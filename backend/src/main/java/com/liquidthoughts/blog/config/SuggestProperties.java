@@ -0,0 +1,21 @@
+package com.liquidthoughts.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.suggest")
+public class SuggestProperties {
+
+    /**
+     * Largest number of title suggestions returned for one query.
+     */
+    private int maxResults = 10;
+
+    /**
+     * Views one like counts as when ranking suggestions by popularity.
+     */
+    private int likeWeight = 5;
+}
@@ -0,0 +1,21 @@
+package com.liquidthoughts.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.trending")
+public class TrendingProperties {
+
+    /**
+     * Time after which a view contributes half of its original weight to the trending score.
+     */
+    private double halfLifeHours = 24;
+
+    /**
+     * Number of posts kept in the trending ranking.
+     */
+    private int topK = 50;
+}
@@ -1,6 +1,9 @@
 package com.liquidthoughts.blog.config;
 
 import com.liquidthoughts.blog.security.AuthInterceptor;
+import com.liquidthoughts.blog.security.ReadOnlyNodeInterceptor;
+import com.liquidthoughts.blog.service.AssetStore;
+import com.liquidthoughts.blog.service.LocalAssetStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -8,14 +11,13 @@ import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.nio.file.Path;
-
 @Configuration
 @RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ReadOnlyNodeInterceptor readOnlyNodeInterceptor;
     private final AuthInterceptor authInterceptor;
-    private final StorageProperties storageProperties;
+    private final AssetStore assetStore;
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -29,15 +31,16 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readOnlyNodeInterceptor).addPathPatterns("/api/**");
         registry.addInterceptor(authInterceptor).addPathPatterns("/api/**");
     }
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        Path uploadPath = Path.of(storageProperties.getRootPath(), storageProperties.getUploadSubDir())
-                .toAbsolutePath()
-                .normalize();
-        String resourceLocation = uploadPath.toUri().toString();
+        if (!(assetStore instanceof LocalAssetStore localAssetStore)) {
+            return;
+        }
+        String resourceLocation = localAssetStore.root().toUri().toString();
         if (!resourceLocation.endsWith("/")) {
             resourceLocation = resourceLocation + "/";
         }
@@ -2,17 +2,33 @@ package com.liquidthoughts.blog.controller;
 
 import com.liquidthoughts.blog.common.ApiResponse;
 import com.liquidthoughts.blog.dto.AssetUploadResponse;
+import com.liquidthoughts.blog.dto.CursorPageResponse;
+import com.liquidthoughts.blog.dto.UploadSessionRequest;
+import com.liquidthoughts.blog.dto.UploadSessionResponse;
+import com.liquidthoughts.blog.entity.AssetEntity;
+import com.liquidthoughts.blog.service.AssetIndexService;
+import com.liquidthoughts.blog.service.ChunkedUploadService;
 import com.liquidthoughts.blog.service.FileStorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -22,12 +38,65 @@ import java.util.List;
 public class AssetController {
 
     private final FileStorageService fileStorageService;
+    private final ChunkedUploadService chunkedUploadService;
+    private final AssetIndexService assetIndexService;
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload one or multiple assets")
     public ApiResponse<List<AssetUploadResponse>> upload(@RequestParam("files") MultipartFile[] files,
-                                                         @RequestParam(required = false) String folder) {
-        return ApiResponse.success("Upload success", fileStorageService.storeAssets(files, folder));
+                                                         @RequestParam(required = false) String folder,
+                                                         @RequestParam(name = "post_id", required = false) String postId) {
+        return ApiResponse.success("Upload success", fileStorageService.storeAssets(files, folder, postId));
+    }
+
+    @GetMapping
+    @Operation(summary = "List the media library, newest first")
+    public ApiResponse<CursorPageResponse<AssetEntity>> list(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(name = "post_id", required = false) String postId,
+                                                             @RequestParam(name = "mime_type", required = false) String mimeType) {
+        return ApiResponse.success(assetIndexService.list(cursor, limit, postId, mimeType));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search the media library by file name")
+    public ApiResponse<CursorPageResponse<AssetEntity>> search(@RequestParam String q,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer limit) {
+        return ApiResponse.success(assetIndexService.search(q, cursor, limit));
+    }
+
+    @PostMapping("/uploads")
+    @Operation(summary = "Start a resumable upload")
+    public ApiResponse<UploadSessionResponse> createUpload(@RequestBody @Valid UploadSessionRequest request) {
+        return ApiResponse.success(chunkedUploadService.create(request));
     }
-}
 
+    @GetMapping("/uploads/{uploadId}")
+    @Operation(summary = "Get the received chunks of a resumable upload")
+    public ApiResponse<UploadSessionResponse> uploadStatus(@PathVariable String uploadId) {
+        return ApiResponse.success(chunkedUploadService.status(uploadId));
+    }
+
+    @PutMapping("/uploads/{uploadId}")
+    @Operation(summary = "Upload one chunk of a resumable upload as the raw request body")
+    public ApiResponse<UploadSessionResponse> uploadChunk(@PathVariable String uploadId,
+                                                          @RequestHeader(name = HttpHeaders.CONTENT_RANGE, required = false) String contentRange,
+                                                          @RequestHeader(name = "X-Chunk-Sha256", required = false) String sha256,
+                                                          HttpServletRequest request) throws IOException {
+        return ApiResponse.success(chunkedUploadService.writeChunk(uploadId, contentRange, sha256, request.getInputStream()));
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    @Operation(summary = "Finish a resumable upload once every chunk is stored")
+    public ApiResponse<AssetUploadResponse> completeUpload(@PathVariable String uploadId) {
+        return ApiResponse.success("Upload success", chunkedUploadService.complete(uploadId));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    @Operation(summary = "Cancel a resumable upload")
+    public ApiResponse<Void> cancelUpload(@PathVariable String uploadId) {
+        chunkedUploadService.cancel(uploadId);
+        return ApiResponse.success("Upload cancelled", null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.liquidthoughts.blog.controller;
+
+import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.ErrorCode;
+import com.liquidthoughts.blog.config.S3StorageProperties;
+import com.liquidthoughts.blog.service.AssetStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Serves {@code /uploads/**} when assets live in a bucket, by redirecting to a presigned URL. With the local backend
+ * the upload directory is mapped as static resources instead.
+ */
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Assets")
+@ConditionalOnProperty(prefix = "app.storage", name = "backend", havingValue = "s3")
+public class AssetDownloadController {
+
+    private static final String PREFIX = "/uploads/";
+    private static final Pattern ASSET_KEY = Pattern.compile("[a-zA-Z0-9_-]+(/[a-zA-Z0-9._-]+)*");
+
+    private final AssetStore assetStore;
+    private final S3StorageProperties s3StorageProperties;
+
+    @GetMapping(PREFIX + "**")
+    @Operation(summary = "Redirect to a presigned download URL of an uploaded asset")
+    public ResponseEntity<Void> download(HttpServletRequest request) {
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        String key = path.substring(PREFIX.length());
+        if (!ASSET_KEY.matcher(key).matches() || key.contains("..")) {
+            throw new BizException(ErrorCode.NOT_FOUND, "Asset not found");
+        }
+        return assetStore.downloadUrl(key)
+                .map(url -> ResponseEntity.status(HttpStatus.FOUND)
+                        .location(url)
+                        // Let browsers reuse the redirect for part of the URL's lifetime, never past its expiry.
+                        .cacheControl(CacheControl.maxAge(s3StorageProperties.getPresignTtlMs() / 2, TimeUnit.MILLISECONDS).cachePrivate())
+                        .<Void>build())
+                .orElseThrow(() -> new BizException(ErrorCode.NOT_FOUND, "Asset not found"));
+    }
+}
@@ -51,8 +51,10 @@ public class CategoryController {
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete category")
-    public ApiResponse<Void> delete(@PathVariable Integer id) {
-        categoryService.deleteById(id);
+    public ApiResponse<Void> delete(@PathVariable Integer id,
+                                    @RequestParam(defaultValue = "restrict") String mode,
+                                    @RequestParam(name = "target_id", required = false) Integer targetId) {
+        categoryService.deleteById(id, mode, targetId);
         return ApiResponse.success("Delete success", null);
     }
 }
@@ -0,0 +1,30 @@
+package com.liquidthoughts.blog.controller;
+
+import com.liquidthoughts.blog.common.ApiResponse;
+import com.liquidthoughts.blog.dto.PostTrendResponse;
+import com.liquidthoughts.blog.service.PostAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@Tag(name = "Dashboard")
+public class DashboardController {
+
+    private final PostAnalyticsService postAnalyticsService;
+
+    @GetMapping("/top-posts")
+    @Operation(summary = "Get top posts with daily view sparkline")
+    public ApiResponse<List<PostTrendResponse>> topPosts(@RequestParam(defaultValue = "7") int days,
+                                                         @RequestParam(defaultValue = "10") int limit) {
+        return ApiResponse.success(postAnalyticsService.topPosts(days, limit));
+    }
+}
@@ -0,0 +1,63 @@
+package com.liquidthoughts.blog.controller;
+
+import com.liquidthoughts.blog.service.FeedService;
+import com.liquidthoughts.blog.service.FeedService.FeedDocument;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves the sitemap and feeds at the site root. The ETag and Last-Modified headers let Spring answer conditional
+ * requests with 304 Not Modified.
+ */
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Feeds")
+public class FeedController {
+
+    private static final MediaType RSS = MediaType.parseMediaType("application/rss+xml;charset=UTF-8");
+    private static final MediaType ATOM = MediaType.parseMediaType("application/atom+xml;charset=UTF-8");
+    private static final MediaType XML = MediaType.parseMediaType("application/xml;charset=UTF-8");
+
+    private final FeedService feedService;
+
+    @GetMapping("/sitemap.xml")
+    @Operation(summary = "Get the sitemap, or the sitemap index when it is split")
+    public ResponseEntity<byte[]> sitemap() {
+        return respond(feedService.sitemap(), XML);
+    }
+
+    @GetMapping("/sitemap-{number}.xml")
+    @Operation(summary = "Get one chunk of a split sitemap")
+    public ResponseEntity<byte[]> sitemapChunk(@PathVariable int number) {
+        FeedDocument chunk = feedService.sitemapChunk(number);
+        return chunk == null ? ResponseEntity.notFound().build() : respond(chunk, XML);
+    }
+
+    @GetMapping("/rss.xml")
+    @Operation(summary = "Get the RSS feed of the newest published posts")
+    public ResponseEntity<byte[]> rss() {
+        return respond(feedService.rss(), RSS);
+    }
+
+    @GetMapping("/atom.xml")
+    @Operation(summary = "Get the Atom feed of the newest published posts")
+    public ResponseEntity<byte[]> atom() {
+        return respond(feedService.atom(), ATOM);
+    }
+
+    private ResponseEntity<byte[]> respond(FeedDocument document, MediaType mediaType) {
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .cacheControl(CacheControl.noCache())
+                .eTag(document.etag())
+                .lastModified(document.lastModified())
+                .body(document.body());
+    }
+}
@@ -0,0 +1,82 @@
+package com.liquidthoughts.blog.controller;
+
+import com.liquidthoughts.blog.common.ApiResponse;
+import com.liquidthoughts.blog.dto.BackupManifest;
+import com.liquidthoughts.blog.dto.BackupRestoreResponse;
+import com.liquidthoughts.blog.dto.BackupVerification;
+import com.liquidthoughts.blog.dto.CompactionReport;
+import com.liquidthoughts.blog.dto.MigrationStatusResponse;
+import com.liquidthoughts.blog.dto.StartupReport;
+import com.liquidthoughts.blog.service.BackfillService;
+import com.liquidthoughts.blog.service.BackupService;
+import com.liquidthoughts.blog.service.DatabaseMaintenanceService;
+import com.liquidthoughts.blog.service.SchemaMigrationService;
+import com.liquidthoughts.blog.service.StartupReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/maintenance")
+@RequiredArgsConstructor
+@Tag(name = "Maintenance")
+public class MaintenanceController {
+
+    private final DatabaseMaintenanceService databaseMaintenanceService;
+    private final SchemaMigrationService schemaMigrationService;
+    private final BackfillService backfillService;
+    private final StartupReportService startupReportService;
+    private final BackupService backupService;
+
+    @GetMapping("/migrations")
+    @Operation(summary = "List applied schema migrations and backfill progress")
+    public ApiResponse<MigrationStatusResponse> migrations() {
+        return ApiResponse.success(new MigrationStatusResponse(
+                schemaMigrationService.appliedMigrations(),
+                backfillService.progress()
+        ));
+    }
+
+    @GetMapping("/startup")
+    @Operation(summary = "Get startup timing broken down by bean")
+    public ApiResponse<StartupReport> startup() {
+        return ApiResponse.success(startupReportService.report());
+    }
+
+    @PostMapping("/compact")
+    @Operation(summary = "Remove orphan rows, then VACUUM and ANALYZE")
+    public ApiResponse<CompactionReport> compact() {
+        return ApiResponse.success(databaseMaintenanceService.compact());
+    }
+
+    @PostMapping("/backups")
+    @Operation(summary = "Take an online backup of the database and a snapshot of storage")
+    public ApiResponse<BackupManifest> createBackup() {
+        return ApiResponse.success(backupService.create());
+    }
+
+    @GetMapping("/backups")
+    @Operation(summary = "List backups, newest first")
+    public ApiResponse<List<BackupManifest>> backups() {
+        return ApiResponse.success(backupService.list());
+    }
+
+    @PostMapping("/backups/{id}/verify")
+    @Operation(summary = "Recompute the checksums of a backup and check its database")
+    public ApiResponse<BackupVerification> verifyBackup(@PathVariable String id) {
+        return ApiResponse.success(backupService.verify(id));
+    }
+
+    @PostMapping("/backups/{id}/restore")
+    @Operation(summary = "Restore a verified backup into the restore directory")
+    public ApiResponse<BackupRestoreResponse> restoreBackup(@PathVariable String id) {
+        return ApiResponse.success(backupService.restore(id));
+    }
+}
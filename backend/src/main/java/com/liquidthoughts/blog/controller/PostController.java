@@ -1,16 +1,29 @@
 package com.liquidthoughts.blog.controller;
 
 import com.liquidthoughts.blog.common.ApiResponse;
-import com.liquidthoughts.blog.dto.PagedResponse;
+import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.ErrorCode;
 import com.liquidthoughts.blog.dto.PostMetricResponse;
+import com.liquidthoughts.blog.dto.PostPageResponse;
 import com.liquidthoughts.blog.dto.PostSaveRequest;
+import com.liquidthoughts.blog.dto.PostSuggestionResponse;
+import com.liquidthoughts.blog.dto.RelatedPostResponse;
+import com.liquidthoughts.blog.dto.TagCountResponse;
+import com.liquidthoughts.blog.dto.TrendingPostResponse;
 import com.liquidthoughts.blog.entity.PostEntity;
 import com.liquidthoughts.blog.service.PostMetricService;
+import com.liquidthoughts.blog.service.PostRelatedService;
 import com.liquidthoughts.blog.service.PostService;
+import com.liquidthoughts.blog.service.PostSuggestService;
+import com.liquidthoughts.blog.service.PostTransferService;
+import com.liquidthoughts.blog.service.PostTrendingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -19,7 +32,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -30,25 +46,57 @@ public class PostController {
 
     private final PostService postService;
     private final PostMetricService postMetricService;
+    private final PostTrendingService postTrendingService;
+    private final PostSuggestService postSuggestService;
+    private final PostRelatedService postRelatedService;
+    private final PostTransferService postTransferService;
 
-    @GetMapping
-    @Operation(summary = "Get post list")
-    public ApiResponse<List<PostEntity>> list() {
-        return ApiResponse.success(postService.listAll());
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get post list, streamed row by row")
+    public ResponseEntity<StreamingResponseBody> list() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(postService::writeAll);
     }
 
     @GetMapping("/page")
     @Operation(summary = "Get post page")
-    public ApiResponse<PagedResponse<PostEntity>> page(@RequestParam(defaultValue = "1") long page,
-                                                       @RequestParam(name = "page_size", defaultValue = "10") long pageSize,
-                                                       @RequestParam(required = false) String keyword,
-                                                       @RequestParam(required = false) String status,
-                                                       @RequestParam(name = "category_id", required = false) Integer categoryId,
-                                                       @RequestParam(name = "created_from", required = false) String createdFrom,
-                                                       @RequestParam(name = "created_to", required = false) String createdTo,
-                                                       @RequestParam(name = "updated_from", required = false) String updatedFrom,
-                                                       @RequestParam(name = "updated_to", required = false) String updatedTo) {
-        return ApiResponse.success(postService.listPage(page, pageSize, keyword, status, categoryId, createdFrom, createdTo, updatedFrom, updatedTo));
+    public ApiResponse<PostPageResponse> page(@RequestParam(defaultValue = "1") long page,
+                                              @RequestParam(name = "page_size", defaultValue = "10") long pageSize,
+                                              @RequestParam(required = false) String keyword,
+                                              @RequestParam(required = false) String status,
+                                              @RequestParam(name = "category_id", required = false) Integer categoryId,
+                                              @RequestParam(name = "created_from", required = false) String createdFrom,
+                                              @RequestParam(name = "created_to", required = false) String createdTo,
+                                              @RequestParam(name = "updated_from", required = false) String updatedFrom,
+                                              @RequestParam(name = "updated_to", required = false) String updatedTo,
+                                              @RequestParam(required = false) List<String> tags,
+                                              @RequestParam(name = "tag_mode", defaultValue = "all") String tagMode,
+                                              @RequestParam(defaultValue = "false") boolean facets) {
+        if (!"all".equals(tagMode) && !"any".equals(tagMode)) {
+            throw new BizException(ErrorCode.BAD_REQUEST, "tag_mode must be all or any");
+        }
+        return ApiResponse.success(postService.listPage(page, pageSize, keyword, status, categoryId, createdFrom, createdTo,
+                updatedFrom, updatedTo, tags, "any".equals(tagMode), facets));
+    }
+
+    @GetMapping("/tags")
+    @Operation(summary = "Get tags with their post counts")
+    public ApiResponse<List<TagCountResponse>> tags(@RequestParam(required = false) String status) {
+        return ApiResponse.success(postService.tagCounts(status));
+    }
+
+    @GetMapping("/trending")
+    @Operation(summary = "Get trending posts")
+    public ApiResponse<List<TrendingPostResponse>> trending(@RequestParam(defaultValue = "10") int limit) {
+        return ApiResponse.success(postTrendingService.trending(limit));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest published post titles for a search prefix")
+    public ApiResponse<List<PostSuggestionResponse>> suggest(@RequestParam(defaultValue = "") String q,
+                                                             @RequestParam(defaultValue = "10") int limit) {
+        return ApiResponse.success(postSuggestService.suggest(q, limit));
     }
 
     @PostMapping
@@ -57,6 +105,24 @@ public class PostController {
         return ApiResponse.success("Save success", postService.save(request));
     }
 
+    @PostMapping(value = "/import", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk import posts from NDJSON, streaming progress lines")
+    public ResponseEntity<StreamingResponseBody> importPosts(HttpServletRequest request) throws IOException {
+        InputStream input = request.getInputStream();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> postTransferService.importPosts(input, output));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk export posts as NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportPosts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"posts.ndjson\"")
+                .body(postTransferService::exportPosts);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete post")
     public ApiResponse<Void> delete(@PathVariable String id) {
@@ -64,6 +130,13 @@ public class PostController {
         return ApiResponse.success("Delete success", null);
     }
 
+    @GetMapping("/{id}/related")
+    @Operation(summary = "Get posts most similar to a published post")
+    public ApiResponse<List<RelatedPostResponse>> related(@PathVariable String id,
+                                                          @RequestParam(defaultValue = "5") int limit) {
+        return ApiResponse.success(postRelatedService.related(id, limit));
+    }
+
     @PostMapping("/{id}/view")
     @Operation(summary = "Increase post view count")
     public ApiResponse<PostMetricResponse> increaseView(@PathVariable String id) {
@@ -0,0 +1,61 @@
+package com.liquidthoughts.blog.controller;
+
+import com.liquidthoughts.blog.common.ApiResponse;
+import com.liquidthoughts.blog.dto.PostDraftRequest;
+import com.liquidthoughts.blog.dto.PostRevisionResponse;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.service.PostRevisionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/posts/{postId}")
+@RequiredArgsConstructor
+@Tag(name = "Post Revisions")
+public class PostRevisionController {
+
+    private final PostRevisionService postRevisionService;
+
+    @PostMapping("/autosave")
+    @Operation(summary = "Autosave post draft as a revision")
+    public ApiResponse<PostRevisionResponse> autosave(@PathVariable String postId,
+                                                      @RequestBody @Valid PostDraftRequest request) {
+        return ApiResponse.success("Autosave success", postRevisionService.autosave(postId, request));
+    }
+
+    @GetMapping("/revisions")
+    @Operation(summary = "Get post revision list")
+    public ApiResponse<List<PostRevisionResponse>> list(@PathVariable String postId) {
+        return ApiResponse.success(postRevisionService.list(postId));
+    }
+
+    @GetMapping("/revisions/{revisionId}")
+    @Operation(summary = "Get post revision with content")
+    public ApiResponse<PostRevisionResponse> get(@PathVariable String postId, @PathVariable Long revisionId) {
+        return ApiResponse.success(postRevisionService.get(postId, revisionId));
+    }
+
+    @PostMapping("/revisions/{revisionId}/restore")
+    @Operation(summary = "Restore post revision as latest draft")
+    public ApiResponse<PostRevisionResponse> restore(@PathVariable String postId, @PathVariable Long revisionId) {
+        return ApiResponse.success("Restore success", postRevisionService.restore(postId, revisionId));
+    }
+
+    @PostMapping("/publish")
+    @Operation(summary = "Publish latest or given revision into the post")
+    public ApiResponse<PostEntity> publish(@PathVariable String postId,
+                                           @RequestParam(name = "revision_id", required = false) Long revisionId) {
+        return ApiResponse.success("Publish success", postRevisionService.publish(postId, revisionId));
+    }
+}
@@ -0,0 +1,42 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BackfillProgress {
+
+    private String name;
+
+    /**
+     * One of pending, running, completed or failed.
+     */
+    private String status;
+
+    private long processed;
+
+    private long remaining;
+
+    private String startedAt;
+
+    private String finishedAt;
+
+    private String error;
+
+    public BackfillProgress(String name) {
+        this.name = name;
+        this.status = "pending";
+    }
+
+    public BackfillProgress copy() {
+        BackfillProgress copy = new BackfillProgress(name);
+        copy.setStatus(status);
+        copy.setProcessed(processed);
+        copy.setRemaining(remaining);
+        copy.setStartedAt(startedAt);
+        copy.setFinishedAt(finishedAt);
+        copy.setError(error);
+        return copy;
+    }
+}
@@ -0,0 +1,22 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackupFileEntry {
+
+    /**
+     * Path relative to the backup directory for the database, or to the storage root for storage files.
+     */
+    private String path;
+
+    private long size;
+
+    private long lastModified;
+
+    private String sha256;
+}
@@ -0,0 +1,34 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Describes one backup: the database copy and the storage snapshot taken right after it, with a checksum per file.
+ * Storage is snapshotted after the database, so every file the database copy refers to is part of the snapshot.
+ */
+@Data
+public class BackupManifest {
+
+    private String id;
+
+    private String createdAt;
+
+    private long durationMs;
+
+    private int schemaVersion;
+
+    private long databasePages;
+
+    private BackupFileEntry database;
+
+    private List<BackupFileEntry> files;
+
+    /**
+     * Storage files hard-linked into the snapshot; the rest were copied.
+     */
+    private int linkedFiles;
+
+    private int copiedFiles;
+}
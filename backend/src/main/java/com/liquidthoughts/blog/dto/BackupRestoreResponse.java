@@ -0,0 +1,21 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BackupRestoreResponse {
+
+    private String id;
+
+    /**
+     * Restored database file, to be used as {@code BLOG_DB_PATH}.
+     */
+    private String databasePath;
+
+    /**
+     * Restored storage root, to be used as {@code BLOG_STORAGE_PATH}.
+     */
+    private String storagePath;
+}
@@ -0,0 +1,17 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BackupVerification {
+
+    private String id;
+
+    private boolean valid;
+
+    private List<String> problems;
+}
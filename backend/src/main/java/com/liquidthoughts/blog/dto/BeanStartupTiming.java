@@ -0,0 +1,23 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeanStartupTiming {
+
+    private String beanName;
+
+    /**
+     * Time spent creating the bean including the dependencies it triggered.
+     */
+    private long totalMs;
+
+    /**
+     * Time spent in the bean itself, with nested bean creation subtracted.
+     */
+    private long selfMs;
+}
@@ -0,0 +1,19 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CompactionReport {
+
+    private int reassignedPosts;
+
+    private int deletedMetrics;
+
+    private int deletedRevisions;
+
+    private int deletedMetricBuckets;
+
+    private long durationMs;
+}
@@ -0,0 +1,18 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    private List<T> records;
+
+    /**
+     * Cursor to pass for the next page; null on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,17 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MigrationStatusResponse {
+
+    private List<SchemaMigrationResponse> migrations;
+
+    private List<BackfillProgress> backfills;
+}
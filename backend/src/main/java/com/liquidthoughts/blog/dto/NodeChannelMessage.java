@@ -0,0 +1,31 @@
+package com.liquidthoughts.blog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.liquidthoughts.blog.entity.PostEntity;
+import lombok.Data;
+
+/**
+ * One line of the node channel. {@code type} is {@code generation}, {@code post}, {@code metric},
+ * {@code categories}, {@code configs} or {@code tokens}; only the fields of that type are set.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NodeChannelMessage {
+
+    private String type;
+
+    private String postId;
+
+    /**
+     * State of the post before the change, without its content; null for a new post.
+     */
+    private PostEntity previous;
+
+    private boolean contentChanged;
+
+    private int viewDelta;
+
+    private int likeDelta;
+
+    private long occurredAt;
+}
@@ -0,0 +1,24 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Post counts per filter value for a page query. Each facet applies every filter of the query except its own, so
+ * the status counts show what choosing another status would return; values without posts are left out.
+ */
+@Data
+@AllArgsConstructor
+public class PostFacets {
+
+    private Map<String, Long> status;
+
+    private Map<Integer, Long> category;
+
+    /**
+     * Tags of the matching posts, most used first.
+     */
+    private Map<String, Long> tags;
+}
@@ -0,0 +1,21 @@
+package com.liquidthoughts.blog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostImportProgress {
+
+    private long line;
+
+    private long imported;
+
+    private long failed;
+
+    private String error;
+
+    private Boolean done;
+}
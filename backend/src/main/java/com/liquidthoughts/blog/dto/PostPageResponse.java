@@ -0,0 +1,24 @@
+package com.liquidthoughts.blog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.liquidthoughts.blog.entity.PostEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostPageResponse extends PagedResponse<PostEntity> {
+
+    /**
+     * Only filled when the query asked for facets.
+     */
+    private PostFacets facets;
+
+    public PostPageResponse(List<PostEntity> records, long total, long page, long pageSize, PostFacets facets) {
+        super(records, total, page, pageSize);
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,38 @@
+package com.liquidthoughts.blog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostRevisionResponse {
+
+    private Long id;
+
+    private String postId;
+
+    private String kind;
+
+    private String title;
+
+    private String summary;
+
+    private String status;
+
+    private Integer categoryId;
+
+    /**
+     * Materialized content, only filled when a single revision is requested.
+     */
+    private String content;
+
+    private int contentLength;
+
+    private int storedLength;
+
+    private boolean published;
+
+    private String createdAt;
+}
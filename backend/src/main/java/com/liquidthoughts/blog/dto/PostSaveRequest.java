@@ -5,6 +5,8 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class PostSaveRequest {
 
@@ -25,4 +27,9 @@ public class PostSaveRequest {
 
     @NotNull(message = "category_id is required")
     private Integer categoryId;
+
+    /**
+     * Tags of the post; when omitted, the tags of an existing post are kept.
+     */
+    private List<String> tags;
 }
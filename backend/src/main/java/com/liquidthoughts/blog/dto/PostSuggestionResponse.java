@@ -0,0 +1,17 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PostSuggestionResponse {
+
+    private String id;
+
+    private String title;
+
+    private int viewCount;
+
+    private int likeCount;
+}
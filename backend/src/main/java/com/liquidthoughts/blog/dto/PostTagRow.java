@@ -0,0 +1,13 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.Data;
+
+/**
+ * One tag of one post, as read from {@code post_tags}.
+ */
+@Data
+public class PostTagRow {
+
+    private String postId;
+    private String name;
+}
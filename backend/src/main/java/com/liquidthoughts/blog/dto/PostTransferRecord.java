@@ -0,0 +1,48 @@
+package com.liquidthoughts.blog.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One line of the NDJSON post import/export format.
+ */
+@Data
+public class PostTransferRecord {
+
+    private String id;
+
+    @NotBlank(message = "title is required")
+    private String title;
+
+    @NotBlank(message = "content is required")
+    private String content;
+
+    @NotBlank(message = "summary is required")
+    private String summary;
+
+    @NotBlank(message = "status is required")
+    @Pattern(regexp = "draft|published", message = "status must be draft or published")
+    private String status;
+
+    @NotNull(message = "category_id is required")
+    private Integer categoryId;
+
+    /**
+     * ISO-8601; the import time when absent. A post that already exists keeps its creation time.
+     */
+    private String createdAt;
+
+    /**
+     * ISO-8601; the import time when absent.
+     */
+    private String updatedAt;
+
+    /**
+     * Tag names; an absent field keeps the tags an existing post already has.
+     */
+    private List<String> tags;
+}
@@ -0,0 +1,24 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PostTrendResponse {
+
+    private String postId;
+
+    private String title;
+
+    private long viewCount;
+
+    private long likeCount;
+
+    /**
+     * Daily view counts, oldest day first.
+     */
+    private List<Long> sparkline;
+}
@@ -0,0 +1,24 @@
+package com.liquidthoughts.blog.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.liquidthoughts.blog.common.EpochMillis;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RelatedPostResponse {
+
+    private String id;
+
+    private String title;
+
+    private String summary;
+
+    private Integer categoryId;
+
+    @JsonSerialize(using = EpochMillis.Serializer.class)
+    private Long createdAt;
+
+    private double score;
+}
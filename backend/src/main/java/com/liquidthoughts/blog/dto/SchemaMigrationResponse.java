@@ -0,0 +1,19 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaMigrationResponse {
+
+    private int version;
+
+    private String description;
+
+    private String appliedAt;
+
+    private long durationMs;
+}
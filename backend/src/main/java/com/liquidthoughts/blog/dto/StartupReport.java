@@ -0,0 +1,24 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StartupReport {
+
+    /**
+     * JVM uptime when the application reported ready.
+     */
+    private long readyMs;
+
+    private long contextRefreshMs;
+
+    private int beanCount;
+
+    private List<BeanStartupTiming> slowestBeans;
+}
@@ -0,0 +1,12 @@
+package com.liquidthoughts.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TagCountResponse {
+
+    private String name;
+    private long postCount;
+}
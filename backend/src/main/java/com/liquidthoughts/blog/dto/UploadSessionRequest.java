@@ -0,0 +1,21 @@
+package com.liquidthoughts.blog.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class UploadSessionRequest {
+
+    @NotBlank(message = "file_name is required")
+    private String fileName;
+
+    @NotNull(message = "size is required")
+    @Positive(message = "size must be positive")
+    private Long size;
+
+    private String folder;
+
+    private String postId;
+}
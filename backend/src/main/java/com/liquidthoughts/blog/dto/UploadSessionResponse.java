@@ -0,0 +1,32 @@
+package com.liquidthoughts.blog.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.liquidthoughts.blog.common.EpochMillis;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * State of a resumable upload. Chunk {@code i} covers bytes {@code i * chunk_size} up to the next chunk or the end of
+ * the file; {@code received_chunks} lists the chunks already stored, in order.
+ */
+@Data
+@AllArgsConstructor
+public class UploadSessionResponse {
+
+    private String uploadId;
+
+    private String fileName;
+
+    private long size;
+
+    private int chunkSize;
+
+    private int chunkCount;
+
+    private List<Integer> receivedChunks;
+
+    @JsonSerialize(using = EpochMillis.Serializer.class)
+    private Long expiresAt;
+}
@@ -0,0 +1,53 @@
+package com.liquidthoughts.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.liquidthoughts.blog.common.EpochMillis;
+import lombok.Data;
+
+@Data
+@TableName("assets")
+public class AssetEntity {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * Key of the asset under {@code /uploads/}, such as {@code articles/202601/<name>.png}.
+     */
+    private String path;
+
+    @TableField("original_name")
+    private String originalName;
+
+    private Long size;
+
+    private String sha256;
+
+    @TableField("mime_type")
+    private String mimeType;
+
+    /**
+     * Pixel dimensions of images whose format the JDK can read; null for everything else.
+     */
+    private Integer width;
+
+    private Integer height;
+
+    /**
+     * Post the asset was uploaded for, or the first post found linking to it.
+     */
+    @TableField("post_id")
+    private String postId;
+
+    @TableField("created_at")
+    @JsonSerialize(using = EpochMillis.Serializer.class)
+    private Long createdAt;
+
+    public String getUrl() {
+        return "/uploads/" + path;
+    }
+}
@@ -1,8 +1,12 @@
 package com.liquidthoughts.blog.entity;
 
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.liquidthoughts.blog.common.EpochMillis;
 import lombok.Data;
 
 @Data
@@ -21,4 +25,12 @@ public class CategoryEntity {
     private String icon;
 
     private String color;
+
+    @TableField(exist = false)
+    private Integer postCount;
+
+    @TableField(exist = false)
+    @JsonSerialize(using = EpochMillis.Serializer.class)
+    @JsonDeserialize(using = EpochMillis.Deserializer.class)
+    private Long latestPostAt;
 }
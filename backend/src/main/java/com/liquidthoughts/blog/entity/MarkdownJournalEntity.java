@@ -0,0 +1,24 @@
+package com.liquidthoughts.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+@Data
+@TableName("markdown_journal")
+public class MarkdownJournalEntity {
+
+    @TableId(value = "post_id", type = IdType.INPUT)
+    private String postId;
+
+    /**
+     * SHA-256 of the content the mirror must converge to, or null when the mirror file must be removed.
+     */
+    @TableField("content_hash")
+    private String contentHash;
+
+    @TableField("queued_at")
+    private String queuedAt;
+}
@@ -4,8 +4,13 @@ import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.liquidthoughts.blog.common.EpochMillis;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 @TableName("posts")
 public class PostEntity {
@@ -25,14 +30,28 @@ public class PostEntity {
     private Integer categoryId;
 
     @TableField("created_at")
-    private String createdAt;
+    @JsonSerialize(using = EpochMillis.Serializer.class)
+    @JsonDeserialize(using = EpochMillis.Deserializer.class)
+    private Long createdAt;
 
     @TableField("updated_at")
-    private String updatedAt;
+    @JsonSerialize(using = EpochMillis.Serializer.class)
+    @JsonDeserialize(using = EpochMillis.Deserializer.class)
+    private Long updatedAt;
+
+    @TableField("word_count")
+    private Integer wordCount;
 
     @TableField(exist = false)
     private Integer viewCount;
 
     @TableField(exist = false)
     private Integer likeCount;
+
+    /**
+     * Normalized tag names, stored in {@code post_tags}. Null on posts read without their tags, and in change events
+     * of writers that left the tags alone.
+     */
+    @TableField(exist = false)
+    private List<String> tags;
 }
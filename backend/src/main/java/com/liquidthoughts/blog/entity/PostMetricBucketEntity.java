@@ -0,0 +1,24 @@
+package com.liquidthoughts.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+@Data
+@TableName("post_metric_buckets")
+public class PostMetricBucketEntity {
+
+    @TableField("post_id")
+    private String postId;
+
+    private String granularity;
+
+    @TableField("bucket_start")
+    private Long bucketStart;
+
+    @TableField("view_count")
+    private Long viewCount;
+
+    @TableField("like_count")
+    private Long likeCount;
+}
@@ -1,5 +1,6 @@
 package com.liquidthoughts.blog.entity;
 
+import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
@@ -9,7 +10,13 @@ import lombok.Data;
 @TableName("post_metrics")
 public class PostMetricEntity {
 
-    @TableId("post_id")
+    @TableId(value = "post_row_id", type = IdType.INPUT)
+    private Long postRowId;
+
+    /**
+     * Public id of the post, filled in by the queries that join {@code posts}.
+     */
+    @TableField(exist = false)
     private String postId;
 
     @TableField("view_count")
@@ -0,0 +1,45 @@
+package com.liquidthoughts.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+@Data
+@TableName("post_revisions")
+public class PostRevisionEntity {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    @TableField("post_id")
+    private String postId;
+
+    /**
+     * {@code snapshot} rows hold the full content, {@code delta} rows a splice against {@code baseRevisionId}.
+     */
+    private String kind;
+
+    @TableField("base_revision_id")
+    private Long baseRevisionId;
+
+    private String title;
+
+    private String summary;
+
+    private String status;
+
+    @TableField("category_id")
+    private Integer categoryId;
+
+    private String payload;
+
+    @TableField("content_length")
+    private Integer contentLength;
+
+    private Boolean published;
+
+    @TableField("created_at")
+    private String createdAt;
+}
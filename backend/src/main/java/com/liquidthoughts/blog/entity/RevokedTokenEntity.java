@@ -0,0 +1,24 @@
+package com.liquidthoughts.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+@Data
+@TableName("revoked_tokens")
+public class RevokedTokenEntity {
+
+    /**
+     * SHA-256 of the revoked token, so the table never holds a usable credential.
+     */
+    @TableId(value = "token_hash", type = IdType.INPUT)
+    private String tokenHash;
+
+    /**
+     * Epoch millis after which the token would be rejected anyway and the row can be dropped.
+     */
+    @TableField("expires_at")
+    private Long expiresAt;
+}
@@ -0,0 +1,19 @@
+package com.liquidthoughts.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+@Data
+@TableName("tags")
+public class TagEntity {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * Normalized name: trimmed, inner whitespace collapsed to one space and ASCII letters lowercased.
+     */
+    private String name;
+}
@@ -0,0 +1,43 @@
+package com.liquidthoughts.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+@Data
+@TableName("upload_sessions")
+public class UploadSessionEntity {
+
+    @TableId(type = IdType.INPUT)
+    private String id;
+
+    @TableField("file_name")
+    private String fileName;
+
+    /**
+     * Upload folder the finished file is moved into, relative to the upload directory.
+     */
+    private String folder;
+
+    private Long size;
+
+    @TableField("chunk_size")
+    private Integer chunkSize;
+
+    /**
+     * Post the finished asset is recorded for, if the client named one.
+     */
+    @TableField("post_id")
+    private String postId;
+
+    @TableField("created_at")
+    private Long createdAt;
+
+    /**
+     * Epoch millis of the last received chunk; sessions idle longer than the upload session TTL are discarded.
+     */
+    @TableField("updated_at")
+    private Long updatedAt;
+}
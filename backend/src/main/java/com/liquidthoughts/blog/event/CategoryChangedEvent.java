@@ -0,0 +1,8 @@
+package com.liquidthoughts.blog.event;
+
+/**
+ * Published after categories were created, updated or deleted, or after posts were moved between categories
+ * outside {@code PostService}.
+ */
+public class CategoryChangedEvent {
+}
@@ -0,0 +1,7 @@
+package com.liquidthoughts.blog.event;
+
+/**
+ * Published after a site config was created or updated.
+ */
+public class ConfigChangedEvent {
+}
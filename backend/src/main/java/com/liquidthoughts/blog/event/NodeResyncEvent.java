@@ -0,0 +1,8 @@
+package com.liquidthoughts.blog.event;
+
+/**
+ * Published on a reader node when the writer restarted or rotated the node channel, so changes may have been missed.
+ * Every in-memory index rebuilds itself from the database.
+ */
+public class NodeResyncEvent {
+}
@@ -0,0 +1,25 @@
+package com.liquidthoughts.blog.event;
+
+import com.liquidthoughts.blog.entity.PostEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a post is created, updated or deleted.
+ * {@code previous} is null for a new post and {@code current} is null for a deleted one.
+ */
+@Getter
+@AllArgsConstructor
+public class PostChangedEvent {
+
+    private final PostEntity previous;
+    private final PostEntity current;
+
+    public String getPostId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+
+    public boolean isDeleted() {
+        return current == null;
+    }
+}
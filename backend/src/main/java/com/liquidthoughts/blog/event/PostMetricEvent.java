@@ -0,0 +1,17 @@
+package com.liquidthoughts.blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a view or like counter of a post changes.
+ */
+@Getter
+@AllArgsConstructor
+public class PostMetricEvent {
+
+    private final String postId;
+    private final int viewDelta;
+    private final int likeDelta;
+    private final long occurredAt;
+}
@@ -0,0 +1,14 @@
+package com.liquidthoughts.blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a login token was revoked. Only the SHA-256 of the token is carried.
+ */
+@Getter
+@AllArgsConstructor
+public class TokenRevokedEvent {
+
+    private final String tokenHash;
+}
@@ -0,0 +1,67 @@
+package com.liquidthoughts.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.liquidthoughts.blog.entity.AssetEntity;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+public interface AssetMapper extends BaseMapper<AssetEntity> {
+
+    /**
+     * Records an asset stored by the app. A row the reconciler created first for the same file keeps its id but
+     * takes the upload's name and post.
+     */
+    @Insert("INSERT INTO assets (path, original_name, size, sha256, mime_type, width, height, post_id, created_at) "
+            + "VALUES (#{path}, #{originalName}, #{size}, #{sha256}, #{mimeType}, #{width}, #{height}, #{postId}, #{createdAt}) "
+            + "ON CONFLICT (path) DO UPDATE SET original_name = excluded.original_name, size = excluded.size, "
+            + "sha256 = excluded.sha256, mime_type = excluded.mime_type, width = excluded.width, "
+            + "height = excluded.height, post_id = COALESCE(excluded.post_id, assets.post_id)")
+    int upsert(AssetEntity asset);
+
+    /**
+     * Records a file found in the upload directory. Name and post of an existing row are kept.
+     */
+    @Insert("INSERT INTO assets (path, original_name, size, sha256, mime_type, width, height, created_at) "
+            + "VALUES (#{path}, #{originalName}, #{size}, #{sha256}, #{mimeType}, #{width}, #{height}, #{createdAt}) "
+            + "ON CONFLICT (path) DO UPDATE SET size = excluded.size, sha256 = excluded.sha256, "
+            + "mime_type = excluded.mime_type, width = excluded.width, height = excluded.height")
+    int upsertDiscovered(AssetEntity asset);
+
+    @Select("SELECT size FROM assets WHERE path = #{path}")
+    Long selectSizeByPath(@Param("path") String path);
+
+    @Select("SELECT path FROM assets")
+    List<String> selectPaths();
+
+    /**
+     * Removes the asset at {@code path}, or every asset below it when it was a directory.
+     */
+    @Delete("DELETE FROM assets WHERE path = #{path} OR path LIKE #{pathPrefix} ESCAPE '\\'")
+    int deleteByPath(@Param("path") String path, @Param("pathPrefix") String pathPrefix);
+
+    @Update("<script>"
+            + "UPDATE assets SET post_id = #{postId} WHERE post_id IS NULL AND path IN "
+            + "<foreach collection='paths' item='path' open='(' separator=',' close=')'>#{path}</foreach>"
+            + "</script>")
+    int claimForPost(@Param("postId") String postId, @Param("paths") List<String> paths);
+
+    /**
+     * One page of the media library, newest first. {@code cursor} is the id of the last row of the previous page;
+     * patterns are LIKE patterns escaped with a backslash.
+     */
+    @Select("<script>"
+            + "SELECT * FROM assets WHERE 1 = 1"
+            + "<if test='cursor != null'> AND id &lt; #{cursor}</if>"
+            + "<if test='postId != null'> AND post_id = #{postId}</if>"
+            + "<if test='mimePattern != null'> AND mime_type LIKE #{mimePattern} ESCAPE '\\'</if>"
+            + "<if test='namePattern != null'> AND (original_name LIKE #{namePattern} ESCAPE '\\' OR path LIKE #{namePattern} ESCAPE '\\')</if>"
+            + " ORDER BY id DESC LIMIT #{limit}"
+            + "</script>")
+    List<AssetEntity> selectPage(@Param("cursor") Long cursor, @Param("limit") int limit, @Param("postId") String postId,
+                                 @Param("mimePattern") String mimePattern, @Param("namePattern") String namePattern);
+}
@@ -2,6 +2,17 @@ package com.liquidthoughts.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.liquidthoughts.blog.entity.CategoryEntity;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 public interface CategoryMapper extends BaseMapper<CategoryEntity> {
+
+    @Select("SELECT category_id AS id, COUNT(*) AS post_count, MAX(created_at) AS latest_post_at "
+            + "FROM posts WHERE status = 'published' GROUP BY category_id")
+    List<CategoryEntity> selectPublishedStats();
+
+    @Select("SELECT MAX(created_at) FROM posts WHERE status = 'published' AND category_id = #{categoryId}")
+    Long selectLatestPublishedAt(@Param("categoryId") Integer categoryId);
 }
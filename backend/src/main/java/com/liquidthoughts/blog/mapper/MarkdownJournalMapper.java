@@ -0,0 +1,21 @@
+package com.liquidthoughts.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.liquidthoughts.blog.entity.MarkdownJournalEntity;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+public interface MarkdownJournalMapper extends BaseMapper<MarkdownJournalEntity> {
+
+    @Insert("<script>"
+            + "INSERT OR REPLACE INTO markdown_journal (post_id, content_hash, queued_at) VALUES "
+            + "<foreach collection='entries' item='e' separator=','>(#{e.postId}, #{e.contentHash}, #{e.queuedAt})</foreach>"
+            + "</script>")
+    int upsertBatch(@Param("entries") List<MarkdownJournalEntity> entries);
+
+    @Delete("DELETE FROM markdown_journal WHERE post_id = #{postId} AND content_hash IS #{contentHash}")
+    int deleteIfCurrent(@Param("postId") String postId, @Param("contentHash") String contentHash);
+}
@@ -2,6 +2,45 @@ package com.liquidthoughts.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.liquidthoughts.blog.entity.PostEntity;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.util.List;
 
 public interface PostMapper extends BaseMapper<PostEntity> {
+
+    @Insert("<script>"
+            + "INSERT INTO posts (id, title, content, summary, status, category_id, created_at, updated_at, word_count) VALUES "
+            + "<foreach collection='posts' item='p' separator=','>"
+            + "(#{p.id}, #{p.title}, #{p.content}, #{p.summary}, #{p.status}, #{p.categoryId}, #{p.createdAt}, #{p.updatedAt}, #{p.wordCount})"
+            + "</foreach>"
+            + " ON CONFLICT (id) DO UPDATE SET title = excluded.title, content = excluded.content, "
+            + "summary = excluded.summary, status = excluded.status, category_id = excluded.category_id, "
+            + "updated_at = excluded.updated_at, word_count = excluded.word_count"
+            + "</script>")
+    int upsertBatch(@Param("posts") List<PostEntity> posts);
+
+    @Select("SELECT p.id, p.title, p.content, p.summary, p.status, p.category_id, p.created_at, p.updated_at, p.word_count, "
+            + "COALESCE(m.view_count, 0) AS view_count, COALESCE(m.like_count, 0) AS like_count "
+            + "FROM posts p LEFT JOIN post_metrics m ON m.post_row_id = p.row_id "
+            + "ORDER BY p.created_at DESC")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 200)
+    Cursor<PostEntity> streamAllWithMetrics();
+
+    @Select("SELECT id, content FROM posts WHERE word_count IS NULL ORDER BY id LIMIT #{limit}")
+    List<PostEntity> selectMissingWordCount(@Param("limit") int limit);
+
+    @Select("SELECT EXISTS (SELECT 1 FROM posts WHERE id = #{id})")
+    boolean existsById(@Param("id") String id);
+
+    @Select("SELECT COUNT(*) FROM posts WHERE word_count IS NULL")
+    long countMissingWordCount();
+
+    @Update("UPDATE posts SET word_count = #{wordCount} WHERE id = #{id} AND word_count IS NULL")
+    int updateMissingWordCount(@Param("id") String id, @Param("wordCount") int wordCount);
 }
@@ -0,0 +1,64 @@
+package com.liquidthoughts.blog.mapper;
+
+import com.liquidthoughts.blog.entity.PostMetricBucketEntity;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+public interface PostMetricBucketMapper {
+
+    @Insert("<script>"
+            + "INSERT INTO post_metric_buckets (post_id, granularity, bucket_start, view_count, like_count) VALUES "
+            + "<foreach collection='buckets' item='b' separator=','>"
+            + "(#{b.postId}, #{b.granularity}, #{b.bucketStart}, #{b.viewCount}, #{b.likeCount})"
+            + "</foreach>"
+            + " ON CONFLICT (post_id, granularity, bucket_start) DO UPDATE SET "
+            + "view_count = view_count + excluded.view_count, like_count = like_count + excluded.like_count"
+            + "</script>")
+    int upsertBuckets(@Param("buckets") List<PostMetricBucketEntity> buckets);
+
+    @Insert("INSERT INTO post_metric_buckets (post_id, granularity, bucket_start, view_count, like_count) "
+            + "SELECT post_id, 'day', (bucket_start / 86400000) * 86400000, SUM(view_count), SUM(like_count) "
+            + "FROM post_metric_buckets WHERE granularity = 'hour' AND bucket_start < #{before} "
+            + "GROUP BY post_id, (bucket_start / 86400000) "
+            + "ON CONFLICT (post_id, granularity, bucket_start) DO UPDATE SET "
+            + "view_count = view_count + excluded.view_count, like_count = like_count + excluded.like_count")
+    int rollUpHoursIntoDays(@Param("before") long before);
+
+    @Insert("INSERT INTO post_metric_buckets (post_id, granularity, bucket_start, view_count, like_count) "
+            + "SELECT post_id, 'month', "
+            + "CAST(strftime('%s', date(bucket_start / 1000, 'unixepoch', 'start of month')) AS INTEGER) * 1000, "
+            + "SUM(view_count), SUM(like_count) "
+            + "FROM post_metric_buckets WHERE granularity = 'day' AND bucket_start < #{before} "
+            + "GROUP BY post_id, date(bucket_start / 1000, 'unixepoch', 'start of month') "
+            + "ON CONFLICT (post_id, granularity, bucket_start) DO UPDATE SET "
+            + "view_count = view_count + excluded.view_count, like_count = like_count + excluded.like_count")
+    int rollUpDaysIntoMonths(@Param("before") long before);
+
+    @Delete("DELETE FROM post_metric_buckets WHERE granularity = #{granularity} AND bucket_start < #{before}")
+    int deleteBefore(@Param("granularity") String granularity, @Param("before") long before);
+
+    @Delete("DELETE FROM post_metric_buckets WHERE post_id = #{postId}")
+    int deleteByPostId(@Param("postId") String postId);
+
+    @Select("SELECT post_id, SUM(view_count) AS view_count, SUM(like_count) AS like_count "
+            + "FROM post_metric_buckets WHERE granularity IN ('hour', 'day') AND bucket_start >= #{since} "
+            + "GROUP BY post_id ORDER BY view_count DESC, like_count DESC LIMIT #{limit}")
+    List<PostMetricBucketEntity> selectTopPosts(@Param("since") long since, @Param("limit") int limit);
+
+    @Select("<script>"
+            + "SELECT post_id, (bucket_start / 86400000) * 86400000 AS bucket_start, "
+            + "SUM(view_count) AS view_count, SUM(like_count) AS like_count "
+            + "FROM post_metric_buckets WHERE granularity IN ('hour', 'day') AND bucket_start >= #{since} "
+            + "AND post_id IN <foreach collection='postIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> "
+            + "GROUP BY post_id, (bucket_start / 86400000)"
+            + "</script>")
+    List<PostMetricBucketEntity> selectDailySeries(@Param("postIds") List<String> postIds, @Param("since") long since);
+
+    @Select("SELECT post_id, granularity, bucket_start, view_count, like_count FROM post_metric_buckets "
+            + "WHERE granularity IN ('hour', 'day') AND bucket_start >= #{since}")
+    List<PostMetricBucketEntity> selectRecentBuckets(@Param("since") long since);
+}
@@ -2,17 +2,58 @@ package com.liquidthoughts.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.liquidthoughts.blog.entity.PostMetricEntity;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.util.List;
+
+/**
+ * {@code post_metrics} is keyed by the integer rowid of the post. Callers pass public post ids, which are resolved
+ * through the unique index on {@code posts.id}.
+ */
 public interface PostMetricMapper extends BaseMapper<PostMetricEntity> {
 
-    @Update("UPDATE post_metrics SET view_count = view_count + 1, updated_at = #{updatedAt} WHERE post_id = #{postId}")
+    String POST_ROW_ID = "(SELECT row_id FROM posts WHERE id = #{postId})";
+
+    @Select("SELECT m.post_row_id, p.id AS post_id, m.view_count, m.like_count, m.updated_at "
+            + "FROM posts p JOIN post_metrics m ON m.post_row_id = p.row_id WHERE p.id = #{postId}")
+    PostMetricEntity selectByPostId(@Param("postId") String postId);
+
+    @Select("<script>"
+            + "SELECT m.post_row_id, p.id AS post_id, m.view_count, m.like_count, m.updated_at "
+            + "FROM posts p JOIN post_metrics m ON m.post_row_id = p.row_id "
+            + "WHERE p.id IN <foreach collection='postIds' item='postId' open='(' separator=',' close=')'>#{postId}</foreach>"
+            + "</script>")
+    List<PostMetricEntity> selectByPostIds(@Param("postIds") List<String> postIds);
+
+    @Select("SELECT m.post_row_id, p.id AS post_id, m.view_count, m.like_count, m.updated_at "
+            + "FROM posts p JOIN post_metrics m ON m.post_row_id = p.row_id WHERE p.status = #{status}")
+    List<PostMetricEntity> selectByPostStatus(@Param("status") String status);
+
+    @Update("UPDATE post_metrics SET view_count = view_count + 1, updated_at = #{updatedAt} WHERE post_row_id = " + POST_ROW_ID)
     int incrementView(@Param("postId") String postId, @Param("updatedAt") String updatedAt);
 
-    @Update("UPDATE post_metrics SET like_count = like_count + 1, updated_at = #{updatedAt} WHERE post_id = #{postId}")
+    @Update("UPDATE post_metrics SET like_count = like_count + 1, updated_at = #{updatedAt} WHERE post_row_id = " + POST_ROW_ID)
     int incrementLike(@Param("postId") String postId, @Param("updatedAt") String updatedAt);
 
-    @Update("UPDATE post_metrics SET like_count = CASE WHEN like_count > 0 THEN like_count - 1 ELSE 0 END, updated_at = #{updatedAt} WHERE post_id = #{postId}")
+    @Update("UPDATE post_metrics SET like_count = like_count - 1, updated_at = #{updatedAt} "
+            + "WHERE post_row_id = " + POST_ROW_ID + " AND like_count > 0")
     int decrementLike(@Param("postId") String postId, @Param("updatedAt") String updatedAt);
+
+    /**
+     * Creates the metric row of a post unless it exists; returns 0 when it already existed or the post is missing.
+     */
+    @Insert("INSERT OR IGNORE INTO post_metrics (post_row_id, view_count, like_count, updated_at) "
+            + "SELECT row_id, #{viewCount}, #{likeCount}, #{updatedAt} FROM posts WHERE id = #{postId}")
+    int insertIfAbsent(@Param("postId") String postId, @Param("viewCount") int viewCount,
+                       @Param("likeCount") int likeCount, @Param("updatedAt") String updatedAt);
+
+    @Insert("<script>"
+            + "INSERT OR IGNORE INTO post_metrics (post_row_id, view_count, like_count, updated_at) "
+            + "SELECT row_id, 0, 0, #{updatedAt} FROM posts WHERE id IN "
+            + "<foreach collection='postIds' item='postId' open='(' separator=',' close=')'>#{postId}</foreach>"
+            + "</script>")
+    int initBatch(@Param("postIds") List<String> postIds, @Param("updatedAt") String updatedAt);
 }
@@ -0,0 +1,7 @@
+package com.liquidthoughts.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.liquidthoughts.blog.entity.PostRevisionEntity;
+
+public interface PostRevisionMapper extends BaseMapper<PostRevisionEntity> {
+}
@@ -0,0 +1,22 @@
+package com.liquidthoughts.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.liquidthoughts.blog.entity.RevokedTokenEntity;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+public interface RevokedTokenMapper extends BaseMapper<RevokedTokenEntity> {
+
+    @Insert("INSERT OR IGNORE INTO revoked_tokens (token_hash, expires_at) VALUES (#{tokenHash}, #{expiresAt})")
+    int insertIgnore(RevokedTokenEntity entity);
+
+    @Select("SELECT token_hash FROM revoked_tokens WHERE expires_at > #{now}")
+    List<String> selectActiveHashes(@Param("now") long now);
+
+    @Delete("DELETE FROM revoked_tokens WHERE expires_at <= #{now}")
+    int deleteExpired(@Param("now") long now);
+}
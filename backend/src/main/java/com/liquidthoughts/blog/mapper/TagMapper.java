@@ -0,0 +1,66 @@
+package com.liquidthoughts.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.liquidthoughts.blog.dto.PostTagRow;
+import com.liquidthoughts.blog.entity.TagEntity;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tags and their links to posts. Like {@link PostMetricMapper}, callers pass public post ids, which are resolved to
+ * the post rowid the link table is keyed by.
+ */
+public interface TagMapper extends BaseMapper<TagEntity> {
+
+    @Insert("<script>"
+            + "INSERT OR IGNORE INTO tags (name) VALUES "
+            + "<foreach collection='names' item='name' separator=','>(#{name})</foreach>"
+            + "</script>")
+    int insertIgnore(@Param("names") List<String> names);
+
+    @Select("SELECT t.id, t.name FROM post_tags pt JOIN tags t ON t.id = pt.tag_id "
+            + "WHERE pt.post_row_id = " + PostMetricMapper.POST_ROW_ID)
+    List<TagEntity> selectByPostId(@Param("postId") String postId);
+
+    @Select("SELECT DISTINCT pt.tag_id FROM post_tags pt JOIN posts p ON p.row_id = pt.post_row_id "
+            + "WHERE p.category_id = #{categoryId}")
+    List<Long> selectIdsByCategoryId(@Param("categoryId") Integer categoryId);
+
+    @Delete("<script>"
+            + "DELETE FROM post_tags WHERE post_row_id = " + PostMetricMapper.POST_ROW_ID
+            + " AND tag_id IN <foreach collection='tagIds' item='tagId' open='(' separator=',' close=')'>#{tagId}</foreach>"
+            + "</script>")
+    int deletePostTags(@Param("postId") String postId, @Param("tagIds") List<Long> tagIds);
+
+    @Insert("<script>"
+            + "INSERT INTO post_tags (post_row_id, tag_id) "
+            + "SELECT p.row_id, t.id FROM posts p JOIN tags t ON t.name IN "
+            + "<foreach collection='names' item='name' open='(' separator=',' close=')'>#{name}</foreach>"
+            + " WHERE p.id = #{postId}"
+            + "</script>")
+    int insertPostTags(@Param("postId") String postId, @Param("names") List<String> names);
+
+    @Delete("<script>"
+            + "DELETE FROM tags WHERE id IN "
+            + "<foreach collection='tagIds' item='tagId' open='(' separator=',' close=')'>#{tagId}</foreach>"
+            + " AND NOT EXISTS (SELECT 1 FROM post_tags pt WHERE pt.tag_id = tags.id)"
+            + "</script>")
+    int deleteUnused(@Param("tagIds") Collection<Long> tagIds);
+
+    @Select("SELECT p.id AS post_id, t.name FROM post_tags pt "
+            + "JOIN posts p ON p.row_id = pt.post_row_id JOIN tags t ON t.id = pt.tag_id")
+    List<PostTagRow> selectAllPostTags();
+
+    @Select("<script>"
+            + "SELECT p.id AS post_id, t.name FROM posts p "
+            + "JOIN post_tags pt ON pt.post_row_id = p.row_id JOIN tags t ON t.id = pt.tag_id "
+            + "WHERE p.id IN <foreach collection='postIds' item='postId' open='(' separator=',' close=')'>#{postId}</foreach>"
+            + " ORDER BY t.name"
+            + "</script>")
+    List<PostTagRow> selectByPostIds(@Param("postIds") List<String> postIds);
+}
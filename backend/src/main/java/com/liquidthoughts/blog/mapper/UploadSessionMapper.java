@@ -0,0 +1,32 @@
+package com.liquidthoughts.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.liquidthoughts.blog.entity.UploadSessionEntity;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+public interface UploadSessionMapper extends BaseMapper<UploadSessionEntity> {
+
+    @Insert("INSERT OR REPLACE INTO upload_chunks (upload_id, chunk_index, sha256) VALUES (#{uploadId}, #{chunkIndex}, #{sha256})")
+    int upsertChunk(@Param("uploadId") String uploadId, @Param("chunkIndex") int chunkIndex, @Param("sha256") String sha256);
+
+    @Delete("DELETE FROM upload_chunks WHERE upload_id = #{uploadId} AND chunk_index = #{chunkIndex}")
+    int deleteChunk(@Param("uploadId") String uploadId, @Param("chunkIndex") int chunkIndex);
+
+    @Select("SELECT chunk_index FROM upload_chunks WHERE upload_id = #{uploadId} ORDER BY chunk_index")
+    List<Integer> selectChunkIndexes(@Param("uploadId") String uploadId);
+
+    @Update("UPDATE upload_sessions SET updated_at = #{updatedAt} WHERE id = #{id}")
+    int touch(@Param("id") String id, @Param("updatedAt") long updatedAt);
+
+    @Select("SELECT id FROM upload_sessions")
+    List<String> selectIds();
+
+    @Select("SELECT id FROM upload_sessions WHERE updated_at < #{cutoff}")
+    List<String> selectExpiredIds(@Param("cutoff") long cutoff);
+}
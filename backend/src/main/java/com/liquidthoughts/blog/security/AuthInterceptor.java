@@ -50,6 +50,10 @@ public class AuthInterceptor implements HandlerInterceptor {
                     || uri.equals("/api/categories")
                     || uri.equals("/api/configs")
                     || uri.equals("/api/posts/page")
+                    || uri.equals("/api/posts/trending")
+                    || uri.equals("/api/posts/tags")
+                    || uri.equals("/api/posts/suggest")
+                    || uri.matches("^/api/posts/[^/]+/related$")
                     || uri.equals("/api/categories/page");
         }
 
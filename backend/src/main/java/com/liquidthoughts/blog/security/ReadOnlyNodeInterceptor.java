@@ -0,0 +1,36 @@
+package com.liquidthoughts.blog.security;
+
+import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.ErrorCode;
+import com.liquidthoughts.blog.config.NodeProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Rejects every request that could write on a reader node. Logging in only signs a token and logging out is forwarded
+ * to the writer by {@link com.liquidthoughts.blog.service.AuthService}, so a load balancer may send both anywhere.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadOnlyNodeInterceptor implements HandlerInterceptor {
+
+    private final NodeProperties nodeProperties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!nodeProperties.isReader()) {
+            return true;
+        }
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)
+                || request.getRequestURI().equals("/api/auth/login")
+                || request.getRequestURI().equals("/api/auth/logout")) {
+            return true;
+        }
+        throw new BizException(ErrorCode.FORBIDDEN, "This node is read-only, send writes to the writer node");
+    }
+}
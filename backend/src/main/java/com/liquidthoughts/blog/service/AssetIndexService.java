@@ -0,0 +1,194 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.ErrorCode;
+import com.liquidthoughts.blog.config.NodeProperties;
+import com.liquidthoughts.blog.dto.CursorPageResponse;
+import com.liquidthoughts.blog.entity.AssetEntity;
+import com.liquidthoughts.blog.event.PostChangedEvent;
+import com.liquidthoughts.blog.mapper.AssetMapper;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code assets} table behind the media library: one row per stored upload with its size, SHA-256, MIME type,
+ * image dimensions and owning post. Uploads are described from their local file before it is handed to the asset
+ * store, so the S3 backend is indexed the same way; {@link AssetReconciler} adds files that appear in the local
+ * upload directory by other means. Assets uploaded before their post existed are claimed by the first post whose
+ * content links to them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetIndexService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Pattern UPLOAD_LINK = Pattern.compile("/uploads/([a-zA-Z0-9_-]+(?:/[a-zA-Z0-9._-]+)+)");
+
+    private final AssetMapper assetMapper;
+    private final PostMapper postMapper;
+    private final NodeProperties nodeProperties;
+
+    /**
+     * Reads {@code file} once for its SHA-256 and, for images, its dimensions from the header.
+     */
+    public AssetEntity describe(Path file, String path, String originalName) {
+        AssetEntity asset = new AssetEntity();
+        asset.setPath(path);
+        asset.setOriginalName(originalName);
+        asset.setMimeType(MediaTypeFactory.getMediaType(StringUtils.hasText(originalName) ? originalName : path)
+                .or(() -> MediaTypeFactory.getMediaType(path))
+                .map(Object::toString)
+                .orElse(null));
+        asset.setCreatedAt(System.currentTimeMillis());
+        try {
+            asset.setSize(Files.size(file));
+            asset.setSha256(sha256(file));
+        } catch (IOException e) {
+            throw new BizException(ErrorCode.INTERNAL_ERROR, "Failed to read file: " + originalName);
+        }
+        if (asset.getMimeType() != null && asset.getMimeType().startsWith("image/")) {
+            readDimensions(file, asset);
+        }
+        return asset;
+    }
+
+    public void record(AssetEntity asset) {
+        assetMapper.upsert(asset);
+    }
+
+    public void recordDiscovered(AssetEntity asset) {
+        assetMapper.upsertDiscovered(asset);
+    }
+
+    /**
+     * Whether the file at {@code path} is indexed with {@code size} bytes. Files the app stored itself are indexed
+     * before the reconciler notices them, so it uses this to skip hashing them a second time.
+     */
+    public boolean isIndexed(String path, long size) {
+        Long indexed = assetMapper.selectSizeByPath(path);
+        return indexed != null && indexed == size;
+    }
+
+    public List<String> indexedPaths() {
+        return assetMapper.selectPaths();
+    }
+
+    public int forget(String path) {
+        return assetMapper.deleteByPath(path, escapeLike(path) + "/%");
+    }
+
+    public void requirePost(String postId) {
+        if (postId != null && !postMapper.existsById(postId)) {
+            throw new BizException(ErrorCode.BAD_REQUEST, "Post not found: " + postId);
+        }
+    }
+
+    public CursorPageResponse<AssetEntity> list(String cursor, Integer limit, String postId, String mimeType) {
+        String mimePattern = StringUtils.hasText(mimeType) ? escapeLike(mimeType.trim()) + "%" : null;
+        return page(cursor, limit, StringUtils.hasText(postId) ? postId.trim() : null, mimePattern, null);
+    }
+
+    public CursorPageResponse<AssetEntity> search(String keyword, String cursor, Integer limit) {
+        if (!StringUtils.hasText(keyword)) {
+            throw new BizException(ErrorCode.BAD_REQUEST, "q is required");
+        }
+        return page(cursor, limit, null, null, "%" + escapeLike(keyword.trim()) + "%");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.isDeleted() || nodeProperties.isReader()) {
+            return;
+        }
+        Set<String> linked = new LinkedHashSet<>();
+        Matcher matcher = UPLOAD_LINK.matcher(event.getCurrent().getContent() == null ? "" : event.getCurrent().getContent());
+        while (matcher.find()) {
+            linked.add(matcher.group(1));
+        }
+        if (!linked.isEmpty()) {
+            assetMapper.claimForPost(event.getPostId(), new ArrayList<>(linked));
+        }
+    }
+
+    private CursorPageResponse<AssetEntity> page(String cursor, Integer limit, String postId, String mimePattern,
+                                                 String namePattern) {
+        int size = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        Long after;
+        try {
+            after = StringUtils.hasText(cursor) ? Long.parseLong(cursor.trim()) : null;
+        } catch (NumberFormatException ex) {
+            throw new BizException(ErrorCode.BAD_REQUEST, "Invalid cursor");
+        }
+        List<AssetEntity> rows = assetMapper.selectPage(after, size + 1, postId, mimePattern, namePattern);
+        if (rows.size() <= size) {
+            return new CursorPageResponse<>(rows, null);
+        }
+        List<AssetEntity> records = rows.subList(0, size);
+        return new CursorPageResponse<>(new ArrayList<>(records), String.valueOf(records.get(size - 1).getId()));
+    }
+
+    private void readDimensions(Path file, AssetEntity asset) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                asset.setWidth(reader.getWidth(0));
+                asset.setHeight(reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.debug("Could not read the dimensions of {}", asset.getPath(), ex);
+        }
+    }
+
+    private String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,231 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.config.NodeProperties;
+import com.liquidthoughts.blog.config.StorageProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@code assets} table in step with files added to or removed from the local upload directory outside
+ * the app, such as a restored folder or a manual cleanup.
+ * <p>
+ * Every directory of the upload tree is registered with a {@link WatchService}, and only the paths named by its
+ * events are looked at again: a created or modified file is indexed once it has been quiet for
+ * {@code app.storage.asset-watch-debounce-ms}, so files still being copied are hashed once, a deleted file or
+ * directory drops its rows, and a directory moved in is walked on its own. The whole tree is only compared with the
+ * table on startup, to catch changes made while the app was down, and when the watch queue overflowed. Files the
+ * app stored itself are already indexed with the same size and are skipped. The S3 backend has no local tree and
+ * reader nodes do not write the table, so neither watches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetReconciler {
+
+    private final AssetIndexService assetIndexService;
+    private final AssetStore assetStore;
+    private final StorageProperties storageProperties;
+    private final NodeProperties nodeProperties;
+
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Map<Path, Long> pending = new HashMap<>();
+    private WatchService watchService;
+    private Thread watcher;
+    private Path root;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!(assetStore instanceof LocalAssetStore localAssetStore) || !storageProperties.isWatchAssets()
+                || nodeProperties.isReader() || watcher != null) {
+            return;
+        }
+        root = localAssetStore.root();
+        try {
+            Files.createDirectories(root);
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException ex) {
+            log.warn("Failed to watch {}, the media library only sees assets stored through the app", root, ex);
+            return;
+        }
+        watcher = new Thread(this::run, "asset-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                log.debug("Failed to close the asset watch service", ex);
+            }
+        }
+    }
+
+    private void run() {
+        // Register before the startup scan, so nothing changed during the scan is missed.
+        registerTree(root);
+        if (storageProperties.isReconcileAssetsOnStartup()) {
+            reconcileAll();
+        }
+        long debounceMs = Math.max(0, storageProperties.getAssetWatchDebounceMs());
+        try {
+            while (true) {
+                WatchKey key = pending.isEmpty()
+                        ? watchService.take()
+                        : watchService.poll(debounceMs, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    handle(key);
+                }
+                flushQuiet(debounceMs);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            log.debug("Asset watcher stopped");
+        } catch (RuntimeException ex) {
+            log.error("Asset watcher failed, the media library only sees assets stored through the app", ex);
+        }
+    }
+
+    private void handle(WatchKey key) {
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                log.warn("Asset watch queue overflowed, comparing the whole upload tree with the media library");
+                registerTree(root);
+                reconcileAll();
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                pending.remove(path);
+                forget(path);
+            } else if (Files.isDirectory(path)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    registerTree(path);
+                    walk(path).forEach(file -> pending.put(file, System.currentTimeMillis()));
+                }
+            } else {
+                pending.put(path, System.currentTimeMillis());
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+    }
+
+    private void flushQuiet(long debounceMs) {
+        long cutoff = System.currentTimeMillis() - debounceMs;
+        Iterator<Map.Entry<Path, Long>> entries = pending.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Path, Long> entry = entries.next();
+            if (entry.getValue() <= cutoff) {
+                entries.remove();
+                index(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Compares the whole upload tree with the table: indexes files it does not know and drops rows without a file.
+     */
+    private void reconcileAll() {
+        Set<String> indexed = new HashSet<>(assetIndexService.indexedPaths());
+        int added = 0;
+        for (Path file : walk(root)) {
+            String path = keyOf(file);
+            if (!indexed.remove(path) && index(file)) {
+                added++;
+            }
+        }
+        indexed.forEach(assetIndexService::forget);
+        if (added > 0 || !indexed.isEmpty()) {
+            log.info("Media library reconciled: {} files indexed, {} missing files dropped", added, indexed.size());
+        }
+    }
+
+    private boolean index(Path file) {
+        try {
+            if (!Files.isRegularFile(file) || ignored(file)) {
+                return false;
+            }
+            String path = keyOf(file);
+            if (assetIndexService.isIndexed(path, Files.size(file))) {
+                return false;
+            }
+            assetIndexService.recordDiscovered(assetIndexService.describe(file, path, file.getFileName().toString()));
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to index asset {}", file, ex);
+            return false;
+        }
+    }
+
+    private void forget(Path path) {
+        try {
+            assetIndexService.forget(keyOf(path));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to drop asset {} from the media library", path, ex);
+        }
+    }
+
+    private void registerTree(Path directory) {
+        try (Stream<Path> directories = Files.walk(directory)) {
+            for (Path dir : directories.filter(Files::isDirectory).toList()) {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                watchedDirectories.put(key, dir);
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to watch {}", directory, ex);
+        }
+    }
+
+    private List<Path> walk(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).filter(file -> !ignored(file)).toList();
+        } catch (IOException ex) {
+            log.warn("Failed to list {}", directory, ex);
+            return List.of();
+        }
+    }
+
+    /**
+     * Temp files of the local asset store's copy fallback and hidden files are not assets.
+     */
+    private boolean ignored(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(".") || name.endsWith(".tmp");
+    }
+
+    private String keyOf(Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,26 @@
+package com.liquidthoughts.blog.service;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where uploaded assets are kept, selected with {@code app.storage.backend}. Keys are the relative paths under
+ * {@code /uploads/}, such as {@code articles/202601/<name>.png}. Uploads are always received into local files first;
+ * {@link FileStorageService} then hands each finished file to the store.
+ */
+public interface AssetStore {
+
+    /**
+     * Stores {@code source} under {@code key} and takes ownership of the file, which is moved or deleted. The future
+     * completes once the asset can be read back through its URL.
+     */
+    CompletableFuture<Void> put(String key, Path source, String contentType);
+
+    /**
+     * Returns a short-lived URL the client is redirected to instead of the asset being streamed through this node,
+     * or empty when {@code /uploads/} serves the asset directly.
+     */
+    Optional<URI> downloadUrl(String key);
+}
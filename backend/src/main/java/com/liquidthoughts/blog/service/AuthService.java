@@ -1,28 +1,59 @@
 package com.liquidthoughts.blog.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.ErrorCode;
+import com.liquidthoughts.blog.config.NodeProperties;
 import com.liquidthoughts.blog.entity.AdminUserEntity;
+import com.liquidthoughts.blog.entity.RevokedTokenEntity;
+import com.liquidthoughts.blog.event.NodeResyncEvent;
+import com.liquidthoughts.blog.event.TokenRevokedEvent;
 import com.liquidthoughts.blog.mapper.AdminUserMapper;
+import com.liquidthoughts.blog.mapper.RevokedTokenMapper;
 import com.liquidthoughts.blog.security.JwtService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private static final String AUTHORIZATION = "Authorization";
     private static final String PREFIX = "Bearer ";
+    private static final Duration FORWARD_TIMEOUT = Duration.ofSeconds(5);
 
     private final AdminUserMapper adminUserMapper;
+    private final RevokedTokenMapper revokedTokenMapper;
     private final JwtService jwtService;
+    private final NodeProperties nodeProperties;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * SHA-256 hashes of revoked tokens that have not expired yet, mirrored from {@code revoked_tokens}.
+     */
     private final Set<String> revokedTokens = ConcurrentHashMap.newKeySet();
 
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(FORWARD_TIMEOUT).build();
+
     public String login(String username, String password) {
         AdminUserEntity user = adminUserMapper.selectOne(
                 new LambdaQueryWrapper<AdminUserEntity>()
@@ -37,14 +68,73 @@ public class AuthService {
 
     public void logout(HttpServletRequest request) {
         String token = extractToken(request);
-        if (token != null) {
-            revokedTokens.add(token);
+        if (token == null) {
+            return;
+        }
+        String tokenHash = sha256(token);
+        revokedTokens.add(tokenHash);
+        if (nodeProperties.isReader()) {
+            forwardLogout(token);
+            return;
+        }
+        try {
+            RevokedTokenEntity entity = new RevokedTokenEntity();
+            entity.setTokenHash(tokenHash);
+            entity.setExpiresAt(jwtService.parseExpiration(token).toEpochMilli());
+            revokedTokenMapper.insertIgnore(entity);
+        } catch (Exception ex) {
+            // An invalid or expired token is rejected anyway, there is nothing to share.
+            return;
         }
+        eventPublisher.publishEvent(new TokenRevokedEvent(tokenHash));
+    }
+
+    /**
+     * Reader nodes cannot record the revocation, so they send the logout on to the writer, which records it and
+     * announces it to every node through the node channel. Until then the token is only rejected here.
+     */
+    private void forwardLogout(String token) {
+        String writerUrl = nodeProperties.getWriterUrl();
+        if (writerUrl == null || writerUrl.isBlank()) {
+            throw new BizException(ErrorCode.INTERNAL_ERROR,
+                    "Logged out on this node only, app.node.writer-url is not configured");
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(writerUrl.replaceAll("/+$", "") + "/api/auth/logout"))
+                .timeout(FORWARD_TIMEOUT)
+                .header(AUTHORIZATION, PREFIX + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        try {
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status / 100 == 2) {
+                return;
+            }
+            log.warn("Writer node answered the forwarded logout with status {}", status);
+        } catch (IOException ex) {
+            log.warn("Failed to forward a logout to the writer node at {}", writerUrl, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        throw new BizException(ErrorCode.INTERNAL_ERROR, "Logged out on this node only, the writer node did not take the logout");
+    }
+
+    /**
+     * Loads the revoked tokens other nodes or earlier runs recorded. The writer also drops expired ones.
+     */
+    @EventListener({ApplicationReadyEvent.class, NodeResyncEvent.class})
+    public void reloadRevokedTokens() {
+        long now = System.currentTimeMillis();
+        if (!nodeProperties.isReader()) {
+            revokedTokenMapper.deleteExpired(now);
+        }
+        Set<String> active = Set.copyOf(revokedTokenMapper.selectActiveHashes(now));
+        revokedTokens.addAll(active);
+        revokedTokens.retainAll(active);
     }
 
     public String resolveUsername(HttpServletRequest request) {
         String token = extractToken(request);
-        if (token == null || revokedTokens.contains(token)) {
+        if (token == null || revokedTokens.contains(sha256(token))) {
             return null;
         }
 
@@ -66,4 +156,12 @@ public class AuthService {
         }
         return authorization.substring(PREFIX.length()).trim();
     }
+
+    private String sha256(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
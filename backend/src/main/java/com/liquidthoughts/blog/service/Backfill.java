@@ -0,0 +1,15 @@
+package com.liquidthoughts.blog.service;
+
+/**
+ * A data migration too large to run inside a schema migration. {@link BackfillService} calls
+ * {@link #runBatch(int)} in short transactions until it returns zero, so a backfill must select only rows it has
+ * not processed yet and must be safe to resume after a restart.
+ */
+public interface Backfill {
+
+    String name();
+
+    long remaining();
+
+    int runBatch(int batchSize);
+}
@@ -0,0 +1,126 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.config.MigrationProperties;
+import com.liquidthoughts.blog.config.NodeProperties;
+import com.liquidthoughts.blog.dto.BackfillProgress;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs registered {@link Backfill}s on one background thread once the application is ready. Each batch is its own
+ * short transaction followed by a pause, so the single SQLite writer is never held for longer than one batch and
+ * request writes interleave with the backfill.
+ */
+@Slf4j
+@Service
+public class BackfillService {
+
+    private final List<Backfill> backfills;
+    private final MigrationProperties migrationProperties;
+    private final NodeProperties nodeProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, BackfillProgress> progress = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BackfillService(List<Backfill> backfills,
+                           MigrationProperties migrationProperties,
+                           NodeProperties nodeProperties,
+                           PlatformTransactionManager transactionManager) {
+        this.backfills = backfills;
+        this.migrationProperties = migrationProperties;
+        this.nodeProperties = nodeProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        backfills.forEach(backfill -> progress.put(backfill.name(), new BackfillProgress(backfill.name())));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (nodeProperties.isReader()) {
+            return;
+        }
+        for (Backfill backfill : backfills) {
+            executor.execute(() -> run(backfill));
+        }
+    }
+
+    public synchronized List<BackfillProgress> progress() {
+        return progress.values().stream().map(BackfillProgress::copy).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Backfill backfill) {
+        try {
+            long remaining = backfill.remaining();
+            update(backfill.name(), current -> {
+                current.setStatus("running");
+                current.setProcessed(0);
+                current.setRemaining(remaining);
+                current.setStartedAt(Instant.now().toString());
+                current.setFinishedAt(null);
+                current.setError(null);
+            });
+            if (remaining > 0) {
+                log.info("Backfill {} started with {} rows to process", backfill.name(), remaining);
+            }
+
+            long processed = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                Integer batch = transactionTemplate.execute(status -> backfill.runBatch(migrationProperties.getBackfillBatchSize()));
+                if (batch == null || batch == 0) {
+                    break;
+                }
+                processed += batch;
+                long done = processed;
+                update(backfill.name(), current -> {
+                    current.setProcessed(done);
+                    current.setRemaining(Math.max(0, current.getRemaining() - batch));
+                });
+                Thread.sleep(migrationProperties.getBackfillPauseMs());
+            }
+
+            long total = processed;
+            update(backfill.name(), current -> {
+                current.setStatus("completed");
+                current.setRemaining(0);
+                current.setFinishedAt(Instant.now().toString());
+            });
+            if (total > 0) {
+                log.info("Backfill {} completed, {} rows processed", backfill.name(), total);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.error("Backfill {} failed, it resumes on the next start", backfill.name(), ex);
+            update(backfill.name(), current -> {
+                current.setStatus("failed");
+                current.setError(ex.getMessage());
+                current.setFinishedAt(Instant.now().toString());
+            });
+        }
+    }
+
+    private synchronized void update(String name, Consumer<BackfillProgress> change) {
+        change.accept(progress.get(name));
+    }
+}
@@ -0,0 +1,341 @@
+package com.liquidthoughts.blog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.ErrorCode;
+import com.liquidthoughts.blog.config.BackupProperties;
+import com.liquidthoughts.blog.config.NodeProperties;
+import com.liquidthoughts.blog.config.StorageProperties;
+import com.liquidthoughts.blog.dto.BackupFileEntry;
+import com.liquidthoughts.blog.dto.BackupManifest;
+import com.liquidthoughts.blog.dto.BackupRestoreResponse;
+import com.liquidthoughts.blog.dto.BackupVerification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sqlite.SQLiteConnection;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Takes online backups of the database together with a snapshot of the storage tree, tied by one manifest.
+ * <p>
+ * The database is copied with SQLite's backup API a few pages per step, pausing between steps. The copy runs inside
+ * one read transaction on its own connection, so in WAL mode it sees a single consistent snapshot while writers keep
+ * committing. Storage is snapshotted right after, as hard links: uploads are never rewritten and markdown mirrors
+ * are replaced by rename, so a link keeps the content of the moment it was taken without copying it. Checksums of
+ * files unchanged since the previous backup are carried over instead of being recomputed. Partial files of
+ * resumable uploads are written in place and left out; their sessions are discarded as expired after a restore.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BackupService {
+
+    private static final String MANIFEST = "manifest.json";
+    private static final String DATABASE = "blog.db";
+    private static final String STORAGE = "storage";
+    private static final String PARTIAL_SUFFIX = ".partial";
+    private static final int BUSY_SLEEP_MS = 100;
+    private static final DateTimeFormatter BACKUP_ID = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private final DataSource dataSource;
+    private final BackupProperties backupProperties;
+    private final StorageProperties storageProperties;
+    private final NodeProperties nodeProperties;
+    private final ObjectMapper objectMapper;
+
+    public synchronized BackupManifest create() {
+        long startedAt = System.currentTimeMillis();
+        String id = BACKUP_ID.format(Instant.ofEpochMilli(startedAt));
+        Path finalDir = backupRoot().resolve(id);
+        Path partialDir = backupRoot().resolve(id + PARTIAL_SUFFIX);
+        try {
+            Files.createDirectories(partialDir);
+            BackupManifest previous = latest();
+
+            BackupManifest manifest = new BackupManifest();
+            manifest.setId(id);
+            manifest.setCreatedAt(Instant.ofEpochMilli(startedAt).toString());
+
+            Path databaseCopy = partialDir.resolve(DATABASE);
+            manifest.setDatabasePages(backupDatabase(databaseCopy));
+            manifest.setSchemaVersion(schemaVersion(databaseCopy));
+            manifest.setDatabase(new BackupFileEntry(DATABASE, Files.size(databaseCopy),
+                    Files.getLastModifiedTime(databaseCopy).toMillis(), sha256(databaseCopy)));
+
+            snapshotStorage(partialDir.resolve(STORAGE), previous, manifest);
+            manifest.setDurationMs(System.currentTimeMillis() - startedAt);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(partialDir.resolve(MANIFEST).toFile(), manifest);
+            Files.move(partialDir, finalDir, StandardCopyOption.ATOMIC_MOVE);
+
+            log.info("Backup {} finished in {} ms: {} database pages, {} storage files ({} linked, {} copied)",
+                    id, manifest.getDurationMs(), manifest.getDatabasePages(), manifest.getFiles().size(),
+                    manifest.getLinkedFiles(), manifest.getCopiedFiles());
+            return manifest;
+        } catch (IOException | SQLException ex) {
+            log.error("Backup {} failed", id, ex);
+            deleteTree(partialDir);
+            throw new BizException(ErrorCode.INTERNAL_ERROR, "Backup failed: " + ex.getMessage());
+        }
+    }
+
+    public List<BackupManifest> list() {
+        Path root = backupRoot();
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> dirs = Files.list(root)) {
+            return dirs.filter(dir -> Files.isRegularFile(dir.resolve(MANIFEST)))
+                    .map(this::readManifest)
+                    .sorted(Comparator.comparing(BackupManifest::getId).reversed())
+                    .toList();
+        } catch (IOException ex) {
+            throw new BizException(ErrorCode.INTERNAL_ERROR, "Failed to list backups");
+        }
+    }
+
+    /**
+     * Recomputes every checksum of the backup and runs an integrity check on its database copy.
+     */
+    public BackupVerification verify(String id) {
+        Path dir = backupDir(id);
+        BackupManifest manifest = readManifest(dir);
+        List<String> problems = new ArrayList<>();
+        checkFile(dir.resolve(DATABASE), manifest.getDatabase(), problems);
+        for (BackupFileEntry entry : manifest.getFiles()) {
+            checkFile(dir.resolve(STORAGE).resolve(entry.getPath()), entry, problems);
+        }
+        if (problems.isEmpty()) {
+            try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve(DATABASE) + "?open_mode=1");
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("PRAGMA integrity_check")) {
+                while (resultSet.next()) {
+                    if (!"ok".equals(resultSet.getString(1))) {
+                        problems.add("integrity_check: " + resultSet.getString(1));
+                    }
+                }
+            } catch (SQLException ex) {
+                problems.add("integrity_check failed: " + ex.getMessage());
+            }
+        }
+        return new BackupVerification(id, problems.isEmpty(), problems);
+    }
+
+    /**
+     * Verifies the backup and copies it into its own directory under the restore path. The running node is left
+     * alone: it is stopped and started again with {@code BLOG_DB_PATH} and {@code BLOG_STORAGE_PATH} pointing at the
+     * restored copy, after which the markdown mirror reconciles itself with the restored database.
+     */
+    public synchronized BackupRestoreResponse restore(String id) {
+        BackupVerification verification = verify(id);
+        if (!verification.isValid()) {
+            throw new BizException(ErrorCode.BAD_REQUEST, "Backup " + id + " failed verification: " + verification.getProblems());
+        }
+        Path source = backupDir(id);
+        Path target = Path.of(backupProperties.getRestorePath()).toAbsolutePath().normalize().resolve(id);
+        if (Files.exists(target)) {
+            throw new BizException(ErrorCode.BAD_REQUEST, "Backup " + id + " was already restored to " + target);
+        }
+
+        BackupManifest manifest = readManifest(source);
+        try {
+            Files.createDirectories(target.resolve(STORAGE));
+            Files.copy(source.resolve(DATABASE), target.resolve(DATABASE));
+            for (BackupFileEntry entry : manifest.getFiles()) {
+                Path restored = target.resolve(STORAGE).resolve(entry.getPath());
+                Files.createDirectories(restored.getParent());
+                Files.copy(source.resolve(STORAGE).resolve(entry.getPath()), restored, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        } catch (IOException ex) {
+            deleteTree(target);
+            throw new BizException(ErrorCode.INTERNAL_ERROR, "Restore of backup " + id + " failed: " + ex.getMessage());
+        }
+        log.info("Restored backup {} to {}", id, target);
+        return new BackupRestoreResponse(id, target.resolve(DATABASE).toString(), target.resolve(STORAGE).toString());
+    }
+
+    private long backupDatabase(Path target) throws SQLException {
+        long[] pages = new long[1];
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            // A deferred transaction with one read pins the snapshot the backup copies, without taking a write lock.
+            statement.execute("BEGIN DEFERRED");
+            try {
+                try (ResultSet ignored = statement.executeQuery("SELECT COUNT(*) FROM sqlite_master")) {
+                    // Starts the read transaction.
+                }
+                connection.unwrap(SQLiteConnection.class).getDatabase().backup("main", target.toString(),
+                        (remaining, pageCount) -> {
+                            pages[0] = pageCount;
+                            pause();
+                        },
+                        BUSY_SLEEP_MS, backupProperties.getBusyRetries(), backupProperties.getPagesPerStep());
+            } finally {
+                statement.execute("ROLLBACK");
+            }
+        }
+
+        // The copy carries the WAL flag of the live database; switch it back so the backup is one self-contained file.
+        try (Connection copy = DriverManager.getConnection("jdbc:sqlite:" + target);
+             Statement statement = copy.createStatement()) {
+            statement.execute("PRAGMA journal_mode=DELETE");
+        }
+        return pages[0];
+    }
+
+    private int schemaVersion(Path database) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database + "?open_mode=1");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_migrations")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private void snapshotStorage(Path snapshotRoot, BackupManifest previous, BackupManifest manifest) throws IOException {
+        Path storageRoot = Path.of(storageProperties.getRootPath()).toAbsolutePath().normalize();
+        Path channel = Path.of(nodeProperties.getChannelPath()).toAbsolutePath().normalize();
+        Path uploadSessions = Path.of(storageProperties.getRootPath(), storageProperties.getUploadSessionDir())
+                .toAbsolutePath().normalize();
+        Map<String, BackupFileEntry> previousFiles = previous == null ? Map.of() : previous.getFiles().stream()
+                .collect(Collectors.toMap(BackupFileEntry::getPath, Function.identity()));
+
+        List<BackupFileEntry> files = new ArrayList<>();
+        int linked = 0;
+        int copied = 0;
+        if (Files.isDirectory(storageRoot)) {
+            List<Path> sources;
+            try (Stream<Path> walk = Files.walk(storageRoot)) {
+                sources = walk.filter(Files::isRegularFile)
+                        .filter(path -> !path.equals(channel) && !path.startsWith(backupRoot())
+                                && !path.startsWith(uploadSessions)
+                                && !path.getFileName().toString().endsWith(".tmp"))
+                        .toList();
+            }
+            for (Path source : sources) {
+                String relative = storageRoot.relativize(source).toString().replace('\\', '/');
+                Path target = snapshotRoot.resolve(relative);
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.createLink(target, source);
+                    linked++;
+                } catch (UnsupportedOperationException | IOException ex) {
+                    if (!Files.exists(source)) {
+                        // Replaced or deleted since the walk; the database copy does not need it.
+                        continue;
+                    }
+                    Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+                    copied++;
+                }
+
+                long size = Files.size(target);
+                long lastModified = Files.getLastModifiedTime(target).toMillis();
+                BackupFileEntry known = previousFiles.get(relative);
+                String checksum = known != null && known.getSize() == size && known.getLastModified() == lastModified
+                        ? known.getSha256()
+                        : sha256(target);
+                files.add(new BackupFileEntry(relative, size, lastModified, checksum));
+            }
+        }
+        manifest.setFiles(files);
+        manifest.setLinkedFiles(linked);
+        manifest.setCopiedFiles(copied);
+    }
+
+    private void checkFile(Path path, BackupFileEntry entry, List<String> problems) {
+        try {
+            if (!Files.isRegularFile(path)) {
+                problems.add(entry.getPath() + " is missing");
+            } else if (Files.size(path) != entry.getSize() || !sha256(path).equals(entry.getSha256())) {
+                problems.add(entry.getPath() + " does not match its checksum");
+            }
+        } catch (IOException ex) {
+            problems.add(entry.getPath() + " could not be read: " + ex.getMessage());
+        }
+    }
+
+    private BackupManifest latest() {
+        List<BackupManifest> manifests = list();
+        return manifests.isEmpty() ? null : manifests.get(0);
+    }
+
+    private BackupManifest readManifest(Path dir) {
+        try {
+            return objectMapper.readValue(dir.resolve(MANIFEST).toFile(), BackupManifest.class);
+        } catch (IOException ex) {
+            throw new BizException(ErrorCode.INTERNAL_ERROR, "Failed to read backup manifest in " + dir.getFileName());
+        }
+    }
+
+    private Path backupDir(String id) {
+        Path dir = backupRoot().resolve(id).normalize();
+        if (!dir.getParent().equals(backupRoot()) || !Files.isRegularFile(dir.resolve(MANIFEST))) {
+            throw new BizException(ErrorCode.NOT_FOUND, "Backup not found");
+        }
+        return dir;
+    }
+
+    private Path backupRoot() {
+        return Path.of(backupProperties.getRootPath()).toAbsolutePath().normalize();
+    }
+
+    private void pause() {
+        if (backupProperties.getStepPauseMs() <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(backupProperties.getStepPauseMs());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deleteTree(Path root) {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException ex) {
+            log.warn("Failed to clean up {}", root, ex);
+        }
+    }
+
+    private String sha256(Path path) throws IOException {
+        try (InputStream input = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -7,23 +7,51 @@ import com.liquidthoughts.blog.common.ErrorCode;
 import com.liquidthoughts.blog.dto.CategorySaveRequest;
 import com.liquidthoughts.blog.dto.PagedResponse;
 import com.liquidthoughts.blog.entity.CategoryEntity;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.event.CategoryChangedEvent;
+import com.liquidthoughts.blog.event.PostChangedEvent;
 import com.liquidthoughts.blog.mapper.CategoryMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.util.StringUtils;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
 
+    private static final String PUBLISHED = "published";
+    private static final String DELETE_RESTRICT = "restrict";
+    private static final String DELETE_CASCADE = "cascade";
+    private static final String DELETE_REASSIGN = "reassign";
+
     private final CategoryMapper categoryMapper;
+    private final PostService postService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Integer, CategoryStats> stats = new HashMap<>();
+    private boolean statsLoaded;
+    private long generation;
+    private volatile List<CategoryEntity> snapshot;
 
+    /**
+     * Returns categories with published post counts from an in-memory snapshot. The snapshot is rebuilt only after
+     * a category changes or a post enters or leaves a category's published set. Every invalidation bumps a generation
+     * under the monitor, and a rebuild that raced with one is returned to its caller but not published.
+     */
     public List<CategoryEntity> listAll() {
-        return categoryMapper.selectList(
-                new LambdaQueryWrapper<CategoryEntity>().orderByAsc(CategoryEntity::getId)
-        );
+        List<CategoryEntity> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        return rebuildSnapshot();
     }
 
     public PagedResponse<CategoryEntity> listPage(long page, long pageSize, String keyword, String slug) {
@@ -38,6 +66,7 @@ public class CategoryService {
         }
 
         Page<CategoryEntity> result = categoryMapper.selectPage(Page.of(page, pageSize), wrapper);
+        attachStats(result.getRecords());
         return new PagedResponse<>(result.getRecords(), result.getTotal(), result.getCurrent(), result.getSize());
     }
 
@@ -50,6 +79,9 @@ public class CategoryService {
             entity.setIcon(defaultIcon(request.getIcon()));
             entity.setColor(defaultColor(request.getColor()));
             categoryMapper.insert(entity);
+            invalidateSnapshot();
+            eventPublisher.publishEvent(new CategoryChangedEvent());
+            attachStats(List.of(entity));
             return entity;
         }
 
@@ -70,14 +102,148 @@ public class CategoryService {
         } else {
             categoryMapper.updateById(entity);
         }
+        invalidateSnapshot();
+        eventPublisher.publishEvent(new CategoryChangedEvent());
+        attachStats(List.of(entity));
         return entity;
     }
 
-    public void deleteById(Integer id) {
-        int rows = categoryMapper.deleteById(id);
-        if (rows == 0) {
+    /**
+     * Deletes a category. Posts still in it block the delete ({@code restrict}), are deleted with it
+     * ({@code cascade}) or are moved to {@code targetId} first ({@code reassign}).
+     */
+    @Transactional
+    public void deleteById(Integer id, String mode, Integer targetId) {
+        if (categoryMapper.selectById(id) == null) {
             throw new BizException(ErrorCode.NOT_FOUND, "Category not found");
         }
+
+        String deleteMode = StringUtils.hasText(mode) ? mode.trim().toLowerCase() : DELETE_RESTRICT;
+        switch (deleteMode) {
+            case DELETE_RESTRICT -> {
+                long posts = postService.countByCategory(id);
+                if (posts > 0) {
+                    throw new BizException(ErrorCode.BAD_REQUEST,
+                            "Category still has " + posts + " posts, delete with mode cascade or reassign");
+                }
+            }
+            case DELETE_CASCADE -> postService.deleteByCategory(id);
+            case DELETE_REASSIGN -> {
+                if (targetId == null || targetId.equals(id) || categoryMapper.selectById(targetId) == null) {
+                    throw new BizException(ErrorCode.BAD_REQUEST, "A different existing target_id is required to reassign posts");
+                }
+                postService.reassignCategory(id, targetId);
+            }
+            default -> throw new BizException(ErrorCode.BAD_REQUEST, "mode must be restrict, cascade or reassign");
+        }
+
+        categoryMapper.deleteById(id);
+        invalidateSnapshot();
+        eventPublisher.publishEvent(new CategoryChangedEvent());
+    }
+
+    /**
+     * Drops the snapshot and the post counters after posts were changed outside {@link PostService}.
+     */
+    public synchronized void invalidate() {
+        statsLoaded = false;
+        invalidateSnapshot();
+        eventPublisher.publishEvent(new CategoryChangedEvent());
+    }
+
+    /**
+     * Drops the snapshot again once a category change has committed, so a rebuild that read the rows before the commit
+     * is not kept.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidateSnapshot();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostChanged(PostChangedEvent event) {
+        if (!statsLoaded) {
+            return;
+        }
+        PostEntity previous = event.getPrevious();
+        PostEntity current = event.getCurrent();
+        Integer previousCategory = isPublished(previous) ? previous.getCategoryId() : null;
+        Integer currentCategory = isPublished(current) ? current.getCategoryId() : null;
+
+        if (Objects.equals(previousCategory, currentCategory)) {
+            if (currentCategory != null && !Objects.equals(previous.getCreatedAt(), current.getCreatedAt())) {
+                refreshLatest(currentCategory);
+                invalidateSnapshot();
+            }
+            return;
+        }
+
+        if (previousCategory != null) {
+            CategoryStats previousStats = stats.computeIfAbsent(previousCategory, key -> new CategoryStats());
+            previousStats.count = Math.max(0, previousStats.count - 1);
+            if (Objects.equals(previousStats.latestPostAt, previous.getCreatedAt())) {
+                refreshLatest(previousCategory);
+            }
+        }
+        if (currentCategory != null) {
+            CategoryStats currentStats = stats.computeIfAbsent(currentCategory, key -> new CategoryStats());
+            currentStats.count++;
+            if (currentStats.latestPostAt == null
+                    || (current.getCreatedAt() != null && current.getCreatedAt() > currentStats.latestPostAt)) {
+                currentStats.latestPostAt = current.getCreatedAt();
+            }
+        }
+        invalidateSnapshot();
+    }
+
+    private synchronized void invalidateSnapshot() {
+        generation++;
+        snapshot = null;
+    }
+
+    private List<CategoryEntity> rebuildSnapshot() {
+        long startedAt;
+        synchronized (this) {
+            startedAt = generation;
+        }
+        List<CategoryEntity> categories = categoryMapper.selectList(
+                new LambdaQueryWrapper<CategoryEntity>().orderByAsc(CategoryEntity::getId)
+        );
+        synchronized (this) {
+            attachStats(categories);
+            List<CategoryEntity> rebuilt = List.copyOf(categories);
+            if (generation == startedAt) {
+                snapshot = rebuilt;
+            }
+            return rebuilt;
+        }
+    }
+
+    private synchronized void attachStats(List<CategoryEntity> categories) {
+        if (!statsLoaded) {
+            stats.clear();
+            for (CategoryEntity row : categoryMapper.selectPublishedStats()) {
+                CategoryStats categoryStats = new CategoryStats();
+                categoryStats.count = row.getPostCount() == null ? 0 : row.getPostCount();
+                categoryStats.latestPostAt = row.getLatestPostAt();
+                stats.put(row.getId(), categoryStats);
+            }
+            statsLoaded = true;
+        }
+        for (CategoryEntity category : categories) {
+            CategoryStats categoryStats = stats.get(category.getId());
+            category.setPostCount(categoryStats == null ? 0 : categoryStats.count);
+            category.setLatestPostAt(categoryStats == null ? null : categoryStats.latestPostAt);
+        }
+    }
+
+    private void refreshLatest(Integer categoryId) {
+        stats.computeIfAbsent(categoryId, key -> new CategoryStats()).latestPostAt =
+                categoryMapper.selectLatestPublishedAt(categoryId);
+    }
+
+    private boolean isPublished(PostEntity post) {
+        return post != null && PUBLISHED.equals(post.getStatus()) && post.getCategoryId() != null;
     }
 
     private String buildSlug(String slug, String name) {
@@ -98,4 +264,10 @@ public class CategoryService {
     private String defaultColor(String color) {
         return (color == null || color.isBlank()) ? "#195de6" : color;
     }
+
+    private static final class CategoryStats {
+
+        private int count;
+        private Long latestPostAt;
+    }
 }
@@ -0,0 +1,293 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.ErrorCode;
+import com.liquidthoughts.blog.config.NodeProperties;
+import com.liquidthoughts.blog.config.StorageProperties;
+import com.liquidthoughts.blog.dto.AssetUploadResponse;
+import com.liquidthoughts.blog.dto.UploadSessionRequest;
+import com.liquidthoughts.blog.dto.UploadSessionResponse;
+import com.liquidthoughts.blog.entity.UploadSessionEntity;
+import com.liquidthoughts.blog.mapper.UploadSessionMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Resumable uploads: a client creates a session, PUTs its chunks in any order, in parallel if it likes, and completes
+ * the session once every chunk is stored. After a dropped connection it asks the session which chunks are missing
+ * and sends only those.
+ * <p>
+ * A chunk is read from the raw request body and written at its offset of the session's partial file with positional
+ * {@link FileChannel} writes, so there is no multipart buffering and no temp copy. The SHA-256 of the bytes is
+ * computed while they are written and, when the client sent one, compared before the chunk is recorded. A chunk that
+ * is cut short or does not match is not recorded and can be sent again. Completing renames the partial file into the
+ * upload folder. Sessions without a chunk for longer than {@code app.storage.upload-session-ttl-ms} are discarded
+ * with their partial files.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadService {
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+    private static final String PARTIAL_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionMapper uploadSessionMapper;
+    private final FileStorageService fileStorageService;
+    private final AssetIndexService assetIndexService;
+    private final StorageProperties storageProperties;
+    private final NodeProperties nodeProperties;
+
+    private final Map<String, ReadWriteLock> locks = new ConcurrentHashMap<>();
+
+    public UploadSessionResponse create(UploadSessionRequest request) {
+        if (request.getSize() > storageProperties.getMaxUploadBytes()) {
+            throw new BizException(ErrorCode.BAD_REQUEST,
+                    "File is larger than " + storageProperties.getMaxUploadBytes() + " bytes");
+        }
+        String postId = StringUtils.hasText(request.getPostId()) ? request.getPostId().trim() : null;
+        assetIndexService.requirePost(postId);
+        long now = System.currentTimeMillis();
+        UploadSessionEntity session = new UploadSessionEntity();
+        session.setId(UUID.randomUUID().toString().replace("-", ""));
+        session.setFileName(request.getFileName().trim());
+        session.setFolder(fileStorageService.resolveUploadFolder(request.getFolder()));
+        session.setSize(request.getSize());
+        session.setPostId(postId);
+        session.setChunkSize(Math.max(1, storageProperties.getUploadChunkSize()));
+        session.setCreatedAt(now);
+        session.setUpdatedAt(now);
+
+        Path partial = fileStorageService.uploadSessionFile(session.getId());
+        try {
+            Files.createDirectories(partial.getParent());
+            Files.createFile(partial);
+        } catch (IOException e) {
+            throw new BizException(ErrorCode.INTERNAL_ERROR, "Failed to create upload session");
+        }
+        uploadSessionMapper.insert(session);
+        return toResponse(session, List.of());
+    }
+
+    public UploadSessionResponse status(String uploadId) {
+        UploadSessionEntity session = requireSession(uploadId);
+        return toResponse(session, uploadSessionMapper.selectChunkIndexes(uploadId));
+    }
+
+    /**
+     * Stores one chunk. {@code contentRange} is {@code bytes <first>-<last>/<size>} and must cover exactly one chunk.
+     */
+    public UploadSessionResponse writeChunk(String uploadId, String contentRange, String expectedSha256, InputStream body) {
+        UploadSessionEntity session = requireSession(uploadId);
+        Matcher range = contentRange == null ? null : CONTENT_RANGE.matcher(contentRange.trim());
+        if (range == null || !range.matches()) {
+            throw new BizException(ErrorCode.BAD_REQUEST, "Content-Range must be bytes <first>-<last>/<size>");
+        }
+        long first = Long.parseLong(range.group(1));
+        long last = Long.parseLong(range.group(2));
+        if (Long.parseLong(range.group(3)) != session.getSize()) {
+            throw new BizException(ErrorCode.BAD_REQUEST, "Content-Range size does not match the upload size");
+        }
+        int chunkSize = session.getChunkSize();
+        if (first % chunkSize != 0 || first >= session.getSize()) {
+            throw new BizException(ErrorCode.BAD_REQUEST, "Chunks must start at a multiple of " + chunkSize);
+        }
+        int index = (int) (first / chunkSize);
+        long expectedLast = Math.min(first + chunkSize, session.getSize()) - 1;
+        if (last != expectedLast) {
+            throw new BizException(ErrorCode.BAD_REQUEST,
+                    "Chunk " + index + " must cover bytes " + first + "-" + expectedLast);
+        }
+
+        Lock lock = lockOf(uploadId).readLock();
+        lock.lock();
+        try {
+            Path partial = fileStorageService.uploadSessionFile(uploadId);
+            if (!Files.exists(partial)) {
+                throw new BizException(ErrorCode.NOT_FOUND, "Upload session not found");
+            }
+            String sha256;
+            try {
+                sha256 = write(partial, first, last - first + 1, body, index);
+                if (StringUtils.hasText(expectedSha256) && !sha256.equalsIgnoreCase(expectedSha256.trim())) {
+                    throw new BizException(ErrorCode.BAD_REQUEST, "Chunk " + index + " does not match its checksum");
+                }
+            } catch (BizException ex) {
+                // The failed attempt may have overwritten bytes of an earlier, complete copy of this chunk.
+                uploadSessionMapper.deleteChunk(uploadId, index);
+                throw ex;
+            }
+            uploadSessionMapper.upsertChunk(uploadId, index, sha256);
+            uploadSessionMapper.touch(uploadId, System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+        return status(uploadId);
+    }
+
+    public AssetUploadResponse complete(String uploadId) {
+        ReadWriteLock sessionLock = lockOf(uploadId);
+        sessionLock.writeLock().lock();
+        try {
+            UploadSessionEntity session = requireSession(uploadId);
+            int missing = chunkCount(session) - uploadSessionMapper.selectChunkIndexes(uploadId).size();
+            if (missing > 0) {
+                throw new BizException(ErrorCode.BAD_REQUEST,
+                        "Upload is missing " + missing + " of " + chunkCount(session) + " chunks");
+            }
+            AssetUploadResponse stored = fileStorageService.storeUploadedFile(
+                    fileStorageService.uploadSessionFile(uploadId), session.getFileName(), session.getFolder(),
+                    session.getPostId());
+            uploadSessionMapper.deleteById(uploadId);
+            locks.remove(uploadId, sessionLock);
+            return stored;
+        } finally {
+            sessionLock.writeLock().unlock();
+        }
+    }
+
+    public void cancel(String uploadId) {
+        requireSession(uploadId);
+        discard(uploadId);
+    }
+
+    /**
+     * Discards sessions that received no chunk within the TTL, and partial files whose session is gone.
+     */
+    @Scheduled(initialDelay = 60_000, fixedDelayString = "${app.storage.upload-purge-interval-ms:3600000}")
+    public int purgeExpired() {
+        if (nodeProperties.isReader()) {
+            return 0;
+        }
+        long cutoff = System.currentTimeMillis() - storageProperties.getUploadSessionTtlMs();
+        List<String> expired = uploadSessionMapper.selectExpiredIds(cutoff);
+        expired.forEach(this::discard);
+
+        int orphans = 0;
+        Path sessionDir = fileStorageService.uploadSessionDirectory();
+        if (Files.isDirectory(sessionDir)) {
+            Set<String> live = new HashSet<>(uploadSessionMapper.selectIds());
+            try (Stream<Path> files = Files.list(sessionDir)) {
+                for (Path file : files.toList()) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(PARTIAL_SUFFIX)
+                            && !live.contains(name.substring(0, name.length() - PARTIAL_SUFFIX.length()))
+                            && Files.getLastModifiedTime(file).toMillis() < cutoff
+                            && Files.deleteIfExists(file)) {
+                        orphans++;
+                    }
+                }
+            } catch (IOException ex) {
+                log.warn("Failed to clean up partial uploads in {}", sessionDir, ex);
+            }
+        }
+        if (!expired.isEmpty() || orphans > 0) {
+            log.info("Discarded {} expired upload sessions and {} orphaned partial files", expired.size(), orphans);
+        }
+        return expired.size() + orphans;
+    }
+
+    private void discard(String uploadId) {
+        ReadWriteLock sessionLock = lockOf(uploadId);
+        sessionLock.writeLock().lock();
+        try {
+            uploadSessionMapper.deleteById(uploadId);
+            Files.deleteIfExists(fileStorageService.uploadSessionFile(uploadId));
+            locks.remove(uploadId, sessionLock);
+        } catch (IOException ex) {
+            log.warn("Failed to delete the partial file of upload {}", uploadId, ex);
+        } finally {
+            sessionLock.writeLock().unlock();
+        }
+    }
+
+    private String write(Path partial, long position, long length, InputStream body, int index) {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+            while (written < length) {
+                int read = body.read(buffer, 0, (int) Math.min(buffer.length, length - written));
+                if (read < 0) {
+                    throw new BizException(ErrorCode.BAD_REQUEST,
+                            "Chunk " + index + " ended after " + written + " of " + length + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                while (bytes.hasRemaining()) {
+                    written += channel.write(bytes, position + written);
+                }
+            }
+            if (body.read() >= 0) {
+                throw new BizException(ErrorCode.BAD_REQUEST, "Chunk " + index + " is longer than its Content-Range");
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new BizException(ErrorCode.INTERNAL_ERROR, "Failed to store chunk " + index);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private UploadSessionEntity requireSession(String uploadId) {
+        UploadSessionEntity session = uploadSessionMapper.selectById(uploadId);
+        if (session == null) {
+            throw new BizException(ErrorCode.NOT_FOUND, "Upload session not found");
+        }
+        return session;
+    }
+
+    private UploadSessionResponse toResponse(UploadSessionEntity session, List<Integer> receivedChunks) {
+        return new UploadSessionResponse(
+                session.getId(),
+                session.getFileName(),
+                session.getSize(),
+                session.getChunkSize(),
+                chunkCount(session),
+                receivedChunks,
+                session.getUpdatedAt() + storageProperties.getUploadSessionTtlMs()
+        );
+    }
+
+    private int chunkCount(UploadSessionEntity session) {
+        return (int) ((session.getSize() + session.getChunkSize() - 1) / session.getChunkSize());
+    }
+
+    private ReadWriteLock lockOf(String uploadId) {
+        return locks.computeIfAbsent(uploadId, key -> new ReentrantReadWriteLock());
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
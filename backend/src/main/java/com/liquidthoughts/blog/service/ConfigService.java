@@ -3,9 +3,12 @@ package com.liquidthoughts.blog.service;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.liquidthoughts.blog.dto.ConfigUpdateRequest;
 import com.liquidthoughts.blog.entity.ConfigEntity;
+import com.liquidthoughts.blog.event.ConfigChangedEvent;
 import com.liquidthoughts.blog.mapper.ConfigMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
 
@@ -13,12 +16,19 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ConfigService {
 
+    private static final String CONFIG_CACHE = "configs";
+
     private final ConfigMapper configMapper;
+    private final ReadCacheService readCacheService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Returns all configs from the read cache; concurrent requests after an expiry share one query.
+     */
     public List<ConfigEntity> listAll() {
-        return configMapper.selectList(
-                new LambdaQueryWrapper<ConfigEntity>().orderByAsc(ConfigEntity::getKey)
-        );
+        return readCacheService.<String, List<ConfigEntity>>cache(CONFIG_CACHE).get(CONFIG_CACHE, () -> List.copyOf(
+                configMapper.selectList(new LambdaQueryWrapper<ConfigEntity>().orderByAsc(ConfigEntity::getKey))
+        ));
     }
 
     public ConfigEntity updateByKey(String key, ConfigUpdateRequest request) {
@@ -29,6 +39,7 @@ public class ConfigService {
             entity.setType(resolveType(key, request.getType()));
             entity.setValue(request.getValue());
             configMapper.insert(entity);
+            eventPublisher.publishEvent(new ConfigChangedEvent());
             return entity;
         }
 
@@ -37,9 +48,15 @@ public class ConfigService {
             entity.setType(request.getType());
         }
         configMapper.updateById(entity);
+        eventPublisher.publishEvent(new ConfigChangedEvent());
         return entity;
     }
 
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfigChanged(ConfigChangedEvent event) {
+        readCacheService.invalidate(CONFIG_CACHE);
+    }
+
     private String resolveType(String key, String type) {
         if (type != null && !type.isBlank()) {
             return type;
@@ -0,0 +1,143 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.ErrorCode;
+import com.liquidthoughts.blog.dto.CompactionReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One-off cleanup of rows left behind before foreign keys were enforced, followed by VACUUM and ANALYZE.
+ * Tables created before the foreign keys were declared are rebuilt with them by the schema migrations.
+ */
+@Slf4j
+@Service
+public class DatabaseMaintenanceService {
+
+    private final DataSource dataSource;
+    private final CategoryService categoryService;
+    private final String orphanCategoryName;
+
+    public DatabaseMaintenanceService(DataSource dataSource,
+                                      CategoryService categoryService,
+                                      @Value("${app.maintenance.orphan-category-name:Uncategorized}") String orphanCategoryName) {
+        this.dataSource = dataSource;
+        this.categoryService = categoryService;
+        this.orphanCategoryName = orphanCategoryName;
+    }
+
+    public synchronized CompactionReport compact() {
+        long startedAt = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            int reassigned;
+            int metrics;
+            int revisions;
+            int buckets;
+
+            execute(connection, "PRAGMA foreign_keys=OFF");
+            try {
+                connection.setAutoCommit(false);
+                try {
+                    reassigned = reassignOrphanPosts(connection);
+                    metrics = update(connection, "DELETE FROM post_metrics WHERE post_row_id NOT IN (SELECT row_id FROM posts)");
+                    revisions = update(connection, "DELETE FROM post_revisions WHERE post_id NOT IN (SELECT id FROM posts)");
+                    buckets = update(connection, "DELETE FROM post_metric_buckets WHERE post_id NOT IN (SELECT id FROM posts)");
+                    assertNoViolations(connection);
+                    connection.commit();
+                } catch (SQLException | RuntimeException ex) {
+                    connection.rollback();
+                    throw ex;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } finally {
+                execute(connection, "PRAGMA foreign_keys=ON");
+            }
+
+            execute(connection, "VACUUM");
+            execute(connection, "ANALYZE");
+
+            if (reassigned > 0) {
+                categoryService.invalidate();
+            }
+            CompactionReport report = new CompactionReport(reassigned, metrics, revisions, buckets,
+                    System.currentTimeMillis() - startedAt);
+            log.info("Database compaction finished: {}", report);
+            return report;
+        } catch (SQLException ex) {
+            log.error("Database compaction failed", ex);
+            throw new BizException(ErrorCode.INTERNAL_ERROR, "Database compaction failed: " + ex.getMessage());
+        }
+    }
+
+    private int reassignOrphanPosts(Connection connection) throws SQLException {
+        String orphanFilter = "category_id NOT IN (SELECT id FROM categories)";
+        if (count(connection, "SELECT COUNT(*) FROM posts WHERE " + orphanFilter) == 0) {
+            return 0;
+        }
+
+        Integer targetId = null;
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM categories WHERE name = ? ORDER BY id LIMIT 1")) {
+            statement.setString(1, orphanCategoryName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    targetId = resultSet.getInt(1);
+                }
+            }
+        }
+        if (targetId == null) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO categories (name, slug, description, icon, color) VALUES (?, ?, '', 'folder', '#195de6')",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                statement.setString(1, orphanCategoryName);
+                statement.setString(2, orphanCategoryName.toLowerCase().trim().replaceAll("\\s+", "-"));
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    keys.next();
+                    targetId = keys.getInt(1);
+                }
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement("UPDATE posts SET category_id = ? WHERE " + orphanFilter)) {
+            statement.setInt(1, targetId);
+            return statement.executeUpdate();
+        }
+    }
+
+    private void assertNoViolations(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA foreign_key_check")) {
+            if (resultSet.next()) {
+                throw new SQLException("Foreign key violation remains in table " + resultSet.getString(1));
+            }
+        }
+    }
+
+    private long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    private int update(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(sql);
+        }
+    }
+
+    private void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
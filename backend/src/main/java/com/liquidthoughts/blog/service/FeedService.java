@@ -0,0 +1,375 @@
+package com.liquidthoughts.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.liquidthoughts.blog.config.FeedProperties;
+import com.liquidthoughts.blog.entity.ConfigEntity;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.event.ConfigChangedEvent;
+import com.liquidthoughts.blog.event.NodeResyncEvent;
+import com.liquidthoughts.blog.event.PostChangedEvent;
+import com.liquidthoughts.blog.mapper.ConfigMapper;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Serves the sitemap and the RSS and Atom feeds of published posts from cached byte buffers.
+ * <p>
+ * Every published post keeps its pre-rendered sitemap, RSS and Atom fragments, ordered by creation time. When a post
+ * changes, only its own fragments are rendered again. The feeds are reassembled from the cached fragments of the
+ * newest posts, and only when the changed post is or was among them. The sitemap is split into chunks of
+ * {@link FeedProperties#getSitemapChunkSize()} URLs, oldest first, so a new post only touches the last chunk. Past
+ * one chunk {@code /sitemap.xml} becomes a sitemap index.
+ * <p>
+ * The site title is read from the {@code site_title} config whenever a feed is reassembled, and a config change drops
+ * the assembled feeds so they pick up a new title.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedService {
+
+    private static final String PUBLISHED = "published";
+    private static final String SITE_TITLE_KEY = "site_title";
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+    private static final DateTimeFormatter RFC_1123 = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private final PostMapper postMapper;
+    private final ConfigMapper configMapper;
+    private final FeedProperties feedProperties;
+
+    private final NavigableMap<EntryKey, Entry> entries = new TreeMap<>();
+    private final Map<String, EntryKey> keys = new HashMap<>();
+    private final List<FeedDocument> sitemapChunks = new ArrayList<>();
+    private FeedDocument sitemapIndex;
+    private FeedDocument rss;
+    private FeedDocument atom;
+
+    @EventListener({ApplicationReadyEvent.class, NodeResyncEvent.class})
+    public synchronized void rebuild() {
+        entries.clear();
+        keys.clear();
+        List<PostEntity> posts = postMapper.selectList(
+                new LambdaQueryWrapper<PostEntity>()
+                        .select(PostEntity::getId, PostEntity::getTitle, PostEntity::getSummary,
+                                PostEntity::getCreatedAt, PostEntity::getUpdatedAt)
+                        .eq(PostEntity::getStatus, PUBLISHED)
+        );
+        for (PostEntity post : posts) {
+            Entry entry = render(post);
+            entries.put(entry.key(), entry);
+            keys.put(post.getId(), entry.key());
+        }
+        invalidateFeeds();
+        invalidateSitemapFrom(0);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostChanged(PostChangedEvent event) {
+        PostEntity current = event.getCurrent();
+        EntryKey previousKey = keys.get(event.getPostId());
+        boolean listed = current != null && PUBLISHED.equals(current.getStatus());
+        if (previousKey == null && !listed) {
+            return;
+        }
+
+        Entry entry = listed ? render(current) : null;
+        if (entry != null && entry.key().equals(previousKey)) {
+            entries.put(entry.key(), entry);
+            invalidateSitemapChunk(position(entry.key()) / chunkSize());
+            if (inFeed(entry.key())) {
+                invalidateFeeds();
+            }
+            return;
+        }
+
+        if (previousKey != null) {
+            if (inFeed(previousKey)) {
+                invalidateFeeds();
+            }
+            invalidateSitemapFrom(position(previousKey));
+            entries.remove(previousKey);
+            keys.remove(event.getPostId());
+        }
+        if (entry != null) {
+            entries.put(entry.key(), entry);
+            keys.put(current.getId(), entry.key());
+            if (inFeed(entry.key())) {
+                invalidateFeeds();
+            }
+            invalidateSitemapFrom(position(entry.key()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onConfigChanged(ConfigChangedEvent event) {
+        invalidateFeeds();
+    }
+
+    public synchronized FeedDocument rss() {
+        if (rss == null) {
+            List<Entry> newest = newest();
+            String title = escape(siteTitle());
+            String home = escape(link(""));
+            StringBuilder head = new StringBuilder(XML_DECLARATION)
+                    .append("<rss version=\"2.0\" xmlns:atom=\"http://www.w3.org/2005/Atom\"><channel>")
+                    .append("<title>").append(title).append("</title>")
+                    .append("<link>").append(home).append("</link>")
+                    .append("<description>").append(title).append("</description>")
+                    .append("<atom:link href=\"").append(escape(link("rss.xml")))
+                    .append("\" rel=\"self\" type=\"application/rss+xml\"/>");
+            Instant lastModified = lastModified(newest);
+            if (!newest.isEmpty()) {
+                head.append("<lastBuildDate>").append(RFC_1123.format(lastModified)).append("</lastBuildDate>");
+            }
+            rss = assemble(head.toString(), newest, Entry::rssItem, "</channel></rss>", lastModified);
+        }
+        return rss;
+    }
+
+    public synchronized FeedDocument atom() {
+        if (atom == null) {
+            List<Entry> newest = newest();
+            Instant lastModified = lastModified(newest);
+            String head = XML_DECLARATION
+                    + "<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+                    + "<title>" + escape(siteTitle()) + "</title>"
+                    + "<link href=\"" + escape(link("")) + "\"/>"
+                    + "<link href=\"" + escape(link("atom.xml")) + "\" rel=\"self\"/>"
+                    + "<id>" + escape(link("")) + "</id>"
+                    + "<updated>" + lastModified + "</updated>";
+            atom = assemble(head, newest, Entry::atomEntry, "</feed>", lastModified);
+        }
+        return atom;
+    }
+
+    /**
+     * Returns the only sitemap, or the sitemap index once the posts no longer fit in one chunk.
+     */
+    public synchronized FeedDocument sitemap() {
+        int chunkCount = chunkCount();
+        if (chunkCount == 1) {
+            return sitemapChunk(1);
+        }
+        if (sitemapIndex == null) {
+            StringBuilder body = new StringBuilder(XML_DECLARATION)
+                    .append("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+            Instant lastModified = Instant.EPOCH;
+            for (int number = 1; number <= chunkCount; number++) {
+                FeedDocument chunk = sitemapChunk(number);
+                Instant chunkModified = Instant.ofEpochMilli(chunk.lastModified());
+                body.append("<sitemap><loc>").append(escape(link("sitemap-" + number + ".xml"))).append("</loc>")
+                        .append("<lastmod>").append(chunkModified).append("</lastmod></sitemap>");
+                lastModified = chunkModified.isAfter(lastModified) ? chunkModified : lastModified;
+            }
+            body.append("</sitemapindex>");
+            sitemapIndex = document(body.toString().getBytes(StandardCharsets.UTF_8), lastModified);
+        }
+        return sitemapIndex;
+    }
+
+    /**
+     * Returns one chunk of the sitemap, numbered from 1, or null when there is no such chunk.
+     */
+    public synchronized FeedDocument sitemapChunk(int number) {
+        int chunkCount = chunkCount();
+        if (number < 1 || number > chunkCount) {
+            return null;
+        }
+        while (sitemapChunks.size() < chunkCount) {
+            sitemapChunks.add(null);
+        }
+        while (sitemapChunks.size() > chunkCount) {
+            sitemapChunks.remove(sitemapChunks.size() - 1);
+        }
+
+        FeedDocument chunk = sitemapChunks.get(number - 1);
+        if (chunk == null) {
+            int chunkSize = chunkSize();
+            List<Entry> urls = entries.values().stream()
+                    .skip((long) (number - 1) * chunkSize)
+                    .limit(chunkSize)
+                    .toList();
+            chunk = assemble(XML_DECLARATION + "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">",
+                    urls, Entry::sitemapUrl, "</urlset>", lastModified(urls));
+            sitemapChunks.set(number - 1, chunk);
+        }
+        return chunk;
+    }
+
+    private Entry render(PostEntity post) {
+        String link = escape(link("?post=" + post.getId()));
+        String title = escape(post.getTitle());
+        String summary = escape(post.getSummary());
+        Instant createdAt = toInstant(post.getCreatedAt());
+        Instant updatedAt = post.getUpdatedAt() == null ? createdAt : toInstant(post.getUpdatedAt());
+
+        String rssItem = "<item><title>" + title + "</title>"
+                + "<link>" + link + "</link>"
+                + "<guid isPermaLink=\"true\">" + link + "</guid>"
+                + "<pubDate>" + RFC_1123.format(createdAt) + "</pubDate>"
+                + "<description>" + summary + "</description></item>";
+        String atomEntry = "<entry><title>" + title + "</title>"
+                + "<link href=\"" + link + "\"/>"
+                + "<id>" + link + "</id>"
+                + "<published>" + createdAt + "</published>"
+                + "<updated>" + updatedAt + "</updated>"
+                + "<summary>" + summary + "</summary></entry>";
+        String sitemapUrl = "<url><loc>" + link + "</loc><lastmod>" + updatedAt + "</lastmod></url>";
+
+        return new Entry(new EntryKey(createdAt, post.getId()), updatedAt,
+                rssItem.getBytes(StandardCharsets.UTF_8),
+                atomEntry.getBytes(StandardCharsets.UTF_8),
+                sitemapUrl.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private FeedDocument assemble(String head, List<Entry> items, Function<Entry, byte[]> fragment,
+                                  String tail, Instant lastModified) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+        for (Entry item : items) {
+            body.writeBytes(fragment.apply(item));
+        }
+        body.writeBytes(tail.getBytes(StandardCharsets.UTF_8));
+        return document(body.toByteArray(), lastModified);
+    }
+
+    private FeedDocument document(byte[] body, Instant lastModified) {
+        return new FeedDocument(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"", lastModified.toEpochMilli());
+    }
+
+    private List<Entry> newest() {
+        List<Entry> newest = new ArrayList<>(feedProperties.getFeedSize());
+        Iterator<Entry> iterator = entries.descendingMap().values().iterator();
+        while (iterator.hasNext() && newest.size() < feedProperties.getFeedSize()) {
+            newest.add(iterator.next());
+        }
+        return newest;
+    }
+
+    private boolean inFeed(EntryKey key) {
+        Iterator<EntryKey> iterator = entries.descendingKeySet().iterator();
+        for (int index = 0; index < feedProperties.getFeedSize() && iterator.hasNext(); index++) {
+            if (iterator.next().equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int position(EntryKey key) {
+        return entries.headMap(key, false).size();
+    }
+
+    private void invalidateFeeds() {
+        rss = null;
+        atom = null;
+    }
+
+    private void invalidateSitemapChunk(int index) {
+        if (index < sitemapChunks.size()) {
+            sitemapChunks.set(index, null);
+        }
+        sitemapIndex = null;
+    }
+
+    private void invalidateSitemapFrom(int position) {
+        for (int index = position / chunkSize(); index < sitemapChunks.size(); index++) {
+            sitemapChunks.set(index, null);
+        }
+        sitemapIndex = null;
+    }
+
+    private int chunkSize() {
+        return Math.max(1, feedProperties.getSitemapChunkSize());
+    }
+
+    private int chunkCount() {
+        return Math.max(1, (entries.size() + chunkSize() - 1) / chunkSize());
+    }
+
+    private String siteTitle() {
+        ConfigEntity config = configMapper.selectById(SITE_TITLE_KEY);
+        return config != null && config.getValue() != null && !config.getValue().isBlank()
+                ? config.getValue()
+                : feedProperties.getSiteUrl();
+    }
+
+    private String link(String path) {
+        String siteUrl = feedProperties.getSiteUrl();
+        return (siteUrl.endsWith("/") ? siteUrl : siteUrl + "/") + path;
+    }
+
+    private static Instant lastModified(List<Entry> items) {
+        return items.stream()
+                .map(Entry::updatedAt)
+                .max(Comparator.naturalOrder())
+                .orElse(Instant.EPOCH);
+    }
+
+    private static Instant toInstant(Long millis) {
+        return millis == null ? Instant.EPOCH : Instant.ofEpochMilli(millis);
+    }
+
+    /**
+     * Escapes text for XML content and attributes, dropping characters XML 1.0 cannot carry.
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 16);
+        for (int index = 0; index < value.length(); index++) {
+            char ch = value.charAt(index);
+            switch (ch) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&apos;");
+                default -> {
+                    if (ch >= 0x20 && ch != 0xFFFE && ch != 0xFFFF || ch == '\t' || ch == '\n' || ch == '\r') {
+                        escaped.append(ch);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * A rendered document with its strong validator and the latest modification time of the posts it lists.
+     */
+    public record FeedDocument(byte[] body, String etag, long lastModified) {
+    }
+
+    private record EntryKey(Instant createdAt, String id) implements Comparable<EntryKey> {
+
+        @Override
+        public int compareTo(EntryKey other) {
+            int byTime = createdAt.compareTo(other.createdAt);
+            return byTime != 0 ? byTime : id.compareTo(other.id);
+        }
+    }
+
+    private record Entry(EntryKey key, Instant updatedAt, byte[] rssItem, byte[] atomEntry, byte[] sitemapUrl) {
+    }
+}
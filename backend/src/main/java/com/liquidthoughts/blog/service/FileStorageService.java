@@ -4,61 +4,74 @@ import com.liquidthoughts.blog.common.BizException;
 import com.liquidthoughts.blog.common.ErrorCode;
 import com.liquidthoughts.blog.config.StorageProperties;
 import com.liquidthoughts.blog.dto.AssetUploadResponse;
+import com.liquidthoughts.blog.entity.AssetEntity;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FileStorageService {
 
     private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String MARKDOWN_EXTENSION = ".md";
 
     private final StorageProperties storageProperties;
+    private final AssetStore assetStore;
+    private final AssetIndexService assetIndexService;
 
-    public List<AssetUploadResponse> storeAssets(MultipartFile[] files, String folderHint) {
+    public List<AssetUploadResponse> storeAssets(MultipartFile[] files, String folderHint, String postId) {
         if (files == null || files.length == 0) {
             throw new BizException(ErrorCode.BAD_REQUEST, "No files uploaded");
         }
+        assetIndexService.requirePost(postId);
 
-        String targetFolder = StringUtils.hasText(folderHint)
-                ? sanitizeFolder(folderHint)
-                : "articles/" + LocalDate.now().format(MONTH_FORMATTER);
-
-        Path uploadDir = buildUploadDirectory(targetFolder);
-        ensureDirectory(uploadDir);
+        String targetFolder = resolveUploadFolder(folderHint);
+        ensureDirectory(uploadSessionDirectory());
 
         List<AssetUploadResponse> results = new ArrayList<>();
+        List<AssetEntity> assets = new ArrayList<>();
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
         for (MultipartFile file : files) {
             if (file == null || file.isEmpty()) {
                 continue;
             }
 
             String safeOriginalName = sanitizeFilename(file.getOriginalFilename());
-            String extension = extractExtension(safeOriginalName);
-            String storedName = UUID.randomUUID().toString().replace("-", "") + extension;
-            Path storedPath = uploadDir.resolve(storedName);
-
+            String storedName = UUID.randomUUID().toString().replace("-", "") + extractExtension(safeOriginalName);
+            Path staged = uploadSessionFile(UUID.randomUUID().toString().replace("-", ""));
             try {
-                Files.copy(file.getInputStream(), storedPath, StandardCopyOption.REPLACE_EXISTING);
+                file.transferTo(staged);
             } catch (IOException e) {
                 throw new BizException(ErrorCode.INTERNAL_ERROR, "Failed to store file: " + safeOriginalName);
             }
 
             String relativePath = targetFolder + "/" + storedName;
+            AssetEntity asset = assetIndexService.describe(staged, relativePath, safeOriginalName);
+            asset.setPostId(postId);
+            assets.add(asset);
+            writes.add(assetStore.put(relativePath, staged, asset.getMimeType()));
             results.add(new AssetUploadResponse(
                     safeOriginalName,
                     "/uploads/" + relativePath,
@@ -71,23 +84,105 @@ public class FileStorageService {
             throw new BizException(ErrorCode.BAD_REQUEST, "No valid files uploaded");
         }
 
+        // The files go to the store side by side; answer once all of them can be read back.
+        for (int i = 0; i < writes.size(); i++) {
+            awaitStored(writes.get(i), results.get(i).getOriginalName());
+            assetIndexService.record(assets.get(i));
+        }
         return results;
     }
 
+    /**
+     * Returns the upload folder for a client's folder hint, or the folder of the current month when there is none.
+     */
+    public String resolveUploadFolder(String folderHint) {
+        return StringUtils.hasText(folderHint)
+                ? sanitizeFolder(folderHint)
+                : "articles/" + LocalDate.now().format(MONTH_FORMATTER);
+    }
+
+    public Path uploadSessionDirectory() {
+        return Path.of(storageProperties.getRootPath(), storageProperties.getUploadSessionDir()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Returns the partial file a resumable upload writes its chunks into.
+     */
+    public Path uploadSessionFile(String uploadId) {
+        return uploadSessionDirectory().resolve(sanitizeFilename(uploadId) + ".part");
+    }
+
+    /**
+     * Indexes the finished partial file of a resumable upload and hands it to the asset store under a generated
+     * name. With the local backend this is a rename within the storage root, so the bytes are not copied again.
+     */
+    public AssetUploadResponse storeUploadedFile(Path partialFile, String originalName, String folder, String postId) {
+        String safeOriginalName = sanitizeFilename(originalName);
+        String storedName = UUID.randomUUID().toString().replace("-", "") + extractExtension(safeOriginalName);
+        String relativePath = folder + "/" + storedName;
+        AssetEntity asset = assetIndexService.describe(partialFile, relativePath, safeOriginalName);
+        asset.setPostId(postId);
+        awaitStored(assetStore.put(relativePath, partialFile, asset.getMimeType()), safeOriginalName);
+        assetIndexService.record(asset);
+        return new AssetUploadResponse(safeOriginalName, "/uploads/" + relativePath, relativePath, asset.getSize());
+    }
+
+    /**
+     * Writes the markdown mirror through a synced temp file and an atomic rename, so readers and crashes only ever
+     * observe the previous or the new content.
+     */
     public void writePostMarkdown(String postId, String markdownContent) {
         Path markdownDir = buildPostMarkdownDirectory();
         ensureDirectory(markdownDir);
 
-        Path markdownFile = markdownDir.resolve(sanitizeFilename(postId) + ".md");
+        Path markdownFile = markdownDir.resolve(sanitizeFilename(postId) + MARKDOWN_EXTENSION);
+        Path tempFile = markdownDir.resolve(sanitizeFilename(postId) + MARKDOWN_EXTENSION + ".tmp");
+        byte[] bytes = (markdownContent == null ? "" : markdownContent).getBytes(StandardCharsets.UTF_8);
         try {
-            Files.writeString(markdownFile, markdownContent == null ? "" : markdownContent, StandardCharsets.UTF_8);
+            try (FileChannel channel = FileChannel.open(tempFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tempFile, markdownFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             throw new BizException(ErrorCode.INTERNAL_ERROR, "Failed to persist post markdown file");
         }
     }
 
+    public byte[] readPostMarkdown(String postId) {
+        Path markdownFile = buildPostMarkdownDirectory().resolve(sanitizeFilename(postId) + MARKDOWN_EXTENSION);
+        try {
+            return Files.exists(markdownFile) ? Files.readAllBytes(markdownFile) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public String postMarkdownKey(String postId) {
+        return sanitizeFilename(postId);
+    }
+
+    public List<String> listPostMarkdownKeys() {
+        Path markdownDir = buildPostMarkdownDirectory();
+        if (!Files.isDirectory(markdownDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(markdownDir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(MARKDOWN_EXTENSION))
+                    .map(name -> name.substring(0, name.length() - MARKDOWN_EXTENSION.length()))
+                    .toList();
+        } catch (IOException e) {
+            throw new BizException(ErrorCode.INTERNAL_ERROR, "Failed to list post markdown files");
+        }
+    }
+
     public void deletePostMarkdown(String postId) {
-        Path markdownFile = buildPostMarkdownDirectory().resolve(sanitizeFilename(postId) + ".md");
+        Path markdownFile = buildPostMarkdownDirectory().resolve(sanitizeFilename(postId) + MARKDOWN_EXTENSION);
         try {
             Files.deleteIfExists(markdownFile);
         } catch (IOException e) {
@@ -95,8 +190,13 @@ public class FileStorageService {
         }
     }
 
-    private Path buildUploadDirectory(String relativeFolder) {
-        return Path.of(storageProperties.getRootPath(), storageProperties.getUploadSubDir(), relativeFolder).toAbsolutePath().normalize();
+    private void awaitStored(CompletableFuture<Void> write, String originalName) {
+        try {
+            write.join();
+        } catch (CompletionException e) {
+            log.warn("Failed to store asset {}", originalName, e.getCause());
+            throw new BizException(ErrorCode.INTERNAL_ERROR, "Failed to store file: " + originalName);
+        }
     }
 
     private Path buildPostMarkdownDirectory() {
@@ -0,0 +1,115 @@
+package com.liquidthoughts.blog.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps assets under the local upload directory, which {@code /uploads/} serves as static resources.
+ * <p>
+ * Uploads are received into the same file system, so storing one is a rename and the asset is readable when
+ * {@link #put} returns. Flushing it to disk, and copying it when the rename crosses file systems, runs on the
+ * {@code asset-writer} threads, so the request thread does not wait on the disk.
+ */
+@Slf4j
+public class LocalAssetStore implements AssetStore {
+
+    private final Path root;
+    private final int writerThreads;
+
+    private ExecutorService writers;
+
+    public LocalAssetStore(Path root, int writerThreads) {
+        this.root = root;
+        this.writerThreads = writerThreads;
+    }
+
+    @Override
+    public CompletableFuture<Void> put(String key, Path source, String contentType) {
+        Path target = resolve(key);
+        try {
+            Files.createDirectories(target.getParent());
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            return CompletableFuture.runAsync(() -> copy(source, target), writers());
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        writers().execute(() -> flush(target));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public Optional<URI> downloadUrl(String key) {
+        return Optional.empty();
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (writers != null) {
+            writers.shutdown();
+        }
+    }
+
+    private Path resolve(String key) {
+        Path target = root.resolve(key).normalize();
+        if (!target.startsWith(root)) {
+            throw new IllegalArgumentException("Asset key escapes the upload directory: " + key);
+        }
+        return target;
+    }
+
+    private void copy(Path source, Path target) {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            force(temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush(Path target) {
+        try {
+            force(target);
+        } catch (IOException e) {
+            log.warn("Failed to flush asset {} to disk", target, e);
+        }
+    }
+
+    private void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    private synchronized ExecutorService writers() {
+        if (writers == null) {
+            writers = Executors.newFixedThreadPool(Math.max(1, writerThreads), runnable -> {
+                Thread thread = new Thread(runnable, "asset-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return writers;
+    }
+}
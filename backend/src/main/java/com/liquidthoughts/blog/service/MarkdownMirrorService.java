@@ -0,0 +1,287 @@
+package com.liquidthoughts.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.liquidthoughts.blog.config.NodeProperties;
+import com.liquidthoughts.blog.config.StorageProperties;
+import com.liquidthoughts.blog.entity.MarkdownJournalEntity;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.mapper.MarkdownJournalMapper;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@code storage/posts/{id}.md} in sync with {@code posts.content} off the request path.
+ * <p>
+ * Every change first records an intent in {@code markdown_journal} inside the caller's transaction. After commit the
+ * post id is queued; queued ids are drained in batches after a short delay so rapid re-saves of one post collapse
+ * into a single write of its latest content. A journal row is removed only once the file matches the hash it asks
+ * for, so pending intents survive a crash and are replayed on the next start together with a full hash comparison.
+ * A failed write is queued again after {@code app.storage.markdown-retry-initial-delay-ms}, doubling per failure up
+ * to {@code app.storage.markdown-retry-max-delay-ms}, until it succeeds or the app stops.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MarkdownMirrorService {
+
+    private static final int RECONCILE_PAGE_SIZE = 200;
+
+    private final MarkdownJournalMapper journalMapper;
+    private final PostMapper postMapper;
+    private final FileStorageService fileStorageService;
+    private final StorageProperties storageProperties;
+    private final NodeProperties nodeProperties;
+
+    private final Set<String> queued = new LinkedHashSet<>();
+    private final Map<String, Integer> failures = new HashMap<>();
+    private final Map<String, ScheduledFuture<?>> retries = new HashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "markdown-mirror");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ExecutorService writers;
+    private boolean drainScheduled;
+
+    /**
+     * Records that the mirror of the post must converge to {@code content}, or be removed when content is null.
+     */
+    public void schedule(String postId, String content) {
+        scheduleAll(List.of(journalEntry(postId, content)));
+    }
+
+    public void scheduleAll(Collection<MarkdownJournalEntity> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        journalMapper.upsertBatch(new ArrayList<>(entries));
+        List<String> postIds = entries.stream().map(MarkdownJournalEntity::getPostId).toList();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(postIds);
+                }
+            });
+        } else {
+            enqueue(postIds);
+        }
+    }
+
+    public MarkdownJournalEntity journalEntry(String postId, String content) {
+        MarkdownJournalEntity entry = new MarkdownJournalEntity();
+        entry.setPostId(postId);
+        entry.setContentHash(content == null ? null : sha256(content.getBytes(StandardCharsets.UTF_8)));
+        entry.setQueuedAt(Instant.now().toString());
+        return entry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (nodeProperties.isReader()) {
+            return;
+        }
+        List<String> pending = journalMapper.selectList(null).stream().map(MarkdownJournalEntity::getPostId).toList();
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} pending markdown mirror writes", pending.size());
+            enqueue(pending);
+        }
+        if (storageProperties.isReconcileMarkdownOnStartup()) {
+            scheduler.execute(this::reconcile);
+        }
+    }
+
+    /**
+     * Compares every post with its mirror file by content hash and queues the ones that drifted.
+     * Mirror files without a post are only reported: they may be the last copy of content this database never had.
+     */
+    public void reconcile() {
+        Set<String> postKeys = new HashSet<>();
+        List<String> drifted = new ArrayList<>();
+        String lastId = null;
+        while (true) {
+            List<PostEntity> page = postMapper.selectList(
+                    new LambdaQueryWrapper<PostEntity>()
+                            .select(PostEntity::getId, PostEntity::getContent)
+                            .gt(lastId != null, PostEntity::getId, lastId)
+                            .orderByAsc(PostEntity::getId)
+                            .last("LIMIT " + RECONCILE_PAGE_SIZE)
+            );
+            for (PostEntity post : page) {
+                postKeys.add(fileStorageService.postMarkdownKey(post.getId()));
+                byte[] mirrored = fileStorageService.readPostMarkdown(post.getId());
+                String expectedHash = sha256(nullToEmpty(post.getContent()).getBytes(StandardCharsets.UTF_8));
+                if (mirrored == null || !expectedHash.equals(sha256(mirrored))) {
+                    drifted.add(post.getId());
+                }
+            }
+            if (page.size() < RECONCILE_PAGE_SIZE) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+
+        long orphans = fileStorageService.listPostMarkdownKeys().stream().filter(key -> !postKeys.contains(key)).count();
+        if (orphans > 0) {
+            log.info("Found {} markdown mirror files without a matching post, leaving them in place", orphans);
+        }
+        if (!drifted.isEmpty()) {
+            log.info("Repairing {} drifted markdown mirror files", drifted.size());
+            enqueue(drifted);
+        }
+    }
+
+    /**
+     * Blocks until every queued mirror write has been applied.
+     */
+    public void awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (System.nanoTime() < deadline) {
+            synchronized (this) {
+                if (queued.isEmpty() && !drainScheduled) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            drainScheduled = true;
+            retries.values().forEach(retry -> retry.cancel(false));
+            retries.clear();
+        }
+        scheduler.execute(this::drain);
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writers != null) {
+            writers.shutdown();
+        }
+    }
+
+    private synchronized void enqueue(Collection<String> postIds) {
+        queued.addAll(postIds);
+        if (!drainScheduled && !scheduler.isShutdown()) {
+            drainScheduled = true;
+            scheduler.schedule(this::drain, storageProperties.getMarkdownFlushDelayMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drain() {
+        List<String> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(queued);
+            queued.clear();
+        }
+
+        List<CompletableFuture<Boolean>> writes = batch.stream()
+                .map(postId -> CompletableFuture.supplyAsync(() -> apply(postId), writers()))
+                .toList();
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+
+        synchronized (this) {
+            for (int index = 0; index < batch.size(); index++) {
+                if (writes.get(index).join()) {
+                    failures.remove(batch.get(index));
+                } else {
+                    retryLater(batch.get(index));
+                }
+            }
+            drainScheduled = false;
+            if (!queued.isEmpty() && !scheduler.isShutdown()) {
+                drainScheduled = true;
+                scheduler.schedule(this::drain, storageProperties.getMarkdownFlushDelayMs(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private boolean apply(String postId) {
+        try {
+            PostEntity post = postMapper.selectById(postId);
+            if (post == null) {
+                fileStorageService.deletePostMarkdown(postId);
+                journalMapper.deleteIfCurrent(postId, null);
+                return true;
+            }
+            String content = nullToEmpty(post.getContent());
+            fileStorageService.writePostMarkdown(postId, content);
+            journalMapper.deleteIfCurrent(postId, sha256(content.getBytes(StandardCharsets.UTF_8)));
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Failed to mirror markdown of post {}, it stays journaled and is retried", postId, ex);
+            return false;
+        }
+    }
+
+    private synchronized void retryLater(String postId) {
+        int failed = failures.merge(postId, 1, Integer::sum);
+        if (retries.containsKey(postId) || scheduler.isShutdown()) {
+            return;
+        }
+        long delay = Math.min(storageProperties.getMarkdownRetryMaxDelayMs(),
+                storageProperties.getMarkdownRetryInitialDelayMs() << Math.min(failed - 1, 20));
+        retries.put(postId, scheduler.schedule(() -> {
+            synchronized (this) {
+                retries.remove(postId);
+            }
+            enqueue(List.of(postId));
+        }, delay, TimeUnit.MILLISECONDS));
+    }
+
+    private synchronized ExecutorService writers() {
+        if (writers == null) {
+            writers = Executors.newFixedThreadPool(Math.max(1, storageProperties.getMarkdownWriterThreads()), runnable -> {
+                Thread thread = new Thread(runnable, "markdown-mirror-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return writers;
+    }
+
+    private String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.liquidthoughts.blog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liquidthoughts.blog.config.NodeProperties;
+import com.liquidthoughts.blog.dto.NodeChannelMessage;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.event.CategoryChangedEvent;
+import com.liquidthoughts.blog.event.ConfigChangedEvent;
+import com.liquidthoughts.blog.event.NodeResyncEvent;
+import com.liquidthoughts.blog.event.PostChangedEvent;
+import com.liquidthoughts.blog.event.PostMetricEvent;
+import com.liquidthoughts.blog.event.TokenRevokedEvent;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carries changes from the writer node to reader nodes through an append-only JSON lines file on shared storage.
+ * <p>
+ * The writer truncates the file on start, writes a generation line and then appends one line per committed post
+ * change, category change, config change and token revocation. Messages are queued in memory and appended by a
+ * scheduled flush every {@code app.node.channel-flush-ms}, so no request waits on the shared file; view and like
+ * deltas are summed per post between flushes and written after the other messages. Readers poll the file from the
+ * end they saw at start and replay each line as the local event the writer saw, so their in-memory caches follow the
+ * same code paths as the writer's.
+ * <p>
+ * A post message carries the post id, the previous state without its content and whether the content changed; readers
+ * load the current row from the database. Once the file grows past {@code app.node.channel-max-bytes}, the writer
+ * replaces it with a new generation line. When the generation line changes, because the writer restarted or rotated
+ * the file, readers rebuild every cache from the database instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NodeChannelService {
+
+    private static final String GENERATION = "generation";
+    private static final String POST = "post";
+    private static final String METRIC = "metric";
+    private static final String CATEGORIES = "categories";
+    private static final String CONFIGS = "configs";
+    private static final String TOKENS = "tokens";
+
+    private final NodeProperties nodeProperties;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategoryService categoryService;
+    private final AuthService authService;
+    private final ReadCacheService readCacheService;
+    private final PostMapper postMapper;
+    private final PostTagService postTagService;
+
+    private final Queue<NodeChannelMessage> pending = new ConcurrentLinkedQueue<>();
+    private final Map<String, MetricDelta> pendingMetrics = new ConcurrentHashMap<>();
+    private ScheduledExecutorService poller;
+    private String generation;
+    private long offset;
+    private long lastGeneration;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() throws IOException {
+        Path path = channelPath();
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        if (!nodeProperties.isReader()) {
+            Files.write(path, generationLine(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            return;
+        }
+
+        generation = readGeneration(path);
+        offset = Files.exists(path) ? Files.size(path) : 0;
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "node-channel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, nodeProperties.getChannelPollMs(),
+                nodeProperties.getChannelPollMs(), TimeUnit.MILLISECONDS);
+        log.info("Reader node following {}", path.toAbsolutePath().normalize());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        PostEntity previous = event.getPrevious();
+        PostEntity current = event.getCurrent();
+        NodeChannelMessage message = new NodeChannelMessage();
+        message.setType(POST);
+        message.setPostId(event.getPostId());
+        message.setPrevious(withoutContent(previous));
+        message.setContentChanged(previous == null || current == null
+                || !Objects.equals(previous.getContent(), current.getContent()));
+        append(message);
+    }
+
+    @EventListener
+    public void onMetric(PostMetricEvent event) {
+        if (nodeProperties.isReader() || (event.getViewDelta() == 0 && event.getLikeDelta() == 0)) {
+            return;
+        }
+        pendingMetrics.merge(event.getPostId(),
+                new MetricDelta(event.getViewDelta(), event.getLikeDelta(), event.getOccurredAt()),
+                MetricDelta::plus);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        NodeChannelMessage message = new NodeChannelMessage();
+        message.setType(CATEGORIES);
+        append(message);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfigChanged(ConfigChangedEvent event) {
+        NodeChannelMessage message = new NodeChannelMessage();
+        message.setType(CONFIGS);
+        append(message);
+    }
+
+    @EventListener
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        NodeChannelMessage message = new NodeChannelMessage();
+        message.setType(TOKENS);
+        append(message);
+    }
+
+    private void append(NodeChannelMessage message) {
+        if (!nodeProperties.isReader()) {
+            pending.add(message);
+        }
+    }
+
+    /**
+     * Appends the queued messages and the summed metric deltas to the channel in one write.
+     */
+    @Scheduled(fixedDelayString = "${app.node.channel-flush-ms:100}")
+    public synchronized void flush() {
+        if (nodeProperties.isReader() || (pending.isEmpty() && pendingMetrics.isEmpty())) {
+            return;
+        }
+        List<NodeChannelMessage> messages = new ArrayList<>();
+        for (NodeChannelMessage message = pending.poll(); message != null; message = pending.poll()) {
+            messages.add(message);
+        }
+        for (String postId : pendingMetrics.keySet()) {
+            MetricDelta delta = pendingMetrics.remove(postId);
+            if (delta != null) {
+                messages.add(delta.toMessage(postId));
+            }
+        }
+
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            for (NodeChannelMessage message : messages) {
+                lines.write(line(message));
+            }
+            Path path = channelPath();
+            Files.write(path, lines.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (Files.size(path) > nodeProperties.getChannelMaxBytes()) {
+                rotate(path);
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to append {} messages to the node channel, readers will be stale until the next change",
+                    messages.size(), ex);
+        }
+    }
+
+    private synchronized void poll() {
+        Path path = channelPath();
+        long size;
+        try {
+            String current = readGeneration(path);
+            size = Files.exists(path) ? Files.size(path) : 0;
+            if (!Objects.equals(current, generation) || size < offset) {
+                generation = current;
+                offset = size;
+                resync();
+                return;
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to read the node channel", ex);
+            return;
+        }
+        if (size == offset) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size - offset, Integer.MAX_VALUE));
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                // Read up to the size seen above.
+            }
+            byte[] bytes = buffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < buffer.position(); i++) {
+                if (bytes[i] == '\n') {
+                    dispatch(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8));
+                    lineStart = i + 1;
+                }
+            }
+            offset += lineStart;
+        } catch (Exception ex) {
+            log.warn("Failed to replay the node channel, rebuilding caches from the database", ex);
+            offset = size;
+            resync();
+        }
+    }
+
+    private void dispatch(String line) throws IOException {
+        if (line.isBlank()) {
+            return;
+        }
+        NodeChannelMessage message = objectMapper.readValue(line, NodeChannelMessage.class);
+        switch (message.getType()) {
+            case POST -> replayPost(message);
+            case METRIC -> eventPublisher.publishEvent(new PostMetricEvent(message.getPostId(),
+                    message.getViewDelta(), message.getLikeDelta(), message.getOccurredAt()));
+            case CATEGORIES -> {
+                categoryService.invalidate();
+                eventPublisher.publishEvent(new CategoryChangedEvent());
+            }
+            case CONFIGS -> eventPublisher.publishEvent(new ConfigChangedEvent());
+            case TOKENS -> authService.reloadRevokedTokens();
+            case GENERATION -> {
+                // Marks the start of a writer run, checked in poll().
+            }
+            default -> log.warn("Ignoring node channel message of unknown type {}", message.getType());
+        }
+    }
+
+    private void resync() {
+        categoryService.invalidate();
+        eventPublisher.publishEvent(new NodeResyncEvent());
+        readCacheService.invalidateAll();
+        log.info("Rebuilt caches after the writer node restarted or rotated the channel");
+    }
+
+    /**
+     * Publishes a post change with the current row read from the database, which the writer committed before it
+     * queued the message.
+     */
+    private void replayPost(NodeChannelMessage message) {
+        PostEntity current = postMapper.selectById(message.getPostId());
+        if (current != null) {
+            postTagService.attachTags(List.of(current));
+        }
+        PostEntity previous = message.getPrevious();
+        if (previous == null && current == null) {
+            return;
+        }
+        if (previous != null && current != null && !message.isContentChanged()) {
+            previous.setContent(current.getContent());
+        }
+        eventPublisher.publishEvent(new PostChangedEvent(previous, current));
+    }
+
+    /**
+     * Starts a new channel file holding only a new generation line, so readers resync instead of replaying a file
+     * that grows without bound.
+     */
+    private void rotate(Path path) throws IOException {
+        Path next = path.resolveSibling(path.getFileName() + ".next");
+        Files.write(next, generationLine(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        Files.move(next, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Rotated the node channel, readers rebuild their caches from the database");
+    }
+
+    private byte[] generationLine() throws IOException {
+        lastGeneration = Math.max(System.currentTimeMillis(), lastGeneration + 1);
+        NodeChannelMessage message = new NodeChannelMessage();
+        message.setType(GENERATION);
+        message.setOccurredAt(lastGeneration);
+        return line(message);
+    }
+
+    private PostEntity withoutContent(PostEntity post) {
+        if (post == null) {
+            return null;
+        }
+        PostEntity copy = new PostEntity();
+        copy.setId(post.getId());
+        copy.setTitle(post.getTitle());
+        copy.setSummary(post.getSummary());
+        copy.setStatus(post.getStatus());
+        copy.setCategoryId(post.getCategoryId());
+        copy.setCreatedAt(post.getCreatedAt());
+        copy.setUpdatedAt(post.getUpdatedAt());
+        copy.setTags(post.getTags());
+        return copy;
+    }
+
+    private String readGeneration(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return reader.readLine();
+        }
+    }
+
+    private byte[] line(NodeChannelMessage message) throws IOException {
+        return (objectMapper.writeValueAsString(message) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Path channelPath() {
+        return Path.of(nodeProperties.getChannelPath());
+    }
+
+    private record MetricDelta(int views, int likes, long occurredAt) {
+
+        MetricDelta plus(MetricDelta other) {
+            return new MetricDelta(views + other.views, likes + other.likes, Math.max(occurredAt, other.occurredAt));
+        }
+
+        NodeChannelMessage toMessage(String postId) {
+            NodeChannelMessage message = new NodeChannelMessage();
+            message.setType(METRIC);
+            message.setPostId(postId);
+            message.setViewDelta(views);
+            message.setLikeDelta(likes);
+            message.setOccurredAt(occurredAt);
+            return message;
+        }
+    }
+}
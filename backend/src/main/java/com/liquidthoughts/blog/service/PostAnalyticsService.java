@@ -0,0 +1,214 @@
+package com.liquidthoughts.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.liquidthoughts.blog.config.AnalyticsProperties;
+import com.liquidthoughts.blog.config.NodeProperties;
+import com.liquidthoughts.blog.dto.PostTrendResponse;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.entity.PostMetricBucketEntity;
+import com.liquidthoughts.blog.event.PostChangedEvent;
+import com.liquidthoughts.blog.event.PostMetricEvent;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import com.liquidthoughts.blog.mapper.PostMetricBucketMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps per-post view/like counters in hour, day and month buckets.
+ * Metric events are accumulated in memory and flushed in batches, so the view/like path never waits on SQLite.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostAnalyticsService {
+
+    private static final String HOUR = "hour";
+    private static final String DAY = "day";
+    private static final String MONTH = "month";
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final int UPSERT_BATCH_SIZE = 200;
+
+    private final PostMetricBucketMapper bucketMapper;
+    private final PostMapper postMapper;
+    private final AnalyticsProperties analyticsProperties;
+    private final NodeProperties nodeProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<BucketKey, Delta> pending = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onMetric(PostMetricEvent event) {
+        if (nodeProperties.isReader() || (event.getViewDelta() == 0 && event.getLikeDelta() == 0)) {
+            return;
+        }
+        long hourStart = event.getOccurredAt() - Math.floorMod(event.getOccurredAt(), HOUR_MILLIS);
+        pending.merge(new BucketKey(event.getPostId(), hourStart),
+                new Delta(event.getViewDelta(), event.getLikeDelta()),
+                Delta::plus);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!event.isDeleted() || nodeProperties.isReader()) {
+            return;
+        }
+        pending.keySet().removeIf(key -> key.postId().equals(event.getPostId()));
+        bucketMapper.deleteByPostId(event.getPostId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.flush-interval-ms:10000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<PostMetricBucketEntity> buckets = new ArrayList<>();
+        for (BucketKey key : pending.keySet()) {
+            Delta delta = pending.remove(key);
+            if (delta == null || delta.isZero()) {
+                continue;
+            }
+            PostMetricBucketEntity bucket = new PostMetricBucketEntity();
+            bucket.setPostId(key.postId());
+            bucket.setGranularity(HOUR);
+            bucket.setBucketStart(key.hourStart());
+            bucket.setViewCount(delta.views());
+            bucket.setLikeCount(delta.likes());
+            buckets.add(bucket);
+        }
+        if (buckets.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < buckets.size(); from += UPSERT_BATCH_SIZE) {
+                    bucketMapper.upsertBuckets(buckets.subList(from, Math.min(from + UPSERT_BATCH_SIZE, buckets.size())));
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Failed to flush {} metric buckets, keeping them for the next run", buckets.size(), ex);
+            buckets.forEach(bucket -> pending.merge(
+                    new BucketKey(bucket.getPostId(), bucket.getBucketStart()),
+                    new Delta(bucket.getViewCount(), bucket.getLikeCount()),
+                    Delta::plus));
+        }
+    }
+
+    @Scheduled(initialDelay = 60_000, fixedDelayString = "${app.analytics.compact-interval-ms:3600000}")
+    public void compact() {
+        if (nodeProperties.isReader()) {
+            return;
+        }
+        Instant now = Instant.now();
+        long hourCutoff = now.minus(analyticsProperties.getHourRetentionHours(), ChronoUnit.HOURS).toEpochMilli();
+        long dayCutoff = now.minus(analyticsProperties.getDayRetentionDays(), ChronoUnit.DAYS).toEpochMilli();
+        long monthCutoff = LocalDate.now(ZoneOffset.UTC)
+                .minusMonths(analyticsProperties.getMonthRetentionMonths())
+                .withDayOfMonth(1)
+                .atStartOfDay(ZoneOffset.UTC)
+                .toInstant()
+                .toEpochMilli();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bucketMapper.rollUpHoursIntoDays(hourCutoff);
+            bucketMapper.deleteBefore(HOUR, hourCutoff);
+            bucketMapper.rollUpDaysIntoMonths(dayCutoff);
+            bucketMapper.deleteBefore(DAY, dayCutoff);
+            bucketMapper.deleteBefore(MONTH, monthCutoff);
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public List<PostTrendResponse> topPosts(int days, int limit) {
+        int safeDays = Math.max(1, Math.min(days, analyticsProperties.getDayRetentionDays()));
+        int safeLimit = Math.max(1, Math.min(limit, 100));
+        long since = LocalDate.now(ZoneOffset.UTC)
+                .minusDays(safeDays - 1L)
+                .atStartOfDay(ZoneOffset.UTC)
+                .toInstant()
+                .toEpochMilli();
+
+        List<PostMetricBucketEntity> totals = bucketMapper.selectTopPosts(since, safeLimit);
+        if (totals.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> postIds = totals.stream().map(PostMetricBucketEntity::getPostId).toList();
+        Map<String, String> titles = postMapper.selectList(
+                new LambdaQueryWrapper<PostEntity>()
+                        .select(PostEntity::getId, PostEntity::getTitle)
+                        .in(PostEntity::getId, postIds)
+        ).stream().collect(Collectors.toMap(PostEntity::getId, PostEntity::getTitle, (a, b) -> b));
+
+        Map<String, long[]> sparklines = new HashMap<>();
+        for (PostMetricBucketEntity day : bucketMapper.selectDailySeries(postIds, since)) {
+            int index = (int) ((day.getBucketStart() - since) / DAY_MILLIS);
+            if (index >= 0 && index < safeDays) {
+                sparklines.computeIfAbsent(day.getPostId(), key -> new long[safeDays])[index] = safeNumber(day.getViewCount());
+            }
+        }
+
+        return totals.stream()
+                .filter(total -> titles.containsKey(total.getPostId()))
+                .map(total -> new PostTrendResponse(
+                        total.getPostId(),
+                        titles.get(total.getPostId()),
+                        safeNumber(total.getViewCount()),
+                        safeNumber(total.getLikeCount()),
+                        toList(sparklines.get(total.getPostId()), safeDays)
+                ))
+                .toList();
+    }
+
+    private List<Long> toList(long[] values, int size) {
+        List<Long> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(values == null ? 0L : values[i]);
+        }
+        return result;
+    }
+
+    private long safeNumber(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    private record BucketKey(String postId, long hourStart) {
+    }
+
+    private record Delta(long views, long likes) {
+
+        Delta plus(Delta other) {
+            return new Delta(views + other.views, likes + other.likes);
+        }
+
+        boolean isZero() {
+            return views == 0 && likes == 0;
+        }
+    }
+}
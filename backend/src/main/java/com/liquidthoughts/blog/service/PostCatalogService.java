@@ -0,0 +1,578 @@
+package com.liquidthoughts.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.liquidthoughts.blog.dto.PostFacets;
+import com.liquidthoughts.blog.dto.PostTagRow;
+import com.liquidthoughts.blog.dto.TagCountResponse;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.event.CategoryChangedEvent;
+import com.liquidthoughts.blog.event.NodeResyncEvent;
+import com.liquidthoughts.blog.event.PostChangedEvent;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Answers the post page queries from an in-memory catalog of post metadata, so listing and filtering never touch
+ * SQLite. Only the rows of the requested page are then read by primary key.
+ * <p>
+ * The catalog is stored column-wise: ids, epoch-millis timestamps, category ids and a status code in parallel arrays,
+ * with rows sorted by {@code created_at} and id. A created-at range is a binary search over the sorted column,
+ * status, category and tag filters are compressed {@link RoaringBitmap}s over row positions, and the updated-at range
+ * and keyword are checked only on rows of the created-at range and tags. The total is the cardinality of the
+ * intersection and the page rows are picked from it by rank, so without a keyword or updated-at range no row is
+ * visited. Facet counts are intersection cardinalities of the same bitmaps. Titles and summaries are kept lowercased
+ * for the keyword match, which is case-insensitive for ASCII like SQLite's {@code LIKE}; post content is not kept.
+ * <p>
+ * A new post is appended in place. Edits that keep the creation time patch their row and bits; inserts and deletes
+ * elsewhere shift the columns and move the bits of the rows after them by one, leaving the rows before untouched.
+ * Posts moved between categories outside {@link PostService} drop the catalog, which is loaded again on the next
+ * query.
+ * <p>
+ * Queries share the read lock, so they only wait for a change being applied, never for each other. Pages built from
+ * the catalog are cached by {@link PostService#listPage}. That cache is invalidated while the write lock is held for
+ * the change, so no page load can read the catalog between the two.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostCatalogService {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int NO_CATEGORY = Integer.MIN_VALUE;
+    private static final byte NO_STATUS = -1;
+
+    private final PostMapper postMapper;
+    private final ReadCacheService readCacheService;
+    private final PostTagService postTagService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean loaded;
+    private int size;
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private long[] createdAt = new long[INITIAL_CAPACITY];
+    private long[] updatedAt = new long[INITIAL_CAPACITY];
+    private int[] categoryIds = new int[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private String[] summaries = new String[INITIAL_CAPACITY];
+    private String[][] tags = new String[INITIAL_CAPACITY][];
+
+    private final Map<String, Byte> statusCodes = new HashMap<>();
+    private final List<RoaringBitmap> statusBitmaps = new ArrayList<>();
+    private final Map<Integer, RoaringBitmap> categoryBitmaps = new HashMap<>();
+    private final Map<String, RoaringBitmap> tagBitmaps = new HashMap<>();
+
+    @EventListener({ApplicationReadyEvent.class, NodeResyncEvent.class})
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            readCacheService.invalidate(PostService.PAGE_CACHE);
+            if (loaded) {
+                apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            readCacheService.invalidate(PostService.PAGE_CACHE);
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of one page of posts matching the filters, newest first, and the number of matching posts.
+     * Null filters are not applied; timestamps are epoch millis and both ends of a range are inclusive. Posts must
+     * carry every one of {@code tagNames}, or at least one when {@code anyTag} is set; the names must be normalized.
+     * With {@code facets}, the counts per status, category and tag are computed from the same bitmaps.
+     */
+    public CatalogPage page(long page, long pageSize, String keyword, String status, Integer categoryId,
+                            Long createdFrom, Long createdTo, Long updatedFrom, Long updatedTo,
+                            List<String> tagNames, boolean anyTag, boolean facets) {
+        lockLoaded();
+        try {
+            return query(page, pageSize, keyword, status, categoryId, createdFrom, createdTo, updatedFrom, updatedTo,
+                    tagNames, anyTag, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the posts carrying each tag, limited to one status when {@code status} is given, most used first.
+     */
+    public List<TagCountResponse> tagCounts(String status) {
+        lockLoaded();
+        try {
+            return countTags(status);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the read lock on a loaded catalog, loading it first under the write lock when it was dropped. The write
+     * lock is downgraded, so no change can drop the catalog again before the caller reads it.
+     */
+    private void lockLoaded() {
+        lock.readLock().lock();
+        if (loaded) {
+            return;
+        }
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                load();
+            }
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load() {
+        List<PostEntity> posts = new ArrayList<>(postMapper.selectList(
+                new LambdaQueryWrapper<PostEntity>()
+                        .select(PostEntity::getId, PostEntity::getTitle, PostEntity::getSummary, PostEntity::getStatus,
+                                PostEntity::getCategoryId, PostEntity::getCreatedAt, PostEntity::getUpdatedAt)
+        ));
+        posts.sort(Comparator.comparingLong((PostEntity post) -> epochMillis(post.getCreatedAt()))
+                .thenComparing(PostEntity::getId));
+        Map<String, List<String>> postTags = postTagService.allPostTags().stream()
+                .collect(Collectors.groupingBy(PostTagRow::getPostId,
+                        Collectors.mapping(PostTagRow::getName, Collectors.toList())));
+
+        int capacity = Math.max(INITIAL_CAPACITY, posts.size());
+        ids = new String[capacity];
+        createdAt = new long[capacity];
+        updatedAt = new long[capacity];
+        categoryIds = new int[capacity];
+        statuses = new byte[capacity];
+        titles = new String[capacity];
+        summaries = new String[capacity];
+        tags = new String[capacity][];
+        size = 0;
+        for (PostEntity post : posts) {
+            write(size++, post, postTags.getOrDefault(post.getId(), List.of()));
+        }
+        rebuildBitmaps();
+        loaded = true;
+    }
+
+    private void apply(PostChangedEvent event) {
+        int position = event.getPrevious() == null ? -1 : positionOf(event.getPrevious());
+        PostEntity current = event.getCurrent();
+        List<String> currentTags = current == null || current.getTags() == null ? List.of() : current.getTags();
+        if (current != null && current.getTags() == null && position >= 0) {
+            // Posts changed without their tags loaded keep the tags they had.
+            currentTags = List.of(tags[position]);
+        }
+        if (position >= 0 && current != null && createdAt[position] == epochMillis(current.getCreatedAt())) {
+            clearBits(position);
+            write(position, current, currentTags);
+            setBits(position);
+            return;
+        }
+
+        if (position >= 0) {
+            remove(position);
+        }
+        if (current != null) {
+            insert(current, currentTags);
+        }
+    }
+
+    private CatalogPage query(long page, long pageSize, String keyword, String status, Integer categoryId,
+                              Long createdFrom, Long createdTo, Long updatedFrom, Long updatedTo,
+                              List<String> tagNames, boolean anyTag, boolean facets) {
+        // Rows passing the filters every facet shares; status and category are applied on top of them.
+        int from = createdFrom == null ? 0 : lowerBound(createdFrom);
+        int to = createdTo == null ? size : upperBound(createdTo);
+        RoaringBitmap base = from < to ? RoaringBitmap.bitmapOfRange(from, to) : new RoaringBitmap();
+        if (tagNames != null && !tagNames.isEmpty()) {
+            base = RoaringBitmap.and(base, tagRows(tagNames, anyTag));
+        }
+        String needle = StringUtils.hasText(keyword) ? lowerAscii(keyword) : null;
+        if (needle != null || updatedFrom != null || updatedTo != null) {
+            RoaringBitmap kept = new RoaringBitmap();
+            for (IntIterator rows = base.getIntIterator(); rows.hasNext(); ) {
+                int row = rows.next();
+                if ((updatedFrom == null || updatedAt[row] >= updatedFrom)
+                        && (updatedTo == null || updatedAt[row] <= updatedTo)
+                        && (needle == null || titles[row].contains(needle) || summaries[row].contains(needle))) {
+                    kept.add(row);
+                }
+            }
+            base = kept;
+        }
+        RoaringBitmap statusRows = null;
+        if (StringUtils.hasText(status)) {
+            Byte code = statusCodes.get(status);
+            statusRows = code == null ? new RoaringBitmap() : statusBitmaps.get(code);
+        }
+        RoaringBitmap categoryRows = categoryId == null
+                ? null
+                : categoryBitmaps.getOrDefault(categoryId, new RoaringBitmap());
+        RoaringBitmap inStatus = statusRows == null ? base : RoaringBitmap.and(base, statusRows);
+        RoaringBitmap inCategory = categoryRows == null ? base : RoaringBitmap.and(base, categoryRows);
+        RoaringBitmap matches = categoryRows == null ? inStatus : RoaringBitmap.and(inStatus, categoryRows);
+
+        long total = matches.getLongCardinality();
+        long offset = page > 1 ? (page - 1) * pageSize : 0;
+        long end = pageSize < 0 ? Long.MAX_VALUE : offset + pageSize;
+        List<String> pageIds = new ArrayList<>((int) Math.max(0, Math.min(Math.min(end, total) - offset, 1024)));
+        if (pageSize < 0) {
+            for (IntIterator rows = matches.getReverseIntIterator(); rows.hasNext(); ) {
+                pageIds.add(ids[rows.next()]);
+            }
+        } else {
+            for (long rank = offset; rank < Math.min(end, total); rank++) {
+                pageIds.add(ids[matches.select((int) (total - 1 - rank))]);
+            }
+        }
+        return new CatalogPage(pageIds, total, facets ? facetsOf(inCategory, inStatus, matches) : null);
+    }
+
+    private List<TagCountResponse> countTags(String status) {
+        RoaringBitmap statusRows = null;
+        if (StringUtils.hasText(status)) {
+            Byte code = statusCodes.get(status);
+            if (code == null) {
+                return List.of();
+            }
+            statusRows = statusBitmaps.get(code);
+        }
+        List<TagCountResponse> counts = new ArrayList<>(tagBitmaps.size());
+        for (Map.Entry<String, RoaringBitmap> tag : tagBitmaps.entrySet()) {
+            int count = statusRows == null
+                    ? tag.getValue().getCardinality()
+                    : RoaringBitmap.andCardinality(tag.getValue(), statusRows);
+            if (count > 0) {
+                counts.add(new TagCountResponse(tag.getKey(), count));
+            }
+        }
+        counts.sort(Comparator.comparingLong(TagCountResponse::getPostCount).reversed()
+                .thenComparing(TagCountResponse::getName));
+        return counts;
+    }
+
+    private RoaringBitmap tagRows(List<String> tagNames, boolean anyTag) {
+        List<RoaringBitmap> tagged = new ArrayList<>(tagNames.size());
+        for (String name : tagNames) {
+            RoaringBitmap tag = tagBitmaps.get(name);
+            if (tag != null) {
+                tagged.add(tag);
+            } else if (!anyTag) {
+                return new RoaringBitmap();
+            }
+        }
+        if (tagged.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        return anyTag ? FastAggregation.or(tagged.iterator()) : FastAggregation.and(tagged.iterator());
+    }
+
+    /**
+     * Status counts over {@code inCategory}, category counts over {@code inStatus} and tag counts over the matches.
+     */
+    private PostFacets facetsOf(RoaringBitmap inCategory, RoaringBitmap inStatus, RoaringBitmap matches) {
+        Map<String, Long> statusCounts = new TreeMap<>();
+        statusCodes.forEach((name, code) -> {
+            long count = RoaringBitmap.andCardinality(inCategory, statusBitmaps.get(code));
+            if (count > 0) {
+                statusCounts.put(name, count);
+            }
+        });
+        Map<Integer, Long> categoryCounts = new TreeMap<>();
+        categoryBitmaps.forEach((id, rows) -> {
+            long count = RoaringBitmap.andCardinality(inStatus, rows);
+            if (count > 0) {
+                categoryCounts.put(id, count);
+            }
+        });
+        List<Map.Entry<String, Long>> tagCounts = new ArrayList<>();
+        if (!matches.isEmpty()) {
+            tagBitmaps.forEach((name, rows) -> {
+                long count = RoaringBitmap.andCardinality(matches, rows);
+                if (count > 0) {
+                    tagCounts.add(Map.entry(name, count));
+                }
+            });
+        }
+        tagCounts.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Long> sortedTags = new LinkedHashMap<>();
+        tagCounts.forEach(entry -> sortedTags.put(entry.getKey(), entry.getValue()));
+        return new PostFacets(statusCounts, categoryCounts, sortedTags);
+    }
+
+    private void insert(PostEntity post, List<String> postTags) {
+        long created = epochMillis(post.getCreatedAt());
+        int position = lowerBound(created);
+        while (position < size && createdAt[position] == created && ids[position].compareTo(post.getId()) < 0) {
+            position++;
+        }
+        ensureCapacity(size + 1);
+        shiftRows(position, 1);
+        int tail = size - position;
+        if (tail > 0) {
+            System.arraycopy(ids, position, ids, position + 1, tail);
+            System.arraycopy(createdAt, position, createdAt, position + 1, tail);
+            System.arraycopy(updatedAt, position, updatedAt, position + 1, tail);
+            System.arraycopy(categoryIds, position, categoryIds, position + 1, tail);
+            System.arraycopy(statuses, position, statuses, position + 1, tail);
+            System.arraycopy(titles, position, titles, position + 1, tail);
+            System.arraycopy(summaries, position, summaries, position + 1, tail);
+            System.arraycopy(tags, position, tags, position + 1, tail);
+        }
+        write(position, post, postTags);
+        size++;
+        setBits(position);
+    }
+
+    private void remove(int position) {
+        clearBits(position);
+        shiftRows(position + 1, -1);
+        int tail = size - position - 1;
+        if (tail > 0) {
+            System.arraycopy(ids, position + 1, ids, position, tail);
+            System.arraycopy(createdAt, position + 1, createdAt, position, tail);
+            System.arraycopy(updatedAt, position + 1, updatedAt, position, tail);
+            System.arraycopy(categoryIds, position + 1, categoryIds, position, tail);
+            System.arraycopy(statuses, position + 1, statuses, position, tail);
+            System.arraycopy(titles, position + 1, titles, position, tail);
+            System.arraycopy(summaries, position + 1, summaries, position, tail);
+            System.arraycopy(tags, position + 1, tags, position, tail);
+        }
+        size--;
+        ids[size] = null;
+        titles[size] = null;
+        summaries[size] = null;
+        tags[size] = null;
+    }
+
+    private void write(int position, PostEntity post, List<String> postTags) {
+        ids[position] = post.getId();
+        createdAt[position] = epochMillis(post.getCreatedAt());
+        updatedAt[position] = epochMillis(post.getUpdatedAt());
+        categoryIds[position] = post.getCategoryId() == null ? NO_CATEGORY : post.getCategoryId();
+        statuses[position] = statusCode(post.getStatus());
+        titles[position] = lowerAscii(post.getTitle());
+        summaries[position] = lowerAscii(post.getSummary());
+        tags[position] = postTags.toArray(String[]::new);
+    }
+
+    private void rebuildBitmaps() {
+        statusBitmaps.forEach(RoaringBitmap::clear);
+        categoryBitmaps.clear();
+        tagBitmaps.clear();
+        for (int row = 0; row < size; row++) {
+            setBits(row);
+        }
+        statusBitmaps.forEach(RoaringBitmap::runOptimize);
+        categoryBitmaps.values().forEach(RoaringBitmap::runOptimize);
+        tagBitmaps.values().forEach(RoaringBitmap::runOptimize);
+    }
+
+    /**
+     * Moves the bits of rows {@code from} to the last one by {@code offset} in every bitmap, before a row is inserted
+     * or after one was cleared at the edge of that range. Bitmaps without such rows are left alone.
+     */
+    private void shiftRows(int from, int offset) {
+        if (from >= size) {
+            return;
+        }
+        RoaringBitmap moved = RoaringBitmap.bitmapOfRange(from, size);
+        statusBitmaps.forEach(rows -> shift(rows, moved, from, offset));
+        categoryBitmaps.values().forEach(rows -> shift(rows, moved, from, offset));
+        tagBitmaps.values().forEach(rows -> shift(rows, moved, from, offset));
+    }
+
+    private static void shift(RoaringBitmap rows, RoaringBitmap moved, int from, int offset) {
+        if (rows.isEmpty() || rows.last() < from) {
+            return;
+        }
+        RoaringBitmap shifted = RoaringBitmap.addOffset(RoaringBitmap.and(rows, moved), offset);
+        rows.andNot(moved);
+        rows.or(shifted);
+    }
+
+    private void setBits(int row) {
+        if (statuses[row] != NO_STATUS) {
+            statusBitmaps.get(statuses[row]).add(row);
+        }
+        if (categoryIds[row] != NO_CATEGORY) {
+            categoryBitmaps.computeIfAbsent(categoryIds[row], key -> new RoaringBitmap()).add(row);
+        }
+        for (String tag : tags[row]) {
+            tagBitmaps.computeIfAbsent(tag, key -> new RoaringBitmap()).add(row);
+        }
+    }
+
+    private void clearBits(int row) {
+        if (statuses[row] != NO_STATUS) {
+            statusBitmaps.get(statuses[row]).remove(row);
+        }
+        RoaringBitmap category = categoryBitmaps.get(categoryIds[row]);
+        if (category != null) {
+            category.remove(row);
+        }
+        for (String tag : tags[row]) {
+            RoaringBitmap tagged = tagBitmaps.get(tag);
+            if (tagged != null) {
+                tagged.remove(row);
+                if (tagged.isEmpty()) {
+                    tagBitmaps.remove(tag);
+                }
+            }
+        }
+    }
+
+    private byte statusCode(String status) {
+        if (status == null) {
+            return NO_STATUS;
+        }
+        Byte code = statusCodes.get(status);
+        if (code == null) {
+            if (statusBitmaps.size() == Byte.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct post statuses for the catalog");
+            }
+            code = (byte) statusBitmaps.size();
+            statusCodes.put(status, code);
+            statusBitmaps.add(new RoaringBitmap());
+        }
+        return code;
+    }
+
+    private int positionOf(PostEntity post) {
+        long created = epochMillis(post.getCreatedAt());
+        for (int row = lowerBound(created); row < size && createdAt[row] == created; row++) {
+            if (ids[row].equals(post.getId())) {
+                return row;
+            }
+        }
+        for (int row = 0; row < size; row++) {
+            if (ids[row].equals(post.getId())) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * First row created at or after the given time.
+     */
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (createdAt[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First row created after the given time.
+     */
+    private int upperBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (createdAt[middle] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, grown);
+        createdAt = Arrays.copyOf(createdAt, grown);
+        updatedAt = Arrays.copyOf(updatedAt, grown);
+        categoryIds = Arrays.copyOf(categoryIds, grown);
+        statuses = Arrays.copyOf(statuses, grown);
+        titles = Arrays.copyOf(titles, grown);
+        summaries = Arrays.copyOf(summaries, grown);
+        tags = Arrays.copyOf(tags, grown);
+    }
+
+    private static long epochMillis(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private static String lowerAscii(String value) {
+        if (value == null) {
+            return "";
+        }
+        char[] chars = value.toCharArray();
+        for (int index = 0; index < chars.length; index++) {
+            if (chars[index] >= 'A' && chars[index] <= 'Z') {
+                chars[index] += 'a' - 'A';
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Ids of one page of matching posts, in page order, the number of posts matching the filters and, when asked
+     * for, the facet counts.
+     */
+    public record CatalogPage(List<String> ids, long total, PostFacets facets) {
+    }
+}
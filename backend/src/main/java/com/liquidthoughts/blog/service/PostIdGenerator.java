@@ -0,0 +1,45 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.config.NodeProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered post ids without locking. An id packs, from the high bits down, 41 bits of milliseconds since
+ * {@link #EPOCH}, the 10-bit {@code app.node.worker-id} and a 12-bit sequence, so ids sort by creation time and never
+ * collide between writers with different worker ids.
+ * <p>
+ * The generator keeps only the last time and sequence in one {@link AtomicLong}. Each id takes the next sequence value
+ * or the current millisecond, whichever is later. A burst of more than 4096 ids in one millisecond runs ahead into the
+ * following milliseconds instead of waiting, and a clock that steps back continues from the last id.
+ */
+@Component
+public class PostIdGenerator {
+
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+
+    private final AtomicLong lastState = new AtomicLong();
+    private final long workerBits;
+
+    public PostIdGenerator(NodeProperties nodeProperties) {
+        long workerId = nodeProperties.getWorkerId();
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("app.node.worker-id must be between 0 and " + MAX_WORKER_ID);
+        }
+        this.workerBits = workerId << SEQUENCE_BITS;
+    }
+
+    public String nextId() {
+        long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long state = lastState.accumulateAndGet(now, (last, current) -> Math.max(last + 1, current));
+        long millis = state >>> SEQUENCE_BITS;
+        return String.valueOf((millis << (SEQUENCE_BITS + WORKER_BITS)) | workerBits | (state & SEQUENCE_MASK));
+    }
+}
@@ -1,15 +1,15 @@
 package com.liquidthoughts.blog.service;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.liquidthoughts.blog.common.BizException;
 import com.liquidthoughts.blog.common.ErrorCode;
 import com.liquidthoughts.blog.dto.PostMetricResponse;
 import com.liquidthoughts.blog.entity.PostEntity;
 import com.liquidthoughts.blog.entity.PostMetricEntity;
+import com.liquidthoughts.blog.event.PostMetricEvent;
 import com.liquidthoughts.blog.mapper.PostMapper;
 import com.liquidthoughts.blog.mapper.PostMetricMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.dao.DuplicateKeyException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -24,6 +24,7 @@ public class PostMetricService {
 
     private final PostMetricMapper postMetricMapper;
     private final PostMapper postMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public void attachMetrics(List<PostEntity> posts) {
         if (posts == null || posts.isEmpty()) {
@@ -40,9 +41,7 @@ public class PostMetricService {
             return;
         }
 
-        List<PostMetricEntity> metrics = postMetricMapper.selectList(
-                new LambdaQueryWrapper<PostMetricEntity>().in(PostMetricEntity::getPostId, postIds)
-        );
+        List<PostMetricEntity> metrics = postMetricMapper.selectByPostIds(postIds);
         Map<String, PostMetricEntity> metricMap = metrics.stream()
                 .collect(Collectors.toMap(PostMetricEntity::getPostId, item -> item, (a, b) -> b));
 
@@ -53,21 +52,7 @@ public class PostMetricService {
         if (postId == null || postId.isBlank()) {
             return;
         }
-        PostMetricEntity metric = postMetricMapper.selectById(postId);
-        if (metric != null) {
-            return;
-        }
-
-        PostMetricEntity entity = new PostMetricEntity();
-        entity.setPostId(postId);
-        entity.setViewCount(0);
-        entity.setLikeCount(0);
-        entity.setUpdatedAt(Instant.now().toString());
-        try {
-            postMetricMapper.insert(entity);
-        } catch (DuplicateKeyException ignored) {
-            // Ignore race condition when multiple requests initialize metric concurrently.
-        }
+        postMetricMapper.insertIfAbsent(postId, 0, 0, Instant.now().toString());
     }
 
     public PostMetricResponse incrementView(String postId) {
@@ -83,8 +68,11 @@ public class PostMetricService {
     public PostMetricResponse decrementLike(String postId) {
         ensurePostExists(postId);
         initMetricIfAbsent(postId);
-        postMetricMapper.decrementLike(postId, Instant.now().toString());
-        PostMetricEntity metric = postMetricMapper.selectById(postId);
+        int affectedRows = postMetricMapper.decrementLike(postId, Instant.now().toString());
+        if (affectedRows > 0) {
+            eventPublisher.publishEvent(new PostMetricEvent(postId, 0, -1, System.currentTimeMillis()));
+        }
+        PostMetricEntity metric = postMetricMapper.selectByPostId(postId);
         if (metric == null) {
             return new PostMetricResponse(postId, 0, 0);
         }
@@ -101,20 +89,13 @@ public class PostMetricService {
                                                  int defaultLike) {
         String now = Instant.now().toString();
         int affectedRows = incrementFunction.apply(postId, now);
-        if (affectedRows == 0) {
-            PostMetricEntity entity = new PostMetricEntity();
-            entity.setPostId(postId);
-            entity.setViewCount(defaultView);
-            entity.setLikeCount(defaultLike);
-            entity.setUpdatedAt(now);
-            try {
-                postMetricMapper.insert(entity);
-            } catch (DuplicateKeyException ignored) {
-                incrementFunction.apply(postId, now);
-            }
+        if (affectedRows == 0 && postMetricMapper.insertIfAbsent(postId, defaultView, defaultLike, now) == 0) {
+            // Another request created the row in between.
+            incrementFunction.apply(postId, now);
         }
+        eventPublisher.publishEvent(new PostMetricEvent(postId, defaultView, defaultLike, System.currentTimeMillis()));
 
-        PostMetricEntity metric = postMetricMapper.selectById(postId);
+        PostMetricEntity metric = postMetricMapper.selectByPostId(postId);
         if (metric == null) {
             return new PostMetricResponse(postId, 0, 0);
         }
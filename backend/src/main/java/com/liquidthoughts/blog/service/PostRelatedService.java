@@ -0,0 +1,431 @@
+package com.liquidthoughts.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.liquidthoughts.blog.config.RelatedProperties;
+import com.liquidthoughts.blog.dto.RelatedPostResponse;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.event.NodeResyncEvent;
+import com.liquidthoughts.blog.event.PostChangedEvent;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the top-K most similar published posts for every published post, so related posts are served from memory.
+ * <p>
+ * Each post is a sparse TF-IDF vector over its title, summary and content terms, normalized to unit length, so the
+ * cosine similarity of two posts is the dot product of their vectors. Vectors live in an inverted index of parallel
+ * {@code int}/{@code float} posting arrays, one per term. Scoring a post walks only the postings of its own terms.
+ * <p>
+ * When a post changes, only its own vector and neighbour list are rebuilt. Other posts' lists are patched with the
+ * new score and are only rescored in full when the changed post drops out of a full list. Weights use the document
+ * frequencies from when the post was last indexed; {@link #rebuild()} recomputes everything against the current ones.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostRelatedService {
+
+    private static final String PUBLISHED = "published";
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final PostMapper postMapper;
+    private final RelatedProperties relatedProperties;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final List<Integer> pendingRescores = new ArrayList<>();
+    private Document[] documents = new Document[INITIAL_CAPACITY];
+    private int slotCount;
+
+    private int[][] postingSlots = new int[INITIAL_CAPACITY][];
+    private float[][] postingWeights = new float[INITIAL_CAPACITY][];
+    private int[] postingSizes = new int[INITIAL_CAPACITY];
+
+    private float[] scratchScores = new float[INITIAL_CAPACITY];
+    private int[] scratchTouched = new int[INITIAL_CAPACITY];
+
+    @EventListener({ApplicationReadyEvent.class, NodeResyncEvent.class})
+    public synchronized void rebuild() {
+        slots.clear();
+        termIds.clear();
+        freeSlots.clear();
+        documents = new Document[INITIAL_CAPACITY];
+        slotCount = 0;
+        postingSlots = new int[INITIAL_CAPACITY][];
+        postingWeights = new float[INITIAL_CAPACITY][];
+        postingSizes = new int[INITIAL_CAPACITY];
+
+        List<PostEntity> posts = postMapper.selectList(
+                new LambdaQueryWrapper<PostEntity>()
+                        .select(PostEntity::getId, PostEntity::getTitle, PostEntity::getSummary, PostEntity::getContent,
+                                PostEntity::getCategoryId, PostEntity::getCreatedAt)
+                        .eq(PostEntity::getStatus, PUBLISHED)
+        );
+        List<Integer> indexed = new ArrayList<>(posts.size());
+        for (PostEntity post : posts) {
+            int slot = allocateSlot(post.getId());
+            Document document = new Document(post);
+            documents[slot] = document;
+            countTerms(document, post);
+            for (int termId : document.termIds) {
+                addPosting(termId, slot, 0f);
+            }
+            indexed.add(slot);
+        }
+        int[] filled = new int[termIds.size()];
+        for (int slot : indexed) {
+            Document document = documents[slot];
+            weigh(document, 0);
+            for (int i = 0; i < document.termIds.length; i++) {
+                int termId = document.termIds[i];
+                postingWeights[termId][filled[termId]++] = document.weights[i];
+            }
+        }
+        for (int slot : indexed) {
+            rescore(slot);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostChanged(PostChangedEvent event) {
+        PostEntity current = event.getCurrent();
+        if (current == null || !PUBLISHED.equals(current.getStatus())) {
+            remove(event.getPostId());
+            return;
+        }
+
+        Integer slot = slots.get(current.getId());
+        if (slot != null && sameText(event.getPrevious(), current)) {
+            documents[slot].update(current);
+            return;
+        }
+        upsert(current);
+    }
+
+    /**
+     * Returns the posts most similar to the given one, best first. Posts that are not published have no related posts.
+     */
+    public synchronized List<RelatedPostResponse> related(String postId, int limit) {
+        Integer slot = slots.get(postId);
+        if (slot == null) {
+            return List.of();
+        }
+        Document document = documents[slot];
+        int size = Math.min(document.neighbourCount, Math.max(1, limit));
+        List<RelatedPostResponse> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Document neighbour = documents[document.neighbours[i]];
+            result.add(new RelatedPostResponse(
+                    neighbour.id,
+                    neighbour.title,
+                    neighbour.summary,
+                    neighbour.categoryId,
+                    neighbour.createdAt,
+                    document.neighbourScores[i]
+            ));
+        }
+        return result;
+    }
+
+    private void upsert(PostEntity post) {
+        Integer existing = slots.get(post.getId());
+        int slot = existing != null ? existing : allocateSlot(post.getId());
+        Document document = existing != null ? documents[slot] : new Document(post);
+        documents[slot] = document;
+        if (existing != null) {
+            removePostings(document, slot);
+            document.update(post);
+        }
+
+        countTerms(document, post);
+        weigh(document, 1);
+        for (int i = 0; i < document.termIds.length; i++) {
+            addPosting(document.termIds[i], slot, document.weights[i]);
+        }
+
+        int touchedCount = accumulate(slot);
+        document.clearNeighbours();
+        for (int i = 0; i < touchedCount; i++) {
+            int other = scratchTouched[i];
+            offer(document, other, scratchScores[other]);
+        }
+
+        for (int other = 0; other < slotCount; other++) {
+            Document candidate = documents[other];
+            if (candidate == null || other == slot) {
+                continue;
+            }
+            float score = scratchScores[other];
+            int position = candidate.indexOf(slot);
+            if (position < 0) {
+                if (score > 0) {
+                    offer(candidate, slot, score);
+                }
+            } else if (candidate.neighbourCount == topK() && score < candidate.neighbourScores[position]) {
+                pendingRescores.add(other);
+            } else {
+                candidate.removeNeighbourAt(position);
+                if (score > 0) {
+                    offer(candidate, slot, score);
+                }
+            }
+        }
+        clearScratch(touchedCount);
+        flushPendingRescores();
+    }
+
+    private void remove(String postId) {
+        Integer slot = slots.remove(postId);
+        if (slot == null) {
+            return;
+        }
+        Document document = documents[slot];
+        removePostings(document, slot);
+        documents[slot] = null;
+        freeSlots.push(slot);
+
+        for (int other = 0; other < slotCount; other++) {
+            Document candidate = documents[other];
+            if (candidate != null && candidate.indexOf(slot) >= 0) {
+                pendingRescores.add(other);
+            }
+        }
+        flushPendingRescores();
+    }
+
+    private void flushPendingRescores() {
+        for (int slot : pendingRescores) {
+            rescore(slot);
+        }
+        pendingRescores.clear();
+    }
+
+    private void rescore(int slot) {
+        Document document = documents[slot];
+        int touchedCount = accumulate(slot);
+        document.clearNeighbours();
+        for (int i = 0; i < touchedCount; i++) {
+            int other = scratchTouched[i];
+            offer(document, other, scratchScores[other]);
+        }
+        clearScratch(touchedCount);
+    }
+
+    /**
+     * Adds the dot product of the post with every other post sharing a term into {@code scratchScores} and returns
+     * how many slots were touched; their indexes are in {@code scratchTouched}.
+     */
+    private int accumulate(int slot) {
+        Document document = documents[slot];
+        int touchedCount = 0;
+        for (int i = 0; i < document.termIds.length; i++) {
+            int termId = document.termIds[i];
+            float weight = document.weights[i];
+            int[] postings = postingSlots[termId];
+            float[] weights = postingWeights[termId];
+            for (int p = 0; p < postingSizes[termId]; p++) {
+                int other = postings[p];
+                if (other == slot) {
+                    continue;
+                }
+                if (scratchScores[other] == 0f) {
+                    scratchTouched[touchedCount++] = other;
+                }
+                scratchScores[other] += weight * weights[p];
+            }
+        }
+        return touchedCount;
+    }
+
+    private void clearScratch(int touchedCount) {
+        for (int i = 0; i < touchedCount; i++) {
+            scratchScores[scratchTouched[i]] = 0f;
+        }
+    }
+
+    private void offer(Document document, int slot, float score) {
+        int size = document.neighbourCount;
+        int topK = topK();
+        if (score <= 0 || (size == topK && score <= document.neighbourScores[size - 1])) {
+            return;
+        }
+        int position = size == topK ? size - 1 : size;
+        while (position > 0 && document.neighbourScores[position - 1] < score) {
+            document.neighbours[position] = document.neighbours[position - 1];
+            document.neighbourScores[position] = document.neighbourScores[position - 1];
+            position--;
+        }
+        document.neighbours[position] = slot;
+        document.neighbourScores[position] = score;
+        document.neighbourCount = Math.min(size + 1, topK);
+    }
+
+    private void countTerms(Document document, PostEntity post) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        TermTokenizer.tokenize(post.getTitle(), term -> counts.merge(termId(term), relatedProperties.getTitleWeight(), Integer::sum));
+        TermTokenizer.tokenize(post.getSummary(), term -> counts.merge(termId(term), relatedProperties.getSummaryWeight(), Integer::sum));
+        TermTokenizer.tokenize(post.getContent(), term -> counts.merge(termId(term), 1, Integer::sum));
+
+        int[] ids = counts.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] termCounts = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            termCounts[i] = counts.get(ids[i]);
+        }
+        document.termIds = ids;
+        document.termCounts = termCounts;
+        document.weights = new float[ids.length];
+    }
+
+    /**
+     * Computes the unit-length TF-IDF weights of the post. {@code pending} is 1 when the post is not yet in the
+     * postings of its terms and has to be counted into their document frequency.
+     */
+    private void weigh(Document document, int pending) {
+        double documentCount = slots.size();
+        double norm = 0;
+        double[] raw = new double[document.termIds.length];
+        for (int i = 0; i < raw.length; i++) {
+            int termId = document.termIds[i];
+            double idf = Math.log((1 + documentCount) / (1 + postingSizes[termId] + pending)) + 1;
+            raw[i] = (1 + Math.log(document.termCounts[i])) * idf;
+            norm += raw[i] * raw[i];
+        }
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < raw.length; i++) {
+            document.weights[i] = norm == 0 ? 0f : (float) (raw[i] / norm);
+        }
+    }
+
+    private int termId(String term) {
+        Integer id = termIds.get(term);
+        if (id != null) {
+            return id;
+        }
+        int next = termIds.size();
+        termIds.put(term, next);
+        if (next == postingSizes.length) {
+            int capacity = next * 2;
+            postingSlots = Arrays.copyOf(postingSlots, capacity);
+            postingWeights = Arrays.copyOf(postingWeights, capacity);
+            postingSizes = Arrays.copyOf(postingSizes, capacity);
+        }
+        postingSlots[next] = new int[4];
+        postingWeights[next] = new float[4];
+        return next;
+    }
+
+    private void addPosting(int termId, int slot, float weight) {
+        int size = postingSizes[termId];
+        if (size == postingSlots[termId].length) {
+            postingSlots[termId] = Arrays.copyOf(postingSlots[termId], size * 2);
+            postingWeights[termId] = Arrays.copyOf(postingWeights[termId], size * 2);
+        }
+        postingSlots[termId][size] = slot;
+        postingWeights[termId][size] = weight;
+        postingSizes[termId] = size + 1;
+    }
+
+    private void removePostings(Document document, int slot) {
+        for (int termId : document.termIds) {
+            int[] postings = postingSlots[termId];
+            int size = postingSizes[termId];
+            for (int p = 0; p < size; p++) {
+                if (postings[p] == slot) {
+                    postings[p] = postings[size - 1];
+                    postingWeights[termId][p] = postingWeights[termId][size - 1];
+                    postingSizes[termId] = size - 1;
+                    break;
+                }
+            }
+        }
+    }
+
+    private int allocateSlot(String postId) {
+        int slot;
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.pop();
+        } else {
+            slot = slotCount++;
+            if (slot == documents.length) {
+                int capacity = slot * 2;
+                documents = Arrays.copyOf(documents, capacity);
+                scratchScores = Arrays.copyOf(scratchScores, capacity);
+                scratchTouched = Arrays.copyOf(scratchTouched, capacity);
+            }
+        }
+        slots.put(postId, slot);
+        return slot;
+    }
+
+    private boolean sameText(PostEntity previous, PostEntity current) {
+        return previous != null
+                && Objects.equals(previous.getTitle(), current.getTitle())
+                && Objects.equals(previous.getSummary(), current.getSummary())
+                && Objects.equals(previous.getContent(), current.getContent());
+    }
+
+    private int topK() {
+        return relatedProperties.getTopK();
+    }
+
+    private final class Document {
+
+        private final String id;
+        private String title;
+        private String summary;
+        private Integer categoryId;
+        private Long createdAt;
+
+        private int[] termIds = new int[0];
+        private int[] termCounts = new int[0];
+        private float[] weights = new float[0];
+
+        private final int[] neighbours = new int[topK()];
+        private final float[] neighbourScores = new float[topK()];
+        private int neighbourCount;
+
+        private Document(PostEntity post) {
+            this.id = post.getId();
+            update(post);
+        }
+
+        private void update(PostEntity post) {
+            this.title = post.getTitle();
+            this.summary = post.getSummary();
+            this.categoryId = post.getCategoryId();
+            this.createdAt = post.getCreatedAt();
+        }
+
+        private int indexOf(int slot) {
+            for (int i = 0; i < neighbourCount; i++) {
+                if (neighbours[i] == slot) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void removeNeighbourAt(int position) {
+            System.arraycopy(neighbours, position + 1, neighbours, position, neighbourCount - position - 1);
+            System.arraycopy(neighbourScores, position + 1, neighbourScores, position, neighbourCount - position - 1);
+            neighbourCount--;
+        }
+
+        private void clearNeighbours() {
+            neighbourCount = 0;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.liquidthoughts.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.ErrorCode;
+import com.liquidthoughts.blog.config.RevisionProperties;
+import com.liquidthoughts.blog.dto.PostDraftRequest;
+import com.liquidthoughts.blog.dto.PostRevisionResponse;
+import com.liquidthoughts.blog.dto.PostSaveRequest;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.entity.PostRevisionEntity;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import com.liquidthoughts.blog.mapper.PostRevisionMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Stores editor autosaves as revisions without touching {@code posts} or the markdown mirror.
+ * <p>
+ * A revision is either a full snapshot or a {@link TextDelta} against the latest snapshot, so materializing any
+ * revision reads at most two rows. A new snapshot is taken every {@code snapshotInterval} deltas or when a delta would
+ * no longer be smaller than half of the content. Revisions are removed with their post by the foreign key cascade.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostRevisionService {
+
+    private static final String SNAPSHOT = "snapshot";
+    private static final String DELTA = "delta";
+
+    private final PostRevisionMapper postRevisionMapper;
+    private final PostMapper postMapper;
+    private final PostService postService;
+    private final RevisionProperties revisionProperties;
+
+    @Transactional
+    public PostRevisionResponse autosave(String postId, PostDraftRequest request) {
+        ensurePostExists(postId);
+
+        PostRevisionEntity latest = postRevisionMapper.selectOne(
+                new LambdaQueryWrapper<PostRevisionEntity>()
+                        .eq(PostRevisionEntity::getPostId, postId)
+                        .orderByDesc(PostRevisionEntity::getId)
+                        .last("LIMIT 1")
+        );
+        PostRevisionEntity snapshot = latest == null ? null : snapshotOf(latest);
+
+        if (latest != null && sameDraft(latest, materialize(latest, snapshot), request)) {
+            return toResponse(latest, null);
+        }
+
+        PostRevisionEntity revision = new PostRevisionEntity();
+        revision.setPostId(postId);
+        revision.setTitle(request.getTitle());
+        revision.setSummary(request.getSummary());
+        revision.setStatus(request.getStatus());
+        revision.setCategoryId(request.getCategoryId());
+        revision.setContentLength(request.getContent().length());
+        revision.setPublished(false);
+        revision.setCreatedAt(Instant.now().toString());
+
+        String delta = snapshot == null || deltasSince(snapshot) >= revisionProperties.getSnapshotInterval()
+                ? null
+                : TextDelta.diff(snapshot.getPayload(), request.getContent());
+        if (delta == null || delta.length() * 2 > request.getContent().length()) {
+            revision.setKind(SNAPSHOT);
+            revision.setPayload(request.getContent());
+            postRevisionMapper.insert(revision);
+            pruneOldGenerations(postId);
+        } else {
+            revision.setKind(DELTA);
+            revision.setBaseRevisionId(snapshot.getId());
+            revision.setPayload(delta);
+            postRevisionMapper.insert(revision);
+        }
+        return toResponse(revision, null);
+    }
+
+    public List<PostRevisionResponse> list(String postId) {
+        return postRevisionMapper.selectList(
+                new LambdaQueryWrapper<PostRevisionEntity>()
+                        .select(PostRevisionEntity::getId, PostRevisionEntity::getPostId, PostRevisionEntity::getKind,
+                                PostRevisionEntity::getTitle, PostRevisionEntity::getSummary, PostRevisionEntity::getStatus,
+                                PostRevisionEntity::getCategoryId, PostRevisionEntity::getContentLength,
+                                PostRevisionEntity::getPublished, PostRevisionEntity::getCreatedAt)
+                        .eq(PostRevisionEntity::getPostId, postId)
+                        .orderByDesc(PostRevisionEntity::getId)
+        ).stream().map(revision -> toResponse(revision, null)).toList();
+    }
+
+    public PostRevisionResponse get(String postId, Long revisionId) {
+        PostRevisionEntity revision = findRevision(postId, revisionId);
+        return toResponse(revision, materialize(revision, snapshotOf(revision)));
+    }
+
+    /**
+     * Makes an older revision the latest draft again by storing it as a new revision.
+     */
+    @Transactional
+    public PostRevisionResponse restore(String postId, Long revisionId) {
+        PostRevisionEntity revision = findRevision(postId, revisionId);
+        PostDraftRequest draft = toDraft(revision, materialize(revision, snapshotOf(revision)));
+        PostRevisionResponse restored = autosave(postId, draft);
+        restored.setContent(draft.getContent());
+        return restored;
+    }
+
+    /**
+     * Materializes a revision (the latest one when {@code revisionId} is null) into the post itself.
+     */
+    @Transactional
+    public PostEntity publish(String postId, Long revisionId) {
+        PostRevisionEntity revision = revisionId != null
+                ? findRevision(postId, revisionId)
+                : postRevisionMapper.selectOne(
+                        new LambdaQueryWrapper<PostRevisionEntity>()
+                                .eq(PostRevisionEntity::getPostId, postId)
+                                .orderByDesc(PostRevisionEntity::getId)
+                                .last("LIMIT 1"));
+        if (revision == null) {
+            throw new BizException(ErrorCode.NOT_FOUND, "Revision not found");
+        }
+
+        PostDraftRequest draft = toDraft(revision, materialize(revision, snapshotOf(revision)));
+        PostSaveRequest request = new PostSaveRequest();
+        request.setId(postId);
+        request.setTitle(draft.getTitle());
+        request.setContent(draft.getContent());
+        request.setSummary(draft.getSummary());
+        request.setStatus(draft.getStatus());
+        request.setCategoryId(draft.getCategoryId());
+        PostEntity saved = postService.save(request);
+
+        postRevisionMapper.update(null, new LambdaUpdateWrapper<PostRevisionEntity>()
+                .set(PostRevisionEntity::getPublished, true)
+                .eq(PostRevisionEntity::getId, revision.getId()));
+        return saved;
+    }
+
+    private void pruneOldGenerations(String postId) {
+        List<PostRevisionEntity> snapshots = postRevisionMapper.selectList(
+                new LambdaQueryWrapper<PostRevisionEntity>()
+                        .select(PostRevisionEntity::getId)
+                        .eq(PostRevisionEntity::getPostId, postId)
+                        .eq(PostRevisionEntity::getKind, SNAPSHOT)
+                        .orderByDesc(PostRevisionEntity::getId)
+                        .last("LIMIT 1 OFFSET " + (Math.max(1, revisionProperties.getKeepSnapshots()) - 1))
+        );
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        postRevisionMapper.delete(
+                new LambdaQueryWrapper<PostRevisionEntity>()
+                        .eq(PostRevisionEntity::getPostId, postId)
+                        .lt(PostRevisionEntity::getId, snapshots.get(0).getId())
+        );
+    }
+
+    private long deltasSince(PostRevisionEntity snapshot) {
+        return postRevisionMapper.selectCount(
+                new LambdaQueryWrapper<PostRevisionEntity>()
+                        .eq(PostRevisionEntity::getPostId, snapshot.getPostId())
+                        .eq(PostRevisionEntity::getBaseRevisionId, snapshot.getId())
+        );
+    }
+
+    private PostRevisionEntity snapshotOf(PostRevisionEntity revision) {
+        if (SNAPSHOT.equals(revision.getKind())) {
+            return revision;
+        }
+        PostRevisionEntity snapshot = postRevisionMapper.selectById(revision.getBaseRevisionId());
+        if (snapshot == null) {
+            throw new BizException(ErrorCode.INTERNAL_ERROR, "Revision base snapshot is missing");
+        }
+        return snapshot;
+    }
+
+    private String materialize(PostRevisionEntity revision, PostRevisionEntity snapshot) {
+        if (SNAPSHOT.equals(revision.getKind())) {
+            return revision.getPayload();
+        }
+        return TextDelta.apply(snapshot.getPayload(), revision.getPayload());
+    }
+
+    private boolean sameDraft(PostRevisionEntity revision, String content, PostDraftRequest request) {
+        return Objects.equals(content, request.getContent())
+                && Objects.equals(revision.getTitle(), request.getTitle())
+                && Objects.equals(revision.getSummary(), request.getSummary())
+                && Objects.equals(revision.getStatus(), request.getStatus())
+                && Objects.equals(revision.getCategoryId(), request.getCategoryId());
+    }
+
+    private PostRevisionEntity findRevision(String postId, Long revisionId) {
+        PostRevisionEntity revision = postRevisionMapper.selectById(revisionId);
+        if (revision == null || !Objects.equals(revision.getPostId(), postId)) {
+            throw new BizException(ErrorCode.NOT_FOUND, "Revision not found");
+        }
+        return revision;
+    }
+
+    private void ensurePostExists(String postId) {
+        if (postId == null || postId.isBlank()
+                || !postMapper.exists(new LambdaQueryWrapper<PostEntity>().eq(PostEntity::getId, postId))) {
+            throw new BizException(ErrorCode.NOT_FOUND, "Post not found");
+        }
+    }
+
+    private PostDraftRequest toDraft(PostRevisionEntity revision, String content) {
+        PostDraftRequest draft = new PostDraftRequest();
+        draft.setTitle(revision.getTitle());
+        draft.setContent(content);
+        draft.setSummary(revision.getSummary());
+        draft.setStatus(revision.getStatus());
+        draft.setCategoryId(revision.getCategoryId());
+        return draft;
+    }
+
+    private PostRevisionResponse toResponse(PostRevisionEntity revision, String content) {
+        return new PostRevisionResponse(
+                revision.getId(),
+                revision.getPostId(),
+                revision.getKind(),
+                revision.getTitle(),
+                revision.getSummary(),
+                revision.getStatus(),
+                revision.getCategoryId(),
+                content,
+                revision.getContentLength() == null ? 0 : revision.getContentLength(),
+                revision.getPayload() == null ? 0 : revision.getPayload().length(),
+                Boolean.TRUE.equals(revision.getPublished()),
+                revision.getCreatedAt()
+        );
+    }
+}
@@ -1,49 +1,165 @@
 package com.liquidthoughts.blog.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.EpochMillis;
 import com.liquidthoughts.blog.common.ErrorCode;
 import com.liquidthoughts.blog.dto.PagedResponse;
+import com.liquidthoughts.blog.dto.PostPageResponse;
 import com.liquidthoughts.blog.dto.PostSaveRequest;
+import com.liquidthoughts.blog.dto.TagCountResponse;
 import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.event.PostChangedEvent;
 import com.liquidthoughts.blog.mapper.PostMapper;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.time.LocalDate;
-import java.time.ZoneOffset;
-import java.time.Instant;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PostService {
 
+    static final String PAGE_CACHE = "posts.page";
+    private static final int STREAM_FLUSH_ROWS = 200;
+
     private final PostMapper postMapper;
-    private final FileStorageService fileStorageService;
+    private final MarkdownMirrorService markdownMirrorService;
     private final PostMetricService postMetricService;
+    private final PostCatalogService postCatalogService;
+    private final PostIdGenerator postIdGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final ObjectMapper objectMapper;
+    private final ReadCacheService readCacheService;
+    private final PostTagService postTagService;
 
-    public List<PostEntity> listAll() {
-        List<PostEntity> posts = postMapper.selectList(
-                new LambdaQueryWrapper<PostEntity>().orderByDesc(PostEntity::getCreatedAt)
-        );
-        postMetricService.attachMetrics(posts);
-        return posts;
+    /**
+     * Writes every post with its metrics as an {@code ApiResponse} envelope, reading rows from a cursor and
+     * serializing them one at a time, so heap use does not grow with the number of posts. The cursor runs on its own
+     * auto-commit session; with WAL journaling the open read does not hold back writers.
+     */
+    public void writeAll(OutputStream output) throws IOException {
+        try (SqlSession session = sqlSessionFactory.openSession(true);
+             Cursor<PostEntity> cursor = session.getMapper(PostMapper.class).streamAllWithMetrics();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            ObjectWriter rowWriter = objectMapper.writerFor(PostEntity.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            generator.writeStartObject();
+            generator.writeNumberField("code", ErrorCode.SUCCESS.getCode());
+            generator.writeStringField("message", ErrorCode.SUCCESS.getDefaultMessage());
+            generator.writeArrayFieldStart("data");
+            int written = 0;
+            for (PostEntity post : cursor) {
+                rowWriter.writeValue(generator, post);
+                if (++written % STREAM_FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Answers a post page from the read cache. The key is the query with its timestamps parsed, so concurrent
+     * requests for the same page share one {@link #listPageFromCatalog} call and an expired page is served stale
+     * while one request refreshes it. With several {@code tags}, posts must carry all of them, or any of them when
+     * {@code anyTag} is set. With {@code facets}, the page also carries the post counts per status, category and tag.
+     */
+    public PostPageResponse listPage(long page,
+                                     long pageSize,
+                                     String keyword,
+                                     String status,
+                                     Integer categoryId,
+                                     String createdFrom,
+                                     String createdTo,
+                                     String updatedFrom,
+                                     String updatedTo,
+                                     List<String> tags,
+                                     boolean anyTag,
+                                     boolean facets) {
+        PageQuery query = PageQuery.of(page, pageSize, keyword, status, categoryId,
+                createdFrom, createdTo, updatedFrom, updatedTo, tags, anyTag, facets);
+        return readCacheService.<PageQuery, PostPageResponse>cache(PAGE_CACHE)
+                .get(query, () -> listPageFromCatalog(query));
+    }
+
+    /**
+     * Filters and pages posts in {@link PostCatalogService}, then reads only the rows of the page by primary key.
+     */
+    public PagedResponse<PostEntity> listPageFromCatalog(long page,
+                                                         long pageSize,
+                                                         String keyword,
+                                                         String status,
+                                                         Integer categoryId,
+                                                         String createdFrom,
+                                                         String createdTo,
+                                                         String updatedFrom,
+                                                         String updatedTo) {
+        return listPageFromCatalog(PageQuery.of(page, pageSize, keyword, status, categoryId,
+                createdFrom, createdTo, updatedFrom, updatedTo, null, false, false));
+    }
+
+    private PostPageResponse listPageFromCatalog(PageQuery query) {
+        PostCatalogService.CatalogPage slice = postCatalogService.page(query.page(), query.pageSize(),
+                query.keyword(), query.status(), query.categoryId(),
+                query.createdFrom(), query.createdTo(), query.updatedFrom(), query.updatedTo(),
+                query.tags(), query.anyTag(), query.facets());
+
+        List<PostEntity> records = new ArrayList<>(slice.ids().size());
+        if (!slice.ids().isEmpty()) {
+            Map<String, PostEntity> rows = postMapper.selectBatchIds(slice.ids()).stream()
+                    .collect(Collectors.toMap(PostEntity::getId, Function.identity()));
+            for (String id : slice.ids()) {
+                PostEntity row = rows.get(id);
+                if (row != null) {
+                    records.add(row);
+                }
+            }
+        }
+        postMetricService.attachMetrics(records);
+        postTagService.attachTags(records);
+        return new PostPageResponse(records, slice.total(), query.page(), query.pageSize(), slice.facets());
     }
 
-    public PagedResponse<PostEntity> listPage(long page,
-                                              long pageSize,
-                                              String keyword,
-                                              String status,
-                                              Integer categoryId,
-                                              String createdFrom,
-                                              String createdTo,
-                                              String updatedFrom,
-                                              String updatedTo) {
+    public List<TagCountResponse> tagCounts(String status) {
+        return postCatalogService.tagCounts(status);
+    }
+
+    /**
+     * The same query as {@link #listPage} run in SQLite, kept as the reference for catalog benchmarks and checks.
+     */
+    public PagedResponse<PostEntity> listPageFromDatabase(long page,
+                                                          long pageSize,
+                                                          String keyword,
+                                                          String status,
+                                                          Integer categoryId,
+                                                          String createdFrom,
+                                                          String createdTo,
+                                                          String updatedFrom,
+                                                          String updatedTo) {
         LambdaQueryWrapper<PostEntity> wrapper = new LambdaQueryWrapper<PostEntity>()
-                .orderByDesc(PostEntity::getCreatedAt);
+                .orderByDesc(PostEntity::getCreatedAt)
+                .orderByDesc(PostEntity::getId);
 
         if (StringUtils.hasText(keyword)) {
             wrapper.and(w -> w.like(PostEntity::getTitle, keyword).or().like(PostEntity::getSummary, keyword));
@@ -55,10 +171,10 @@ public class PostService {
             wrapper.eq(PostEntity::getCategoryId, categoryId);
         }
 
-        String normalizedCreatedFrom = normalizeDateTimeStart(createdFrom);
-        String normalizedCreatedTo = normalizeDateTimeEnd(createdTo);
-        String normalizedUpdatedFrom = normalizeDateTimeStart(updatedFrom);
-        String normalizedUpdatedTo = normalizeDateTimeEnd(updatedTo);
+        Long normalizedCreatedFrom = EpochMillis.parseStart(createdFrom);
+        Long normalizedCreatedTo = EpochMillis.parseEnd(createdTo);
+        Long normalizedUpdatedFrom = EpochMillis.parseStart(updatedFrom);
+        Long normalizedUpdatedTo = EpochMillis.parseEnd(updatedTo);
 
         if (normalizedCreatedFrom != null) {
             wrapper.ge(PostEntity::getCreatedAt, normalizedCreatedFrom);
@@ -78,70 +194,38 @@ public class PostService {
         return new PagedResponse<>(result.getRecords(), result.getTotal(), result.getCurrent(), result.getSize());
     }
 
-    private String normalizeDateTimeStart(String value) {
-        if (!StringUtils.hasText(value)) {
-            return null;
-        }
-        String trimmed = value.trim();
-        try {
-            return Instant.parse(trimmed).toString();
-        } catch (Exception ignored) {
-            // Ignore and try parsing date only.
-        }
-
-        try {
-            return LocalDate.parse(trimmed).atStartOfDay(ZoneOffset.UTC).toInstant().toString();
-        } catch (Exception ignored) {
-            return null;
-        }
-    }
-
-    private String normalizeDateTimeEnd(String value) {
-        if (!StringUtils.hasText(value)) {
-            return null;
-        }
-        String trimmed = value.trim();
-        try {
-            return Instant.parse(trimmed).toString();
-        } catch (Exception ignored) {
-            // Ignore and try parsing date only.
-        }
-
-        try {
-            return LocalDate.parse(trimmed)
-                    .plusDays(1)
-                    .atStartOfDay(ZoneOffset.UTC)
-                    .minusNanos(1)
-                    .toInstant()
-                    .toString();
-        } catch (Exception ignored) {
-            return null;
-        }
-    }
-
+    @Transactional
     public PostEntity save(PostSaveRequest request) {
-        String now = Instant.now().toString();
+        long now = System.currentTimeMillis();
+        List<String> tags = PostTagService.normalize(request.getTags());
 
         if (request.getId() == null || request.getId().isBlank()) {
             PostEntity entity = new PostEntity();
-            entity.setId(String.valueOf(System.currentTimeMillis()));
+            entity.setId(postIdGenerator.nextId());
             entity.setTitle(request.getTitle());
             entity.setContent(request.getContent());
+            entity.setWordCount(WordCounter.count(request.getContent()));
             entity.setSummary(request.getSummary());
             entity.setStatus(request.getStatus());
             entity.setCategoryId(request.getCategoryId());
             entity.setCreatedAt(now);
             entity.setUpdatedAt(now);
             postMapper.insert(entity);
-            fileStorageService.writePostMarkdown(entity.getId(), entity.getContent());
+            entity.setTags(tags == null ? List.of() : tags);
+            if (!entity.getTags().isEmpty()) {
+                postTagService.replaceTags(entity.getId(), entity.getTags());
+            }
+            markdownMirrorService.schedule(entity.getId(), entity.getContent());
             postMetricService.initMetricIfAbsent(entity.getId());
             entity.setViewCount(0);
             entity.setLikeCount(0);
+            eventPublisher.publishEvent(new PostChangedEvent(null, entity));
             return entity;
         }
 
         PostEntity entity = postMapper.selectById(request.getId());
         boolean exists = entity != null;
+        PostEntity previous = exists ? copyOf(entity) : null;
         if (entity == null) {
             entity = new PostEntity();
             entity.setId(request.getId());
@@ -149,6 +233,7 @@ public class PostService {
         }
         entity.setTitle(request.getTitle());
         entity.setContent(request.getContent());
+        entity.setWordCount(WordCounter.count(request.getContent()));
         entity.setSummary(request.getSummary());
         entity.setStatus(request.getStatus());
         entity.setCategoryId(request.getCategoryId());
@@ -159,18 +244,113 @@ public class PostService {
         } else {
             postMapper.updateById(entity);
         }
+        if (tags != null) {
+            postTagService.replaceTags(entity.getId(), tags);
+            entity.setTags(tags);
+        } else {
+            entity.setTags(exists ? postTagService.tagsOf(entity.getId()) : List.of());
+        }
 
-        fileStorageService.writePostMarkdown(entity.getId(), entity.getContent());
+        markdownMirrorService.schedule(entity.getId(), entity.getContent());
         postMetricService.initMetricIfAbsent(entity.getId());
         postMetricService.attachMetrics(List.of(entity));
+        eventPublisher.publishEvent(new PostChangedEvent(previous, entity));
         return entity;
     }
 
+    @Transactional
     public void deleteById(String id) {
-        int rows = postMapper.deleteById(id);
+        PostEntity previous = postMapper.selectById(id);
+        List<Long> tagIds = previous == null ? List.of() : postTagService.tagIdsOf(id);
+        int rows = previous == null ? 0 : postMapper.deleteById(id);
         if (rows == 0) {
             throw new BizException(ErrorCode.NOT_FOUND, "Post not found");
         }
-        fileStorageService.deletePostMarkdown(id);
+        postTagService.deleteUnusedTags(tagIds);
+        markdownMirrorService.schedule(id, null);
+        eventPublisher.publishEvent(new PostChangedEvent(previous, null));
+    }
+
+    public long countByCategory(Integer categoryId) {
+        return postMapper.selectCount(new LambdaQueryWrapper<PostEntity>().eq(PostEntity::getCategoryId, categoryId));
+    }
+
+    @Transactional
+    public int deleteByCategory(Integer categoryId) {
+        List<PostEntity> posts = postMapper.selectList(
+                new LambdaQueryWrapper<PostEntity>().eq(PostEntity::getCategoryId, categoryId)
+        );
+        if (posts.isEmpty()) {
+            return 0;
+        }
+        List<Long> tagIds = postTagService.tagIdsOfCategory(categoryId);
+        postMapper.delete(new LambdaQueryWrapper<PostEntity>().eq(PostEntity::getCategoryId, categoryId));
+        postTagService.deleteUnusedTags(tagIds);
+        markdownMirrorService.scheduleAll(posts.stream()
+                .map(post -> markdownMirrorService.journalEntry(post.getId(), null))
+                .toList());
+        posts.forEach(post -> eventPublisher.publishEvent(new PostChangedEvent(post, null)));
+        return posts.size();
+    }
+
+    @Transactional
+    public int reassignCategory(Integer fromCategoryId, Integer toCategoryId) {
+        List<PostEntity> posts = postMapper.selectList(
+                new LambdaQueryWrapper<PostEntity>().eq(PostEntity::getCategoryId, fromCategoryId)
+        );
+        if (posts.isEmpty()) {
+            return 0;
+        }
+        postMapper.update(null, new LambdaUpdateWrapper<PostEntity>()
+                .set(PostEntity::getCategoryId, toCategoryId)
+                .eq(PostEntity::getCategoryId, fromCategoryId));
+        for (PostEntity post : posts) {
+            PostEntity previous = copyOf(post);
+            post.setCategoryId(toCategoryId);
+            eventPublisher.publishEvent(new PostChangedEvent(previous, post));
+        }
+        return posts.size();
+    }
+
+    private PostEntity copyOf(PostEntity source) {
+        PostEntity copy = new PostEntity();
+        copy.setId(source.getId());
+        copy.setTitle(source.getTitle());
+        copy.setContent(source.getContent());
+        copy.setSummary(source.getSummary());
+        copy.setStatus(source.getStatus());
+        copy.setCategoryId(source.getCategoryId());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setWordCount(source.getWordCount());
+        copy.setTags(source.getTags());
+        return copy;
+    }
+
+    /**
+     * A post page query with blank filters dropped, timestamps parsed to epoch millis and tags normalized and sorted,
+     * the key of the page cache.
+     */
+    public record PageQuery(long page, long pageSize, String keyword, String status, Integer categoryId,
+                            Long createdFrom, Long createdTo, Long updatedFrom, Long updatedTo,
+                            List<String> tags, boolean anyTag, boolean facets) {
+
+        static PageQuery of(long page, long pageSize, String keyword, String status, Integer categoryId,
+                            String createdFrom, String createdTo, String updatedFrom, String updatedTo,
+                            List<String> tags, boolean anyTag, boolean facets) {
+            List<String> normalizedTags = PostTagService.normalize(tags);
+            boolean tagged = normalizedTags != null && !normalizedTags.isEmpty();
+            return new PageQuery(page, pageSize,
+                    StringUtils.hasText(keyword) ? keyword : null,
+                    StringUtils.hasText(status) ? status : null,
+                    categoryId,
+                    EpochMillis.parseStart(createdFrom),
+                    EpochMillis.parseEnd(createdTo),
+                    EpochMillis.parseStart(updatedFrom),
+                    EpochMillis.parseEnd(updatedTo),
+                    tagged ? normalizedTags.stream().sorted().toList() : null,
+                    tagged && anyTag,
+                    facets);
+        }
     }
 }
@@ -0,0 +1,333 @@
+package com.liquidthoughts.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.liquidthoughts.blog.config.SuggestProperties;
+import com.liquidthoughts.blog.dto.PostSuggestionResponse;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.entity.PostMetricEntity;
+import com.liquidthoughts.blog.event.NodeResyncEvent;
+import com.liquidthoughts.blog.event.PostChangedEvent;
+import com.liquidthoughts.blog.event.PostMetricEvent;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import com.liquidthoughts.blog.mapper.PostMetricMapper;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Title suggestions for the search box, served from an in-memory prefix index of published post titles.
+ * <p>
+ * Titles are split by {@link TermTokenizer}, and Chinese characters are indexed on their own as well as in bigrams, so
+ * a query may start anywhere in a Chinese word. Terms are kept in sorted order, each with a {@link RoaringBitmap} of
+ * the slots of the posts using it, so all terms starting with a prefix are one contiguous range. Every term of the
+ * query must be the prefix of a title term; the last Latin word is matched even when it is short, as it is usually
+ * still being typed. Matching posts are ranked by views plus
+ * {@code app.suggest.like-weight} times likes, then by creation time.
+ * <p>
+ * A save re-indexes only the saved post, and only when its title or status changed. View and like counts follow
+ * {@link PostMetricEvent}s, so ranking never reads {@code post_metrics} after startup.
+ * <p>
+ * Queries and metric updates share the read lock, so a view or like never waits for a query and queries never wait
+ * for each other; only re-indexing takes the write lock. The counts are atomic, as metric updates change them while
+ * queries rank by them.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostSuggestService {
+
+    private static final String PUBLISHED = "published";
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final PostMapper postMapper;
+    private final PostMetricMapper postMetricMapper;
+    private final SuggestProperties suggestProperties;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final NavigableMap<String, RoaringBitmap> terms = new TreeMap<>();
+    private int slotCount;
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private String[][] slotTerms = new String[INITIAL_CAPACITY][];
+    private long[] createdAt = new long[INITIAL_CAPACITY];
+    private AtomicIntegerArray views = new AtomicIntegerArray(INITIAL_CAPACITY);
+    private AtomicIntegerArray likes = new AtomicIntegerArray(INITIAL_CAPACITY);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener({ApplicationReadyEvent.class, NodeResyncEvent.class})
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onMetric(PostMetricEvent event) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(event.getPostId());
+            if (slot != null) {
+                views.getAndUpdate(slot, count -> Math.max(0, count + event.getViewDelta()));
+                likes.getAndUpdate(slot, count -> Math.max(0, count + event.getLikeDelta()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the most popular published posts whose title matches {@code query} as typed so far, best first.
+     */
+    public List<PostSuggestionResponse> suggest(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return query(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void load() {
+        slots.clear();
+        freeSlots.clear();
+        terms.clear();
+        slotCount = 0;
+        ids = new String[INITIAL_CAPACITY];
+        titles = new String[INITIAL_CAPACITY];
+        slotTerms = new String[INITIAL_CAPACITY][];
+        createdAt = new long[INITIAL_CAPACITY];
+        views = new AtomicIntegerArray(INITIAL_CAPACITY);
+        likes = new AtomicIntegerArray(INITIAL_CAPACITY);
+
+        List<PostEntity> posts = postMapper.selectList(
+                new LambdaQueryWrapper<PostEntity>()
+                        .select(PostEntity::getId, PostEntity::getTitle, PostEntity::getCreatedAt)
+                        .eq(PostEntity::getStatus, PUBLISHED)
+        );
+        for (PostEntity post : posts) {
+            index(allocateSlot(post.getId()), post);
+        }
+        for (PostMetricEntity metric : postMetricMapper.selectByPostStatus(PUBLISHED)) {
+            Integer slot = slots.get(metric.getPostId());
+            if (slot != null) {
+                views.set(slot, safeNumber(metric.getViewCount()));
+                likes.set(slot, safeNumber(metric.getLikeCount()));
+            }
+        }
+        terms.values().forEach(RoaringBitmap::runOptimize);
+    }
+
+    private void apply(PostChangedEvent event) {
+        PostEntity current = event.getCurrent();
+        if (current == null || !PUBLISHED.equals(current.getStatus())) {
+            remove(event.getPostId());
+            return;
+        }
+
+        Integer slot = slots.get(current.getId());
+        if (slot == null) {
+            slot = allocateSlot(current.getId());
+            PostMetricEntity metric = postMetricMapper.selectByPostId(current.getId());
+            views.set(slot, metric == null ? 0 : safeNumber(metric.getViewCount()));
+            likes.set(slot, metric == null ? 0 : safeNumber(metric.getLikeCount()));
+        } else {
+            createdAt[slot] = epochMillis(current.getCreatedAt());
+            if (Objects.equals(titles[slot], current.getTitle())) {
+                return;
+            }
+            unindex(slot);
+        }
+        index(slot, current);
+    }
+
+    private List<PostSuggestionResponse> query(String query, int limit) {
+        Set<String> prefixes = new LinkedHashSet<>();
+        TermTokenizer.tokenize(query, true, prefixes::add);
+        if (prefixes.isEmpty()) {
+            return List.of();
+        }
+        RoaringBitmap matches = null;
+        for (String prefix : prefixes) {
+            RoaringBitmap withPrefix = postsWithPrefix(prefix);
+            matches = matches == null ? withPrefix : RoaringBitmap.and(matches, withPrefix);
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        int size = Math.max(1, Math.min(limit, suggestProperties.getMaxResults()));
+        int[] best = new int[size];
+        int count = 0;
+        for (IntIterator rows = matches.getIntIterator(); rows.hasNext(); ) {
+            int slot = rows.next();
+            if (count == size && !ranksBefore(slot, best[size - 1])) {
+                continue;
+            }
+            int position = count == size ? size - 1 : count++;
+            while (position > 0 && ranksBefore(slot, best[position - 1])) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = slot;
+        }
+
+        List<PostSuggestionResponse> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int slot = best[i];
+            result.add(new PostSuggestionResponse(ids[slot], titles[slot], views.get(slot), likes.get(slot)));
+        }
+        return result;
+    }
+
+    private RoaringBitmap postsWithPrefix(String prefix) {
+        NavigableMap<String, RoaringBitmap> range = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        return switch (range.size()) {
+            case 0 -> new RoaringBitmap();
+            case 1 -> range.firstEntry().getValue();
+            default -> FastAggregation.or(range.values().iterator());
+        };
+    }
+
+    private boolean ranksBefore(int slot, int other) {
+        long popularity = popularity(slot);
+        long otherPopularity = popularity(other);
+        if (popularity != otherPopularity) {
+            return popularity > otherPopularity;
+        }
+        if (createdAt[slot] != createdAt[other]) {
+            return createdAt[slot] > createdAt[other];
+        }
+        return ids[slot].compareTo(ids[other]) < 0;
+    }
+
+    private long popularity(int slot) {
+        return views.get(slot) + (long) suggestProperties.getLikeWeight() * likes.get(slot);
+    }
+
+    private void index(int slot, PostEntity post) {
+        titles[slot] = post.getTitle();
+        createdAt[slot] = epochMillis(post.getCreatedAt());
+        Set<String> titleTerms = new LinkedHashSet<>();
+        TermTokenizer.tokenize(post.getTitle(), titleTerms::add);
+        if (post.getTitle() != null) {
+            post.getTitle().codePoints()
+                    .filter(Character::isIdeographic)
+                    .forEach(codePoint -> titleTerms.add(Character.toString(codePoint)));
+        }
+        slotTerms[slot] = titleTerms.toArray(String[]::new);
+        for (String term : slotTerms[slot]) {
+            terms.computeIfAbsent(term, key -> new RoaringBitmap()).add(slot);
+        }
+    }
+
+    private void unindex(int slot) {
+        for (String term : slotTerms[slot]) {
+            RoaringBitmap posts = terms.get(term);
+            if (posts != null) {
+                posts.remove(slot);
+                if (posts.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+        }
+        slotTerms[slot] = null;
+    }
+
+    private void remove(String postId) {
+        Integer slot = slots.remove(postId);
+        if (slot == null) {
+            return;
+        }
+        unindex(slot);
+        ids[slot] = null;
+        titles[slot] = null;
+        views.set(slot, 0);
+        likes.set(slot, 0);
+        freeSlots.push(slot);
+    }
+
+    private int allocateSlot(String postId) {
+        int slot;
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.pop();
+        } else {
+            slot = slotCount++;
+            ensureCapacity(slotCount);
+        }
+        slots.put(postId, slot);
+        ids[slot] = postId;
+        return slot;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, grown);
+        titles = Arrays.copyOf(titles, grown);
+        slotTerms = Arrays.copyOf(slotTerms, grown);
+        createdAt = Arrays.copyOf(createdAt, grown);
+        views = copyOf(views, grown);
+        likes = copyOf(likes, grown);
+    }
+
+    private static AtomicIntegerArray copyOf(AtomicIntegerArray counts, int length) {
+        AtomicIntegerArray copy = new AtomicIntegerArray(length);
+        for (int index = 0; index < counts.length(); index++) {
+            copy.set(index, counts.get(index));
+        }
+        return copy;
+    }
+
+    private static long epochMillis(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private static int safeNumber(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,137 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.ErrorCode;
+import com.liquidthoughts.blog.dto.PostTagRow;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.entity.TagEntity;
+import com.liquidthoughts.blog.mapper.TagMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the tags of posts. Tag names are normalized on the way in, so {@code Spring Boot}, {@code spring  boot}
+ * and {@code SPRING BOOT} are one tag; CJK and other non-ASCII letters are kept as typed.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostTagService {
+
+    public static final int MAX_TAGS_PER_POST = 20;
+    public static final int MAX_TAG_LENGTH = 32;
+
+    private final TagMapper tagMapper;
+
+    /**
+     * Replaces the tags of a post; must run in the transaction that saved the post. Only the links that changed are
+     * written, and only tags the post dropped are checked for removal, so an unchanged tag set costs one lookup.
+     */
+    public void replaceTags(String postId, List<String> tags) {
+        Map<String, Long> current = tagMapper.selectByPostId(postId).stream()
+                .collect(Collectors.toMap(TagEntity::getName, TagEntity::getId));
+        List<Long> removed = current.entrySet().stream()
+                .filter(entry -> !tags.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        List<String> added = tags.stream().filter(tag -> !current.containsKey(tag)).toList();
+
+        if (!removed.isEmpty()) {
+            tagMapper.deletePostTags(postId, removed);
+        }
+        if (!added.isEmpty()) {
+            tagMapper.insertIgnore(added);
+            tagMapper.insertPostTags(postId, added);
+        }
+        deleteUnusedTags(removed);
+    }
+
+    /**
+     * Ids of the tags carried by posts in a category, read before the posts are deleted.
+     */
+    public List<Long> tagIdsOfCategory(Integer categoryId) {
+        return tagMapper.selectIdsByCategoryId(categoryId);
+    }
+
+    public List<Long> tagIdsOf(String postId) {
+        return tagMapper.selectByPostId(postId).stream().map(TagEntity::getId).toList();
+    }
+
+    /**
+     * Drops those of {@code tagIds} no post carries any more, after posts lost them or were deleted and their links
+     * cascaded away.
+     */
+    public void deleteUnusedTags(Collection<Long> tagIds) {
+        if (!tagIds.isEmpty()) {
+            tagMapper.deleteUnused(tagIds);
+        }
+    }
+
+    public List<String> tagsOf(String postId) {
+        return tagMapper.selectByPostIds(List.of(postId)).stream().map(PostTagRow::getName).toList();
+    }
+
+    public void attachTags(List<PostEntity> posts) {
+        List<String> postIds = posts.stream().map(PostEntity::getId).filter(Objects::nonNull).toList();
+        if (postIds.isEmpty()) {
+            return;
+        }
+        Map<String, List<String>> tags = tagMapper.selectByPostIds(postIds).stream()
+                .collect(Collectors.groupingBy(PostTagRow::getPostId,
+                        Collectors.mapping(PostTagRow::getName, Collectors.toList())));
+        posts.forEach(post -> post.setTags(tags.getOrDefault(post.getId(), List.of())));
+    }
+
+    public List<PostTagRow> allPostTags() {
+        return tagMapper.selectAllPostTags();
+    }
+
+    /**
+     * Normalizes tag names for storage or lookup, dropping blanks and duplicates; null stays null.
+     */
+    public static List<String> normalize(Collection<String> tags) {
+        if (tags == null) {
+            return null;
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            String name = normalize(tag);
+            if (name == null) {
+                continue;
+            }
+            if (name.length() > MAX_TAG_LENGTH) {
+                throw new BizException(ErrorCode.BAD_REQUEST, "Tag is longer than " + MAX_TAG_LENGTH + " characters: " + name);
+            }
+            normalized.add(name);
+        }
+        if (normalized.size() > MAX_TAGS_PER_POST) {
+            throw new BizException(ErrorCode.BAD_REQUEST, "A post can have at most " + MAX_TAGS_PER_POST + " tags");
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    public static String normalize(String tag) {
+        if (tag == null) {
+            return null;
+        }
+        String collapsed = tag.strip().replaceAll("\\s+", " ");
+        if (collapsed.isEmpty()) {
+            return null;
+        }
+        char[] chars = collapsed.toCharArray();
+        for (int index = 0; index < chars.length; index++) {
+            if (chars[index] >= 'A' && chars[index] <= 'Z') {
+                chars[index] += 'a' - 'A';
+            }
+        }
+        return new String(chars);
+    }
+}
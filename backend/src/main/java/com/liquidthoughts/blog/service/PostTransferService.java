@@ -0,0 +1,285 @@
+package com.liquidthoughts.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liquidthoughts.blog.common.BizException;
+import com.liquidthoughts.blog.common.EpochMillis;
+import com.liquidthoughts.blog.dto.PostImportProgress;
+import com.liquidthoughts.blog.dto.PostTransferRecord;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.event.PostChangedEvent;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import com.liquidthoughts.blog.mapper.PostMetricMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams posts in and out as NDJSON without holding the whole archive in memory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostTransferService {
+
+    private static final int IMPORT_BATCH_SIZE = 500;
+    private static final int STATEMENT_BATCH_SIZE = 100;
+    private static final int EXPORT_PAGE_SIZE = 500;
+
+    private final PostMapper postMapper;
+    private final PostMetricMapper postMetricMapper;
+    private final MarkdownMirrorService markdownMirrorService;
+    private final PostTagService postTagService;
+    private final PostIdGenerator postIdGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Imports NDJSON post records in large transactions, writing one progress line per committed batch.
+     */
+    public void importPosts(InputStream input, OutputStream output) throws IOException {
+        ImportState state = new ImportState();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<PendingRecord> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                state.line++;
+                if (!StringUtils.hasText(line)) {
+                    continue;
+                }
+
+                String error;
+                try {
+                    PostTransferRecord record = objectMapper.readValue(line, PostTransferRecord.class);
+                    error = validate(record);
+                    if (error == null) {
+                        batch.add(new PendingRecord(state.line, record));
+                    }
+                } catch (IOException ex) {
+                    error = "Malformed JSON";
+                }
+                if (error != null) {
+                    state.failed++;
+                    writeLine(output, new PostImportProgress(state.line, state.imported, state.failed, error, null));
+                }
+
+                if (batch.size() >= IMPORT_BATCH_SIZE) {
+                    commitBatch(batch, state, output);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                commitBatch(batch, state, output);
+            }
+        }
+
+        writeLine(output, new PostImportProgress(state.line, state.imported, state.failed, null, true));
+    }
+
+    /**
+     * Pages through posts by id and writes each one as an NDJSON line.
+     */
+    public void exportPosts(OutputStream output) throws IOException {
+        String lastId = null;
+        while (true) {
+            LambdaQueryWrapper<PostEntity> wrapper = new LambdaQueryWrapper<PostEntity>()
+                    .gt(lastId != null, PostEntity::getId, lastId)
+                    .orderByAsc(PostEntity::getId)
+                    .last("LIMIT " + EXPORT_PAGE_SIZE);
+            List<PostEntity> page = postMapper.selectList(wrapper);
+            postTagService.attachTags(page);
+            for (PostEntity post : page) {
+                writeLine(output, toRecord(post));
+            }
+            output.flush();
+
+            if (page.size() < EXPORT_PAGE_SIZE) {
+                return;
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private void commitBatch(List<PendingRecord> batch, ImportState state, OutputStream output) throws IOException {
+        long nowMillis = System.currentTimeMillis();
+        List<PostEntity> entities = batch.stream().map(pending -> toEntity(pending.record(), nowMillis)).toList();
+        Map<String, PostEntity> existing;
+
+        try {
+            existing = write(entities, nowMillis);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to import batch ending at line {}, retrying its records one by one", state.line, ex);
+            commitRecords(batch, entities, nowMillis, state, output);
+            return;
+        }
+
+        for (PostEntity entity : entities) {
+            eventPublisher.publishEvent(new PostChangedEvent(existing.get(entity.getId()), entity));
+        }
+
+        state.imported += entities.size();
+        writeLine(output, new PostImportProgress(state.line, state.imported, state.failed, null, null));
+        output.flush();
+    }
+
+    /**
+     * Imports the records of a rejected batch in one transaction each, so only the records that fail on their own
+     * are reported.
+     */
+    private void commitRecords(List<PendingRecord> batch, List<PostEntity> entities, long nowMillis, ImportState state,
+                               OutputStream output) throws IOException {
+        for (int index = 0; index < entities.size(); index++) {
+            PostEntity entity = entities.get(index);
+            Map<String, PostEntity> existing;
+            try {
+                existing = write(List.of(entity), nowMillis);
+            } catch (RuntimeException ex) {
+                state.failed++;
+                writeLine(output, new PostImportProgress(batch.get(index).line(), state.imported, state.failed,
+                        "Record rejected: " + rootMessage(ex), null));
+                continue;
+            }
+            eventPublisher.publishEvent(new PostChangedEvent(existing.get(entity.getId()), entity));
+            state.imported++;
+        }
+        writeLine(output, new PostImportProgress(state.line, state.imported, state.failed, null, null));
+        output.flush();
+    }
+
+    private Map<String, PostEntity> write(List<PostEntity> entities, long nowMillis) {
+        String now = Instant.ofEpochMilli(nowMillis).toString();
+        return transactionTemplate.execute(status -> {
+            Map<String, PostEntity> previous = findExisting(entities);
+            for (PostEntity entity : entities) {
+                // The upsert keeps the creation time of an existing post, so the change event must carry it too.
+                PostEntity stored = previous.get(entity.getId());
+                if (stored != null) {
+                    entity.setCreatedAt(stored.getCreatedAt());
+                }
+            }
+            for (int from = 0; from < entities.size(); from += STATEMENT_BATCH_SIZE) {
+                List<PostEntity> chunk = entities.subList(from, Math.min(from + STATEMENT_BATCH_SIZE, entities.size()));
+                postMapper.upsertBatch(chunk);
+                postMetricMapper.initBatch(chunk.stream().map(PostEntity::getId).toList(), now);
+            }
+            for (PostEntity entity : entities) {
+                if (entity.getTags() != null) {
+                    postTagService.replaceTags(entity.getId(), entity.getTags());
+                }
+            }
+            markdownMirrorService.scheduleAll(entities.stream()
+                    .map(entity -> markdownMirrorService.journalEntry(entity.getId(), entity.getContent()))
+                    .toList());
+            return previous;
+        });
+    }
+
+    private Map<String, PostEntity> findExisting(List<PostEntity> entities) {
+        List<PostEntity> rows = postMapper.selectList(
+                new LambdaQueryWrapper<PostEntity>()
+                        .select(PostEntity::getId, PostEntity::getTitle, PostEntity::getSummary, PostEntity::getStatus,
+                                PostEntity::getCategoryId, PostEntity::getCreatedAt, PostEntity::getUpdatedAt)
+                        .in(PostEntity::getId, entities.stream().map(PostEntity::getId).toList())
+        );
+        return rows.stream().collect(Collectors.toMap(PostEntity::getId, Function.identity(), (a, b) -> b));
+    }
+
+    private String validate(PostTransferRecord record) {
+        if (record == null) {
+            return "Empty record";
+        }
+        for (ConstraintViolation<PostTransferRecord> violation : validator.validate(record)) {
+            return violation.getMessage();
+        }
+        if (StringUtils.hasText(record.getCreatedAt()) && EpochMillis.parse(record.getCreatedAt()) == null) {
+            return "created_at must be an ISO-8601 timestamp";
+        }
+        if (StringUtils.hasText(record.getUpdatedAt()) && EpochMillis.parse(record.getUpdatedAt()) == null) {
+            return "updated_at must be an ISO-8601 timestamp";
+        }
+        try {
+            record.setTags(PostTagService.normalize(record.getTags()));
+        } catch (BizException ex) {
+            return ex.getMessage();
+        }
+        return null;
+    }
+
+    private PostEntity toEntity(PostTransferRecord record, long now) {
+        PostEntity entity = new PostEntity();
+        entity.setId(StringUtils.hasText(record.getId()) ? record.getId().trim() : postIdGenerator.nextId());
+        entity.setTitle(record.getTitle());
+        entity.setContent(record.getContent());
+        entity.setWordCount(WordCounter.count(record.getContent()));
+        entity.setSummary(record.getSummary());
+        entity.setStatus(record.getStatus());
+        entity.setCategoryId(record.getCategoryId());
+        entity.setCreatedAt(parseOrDefault(record.getCreatedAt(), now));
+        entity.setUpdatedAt(parseOrDefault(record.getUpdatedAt(), now));
+        entity.setTags(record.getTags());
+        return entity;
+    }
+
+    private PostTransferRecord toRecord(PostEntity post) {
+        PostTransferRecord record = new PostTransferRecord();
+        record.setId(post.getId());
+        record.setTitle(post.getTitle());
+        record.setContent(post.getContent());
+        record.setSummary(post.getSummary());
+        record.setStatus(post.getStatus());
+        record.setCategoryId(post.getCategoryId());
+        record.setCreatedAt(EpochMillis.format(post.getCreatedAt()));
+        record.setUpdatedAt(EpochMillis.format(post.getUpdatedAt()));
+        record.setTags(post.getTags());
+        return record;
+    }
+
+    private long parseOrDefault(String value, long fallback) {
+        Long millis = EpochMillis.parse(value);
+        return millis == null ? fallback : millis;
+    }
+
+    private void writeLine(OutputStream output, Object value) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(value));
+        output.write('\n');
+    }
+
+    private String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private record PendingRecord(long line, PostTransferRecord record) {
+    }
+
+    private static final class ImportState {
+
+        private long line;
+        private long imported;
+        private long failed;
+    }
+}
@@ -0,0 +1,212 @@
+package com.liquidthoughts.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.liquidthoughts.blog.config.TrendingProperties;
+import com.liquidthoughts.blog.dto.TrendingPostResponse;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.entity.PostMetricBucketEntity;
+import com.liquidthoughts.blog.event.NodeResyncEvent;
+import com.liquidthoughts.blog.event.PostChangedEvent;
+import com.liquidthoughts.blog.event.PostMetricEvent;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import com.liquidthoughts.blog.mapper.PostMetricBucketMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Maintains the top-K published posts ranked by exponentially decayed view count.
+ * <p>
+ * Scores use forward decay: a view at time {@code t} adds {@code exp(lambda * (t - landmark))}, so existing scores
+ * never have to be decayed in place and a view only moves one entry of the ranking (O(log K)).
+ * The landmark is moved forward periodically to keep the weights within double range.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostTrendingService {
+
+    private static final String PUBLISHED = "published";
+    private static final double HOUR_MILLIS = 3_600_000d;
+    private static final int RENORMALIZE_AFTER_HALF_LIVES = 32;
+    private static final int REBUILD_WINDOW_HALF_LIVES = 8;
+    private static final Comparator<Candidate> RANKING = Comparator
+            .comparingDouble((Candidate candidate) -> candidate.score).reversed()
+            .thenComparing(candidate -> candidate.id);
+
+    private final PostMapper postMapper;
+    private final PostMetricBucketMapper bucketMapper;
+    private final TrendingProperties trendingProperties;
+
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private final TreeSet<Candidate> ranking = new TreeSet<>(RANKING);
+    private long landmark = System.currentTimeMillis();
+
+    @EventListener({ApplicationReadyEvent.class, NodeResyncEvent.class})
+    public synchronized void rebuild() {
+        candidates.clear();
+        ranking.clear();
+        landmark = System.currentTimeMillis();
+
+        List<PostEntity> posts = postMapper.selectList(
+                new LambdaQueryWrapper<PostEntity>()
+                        .select(PostEntity::getId, PostEntity::getTitle, PostEntity::getSummary,
+                                PostEntity::getCategoryId, PostEntity::getCreatedAt)
+                        .eq(PostEntity::getStatus, PUBLISHED)
+        );
+        posts.forEach(post -> candidates.put(post.getId(), new Candidate(post)));
+
+        long since = landmark - (long) (REBUILD_WINDOW_HALF_LIVES * halfLifeMillis());
+        for (PostMetricBucketEntity bucket : bucketMapper.selectRecentBuckets(since)) {
+            Candidate candidate = candidates.get(bucket.getPostId());
+            if (candidate != null && bucket.getViewCount() != null && bucket.getViewCount() > 0) {
+                candidate.score += bucket.getViewCount() * weight(bucket.getBucketStart());
+            }
+        }
+        candidates.values().forEach(this::offer);
+    }
+
+    @EventListener
+    public synchronized void onMetric(PostMetricEvent event) {
+        if (event.getViewDelta() <= 0) {
+            return;
+        }
+        Candidate candidate = candidates.get(event.getPostId());
+        if (candidate == null) {
+            return;
+        }
+
+        renormalizeIfNeeded(event.getOccurredAt());
+        boolean ranked = candidate.ranked && ranking.remove(candidate);
+        candidate.score += event.getViewDelta() * weight(event.getOccurredAt());
+        if (ranked) {
+            ranking.add(candidate);
+        } else {
+            offer(candidate);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostChanged(PostChangedEvent event) {
+        PostEntity current = event.getCurrent();
+        if (current == null || !PUBLISHED.equals(current.getStatus())) {
+            Candidate removed = candidates.remove(event.getPostId());
+            if (removed != null && removed.ranked) {
+                ranking.remove(removed);
+                refill();
+            }
+            return;
+        }
+
+        Candidate candidate = candidates.get(current.getId());
+        if (candidate == null) {
+            candidate = new Candidate(current);
+            candidates.put(current.getId(), candidate);
+            offer(candidate);
+        } else {
+            candidate.update(current);
+        }
+    }
+
+    public synchronized List<TrendingPostResponse> trending(int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, trendingProperties.getTopK()));
+        double decay = Math.exp(-lambda() * (System.currentTimeMillis() - landmark));
+
+        List<TrendingPostResponse> result = new ArrayList<>(Math.min(safeLimit, ranking.size()));
+        for (Candidate candidate : ranking) {
+            if (result.size() >= safeLimit) {
+                break;
+            }
+            result.add(new TrendingPostResponse(
+                    candidate.id,
+                    candidate.title,
+                    candidate.summary,
+                    candidate.categoryId,
+                    candidate.createdAt,
+                    candidate.score * decay
+            ));
+        }
+        return result;
+    }
+
+    private void offer(Candidate candidate) {
+        if (ranking.size() < trendingProperties.getTopK()) {
+            candidate.ranked = ranking.add(candidate);
+            return;
+        }
+        Candidate lowest = ranking.last();
+        if (RANKING.compare(candidate, lowest) < 0) {
+            ranking.pollLast();
+            lowest.ranked = false;
+            candidate.ranked = ranking.add(candidate);
+        }
+    }
+
+    private void refill() {
+        Candidate best = null;
+        for (Candidate candidate : candidates.values()) {
+            if (!candidate.ranked && (best == null || RANKING.compare(candidate, best) < 0)) {
+                best = candidate;
+            }
+        }
+        if (best != null) {
+            offer(best);
+        }
+    }
+
+    private void renormalizeIfNeeded(long now) {
+        if (now - landmark < RENORMALIZE_AFTER_HALF_LIVES * halfLifeMillis()) {
+            return;
+        }
+        double factor = Math.exp(-lambda() * (now - landmark));
+        candidates.values().forEach(candidate -> candidate.score *= factor);
+        landmark = now;
+
+        List<Candidate> ranked = new ArrayList<>(ranking);
+        ranking.clear();
+        ranking.addAll(ranked);
+    }
+
+    private double weight(long timestamp) {
+        return Math.exp(lambda() * (timestamp - landmark));
+    }
+
+    private double lambda() {
+        return Math.log(2) / halfLifeMillis();
+    }
+
+    private double halfLifeMillis() {
+        return trendingProperties.getHalfLifeHours() * HOUR_MILLIS;
+    }
+
+    private static final class Candidate {
+
+        private final String id;
+        private String title;
+        private String summary;
+        private Integer categoryId;
+        private Long createdAt;
+        private double score;
+        private boolean ranked;
+
+        private Candidate(PostEntity post) {
+            this.id = post.getId();
+            update(post);
+        }
+
+        private void update(PostEntity post) {
+            this.title = post.getTitle();
+            this.summary = post.getSummary();
+            this.categoryId = post.getCategoryId();
+            this.createdAt = post.getCreatedAt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills {@code posts.word_count} for rows written before the column existed. New writes set the count themselves.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostWordCountBackfill implements Backfill {
+
+    private final PostMapper postMapper;
+
+    @Override
+    public String name() {
+        return "post_word_count";
+    }
+
+    @Override
+    public long remaining() {
+        return postMapper.countMissingWordCount();
+    }
+
+    @Override
+    public int runBatch(int batchSize) {
+        List<PostEntity> posts = postMapper.selectMissingWordCount(batchSize);
+        for (PostEntity post : posts) {
+            postMapper.updateMissingWordCount(post.getId(), WordCounter.count(post.getContent()));
+        }
+        return posts.size();
+    }
+}
@@ -0,0 +1,60 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.config.CacheProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds the {@link SingleFlightCache} instances in front of public reads, by name, and the threads that refresh their
+ * stale entries. The services owning a cache invalidate it when the data behind it changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReadCacheService {
+
+    private final CacheProperties cacheProperties;
+
+    private final Map<String, SingleFlightCache<?, ?>> caches = new ConcurrentHashMap<>();
+    private ExecutorService refreshers;
+
+    @SuppressWarnings("unchecked")
+    public <K, V> SingleFlightCache<K, V> cache(String name) {
+        return (SingleFlightCache<K, V>) caches.computeIfAbsent(name,
+                key -> new SingleFlightCache<>(key, cacheProperties, task -> refreshers().execute(task)));
+    }
+
+    public void invalidate(String name) {
+        SingleFlightCache<?, ?> cache = caches.get(name);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        caches.values().forEach(SingleFlightCache::invalidateAll);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (refreshers != null) {
+            refreshers.shutdownNow();
+        }
+    }
+
+    private synchronized ExecutorService refreshers() {
+        if (refreshers == null) {
+            refreshers = Executors.newFixedThreadPool(Math.max(1, cacheProperties.getRefreshThreads()), runnable -> {
+                Thread thread = new Thread(runnable, "read-cache-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return refreshers;
+    }
+}
@@ -0,0 +1,160 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.config.S3StorageProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps assets in an S3 bucket, or any server speaking the S3 API, so every node serves the same uploads and none
+ * of them keeps the bytes on its own disk.
+ * <p>
+ * Files above {@code app.storage.s3.multipart-threshold} go up as multipart uploads whose parts are sent in parallel
+ * on the {@code s3-upload} threads; a failed part aborts the upload so the bucket does not keep its parts. The
+ * chaining never blocks one of those threads on another, so a few large uploads cannot starve the pool. Downloads
+ * are redirected to presigned URLs and do not pass through this node.
+ */
+@Slf4j
+public class S3AssetStore implements AssetStore {
+
+    private final S3Client client;
+    private final S3Presigner presigner;
+    private final S3StorageProperties properties;
+
+    private ExecutorService uploaders;
+
+    public S3AssetStore(S3Client client, S3Presigner presigner, S3StorageProperties properties) {
+        this.client = client;
+        this.presigner = presigner;
+        this.properties = properties;
+    }
+
+    @Override
+    public CompletableFuture<Void> put(String key, Path source, String contentType) {
+        String objectKey = properties.getKeyPrefix() + key;
+        String type = contentType == null ? "application/octet-stream" : contentType;
+        CompletableFuture<Void> upload;
+        try {
+            long size = Files.size(source);
+            upload = size > properties.getMultipartThreshold()
+                    ? putMultipart(objectKey, source, size, type)
+                    : CompletableFuture.runAsync(() -> client.putObject(request -> request
+                    .bucket(properties.getBucket()).key(objectKey).contentType(type), RequestBody.fromFile(source)), uploaders());
+        } catch (IOException e) {
+            upload = CompletableFuture.failedFuture(e);
+        }
+        return upload.whenComplete((ignored, ex) -> {
+            try {
+                Files.deleteIfExists(source);
+            } catch (IOException e) {
+                log.warn("Failed to delete {} after sending it to the bucket", source, e);
+            }
+        });
+    }
+
+    @Override
+    public Optional<URI> downloadUrl(String key) {
+        try {
+            return Optional.of(presigner.presignGetObject(request -> request
+                    .signatureDuration(Duration.ofMillis(properties.getPresignTtlMs()))
+                    .getObjectRequest(get -> get.bucket(properties.getBucket()).key(properties.getKeyPrefix() + key))
+            ).url().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Presigned URL is not a valid URI", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (uploaders != null) {
+            uploaders.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<Void> putMultipart(String objectKey, Path source, long size, String contentType) {
+        int partSize = Math.max(5 * 1024 * 1024, properties.getPartSize());
+        int partCount = (int) ((size + partSize - 1) / partSize);
+        return CompletableFuture.supplyAsync(() -> client.createMultipartUpload(request -> request
+                .bucket(properties.getBucket()).key(objectKey).contentType(contentType)).uploadId(), uploaders()
+        ).thenCompose(uploadId -> {
+            List<CompletableFuture<CompletedPart>> parts = new ArrayList<>(partCount);
+            for (int part = 1; part <= partCount; part++) {
+                long offset = (long) (part - 1) * partSize;
+                int partNumber = part;
+                int length = (int) Math.min(partSize, size - offset);
+                parts.add(CompletableFuture.supplyAsync(
+                        () -> uploadPart(objectKey, uploadId, partNumber, source, offset, length), uploaders()));
+            }
+            return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                    .thenRunAsync(() -> client.completeMultipartUpload(request -> request
+                            .bucket(properties.getBucket()).key(objectKey).uploadId(uploadId)
+                            .multipartUpload(upload -> upload.parts(parts.stream().map(CompletableFuture::join).toList()))
+                    ), uploaders())
+                    .whenComplete((ignored, ex) -> {
+                        if (ex != null) {
+                            abort(objectKey, uploadId);
+                        }
+                    });
+        });
+    }
+
+    private CompletedPart uploadPart(String objectKey, String uploadId, int partNumber, Path source, long offset,
+                                     int length) {
+        byte[] bytes = new byte[length];
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException(source + " ended before part " + partNumber);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String eTag = client.uploadPart(request -> request
+                        .bucket(properties.getBucket()).key(objectKey).uploadId(uploadId).partNumber(partNumber),
+                RequestBody.fromInputStream(new ByteArrayInputStream(bytes), length)).eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    private void abort(String objectKey, String uploadId) {
+        try {
+            client.abortMultipartUpload(request -> request
+                    .bucket(properties.getBucket()).key(objectKey).uploadId(uploadId));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to abort multipart upload {} of {}", uploadId, objectKey, ex);
+        }
+    }
+
+    private synchronized ExecutorService uploaders() {
+        if (uploaders == null) {
+            uploaders = Executors.newFixedThreadPool(Math.max(1, properties.getUploadThreads()), runnable -> {
+                Thread thread = new Thread(runnable, "s3-upload");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return uploaders;
+    }
+}
@@ -0,0 +1,236 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.config.MigrationProperties;
+import com.liquidthoughts.blog.config.NodeProperties;
+import com.liquidthoughts.blog.dto.SchemaMigrationResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies versioned SQL scripts once each, in version order, and records them in {@code schema_migrations}.
+ * Every script runs in its own transaction together with its bookkeeping row, so a failed script leaves no trace
+ * and is retried on the next start. Scripts that were already applied must not change; a checksum mismatch stops
+ * startup instead of silently diverging from the recorded schema. Reader nodes never migrate: they only check that
+ * the writer has already brought the shared database up to their version.
+ * <p>
+ * A script whose first line is {@value #FOREIGN_KEYS_OFF} runs with foreign keys disabled, so it can rebuild a
+ * parent table without cascading the implicit delete of {@code DROP TABLE}. SQLite ignores that pragma inside a
+ * transaction, so it is switched around the transaction, and {@code PRAGMA foreign_key_check} must come back empty
+ * before the script commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SchemaMigrationService implements InitializingBean {
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final String FOREIGN_KEYS_OFF = "-- foreign_keys=off";
+
+    private final DataSource dataSource;
+    private final MigrationProperties migrationProperties;
+    private final NodeProperties nodeProperties;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        migrate();
+    }
+
+    public synchronized void migrate() throws SQLException, IOException {
+        List<MigrationScript> scripts = loadScripts();
+        if (nodeProperties.isReader()) {
+            verifyApplied(scripts);
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            execute(connection, "CREATE TABLE IF NOT EXISTS schema_migrations ("
+                    + "version INTEGER PRIMARY KEY, "
+                    + "description TEXT NOT NULL, "
+                    + "checksum INTEGER NOT NULL, "
+                    + "applied_at TEXT NOT NULL, "
+                    + "duration_ms INTEGER NOT NULL)");
+
+            Map<Integer, Long> applied = appliedChecksums(connection);
+            int count = 0;
+            for (MigrationScript script : scripts) {
+                Long checksum = applied.get(script.version());
+                if (checksum != null) {
+                    if (checksum != script.checksum()) {
+                        throw new IllegalStateException("Migration V" + script.version() + " (" + script.description()
+                                + ") was changed after it had been applied");
+                    }
+                    continue;
+                }
+                apply(connection, script);
+                count++;
+            }
+            if (count > 0) {
+                log.info("Applied {} schema migrations, schema is at version {}", count,
+                        scripts.get(scripts.size() - 1).version());
+            }
+        }
+    }
+
+    public List<SchemaMigrationResponse> appliedMigrations() {
+        List<SchemaMigrationResponse> migrations = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT version, description, applied_at, duration_ms FROM schema_migrations ORDER BY version")) {
+            while (resultSet.next()) {
+                migrations.add(new SchemaMigrationResponse(resultSet.getInt(1), resultSet.getString(2),
+                        resultSet.getString(3), resultSet.getLong(4)));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to read schema_migrations", ex);
+        }
+        return migrations;
+    }
+
+    private void verifyApplied(List<MigrationScript> scripts) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            Map<Integer, Long> applied = appliedChecksums(connection);
+            for (MigrationScript script : scripts) {
+                Long checksum = applied.get(script.version());
+                if (checksum == null || checksum != script.checksum()) {
+                    throw new IllegalStateException("Migration V" + script.version() + " (" + script.description()
+                            + ") has not been applied by the writer node, start or upgrade the writer first");
+                }
+            }
+        }
+    }
+
+    private void apply(Connection connection, MigrationScript script) throws SQLException {
+        if (!script.foreignKeysOff()) {
+            applyInTransaction(connection, script);
+            return;
+        }
+        execute(connection, "PRAGMA foreign_keys=OFF");
+        try {
+            applyInTransaction(connection, script);
+        } finally {
+            execute(connection, "PRAGMA foreign_keys=ON");
+        }
+    }
+
+    private void applyInTransaction(Connection connection, MigrationScript script) throws SQLException {
+        long startedAt = System.currentTimeMillis();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            if (appliedChecksums(connection).containsKey(script.version())) {
+                connection.rollback();
+                return;
+            }
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(script.resource(), StandardCharsets.UTF_8));
+            if (script.foreignKeysOff()) {
+                assertNoForeignKeyViolations(connection, script);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO schema_migrations (version, description, checksum, applied_at, duration_ms) VALUES (?, ?, ?, ?, ?)")) {
+                statement.setInt(1, script.version());
+                statement.setString(2, script.description());
+                statement.setLong(3, script.checksum());
+                statement.setString(4, Instant.now().toString());
+                statement.setLong(5, System.currentTimeMillis() - startedAt);
+                statement.executeUpdate();
+            }
+            connection.commit();
+            log.info("Applied migration V{} {}", script.version(), script.description());
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private List<MigrationScript> loadScripts() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver()
+                .getResources(migrationProperties.getLocation() + "/V*__*.sql");
+        List<MigrationScript> scripts = new ArrayList<>();
+        Map<Integer, String> seen = new HashMap<>();
+        for (Resource resource : resources) {
+            Matcher matcher = SCRIPT_NAME.matcher(resource.getFilename());
+            if (!matcher.matches()) {
+                continue;
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            String previous = seen.put(version, resource.getFilename());
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate migration version " + version + ": " + previous
+                        + " and " + resource.getFilename());
+            }
+            byte[] content;
+            try (InputStream inputStream = resource.getInputStream()) {
+                content = inputStream.readAllBytes();
+            }
+            String firstLine = new String(content, StandardCharsets.UTF_8).lines().findFirst().orElse("").trim();
+            scripts.add(new MigrationScript(version, matcher.group(2).replace('_', ' '), checksum(content), resource,
+                    FOREIGN_KEYS_OFF.equalsIgnoreCase(firstLine)));
+        }
+        scripts.sort(Comparator.comparingInt(MigrationScript::version));
+        return scripts;
+    }
+
+    private Map<Integer, Long> appliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt(1), resultSet.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private long checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private void assertNoForeignKeyViolations(Connection connection, MigrationScript script) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA foreign_key_check")) {
+            if (resultSet.next()) {
+                throw new SQLException("Migration V" + script.version() + " left a foreign key violation in table "
+                        + resultSet.getString(1));
+            }
+        }
+    }
+
+    private void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private record MigrationScript(int version, String description, long checksum, Resource resource,
+                                   boolean foreignKeysOff) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.config.CacheProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * A read-through cache in which concurrent misses for the same key share one load.
+ * <p>
+ * An entry is fresh for {@code app.cache.fresh-ms} after it was loaded. For {@code app.cache.stale-ms} after that,
+ * callers still get the previous value while a single background refresh runs. Only a missing or fully expired entry
+ * makes callers wait, and then all of them wait on the same load. A load that was running when the cache was
+ * invalidated still answers the callers already waiting on it, but its value is not kept.
+ */
+@Slf4j
+public final class SingleFlightCache<K, V> {
+
+    private final String name;
+    private final CacheProperties properties;
+    private final Executor refresher;
+    private final Map<K, Slot<V>> slots = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Slot<V>> eldest) {
+            return size() > Math.max(1, properties.getMaxEntries());
+        }
+    };
+
+    SingleFlightCache(String name, CacheProperties properties, Executor refresher) {
+        this.name = name;
+        this.properties = properties;
+        this.refresher = refresher;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        long now = System.currentTimeMillis();
+        Slot<V> slot;
+        CompletableFuture<V> flight;
+        boolean leader = false;
+        synchronized (this) {
+            slot = slots.computeIfAbsent(key, ignored -> new Slot<>());
+            if (slot.loaded) {
+                long age = now - slot.loadedAt;
+                if (age < properties.getFreshMs()) {
+                    return slot.value;
+                }
+                if (age < properties.getFreshMs() + properties.getStaleMs()) {
+                    if (slot.flight == null) {
+                        refreshInBackground(key, slot, loader);
+                    }
+                    return slot.value;
+                }
+            }
+            if (slot.flight == null) {
+                slot.flight = new CompletableFuture<>();
+                leader = true;
+            }
+            flight = slot.flight;
+        }
+        if (leader) {
+            load(key, slot, loader);
+        }
+        return await(flight);
+    }
+
+    public synchronized void invalidateAll() {
+        slots.clear();
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    private void refreshInBackground(K key, Slot<V> slot, Supplier<V> loader) {
+        slot.flight = new CompletableFuture<>();
+        try {
+            refresher.execute(() -> load(key, slot, loader));
+        } catch (RejectedExecutionException ex) {
+            slot.flight = null;
+        }
+    }
+
+    private void load(K key, Slot<V> slot, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error ex) {
+            CompletableFuture<V> flight;
+            boolean stale;
+            synchronized (this) {
+                flight = slot.flight;
+                slot.flight = null;
+                stale = slot.loaded;
+            }
+            if (stale) {
+                log.warn("Failed to refresh {} entry {}, serving the previous value", name, key, ex);
+            }
+            flight.completeExceptionally(ex);
+            return;
+        }
+
+        CompletableFuture<V> flight;
+        synchronized (this) {
+            flight = slot.flight;
+            slot.flight = null;
+            slot.value = value;
+            slot.loadedAt = System.currentTimeMillis();
+            slot.loaded = true;
+        }
+        flight.complete(value);
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private static final class Slot<V> {
+
+        private V value;
+        private long loadedAt;
+        private boolean loaded;
+        private CompletableFuture<V> flight;
+    }
+}
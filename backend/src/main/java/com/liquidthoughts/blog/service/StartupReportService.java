@@ -0,0 +1,95 @@
+package com.liquidthoughts.blog.service;
+
+import com.liquidthoughts.blog.dto.BeanStartupTiming;
+import com.liquidthoughts.blog.dto.StartupReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summarizes the buffered startup steps into per-bean creation times once the application is ready. The buffer is
+ * drained afterwards, so only the summary stays in memory. Without a {@link BufferingApplicationStartup}, as in
+ * tests that do not go through {@code main}, the report only carries the time to ready.
+ */
+@Slf4j
+@Service
+public class StartupReportService {
+
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+    private static final String CONTEXT_REFRESH = "spring.context.refresh";
+
+    private final int reportSize;
+    private volatile StartupReport report;
+
+    public StartupReportService(@Value("${app.startup.report-size:20}") int reportSize) {
+        this.reportSize = reportSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        long readyMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            report = new StartupReport(readyMs, 0, 0, List.of());
+            return;
+        }
+
+        List<StartupTimeline.TimelineEvent> events = buffering.drainBufferedTimeline().getEvents();
+        Map<Long, Long> nestedMillis = new HashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : events) {
+            StartupStep step = timelineEvent.getStartupStep();
+            if (BEAN_INSTANTIATE.equals(step.getName()) && step.getParentId() != null) {
+                nestedMillis.merge(step.getParentId(), timelineEvent.getDuration().toMillis(), Long::sum);
+            }
+        }
+
+        long refreshMs = 0;
+        List<BeanStartupTiming> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : events) {
+            StartupStep step = timelineEvent.getStartupStep();
+            long totalMs = timelineEvent.getDuration().toMillis();
+            if (CONTEXT_REFRESH.equals(step.getName())) {
+                refreshMs = totalMs;
+            } else if (BEAN_INSTANTIATE.equals(step.getName())) {
+                long selfMs = Math.max(0, totalMs - nestedMillis.getOrDefault(step.getId(), 0L));
+                beans.add(new BeanStartupTiming(beanName(step), totalMs, selfMs));
+            }
+        }
+
+        List<BeanStartupTiming> slowest = beans.stream()
+                .sorted(Comparator.comparingLong(BeanStartupTiming::getSelfMs).reversed())
+                .limit(reportSize)
+                .toList();
+        report = new StartupReport(readyMs, refreshMs, beans.size(), slowest);
+
+        log.info("Ready in {} ms, context refresh {} ms, {} beans created", readyMs, refreshMs, beans.size());
+        slowest.stream().limit(10).forEach(timing ->
+                log.info("  {} ms self, {} ms total: {}", timing.getSelfMs(), timing.getTotalMs(), timing.getBeanName()));
+    }
+
+    public StartupReport report() {
+        return report;
+    }
+
+    private String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
@@ -0,0 +1,83 @@
+package com.liquidthoughts.blog.service;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Splits mixed Chinese and Latin text into index terms. Runs of letters or digits become one lower-cased term, and
+ * runs of CJK ideographs become overlapping bigrams, since single characters carry too little meaning to match on.
+ * Very short Latin terms and common English function words are dropped.
+ */
+final class TermTokenizer {
+
+    private static final int MIN_LATIN_LENGTH = 2;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "how", "in", "is",
+            "it", "its", "of", "on", "or", "that", "the", "this", "to", "was", "we", "were", "what", "when", "with",
+            "you", "your"
+    );
+
+    private TermTokenizer() {
+    }
+
+    static void tokenize(String text, Consumer<String> sink) {
+        tokenize(text, false, sink);
+    }
+
+    /**
+     * With {@code partialLast}, a run of letters or digits at the very end of the text is emitted even when it is
+     * short or a stop word, since it may be the start of a longer word that is still being typed.
+     */
+    static void tokenize(String text, boolean partialLast, Consumer<String> sink) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        StringBuilder latin = new StringBuilder();
+        int previousIdeograph = -1;
+        boolean emittedIdeograph = false;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isIdeographic(codePoint)) {
+                emitLatin(latin, sink);
+                if (previousIdeograph >= 0) {
+                    sink.accept(new StringBuilder(2).appendCodePoint(previousIdeograph).appendCodePoint(codePoint).toString());
+                    emittedIdeograph = true;
+                }
+                previousIdeograph = codePoint;
+            } else {
+                emitSingleIdeograph(previousIdeograph, emittedIdeograph, sink);
+                previousIdeograph = -1;
+                emittedIdeograph = false;
+                if (Character.isLetterOrDigit(codePoint)) {
+                    latin.appendCodePoint(codePoint);
+                } else if (codePoint != '\'' && codePoint != '’') {
+                    emitLatin(latin, sink);
+                }
+            }
+        }
+        emitSingleIdeograph(previousIdeograph, emittedIdeograph, sink);
+        if (partialLast && !latin.isEmpty()) {
+            sink.accept(latin.toString().toLowerCase(Locale.ROOT));
+        } else {
+            emitLatin(latin, sink);
+        }
+    }
+
+    private static void emitSingleIdeograph(int ideograph, boolean emittedBigram, Consumer<String> sink) {
+        if (ideograph >= 0 && !emittedBigram) {
+            sink.accept(new String(Character.toChars(ideograph)));
+        }
+    }
+
+    private static void emitLatin(StringBuilder latin, Consumer<String> sink) {
+        if (latin.length() >= MIN_LATIN_LENGTH) {
+            String term = latin.toString().toLowerCase(Locale.ROOT);
+            if (!STOP_WORDS.contains(term)) {
+                sink.accept(term);
+            }
+        }
+        latin.setLength(0);
+    }
+}
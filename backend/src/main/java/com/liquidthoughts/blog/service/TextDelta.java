@@ -0,0 +1,50 @@
+package com.liquidthoughts.blog.service;
+
+/**
+ * Single-splice text delta: the common prefix and suffix of two texts are kept by length and only the replaced middle
+ * is stored. Autosaves mostly touch one region of a document, so this stays small without a full diff algorithm.
+ * <p>
+ * Encoded as {@code <prefixLength>,<suffixLength>:<inserted text>}.
+ */
+final class TextDelta {
+
+    private TextDelta() {
+    }
+
+    static String diff(String base, String target) {
+        int maxPrefix = Math.min(base.length(), target.length());
+        int prefix = 0;
+        while (prefix < maxPrefix && base.charAt(prefix) == target.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix > 0 && prefix < maxPrefix && Character.isHighSurrogate(base.charAt(prefix - 1))) {
+            prefix--;
+        }
+
+        int maxSuffix = maxPrefix - prefix;
+        int suffix = 0;
+        while (suffix < maxSuffix
+                && base.charAt(base.length() - 1 - suffix) == target.charAt(target.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (suffix > 0 && suffix < maxSuffix && Character.isLowSurrogate(base.charAt(base.length() - suffix))) {
+            suffix--;
+        }
+
+        return prefix + "," + suffix + ":" + target.substring(prefix, target.length() - suffix);
+    }
+
+    static String apply(String base, String delta) {
+        int comma = delta.indexOf(',');
+        int colon = delta.indexOf(':', comma + 1);
+        if (comma < 0 || colon < 0) {
+            throw new IllegalArgumentException("Malformed text delta");
+        }
+        int prefix = Integer.parseInt(delta, 0, comma, 10);
+        int suffix = Integer.parseInt(delta, comma + 1, colon, 10);
+        if (prefix + suffix > base.length()) {
+            throw new IllegalArgumentException("Text delta does not match its base");
+        }
+        return base.substring(0, prefix) + delta.substring(colon + 1) + base.substring(base.length() - suffix);
+    }
+}
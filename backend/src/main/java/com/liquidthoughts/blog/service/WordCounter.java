@@ -0,0 +1,35 @@
+package com.liquidthoughts.blog.service;
+
+/**
+ * Counts words the way readers perceive them in mixed Chinese and Latin text: every CJK ideograph is a word, and
+ * each run of other letters or digits is one word.
+ */
+final class WordCounter {
+
+    private WordCounter() {
+    }
+
+    static int count(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isIdeographic(codePoint)) {
+                words++;
+                inWord = false;
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                if (!inWord) {
+                    words++;
+                    inWord = true;
+                }
+            } else if (codePoint != '\'' && codePoint != '’') {
+                inWord = false;
+            }
+        }
+        return words;
+    }
+}
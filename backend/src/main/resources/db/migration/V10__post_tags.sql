@@ -0,0 +1,15 @@
+-- Tags: many-to-many labels on posts. Names are stored normalized (trimmed, single spaces, ASCII lowercase), so
+-- the unique index also makes them case-insensitive. The link table is keyed by the integer post rowid like
+-- post_metrics, and a tag is removed once no post carries it.
+CREATE TABLE IF NOT EXISTS tags (
+    id INTEGER PRIMARY KEY,
+    name TEXT NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS post_tags (
+    post_row_id INTEGER NOT NULL REFERENCES posts (row_id) ON DELETE CASCADE,
+    tag_id INTEGER NOT NULL REFERENCES tags (id) ON DELETE CASCADE,
+    PRIMARY KEY (post_row_id, tag_id)
+) WITHOUT ROWID;
+
+CREATE INDEX IF NOT EXISTS idx_post_tags_tag_id ON post_tags (tag_id);
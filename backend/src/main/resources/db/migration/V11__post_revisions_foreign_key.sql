@@ -0,0 +1,29 @@
+-- foreign_keys=off
+-- Databases created before foreign keys were declared still have post_revisions without its reference to posts,
+-- because V1 kept existing tables. Rebuild it with the foreign key, dropping revisions of posts that no longer exist.
+CREATE TABLE post_revisions_rebuild (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    post_id TEXT NOT NULL REFERENCES posts (id) ON DELETE CASCADE,
+    kind TEXT NOT NULL,
+    base_revision_id INTEGER,
+    title TEXT NOT NULL,
+    summary TEXT NOT NULL,
+    status TEXT NOT NULL,
+    category_id INTEGER NOT NULL,
+    payload TEXT NOT NULL,
+    content_length INTEGER NOT NULL,
+    published INTEGER NOT NULL DEFAULT 0,
+    created_at TEXT NOT NULL
+);
+
+INSERT INTO post_revisions_rebuild (id, post_id, kind, base_revision_id, title, summary, status, category_id, payload,
+                                    content_length, published, created_at)
+SELECT id, post_id, kind, base_revision_id, title, summary, status, category_id, payload, content_length, published,
+       created_at
+FROM post_revisions
+WHERE post_id IN (SELECT id FROM posts);
+
+DROP TABLE post_revisions;
+ALTER TABLE post_revisions_rebuild RENAME TO post_revisions;
+
+CREATE INDEX IF NOT EXISTS idx_post_revisions_post ON post_revisions (post_id, id);
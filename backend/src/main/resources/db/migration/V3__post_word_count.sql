@@ -0,0 +1,4 @@
+-- word_count stays NULL until the post_word_count backfill has processed the row.
+ALTER TABLE posts ADD COLUMN word_count INTEGER;
+
+CREATE INDEX IF NOT EXISTS idx_posts_word_count_pending ON posts (id) WHERE word_count IS NULL;
@@ -0,0 +1,2 @@
+-- Lets the streamed post list walk posts in created_at order without a temporary sort.
+CREATE INDEX IF NOT EXISTS idx_posts_created_at ON posts (created_at);
@@ -0,0 +1,52 @@
+-- foreign_keys=off
+-- Posts get an INTEGER rowid primary key; the public string id stays as a unique alternate key, so post_revisions
+-- keeps referencing it. post_metrics is keyed by the post rowid, which makes it a plain rowid table joined on integers.
+-- Before foreign keys were enforced a category could be deleted while posts still used it. Those posts move to the
+-- category app.maintenance.orphan-category-name defaults to, so the new reference to categories holds.
+INSERT INTO categories (name, slug, description, icon, color)
+SELECT 'Uncategorized', 'uncategorized', '', 'folder', '#195de6'
+WHERE EXISTS (SELECT 1 FROM posts WHERE category_id NOT IN (SELECT id FROM categories))
+  AND NOT EXISTS (SELECT 1 FROM categories WHERE name = 'Uncategorized');
+
+UPDATE posts
+SET category_id = (SELECT MIN(id) FROM categories WHERE name = 'Uncategorized')
+WHERE category_id NOT IN (SELECT id FROM categories);
+
+CREATE TABLE posts_rebuild (
+    row_id INTEGER PRIMARY KEY,
+    id TEXT NOT NULL UNIQUE,
+    title TEXT NOT NULL,
+    content TEXT NOT NULL,
+    summary TEXT NOT NULL,
+    status TEXT NOT NULL,
+    category_id INTEGER NOT NULL REFERENCES categories (id) ON DELETE RESTRICT,
+    created_at TEXT NOT NULL,
+    updated_at TEXT NOT NULL,
+    word_count INTEGER
+);
+
+INSERT INTO posts_rebuild (id, title, content, summary, status, category_id, created_at, updated_at, word_count)
+SELECT id, title, content, summary, status, category_id, created_at, updated_at, word_count
+FROM posts
+ORDER BY created_at, id;
+
+CREATE TABLE post_metrics_rebuild (
+    post_row_id INTEGER PRIMARY KEY REFERENCES posts (row_id) ON DELETE CASCADE,
+    view_count INTEGER NOT NULL DEFAULT 0,
+    like_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TEXT NOT NULL
+);
+
+INSERT INTO post_metrics_rebuild (post_row_id, view_count, like_count, updated_at)
+SELECT p.row_id, m.view_count, m.like_count, m.updated_at
+FROM post_metrics m
+JOIN posts_rebuild p ON p.id = m.post_id;
+
+DROP TABLE post_metrics;
+DROP TABLE posts;
+ALTER TABLE posts_rebuild RENAME TO posts;
+ALTER TABLE post_metrics_rebuild RENAME TO post_metrics;
+
+CREATE INDEX IF NOT EXISTS idx_posts_category_id ON posts (category_id);
+CREATE INDEX IF NOT EXISTS idx_posts_word_count_pending ON posts (id) WHERE word_count IS NULL;
+CREATE INDEX IF NOT EXISTS idx_posts_created_at ON posts (created_at);
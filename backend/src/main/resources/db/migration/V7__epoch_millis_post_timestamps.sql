@@ -0,0 +1,30 @@
+-- foreign_keys=off
+-- Post timestamps become INTEGER epoch millis, so range filters compare numbers instead of ISO strings whose
+-- fraction digits vary in width. Values SQLite cannot read as a date become 0.
+CREATE TABLE posts_rebuild (
+    row_id INTEGER PRIMARY KEY,
+    id TEXT NOT NULL UNIQUE,
+    title TEXT NOT NULL,
+    content TEXT NOT NULL,
+    summary TEXT NOT NULL,
+    status TEXT NOT NULL,
+    category_id INTEGER NOT NULL REFERENCES categories (id) ON DELETE RESTRICT,
+    created_at INTEGER NOT NULL,
+    updated_at INTEGER NOT NULL,
+    word_count INTEGER
+);
+
+INSERT INTO posts_rebuild (row_id, id, title, content, summary, status, category_id, created_at, updated_at, word_count)
+SELECT row_id, id, title, content, summary, status, category_id,
+       COALESCE(CAST(ROUND(unixepoch(created_at, 'subsec') * 1000) AS INTEGER), 0),
+       COALESCE(CAST(ROUND(unixepoch(updated_at, 'subsec') * 1000) AS INTEGER), 0),
+       word_count
+FROM posts;
+
+DROP TABLE posts;
+ALTER TABLE posts_rebuild RENAME TO posts;
+
+CREATE INDEX IF NOT EXISTS idx_posts_category_id ON posts (category_id);
+CREATE INDEX IF NOT EXISTS idx_posts_word_count_pending ON posts (id) WHERE word_count IS NULL;
+CREATE INDEX IF NOT EXISTS idx_posts_created_at ON posts (created_at);
+CREATE INDEX IF NOT EXISTS idx_posts_updated_at ON posts (updated_at);
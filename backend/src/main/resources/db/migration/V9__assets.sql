@@ -0,0 +1,19 @@
+-- Media library. Every stored upload gets a row keyed by its path under /uploads/, so the admin can list and search
+-- assets without walking the upload directory. The id only orders rows for cursor pagination, newest first.
+CREATE TABLE IF NOT EXISTS assets (
+    id INTEGER PRIMARY KEY,
+    path TEXT NOT NULL UNIQUE,
+    original_name TEXT NOT NULL,
+    size INTEGER NOT NULL,
+    sha256 TEXT,
+    mime_type TEXT,
+    width INTEGER,
+    height INTEGER,
+    post_id TEXT REFERENCES posts (id) ON DELETE SET NULL,
+    created_at INTEGER NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_assets_post_id ON assets (post_id);
+CREATE INDEX IF NOT EXISTS idx_assets_sha256 ON assets (sha256);
+
+ALTER TABLE upload_sessions ADD COLUMN post_id TEXT;
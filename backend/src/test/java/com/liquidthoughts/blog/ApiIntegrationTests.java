@@ -1,20 +1,68 @@
 package com.liquidthoughts.blog;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.entity.TagEntity;
+import com.liquidthoughts.blog.mapper.MarkdownJournalMapper;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import com.liquidthoughts.blog.mapper.TagMapper;
+import com.liquidthoughts.blog.mapper.UploadSessionMapper;
+import com.liquidthoughts.blog.service.BackfillService;
+import com.liquidthoughts.blog.service.ChunkedUploadService;
+import com.liquidthoughts.blog.service.FileStorageService;
+import com.liquidthoughts.blog.service.MarkdownMirrorService;
+import com.liquidthoughts.blog.service.NodeChannelService;
+import com.liquidthoughts.blog.service.PostAnalyticsService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class ApiIntegrationTests {
@@ -22,6 +70,36 @@ class ApiIntegrationTests {
     @Autowired
     private TestRestTemplate testRestTemplate;
 
+    @Autowired
+    private PostAnalyticsService postAnalyticsService;
+
+    @Autowired
+    private MarkdownMirrorService markdownMirrorService;
+
+    @Autowired
+    private MarkdownJournalMapper markdownJournalMapper;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Autowired
+    private NodeChannelService nodeChannelService;
+
+    @Autowired
+    private BackfillService backfillService;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private UploadSessionMapper uploadSessionMapper;
+
     @Test
     void shouldLoginAndCreatePostSuccessfully() {
         ResponseEntity<Map> loginResponse = testRestTemplate.postForEntity(
@@ -78,4 +156,865 @@ class ApiIntegrationTests {
         assertNotNull(pageData.get("records"));
         assertFalse(((java.util.List<?>) pageData.get("records")).isEmpty());
     }
+
+    @Test
+    void shouldFilterPostsByTimestampRangeAcrossFractionWidths() {
+        URI range = URI.create("/api/posts/page?page=1&page_size=10"
+                + "&created_from=2026-01-25T10:00:00.5Z&created_to=2026-01-28T18:00:00.000%2B08:00");
+        ResponseEntity<Map> response = testRestTemplate.getForEntity(range, Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        Map<String, Object> pageData = (Map<String, Object>) response.getBody().get("data");
+        List<Map<String, Object>> records = (List<Map<String, Object>>) pageData.get("records");
+        assertEquals(List.of("1"), records.stream().map(post -> post.get("id")).toList());
+        assertEquals("2026-01-28T10:00:00.000Z", records.get(0).get("created_at"));
+
+        ResponseEntity<Map> invalid = testRestTemplate.getForEntity(
+                "/api/posts/page?page=1&page_size=10&created_from=2026-02-30", Map.class);
+        assertEquals(HttpStatus.OK, invalid.getStatusCode());
+        assertTrue(((Number) ((Map<String, Object>) invalid.getBody().get("data")).get("total")).intValue() >= 3);
+    }
+
+    @Test
+    void shouldTagPostsAndFilterPagesByTags() {
+        HttpHeaders headers = authHeaders();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String java = "java-" + suffix;
+        String web = "web " + suffix;
+        String first = savePost(headers, Map.of("title", "tagged", "content", "c", "summary", "s", "status", "published",
+                "category_id", 1, "tags", List.of("  Java-" + suffix.toUpperCase(), "WEB   " + suffix, java, " ")));
+        String second = savePost(headers, Map.of("title", "tagged", "content", "c", "summary", "s", "status", "draft",
+                "category_id", 1, "tags", List.of(java)));
+
+        Map<String, Object> tagged = postPage("tags=" + java + "&tags=" + web);
+        assertEquals(1, ((Number) tagged.get("total")).intValue());
+        Map<String, Object> record = ((List<Map<String, Object>>) tagged.get("records")).get(0);
+        assertEquals(first, record.get("id"));
+        assertEquals(List.of(java, web), record.get("tags"));
+        assertEquals(2, ((Number) postPage("tags=" + java + "&tags=" + web + "&tag_mode=any").get("total")).intValue());
+        assertEquals(1, ((Number) postPage("tags=" + java + "&status=draft").get("total")).intValue());
+        assertEquals(0, ((Number) postPage("tags=" + java + "&tags=missing-" + suffix).get("total")).intValue());
+        assertEquals(HttpStatus.BAD_REQUEST, testRestTemplate.getForEntity(
+                "/api/posts/page?tags=" + java + "&tag_mode=some", Map.class).getStatusCode());
+
+        savePost(headers, Map.of("id", first, "title", "retitled", "content", "c", "summary", "s", "status", "published",
+                "category_id", 1));
+        assertEquals(first, ((List<Map<String, Object>>) postPage("tags=" + web).get("records")).get(0).get("id"));
+        assertEquals(Map.of(java, 2, web, 1), tagCounts(""));
+        assertEquals(Map.of(java, 1, web, 1), tagCounts("?status=published"));
+
+        savePost(headers, Map.of("id", first, "title", "retitled", "content", "c", "summary", "s", "status", "published",
+                "category_id", 1, "tags", List.of()));
+        assertEquals(0, ((Number) postPage("tags=" + web).get("total")).intValue());
+        assertEquals(List.of(java), tagMapper.selectList(new LambdaQueryWrapper<TagEntity>()
+                .in(TagEntity::getName, java, web)).stream().map(TagEntity::getName).toList());
+        testRestTemplate.exchange("/api/posts/" + second, HttpMethod.DELETE, new HttpEntity<>(headers), Map.class);
+        assertEquals(Map.of(), tagCounts(""));
+        assertEquals(0, tagMapper.selectCount(new LambdaQueryWrapper<TagEntity>().in(TagEntity::getName, java, web)));
+    }
+
+    @Test
+    void shouldReturnFacetCountsWithThePage() {
+        HttpHeaders headers = authHeaders();
+        String keyword = "faceted-" + UUID.randomUUID().toString().substring(0, 8);
+        savePost(headers, Map.of("title", keyword, "content", "c", "summary", "s", "status", "published",
+                "category_id", 1, "tags", List.of(keyword)));
+        savePost(headers, Map.of("title", keyword, "content", "c", "summary", "s", "status", "draft", "category_id", 1));
+        savePost(headers, Map.of("title", keyword, "content", "c", "summary", "s", "status", "published", "category_id", 2));
+
+        assertFalse(postPage("keyword=" + keyword).containsKey("facets"));
+
+        Map<String, Object> published = postPage("keyword=" + keyword + "&status=published&facets=true");
+        assertEquals(2, ((Number) published.get("total")).intValue());
+        Map<String, Object> facets = (Map<String, Object>) published.get("facets");
+        assertEquals(Map.of("published", 2, "draft", 1), facets.get("status"));
+        assertEquals(Map.of("1", 1, "2", 1), facets.get("category"));
+        assertEquals(Map.of(keyword, 1), facets.get("tags"));
+
+        Map<String, Object> inCategory = postPage("keyword=" + keyword + "&category_id=1&status=draft&facets=true");
+        assertEquals(1, ((Number) inCategory.get("total")).intValue());
+        facets = (Map<String, Object>) inCategory.get("facets");
+        assertEquals(Map.of("published", 1, "draft", 1), facets.get("status"));
+        assertEquals(Map.of("1", 1), facets.get("category"));
+        assertEquals(Map.of(), facets.get("tags"));
+    }
+
+    @Test
+    void shouldInvalidateCachedReadsOnWrites() {
+        HttpHeaders headers = authHeaders();
+        String title = "cached-" + UUID.randomUUID();
+        String pageUrl = "/api/posts/page?page=1&page_size=10&keyword=" + title;
+        assertEquals(0, ((Number) ((Map<String, Object>) testRestTemplate.getForEntity(pageUrl, Map.class)
+                .getBody().get("data")).get("total")).intValue());
+        createPublishedPost(title, "content", headers);
+        assertEquals(1, ((Number) ((Map<String, Object>) testRestTemplate.getForEntity(pageUrl, Map.class)
+                .getBody().get("data")).get("total")).intValue());
+
+        testRestTemplate.getForEntity("/api/configs", Map.class);
+        testRestTemplate.postForEntity("/api/configs/cache_probe",
+                new HttpEntity<>(Map.of("value", title), headers), Map.class);
+        List<Map<String, Object>> configs = (List<Map<String, Object>>) testRestTemplate.getForEntity("/api/configs", Map.class)
+                .getBody().get("data");
+        assertTrue(configs.stream().anyMatch(config -> title.equals(config.get("value"))));
+    }
+
+    @Test
+    void shouldResumeChunkedUploadAndRejectBadChunks() throws Exception {
+        HttpHeaders headers = authHeaders();
+        Map<String, Object> session = (Map<String, Object>) testRestTemplate.postForEntity("/api/assets/uploads",
+                new HttpEntity<>(Map.of("file_name", "clip one.MP4", "size", 1, "folder", "media/probe"), headers), Map.class
+        ).getBody().get("data");
+        int chunkSize = ((Number) session.get("chunk_size")).intValue();
+        testRestTemplate.exchange("/api/assets/uploads/" + session.get("upload_id"), HttpMethod.DELETE,
+                new HttpEntity<>(headers), Map.class);
+
+        byte[] content = new byte[chunkSize * 2 + 1000];
+        new Random(3).nextBytes(content);
+        session = (Map<String, Object>) testRestTemplate.postForEntity("/api/assets/uploads",
+                new HttpEntity<>(Map.of("file_name", "clip one.MP4", "size", content.length, "folder", "media/probe"), headers),
+                Map.class
+        ).getBody().get("data");
+        String uploadUrl = "/api/assets/uploads/" + session.get("upload_id");
+        assertEquals(3, ((Number) session.get("chunk_count")).intValue());
+
+        assertEquals(HttpStatus.OK, putChunk(uploadUrl, content, 2, chunkSize, null, headers).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                putChunk(uploadUrl, content, 0, chunkSize, "00".repeat(32), headers).getStatusCode());
+        ResponseEntity<Map> truncated = testRestTemplate.exchange(uploadUrl, HttpMethod.PUT,
+                new HttpEntity<>(new byte[10], chunkHeaders(headers, 0, chunkSize - 1, content.length, null)), Map.class);
+        assertEquals(HttpStatus.BAD_REQUEST, truncated.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                testRestTemplate.postForEntity(uploadUrl + "/complete", new HttpEntity<>(headers), Map.class).getStatusCode());
+        Map<String, Object> status = (Map<String, Object>) testRestTemplate.exchange(uploadUrl, HttpMethod.GET,
+                new HttpEntity<>(headers), Map.class).getBody().get("data");
+        assertEquals(List.of(2), status.get("received_chunks"));
+
+        putChunk(uploadUrl, content, 1, chunkSize, null, headers);
+        status = (Map<String, Object>) putChunk(uploadUrl, content, 0, chunkSize, null, headers).getBody().get("data");
+        assertEquals(List.of(0, 1, 2), status.get("received_chunks"));
+
+        Map<String, Object> stored = (Map<String, Object>) testRestTemplate.postForEntity(uploadUrl + "/complete",
+                new HttpEntity<>(headers), Map.class).getBody().get("data");
+        assertEquals("clip_one.MP4", stored.get("original_name"));
+        assertEquals(content.length, ((Number) stored.get("size")).intValue());
+        assertTrue(((String) stored.get("relative_path")).startsWith("media/probe/"));
+        assertTrue(((String) stored.get("relative_path")).endsWith(".mp4"));
+        ResponseEntity<byte[]> served = testRestTemplate.getForEntity((String) stored.get("url"), byte[].class);
+        assertTrue(Arrays.equals(content, served.getBody()));
+        assertEquals(HttpStatus.NOT_FOUND,
+                testRestTemplate.exchange(uploadUrl, HttpMethod.GET, new HttpEntity<>(headers), Map.class).getStatusCode());
+    }
+
+    @Test
+    void shouldPurgeAbandonedUploadSessions() {
+        HttpHeaders headers = authHeaders();
+        Map<String, Object> session = (Map<String, Object>) testRestTemplate.postForEntity("/api/assets/uploads",
+                new HttpEntity<>(Map.of("file_name", "abandoned.bin", "size", 10), headers), Map.class
+        ).getBody().get("data");
+        String uploadId = (String) session.get("upload_id");
+        assertTrue(Files.exists(fileStorageService.uploadSessionFile(uploadId)));
+
+        uploadSessionMapper.touch(uploadId, 0);
+        assertTrue(chunkedUploadService.purgeExpired() >= 1);
+        assertNull(uploadSessionMapper.selectById(uploadId));
+        assertFalse(Files.exists(fileStorageService.uploadSessionFile(uploadId)));
+    }
+
+    @Test
+    void shouldIndexUploadedAssetsForTheMediaLibrary() throws Exception {
+        HttpHeaders headers = authHeaders();
+        String prefix = "lib" + UUID.randomUUID().toString().substring(0, 8);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(3, 2, BufferedImage.TYPE_INT_RGB), "png", png);
+        String postId = createPublishedPost("media owner", "content", headers);
+
+        List<Map<String, Object>> uploaded = uploadAssets(headers, postId,
+                prefix + "-a.png", png.toByteArray(), prefix + "-b.txt", "b".getBytes(), prefix + "-c.txt", "c".getBytes());
+        assertEquals(3, uploaded.size());
+
+        Map<String, Object> page = assetPage("/api/assets/search?limit=2&q=" + prefix, headers);
+        List<Map<String, Object>> records = (List<Map<String, Object>>) page.get("records");
+        assertEquals(List.of(prefix + "-c.txt", prefix + "-b.txt"), records.stream().map(asset -> asset.get("original_name")).toList());
+        assertNotNull(page.get("next_cursor"));
+        Map<String, Object> last = assetPage("/api/assets/search?limit=2&q=" + prefix + "&cursor=" + page.get("next_cursor"), headers);
+        Map<String, Object> image = ((List<Map<String, Object>>) last.get("records")).get(0);
+        assertNull(last.get("next_cursor"));
+        assertEquals(uploaded.get(0).get("relative_path"), image.get("path"));
+        assertEquals(uploaded.get(0).get("url"), image.get("url"));
+        assertEquals("image/png", image.get("mime_type"));
+        assertEquals(3, ((Number) image.get("width")).intValue());
+        assertEquals(2, ((Number) image.get("height")).intValue());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png.toByteArray())), image.get("sha256"));
+        assertEquals(postId, image.get("post_id"));
+
+        List<Map<String, Object>> owned = (List<Map<String, Object>>) assetPage("/api/assets?post_id=" + postId, headers).get("records");
+        assertEquals(3, owned.size());
+        List<Map<String, Object>> images = (List<Map<String, Object>>) assetPage("/api/assets?mime_type=image/&post_id=" + postId, headers).get("records");
+        assertEquals(1, images.size());
+        assertEquals(HttpStatus.UNAUTHORIZED, testRestTemplate.getForEntity("/api/assets", Map.class).getStatusCode());
+    }
+
+    @Test
+    void shouldLinkAssetsToThePostThatEmbedsThem() {
+        HttpHeaders headers = authHeaders();
+        String name = "cover" + UUID.randomUUID().toString().substring(0, 8) + ".txt";
+        Map<String, Object> uploaded = uploadAssets(headers, null, name, "cover".getBytes()).get(0);
+
+        String postId = createPublishedPost("embeds " + name, "![cover](" + uploaded.get("url") + ")", headers);
+
+        Map<String, Object> asset = ((List<Map<String, Object>>) assetPage("/api/assets/search?q=" + name, headers).get("records")).get(0);
+        assertEquals(postId, asset.get("post_id"));
+    }
+
+    @Test
+    void shouldFollowFilesChangedOutsideTheApp() throws Exception {
+        HttpHeaders headers = authHeaders();
+        String name = "dropped" + UUID.randomUUID().toString().substring(0, 8) + ".txt";
+        Path folder = Path.of("storage", "uploads", "watch-test");
+        Files.createDirectories(folder);
+        Path dropped = Files.writeString(folder.resolve(name), "copied in by hand");
+
+        awaitTrue(() -> ((List<?>) assetPage("/api/assets/search?q=" + name, headers).get("records")).size() == 1);
+        Map<String, Object> asset = ((List<Map<String, Object>>) assetPage("/api/assets/search?q=" + name, headers).get("records")).get(0);
+        assertEquals("watch-test/" + name, asset.get("path"));
+        assertEquals(17, ((Number) asset.get("size")).intValue());
+
+        Files.delete(dropped);
+        awaitTrue(() -> ((List<?>) assetPage("/api/assets/search?q=" + name, headers).get("records")).isEmpty());
+    }
+
+    @Test
+    void shouldStreamPostListInResponseEnvelope() {
+        testRestTemplate.postForEntity("/api/posts/3/view", null, Map.class);
+
+        ResponseEntity<Map> response = testRestTemplate.getForEntity("/api/posts", Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0, ((Number) response.getBody().get("code")).intValue());
+
+        List<Map<String, Object>> posts = (List<Map<String, Object>>) response.getBody().get("data");
+        Map<String, Object> viewed = posts.stream()
+                .filter(post -> "3".equals(post.get("id")))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(((Number) viewed.get("view_count")).intValue() >= 1);
+        for (int i = 1; i < posts.size(); i++) {
+            assertTrue(((String) posts.get(i - 1).get("created_at")).compareTo((String) posts.get(i).get("created_at")) >= 0);
+        }
+    }
+
+    @Test
+    void shouldReportViewedPostInDashboardTopPosts() {
+        ResponseEntity<Map> viewResponse = testRestTemplate.postForEntity("/api/posts/1/view", null, Map.class);
+        assertEquals(HttpStatus.OK, viewResponse.getStatusCode());
+        postAnalyticsService.flush();
+
+        ResponseEntity<Map> response = testRestTemplate.exchange(
+                "/api/dashboard/top-posts?days=7&limit=100",
+                HttpMethod.GET,
+                new HttpEntity<>(authHeaders()),
+                Map.class
+        );
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        List<Map<String, Object>> topPosts = (List<Map<String, Object>>) response.getBody().get("data");
+        Map<String, Object> viewed = topPosts.stream()
+                .filter(item -> "1".equals(item.get("post_id")))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(((Number) viewed.get("view_count")).longValue() >= 1);
+        assertEquals(7, ((List<?>) viewed.get("sparkline")).size());
+    }
+
+    @Test
+    void shouldRankViewedPostAsTrending() {
+        testRestTemplate.postForEntity("/api/posts/2/view", null, Map.class);
+
+        ResponseEntity<Map> response = testRestTemplate.getForEntity("/api/posts/trending?limit=50", Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        List<Map<String, Object>> trending = (List<Map<String, Object>>) response.getBody().get("data");
+        assertTrue(trending.stream().anyMatch(item -> "2".equals(item.get("id"))
+                && ((Number) item.get("score")).doubleValue() > 0));
+    }
+
+    @Test
+    void shouldSuggestTitlesByPrefixAndPopularity() {
+        HttpHeaders headers = authHeaders();
+        String token = "zq" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+        String practice = createPublishedPost("微服务实践 " + token + "alpha", "c", headers);
+        String gateway = createPublishedPost("微服务网关 " + token + "beta", "c", headers);
+        testRestTemplate.postForEntity("/api/posts/" + gateway + "/view", null, Map.class);
+
+        assertEquals(List.of(gateway, practice), suggestedIds(token.substring(0, 5)));
+        assertEquals(List.of(gateway, practice), suggestedIds("微服 " + token));
+        assertEquals(List.of(practice), suggestedIds("服务实践 " + token));
+        assertEquals(List.of(practice), suggestedIds(token + "al"));
+        assertEquals(List.of(), suggestedIds(""));
+
+        savePost(headers, Map.of("id", practice, "title", "Renamed " + token + "alpha", "content", "c", "summary", "s",
+                "status", "published", "category_id", 1));
+        assertEquals(List.of(), suggestedIds("实践 " + token));
+        assertEquals(List.of(practice), suggestedIds("renamed " + token));
+
+        savePost(headers, Map.of("id", gateway, "title", "微服务网关 " + token + "beta", "content", "c", "summary", "s",
+                "status", "draft", "category_id", 1));
+        testRestTemplate.exchange("/api/posts/" + practice, HttpMethod.DELETE, new HttpEntity<>(headers), Map.class);
+        assertEquals(List.of(), suggestedIds(token));
+    }
+
+    @Test
+    void shouldServeRelatedPostsAndFollowEdits() {
+        HttpHeaders headers = authHeaders();
+        String anchor = createPublishedPost("Tuning sqlite vacuum", "Vacuum and wal checkpoints in sqlite", headers);
+        String similar = createPublishedPost("Sqlite vacuum checkpoints", "Wal checkpoints after vacuum keep sqlite small", headers);
+        String unrelated = createPublishedPost("Watercolor brushes", "Choosing brushes for watercolor painting", headers);
+
+        List<String> related = relatedIds(anchor);
+        assertEquals(similar, related.get(0));
+        assertFalse(related.contains(unrelated));
+
+        testRestTemplate.postForEntity(
+                "/api/posts",
+                new HttpEntity<>(Map.of("id", similar, "title", "Watercolor paper", "content", "Paper weight for watercolor painting",
+                        "summary", "s", "status", "published", "category_id", 1), headers),
+                Map.class
+        );
+        assertFalse(relatedIds(anchor).contains(similar));
+        assertEquals(similar, relatedIds(unrelated).get(0));
+    }
+
+    @Test
+    void shouldServeFeedsAndSitemapWithConditionalGet() {
+        HttpHeaders headers = authHeaders();
+        String postId = createPublishedPost("Feeds & <sitemaps>", "feed content", headers);
+        String link = "?post=" + postId;
+
+        ResponseEntity<String> rss = testRestTemplate.getForEntity("/rss.xml", String.class);
+        assertEquals(HttpStatus.OK, rss.getStatusCode());
+        assertTrue(rss.getBody().contains("<title>Feeds &amp; &lt;sitemaps&gt;</title>"));
+        assertTrue(rss.getBody().contains(link));
+        assertTrue(testRestTemplate.getForObject("/atom.xml", String.class).contains(link));
+        assertTrue(testRestTemplate.getForObject("/sitemap.xml", String.class).contains(link));
+        assertEquals(HttpStatus.NOT_FOUND, testRestTemplate.getForEntity("/sitemap-2.xml", String.class).getStatusCode());
+
+        String etag = rss.getHeaders().getETag();
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, testRestTemplate.exchange("/rss.xml", HttpMethod.GET,
+                new HttpEntity<>(conditional), String.class).getStatusCode());
+
+        testRestTemplate.exchange("/api/posts/" + postId, HttpMethod.DELETE, new HttpEntity<>(headers), Map.class);
+        ResponseEntity<String> changed = testRestTemplate.exchange("/rss.xml", HttpMethod.GET,
+                new HttpEntity<>(conditional), String.class);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertFalse(changed.getBody().contains(link));
+        assertFalse(testRestTemplate.getForObject("/sitemap.xml", String.class).contains(link));
+
+        String siteTitle = "feed-title-" + UUID.randomUUID();
+        testRestTemplate.postForEntity("/api/configs/site_title",
+                new HttpEntity<>(Map.of("value", siteTitle), headers), Map.class);
+        assertTrue(testRestTemplate.getForObject("/rss.xml", String.class).contains("<title>" + siteTitle + "</title>"));
+        assertTrue(testRestTemplate.getForObject("/atom.xml", String.class).contains("<title>" + siteTitle + "</title>"));
+    }
+
+    @Test
+    void shouldFollowWriterFromReadOnlyReaderNode() throws InterruptedException {
+        HttpHeaders headers = authHeaders();
+        try (ConfigurableApplicationContext reader = new SpringApplicationBuilder(BlogBackendApplication.class)
+                .profiles("reader")
+                .properties("server.port=0", "app.node.channel-poll-ms=20",
+                        "BLOG_WRITER_URL=" + testRestTemplate.getRootUri())
+                .run()) {
+            String readerUrl = "http://localhost:" + reader.getEnvironment().getProperty("local.server.port");
+
+            Integer category = createCategory("replicated", headers);
+            awaitTrue(() -> categoryPostCount(readerUrl, category) == 0);
+            createPublishedPost("replicated post", "replicated content", headers, category);
+            awaitTrue(() -> categoryPostCount(readerUrl, category) == 1);
+
+            ResponseEntity<Map> write = testRestTemplate.postForEntity(readerUrl + "/api/posts",
+                    new HttpEntity<>(Map.of("title", "t", "content", "c", "summary", "s", "status", "draft", "category_id", 1), headers),
+                    Map.class);
+            assertEquals(HttpStatus.FORBIDDEN, write.getStatusCode());
+
+            HttpEntity<Void> authenticated = new HttpEntity<>(headers);
+            assertEquals(HttpStatus.OK, testRestTemplate.exchange(readerUrl + "/api/maintenance/startup",
+                    HttpMethod.GET, authenticated, Map.class).getStatusCode());
+            testRestTemplate.postForEntity("/api/auth/logout", authenticated, Map.class);
+            awaitTrue(() -> testRestTemplate.exchange(readerUrl + "/api/maintenance/startup",
+                    HttpMethod.GET, authenticated, Map.class).getStatusCode() == HttpStatus.UNAUTHORIZED);
+
+            // A logout the load balancer sends to the reader is forwarded to the writer and reaches every node.
+            HttpEntity<Void> other = new HttpEntity<>(authHeaders());
+            assertEquals(HttpStatus.OK, testRestTemplate.postForEntity(readerUrl + "/api/auth/logout", other, Map.class)
+                    .getStatusCode());
+            assertEquals(HttpStatus.UNAUTHORIZED, testRestTemplate.exchange(readerUrl + "/api/maintenance/startup",
+                    HttpMethod.GET, other, Map.class).getStatusCode());
+            assertEquals(HttpStatus.UNAUTHORIZED, testRestTemplate.exchange("/api/maintenance/startup",
+                    HttpMethod.GET, other, Map.class).getStatusCode());
+        }
+    }
+
+    @Test
+    void shouldRebuildReaderIndexesAfterWriterRestart() throws Exception {
+        HttpHeaders headers = authHeaders();
+        try (ConfigurableApplicationContext reader = new SpringApplicationBuilder(BlogBackendApplication.class)
+                .profiles("reader")
+                .properties("server.port=0", "app.node.channel-poll-ms=20",
+                        "BLOG_WRITER_URL=" + testRestTemplate.getRootUri())
+                .run()) {
+            String readerUrl = "http://localhost:" + reader.getEnvironment().getProperty("local.server.port");
+            String word = "resync" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+            String postId = createPublishedPost("before " + word, "content", headers);
+            awaitTrue(() -> suggestedIds(readerUrl, word).equals(List.of(postId)));
+
+            // Changes written while no channel carried them, as when the writer crashed before flushing.
+            String renamed = "renamed" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+            postMapper.update(null, new LambdaUpdateWrapper<PostEntity>()
+                    .eq(PostEntity::getId, postId)
+                    .set(PostEntity::getTitle, "after " + renamed));
+            nodeChannelService.start();
+
+            awaitTrue(() -> suggestedIds(readerUrl, renamed).equals(List.of(postId)));
+            assertEquals(List.of(), suggestedIds(readerUrl, word));
+            Map<String, Object> page = postPage(readerUrl, "keyword=" + renamed);
+            assertEquals(1, ((Number) page.get("total")).intValue());
+            assertEquals(postId, ((List<Map<String, Object>>) page.get("records")).get(0).get("id"));
+        }
+    }
+
+    @Test
+    void shouldBackUpOnlineAndRestoreConsistentSnapshot() throws Exception {
+        HttpHeaders headers = authHeaders();
+        String postId = createPublishedPost("backed up", "original content", headers);
+        Path upload = Path.of("storage", "uploads", "backup-test", UUID.randomUUID() + ".txt");
+        Files.createDirectories(upload.getParent());
+        Files.writeString(upload, "original upload");
+
+        AtomicBoolean backingUp = new AtomicBoolean(true);
+        AtomicInteger failedWrites = new AtomicInteger();
+        Thread writer = new Thread(() -> {
+            while (backingUp.get()) {
+                if (!testRestTemplate.postForEntity("/api/posts/1/view", null, Map.class).getStatusCode().is2xxSuccessful()) {
+                    failedWrites.incrementAndGet();
+                }
+            }
+        });
+        writer.start();
+        Map<String, Object> manifest;
+        try {
+            manifest = (Map<String, Object>) testRestTemplate.postForEntity(
+                    "/api/maintenance/backups", new HttpEntity<>(headers), Map.class
+            ).getBody().get("data");
+        } finally {
+            backingUp.set(false);
+            writer.join();
+        }
+        assertEquals(0, failedWrites.get());
+        String backupId = (String) manifest.get("id");
+        String uploadKey = "uploads/backup-test/" + upload.getFileName();
+        assertTrue(((List<Map<String, Object>>) manifest.get("files")).stream()
+                .anyMatch(file -> uploadKey.equals(file.get("path"))));
+
+        testRestTemplate.exchange("/api/posts/" + postId, HttpMethod.DELETE, new HttpEntity<>(headers), Map.class);
+        Files.delete(upload);
+        Files.writeString(upload, "changed upload");
+
+        Map<String, Object> verification = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/maintenance/backups/" + backupId + "/verify", new HttpEntity<>(headers), Map.class
+        ).getBody().get("data");
+        assertEquals(true, verification.get("valid"), String.valueOf(verification.get("problems")));
+
+        Map<String, Object> restored = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/maintenance/backups/" + backupId + "/restore", new HttpEntity<>(headers), Map.class
+        ).getBody().get("data");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + restored.get("database_path"));
+             PreparedStatement statement = connection.prepareStatement("SELECT content FROM posts WHERE id = ?")) {
+            statement.setString(1, postId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next());
+                assertEquals("original content", resultSet.getString(1));
+            }
+        }
+        assertEquals("original upload", Files.readString(Path.of((String) restored.get("storage_path")).resolve(uploadKey)));
+    }
+
+    @Test
+    void shouldImportAndExportPostsAsNdjson() {
+        HttpHeaders headers = authHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        String ndjson = String.join("\n",
+                "{\"id\":\"import-1\",\"title\":\"imported one\",\"content\":\"c1\",\"summary\":\"s1\",\"status\":\"published\",\"category_id\":1,\"created_at\":\"2020-01-02T03:04:05Z\",\"tags\":[\"NDJSON  Import\"]}",
+                "{\"title\":\"missing fields\"}",
+                "{\"title\":\"unknown category\",\"content\":\"c3\",\"summary\":\"s3\",\"status\":\"draft\",\"category_id\":999999}",
+                "{\"title\":\"imported two\",\"content\":\"c2\",\"summary\":\"s2\",\"status\":\"draft\",\"category_id\":2}"
+        );
+
+        ResponseEntity<String> importResponse = testRestTemplate.exchange(
+                "/api/posts/import", HttpMethod.POST, new HttpEntity<>(ndjson, headers), String.class);
+        assertEquals(HttpStatus.OK, importResponse.getStatusCode());
+        String[] progress = importResponse.getBody().trim().split("\n");
+        String last = progress[progress.length - 1];
+        assertTrue(last.contains("\"imported\":2"));
+        assertTrue(last.contains("\"failed\":2"));
+        assertTrue(Arrays.stream(progress).anyMatch(line -> line.contains("\"line\":3") && line.contains("Record rejected")));
+        assertTrue(last.contains("\"done\":true"));
+
+        ResponseEntity<String> exportResponse = testRestTemplate.exchange(
+                "/api/posts/export", HttpMethod.GET, new HttpEntity<>(authHeaders()), String.class);
+        assertEquals(HttpStatus.OK, exportResponse.getStatusCode());
+        assertTrue(exportResponse.getBody().contains("\"id\":\"import-1\""));
+        assertTrue(exportResponse.getBody().contains("\"tags\":[\"ndjson import\"]"));
+        assertTrue(exportResponse.getBody().contains("\"title\":\"imported two\""));
+
+        String reimport = String.join("\n",
+                "{\"id\":\"import-1\",\"title\":\"reimported one\",\"content\":\"c1\",\"summary\":\"s1\",\"status\":\"published\",\"category_id\":1,\"created_at\":\"2024-06-01T00:00:00Z\"}",
+                "{\"title\":\"bad time\",\"content\":\"c\",\"summary\":\"s\",\"status\":\"draft\",\"category_id\":1,\"created_at\":\"yesterday\"}"
+        );
+        progress = testRestTemplate.exchange("/api/posts/import", HttpMethod.POST, new HttpEntity<>(reimport, headers),
+                String.class).getBody().trim().split("\n");
+        assertTrue(progress[progress.length - 1].contains("\"failed\":1"));
+        assertTrue(Arrays.stream(progress).anyMatch(line -> line.contains("\"line\":2") && line.contains("created_at")));
+        Map<String, Object> page = postPage("keyword=reimported&created_from=2020-01-02&created_to=2020-01-02");
+        assertEquals(1, ((Number) page.get("total")).intValue());
+        assertEquals("2020-01-02T03:04:05.000Z", ((List<Map<String, Object>>) page.get("records")).get(0).get("created_at"));
+    }
+
+    @Test
+    void shouldMirrorLatestContentOfRapidResaves() throws InterruptedException {
+        HttpHeaders headers = authHeaders();
+        Map<String, Object> created = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/posts",
+                new HttpEntity<>(Map.of("title", "mirror", "content", "v1", "summary", "s", "status", "draft", "category_id", 1), headers),
+                Map.class
+        ).getBody().get("data");
+        String postId = (String) created.get("id");
+        testRestTemplate.postForEntity(
+                "/api/posts",
+                new HttpEntity<>(Map.of("id", postId, "title", "mirror", "content", "v2", "summary", "s", "status", "draft", "category_id", 1), headers),
+                Map.class
+        );
+
+        markdownMirrorService.awaitIdle(10, TimeUnit.SECONDS);
+        assertEquals("v2", new String(fileStorageService.readPostMarkdown(postId), StandardCharsets.UTF_8));
+        assertNull(markdownJournalMapper.selectById(postId));
+    }
+
+    @Test
+    void shouldRetryFailedMirrorWritesWithBackoff() throws Exception {
+        HttpHeaders headers = authHeaders();
+        String postId = "mirror-retry-" + UUID.randomUUID().toString().substring(0, 8);
+        Path blocker = Files.createDirectories(Path.of("storage", "posts", postId + ".md.tmp"));
+        savePost(headers, Map.of("id", postId, "title", "mirror retry", "content", "retried content", "summary", "s",
+                "status", "draft", "category_id", 1));
+
+        markdownMirrorService.awaitIdle(10, TimeUnit.SECONDS);
+        assertNull(fileStorageService.readPostMarkdown(postId));
+        assertNotNull(markdownJournalMapper.selectById(postId));
+
+        Files.delete(blocker);
+        awaitTrue(() -> markdownJournalMapper.selectById(postId) == null);
+        assertEquals("retried content", new String(fileStorageService.readPostMarkdown(postId), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldStoreAutosavesAsDeltasAndPublishLatest() {
+        HttpHeaders headers = authHeaders();
+        String base = "paragraph ".repeat(200);
+        Map<String, Object> created = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/posts",
+                new HttpEntity<>(Map.of("title", "draft", "content", base, "summary", "s", "status", "draft", "category_id", 1), headers),
+                Map.class
+        ).getBody().get("data");
+        String postId = (String) created.get("id");
+
+        for (String edit : List.of("", " edited", " edited twice")) {
+            ResponseEntity<Map> autosave = testRestTemplate.postForEntity(
+                    "/api/posts/" + postId + "/autosave",
+                    new HttpEntity<>(Map.of("title", "draft", "content", base + edit, "summary", "s", "status", "draft", "category_id", 1), headers),
+                    Map.class
+            );
+            assertEquals(HttpStatus.OK, autosave.getStatusCode());
+        }
+
+        List<Map<String, Object>> revisions = (List<Map<String, Object>>) testRestTemplate.exchange(
+                "/api/posts/" + postId + "/revisions", HttpMethod.GET, new HttpEntity<>(headers), Map.class
+        ).getBody().get("data");
+        assertEquals(3, revisions.size());
+        Map<String, Object> latest = revisions.get(0);
+        assertEquals("delta", latest.get("kind"));
+        assertTrue(((Number) latest.get("stored_length")).intValue() < 50);
+
+        Map<String, Object> materialized = (Map<String, Object>) testRestTemplate.exchange(
+                "/api/posts/" + postId + "/revisions/" + latest.get("id"), HttpMethod.GET, new HttpEntity<>(headers), Map.class
+        ).getBody().get("data");
+        assertEquals(base + " edited twice", materialized.get("content"));
+
+        Map<String, Object> published = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/posts/" + postId + "/publish", new HttpEntity<>(headers), Map.class
+        ).getBody().get("data");
+        assertEquals(base + " edited twice", published.get("content"));
+    }
+
+    @Test
+    void shouldMaintainCategoryPostCounts() {
+        HttpHeaders headers = authHeaders();
+        int before = categoryPostCount(3);
+
+        Map<String, Object> created = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/posts",
+                new HttpEntity<>(Map.of("title", "counted", "content", "c", "summary", "s", "status", "published", "category_id", 3), headers),
+                Map.class
+        ).getBody().get("data");
+        assertEquals(before + 1, categoryPostCount(3));
+
+        testRestTemplate.postForEntity(
+                "/api/posts",
+                new HttpEntity<>(Map.of("id", created.get("id"), "title", "counted", "content", "c", "summary", "s", "status", "draft", "category_id", 3), headers),
+                Map.class
+        );
+        assertEquals(before, categoryPostCount(3));
+    }
+
+    @Test
+    void shouldRestrictOrReassignWhenDeletingCategoryWithPosts() {
+        HttpHeaders headers = authHeaders();
+        Integer source = createCategory("fk-source", headers);
+        Integer target = createCategory("fk-target", headers);
+        Map<String, Object> post = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/posts",
+                new HttpEntity<>(Map.of("title", "moved", "content", "c", "summary", "s", "status", "published", "category_id", source), headers),
+                Map.class
+        ).getBody().get("data");
+
+        ResponseEntity<Map> restricted = testRestTemplate.exchange(
+                "/api/categories/" + source, HttpMethod.DELETE, new HttpEntity<>(headers), Map.class
+        );
+        assertEquals(HttpStatus.BAD_REQUEST, restricted.getStatusCode());
+
+        ResponseEntity<Map> reassigned = testRestTemplate.exchange(
+                "/api/categories/" + source + "?mode=reassign&target_id=" + target,
+                HttpMethod.DELETE, new HttpEntity<>(headers), Map.class
+        );
+        assertEquals(HttpStatus.OK, reassigned.getStatusCode());
+
+        List<Map<String, Object>> posts = (List<Map<String, Object>>) testRestTemplate
+                .getForEntity("/api/posts", Map.class).getBody().get("data");
+        Map<String, Object> moved = posts.stream()
+                .filter(candidate -> post.get("id").equals(candidate.get("id")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(target, ((Number) moved.get("category_id")).intValue());
+        assertEquals(1, categoryPostCount(target));
+
+        Map<String, Object> report = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/maintenance/compact", new HttpEntity<>(headers), Map.class
+        ).getBody().get("data");
+        assertEquals(0, ((Number) report.get("reassigned_posts")).intValue());
+    }
+
+    @Test
+    void shouldApplyMigrationsOnceAndBackfillWordCounts() throws InterruptedException {
+        HttpHeaders headers = authHeaders();
+        Map<String, Object> status = (Map<String, Object>) testRestTemplate.exchange(
+                "/api/maintenance/migrations", HttpMethod.GET, new HttpEntity<>(headers), Map.class
+        ).getBody().get("data");
+        List<Integer> versions = ((List<Map<String, Object>>) status.get("migrations")).stream()
+                .map(migration -> ((Number) migration.get("version")).intValue())
+                .toList();
+        assertTrue(versions.containsAll(List.of(1, 2, 3, 11)));
+        assertEquals(versions.stream().sorted().toList(), versions);
+
+        Map<String, Object> created = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/posts",
+                new HttpEntity<>(Map.of("title", "counted words", "content", "hello world 你好", "summary", "s", "status", "draft", "category_id", 1), headers),
+                Map.class
+        ).getBody().get("data");
+        String postId = (String) created.get("id");
+        assertEquals(4, ((Number) created.get("word_count")).intValue());
+
+        postMapper.update(null, new LambdaUpdateWrapper<PostEntity>()
+                .set(PostEntity::getWordCount, null)
+                .eq(PostEntity::getId, postId));
+        backfillService.start();
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (postMapper.selectById(postId).getWordCount() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(4, postMapper.selectById(postId).getWordCount());
+    }
+
+    @Test
+    void shouldMigrateBaselineDatabaseWithPostsOfDeletedCategory() throws Exception {
+        Path directory = Files.createTempDirectory("blog-baseline");
+        Path database = directory.resolve("blog.db");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database)) {
+            // Before foreign keys were enforced, deleting a category left its posts pointing at it.
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__baseline_schema.sql"));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V2__seed_data.sql"));
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO categories (id, name, slug) VALUES (90, 'Deleted', 'deleted')");
+                statement.executeUpdate("UPDATE posts SET category_id = 90 WHERE id = '1'");
+                statement.executeUpdate("DELETE FROM categories WHERE id = 90");
+            }
+        }
+
+        try (ConfigurableApplicationContext migrated = new SpringApplicationBuilder(BlogBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "BLOG_DB_PATH=" + database,
+                        "BLOG_STORAGE_PATH=" + directory.resolve("storage")
+                )
+                .run()) {
+            JdbcTemplate jdbcTemplate = migrated.getBean(JdbcTemplate.class);
+            assertEquals("Uncategorized", jdbcTemplate.queryForObject(
+                    "SELECT c.name FROM posts p JOIN categories c ON c.id = p.category_id WHERE p.id = '1'", String.class));
+            assertEquals(List.of(), jdbcTemplate.queryForList("PRAGMA foreign_key_check"));
+        }
+    }
+
+    private Integer createCategory(String name, HttpHeaders headers) {
+        Map<String, Object> category = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/categories", new HttpEntity<>(Map.of("name", name), headers), Map.class
+        ).getBody().get("data");
+        return ((Number) category.get("id")).intValue();
+    }
+
+    private int categoryPostCount(int categoryId) {
+        return categoryPostCount("", categoryId);
+    }
+
+    private int categoryPostCount(String baseUrl, int categoryId) {
+        List<Map<String, Object>> categories = (List<Map<String, Object>>) testRestTemplate
+                .getForEntity(baseUrl + "/api/categories", Map.class).getBody().get("data");
+        return categories.stream()
+                .filter(category -> ((Number) category.get("id")).intValue() == categoryId)
+                .map(category -> ((Number) category.get("post_count")).intValue())
+                .findFirst()
+                .orElse(-1);
+    }
+
+    private void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within 10 seconds");
+            Thread.sleep(50);
+        }
+    }
+
+    private ResponseEntity<Map> putChunk(String uploadUrl, byte[] content, int index, int chunkSize, String sha256,
+                                         HttpHeaders headers) throws Exception {
+        int first = index * chunkSize;
+        int last = Math.min(first + chunkSize, content.length) - 1;
+        byte[] chunk = Arrays.copyOfRange(content, first, last + 1);
+        String checksum = sha256 != null ? sha256
+                : HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(chunk));
+        return testRestTemplate.exchange(uploadUrl, HttpMethod.PUT,
+                new HttpEntity<>(chunk, chunkHeaders(headers, first, last, content.length, checksum)), Map.class);
+    }
+
+    private HttpHeaders chunkHeaders(HttpHeaders auth, long first, long last, long size, String sha256) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(auth);
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + first + "-" + last + "/" + size);
+        if (sha256 != null) {
+            headers.set("X-Chunk-Sha256", sha256);
+        }
+        return headers;
+    }
+
+    private List<Map<String, Object>> uploadAssets(HttpHeaders auth, String postId, Object... namesAndContents) {
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        for (int i = 0; i < namesAndContents.length; i += 2) {
+            String name = (String) namesAndContents[i];
+            form.add("files", new ByteArrayResource((byte[]) namesAndContents[i + 1]) {
+                @Override
+                public String getFilename() {
+                    return name;
+                }
+            });
+        }
+        if (postId != null) {
+            form.add("post_id", postId);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(auth);
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        ResponseEntity<Map> response = testRestTemplate.postForEntity("/api/assets/upload", new HttpEntity<>(form, headers), Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return (List<Map<String, Object>>) response.getBody().get("data");
+    }
+
+    private Map<String, Object> assetPage(String url, HttpHeaders headers) {
+        return (Map<String, Object>) testRestTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class)
+                .getBody().get("data");
+    }
+
+    private HttpHeaders authHeaders() {
+        ResponseEntity<Map> loginResponse = testRestTemplate.postForEntity(
+                "/api/auth/login",
+                Map.of("username", "admin", "password", "admin"),
+                Map.class
+        );
+        Map<String, Object> loginData = (Map<String, Object>) loginResponse.getBody().get("data");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth((String) loginData.get("token"));
+        return headers;
+    }
+
+    private String createPublishedPost(String title, String content, HttpHeaders headers) {
+        return createPublishedPost(title, content, headers, 1);
+    }
+
+    private String createPublishedPost(String title, String content, HttpHeaders headers, int categoryId) {
+        Map<String, Object> created = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/posts",
+                new HttpEntity<>(Map.of("title", title, "content", content, "summary", "s", "status", "published", "category_id", categoryId), headers),
+                Map.class
+        ).getBody().get("data");
+        return (String) created.get("id");
+    }
+
+    private String savePost(HttpHeaders headers, Map<String, Object> post) {
+        Map<String, Object> saved = (Map<String, Object>) testRestTemplate.postForEntity(
+                "/api/posts", new HttpEntity<>(post, headers), Map.class).getBody().get("data");
+        return (String) saved.get("id");
+    }
+
+    private Map<String, Object> postPage(String query) {
+        return postPage("", query);
+    }
+
+    private Map<String, Object> postPage(String baseUrl, String query) {
+        return (Map<String, Object>) testRestTemplate.getForEntity(baseUrl + "/api/posts/page?page=1&page_size=10&" + query, Map.class)
+                .getBody().get("data");
+    }
+
+    private Map<String, Integer> tagCounts(String query) {
+        List<Map<String, Object>> tags = (List<Map<String, Object>>) testRestTemplate
+                .getForEntity("/api/posts/tags" + query, Map.class).getBody().get("data");
+        return tags.stream()
+                .filter(tag -> ((String) tag.get("name")).startsWith("java-") || ((String) tag.get("name")).startsWith("web "))
+                .collect(Collectors.toMap(tag -> (String) tag.get("name"), tag -> ((Number) tag.get("post_count")).intValue()));
+    }
+
+    private List<String> suggestedIds(String query) {
+        return suggestedIds("", query);
+    }
+
+    private List<String> suggestedIds(String baseUrl, String query) {
+        List<Map<String, Object>> suggestions = (List<Map<String, Object>>) testRestTemplate
+                .getForEntity(baseUrl + "/api/posts/suggest?q={q}", Map.class, query).getBody().get("data");
+        return suggestions.stream().map(item -> (String) item.get("id")).toList();
+    }
+
+    private List<String> relatedIds(String postId) {
+        List<Map<String, Object>> related = (List<Map<String, Object>>) testRestTemplate
+                .getForEntity("/api/posts/" + postId + "/related?limit=10", Map.class).getBody().get("data");
+        return related.stream().map(item -> (String) item.get("id")).toList();
+    }
 }
@@ -0,0 +1,171 @@
+package com.liquidthoughts.blog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the native binary built by {@code mvn -Pnative verify} against a temp SQLite file and replays the flows
+ * covered by {@link ApiIntegrationTests}. The time to the first served request and the resident memory after the
+ * flows are checked against {@code native.startup-budget-ms} and {@code native.rss-budget-mb}.
+ */
+@EnabledIfSystemProperty(named = "native.binary", matches = ".+")
+class NativeSmokeIT {
+
+    private static final long STARTUP_BUDGET_MS = Long.getLong("native.startup-budget-ms", 500);
+    private static final long RSS_BUDGET_MB = Long.getLong("native.rss-budget-mb", 128);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private static Process process;
+    private static Path workDir;
+    private static String baseUrl;
+    private static long firstRequestMs;
+
+    @BeforeAll
+    static void startBinary() throws Exception {
+        workDir = Files.createTempDirectory("blog-native");
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        baseUrl = "http://localhost:" + port;
+
+        ProcessBuilder builder = new ProcessBuilder(System.getProperty("native.binary"))
+                .directory(workDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("native.log").toFile());
+        builder.environment().put("PORT", String.valueOf(port));
+        builder.environment().put("SPRING_PROFILES_ACTIVE", "prod");
+        builder.environment().put("BLOG_DB_PATH", workDir.resolve("blog.db").toString());
+        builder.environment().put("BLOG_STORAGE_PATH", workDir.resolve("storage").toString());
+
+        long startedAt = System.nanoTime();
+        process = builder.start();
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (true) {
+            try {
+                if (get("/api/categories").statusCode() == 200) {
+                    break;
+                }
+            } catch (IOException ignored) {
+                // Not listening yet.
+            }
+            if (!process.isAlive() || System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Native binary did not start, see " + workDir.resolve("native.log"));
+            }
+            Thread.sleep(5);
+        }
+        firstRequestMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+
+    @AfterAll
+    static void stopBinary() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void shouldServeFirstRequestWithinBudget() {
+        assertTrue(firstRequestMs < STARTUP_BUDGET_MS,
+                "First request served after " + firstRequestMs + " ms, budget is " + STARTUP_BUDGET_MS + " ms");
+    }
+
+    @Test
+    void shouldReplayApiFlowsWithinMemoryBudget() throws Exception {
+        String token = (String) data(post("/api/auth/login", null, Map.of("username", "admin", "password", "admin"))).get("token");
+
+        Map<String, Object> created = data(post("/api/posts", token, Map.of(
+                "title", "native post", "content", "native content", "summary", "s", "status", "published", "category_id", 1)));
+        String postId = (String) created.get("id");
+
+        Map<String, Object> page = data(get("/api/posts/page?page=1&page_size=2"));
+        assertTrue(!((List<?>) page.get("records")).isEmpty());
+
+        assertEquals(200, post("/api/posts/" + postId + "/view", null, null).statusCode());
+        List<Map<String, Object>> trending = dataList(get("/api/posts/trending?limit=50"));
+        assertTrue(trending.stream().anyMatch(item -> postId.equals(item.get("id"))));
+
+        HttpResponse<String> imported = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/posts/import"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"id\":\"native-import\",\"title\":\"t\",\"content\":\"c\",\"summary\":\"s\",\"status\":\"draft\",\"category_id\":1}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(imported.body().contains("\"imported\":1"));
+        HttpResponse<String> exported = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/posts/export"))
+                .header("Authorization", "Bearer " + token)
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(exported.body().contains("\"id\":\"native-import\""));
+
+        post("/api/posts/" + postId + "/autosave", token, Map.of(
+                "title", "native post", "content", "native content edited", "summary", "s", "status", "published", "category_id", 1));
+        Map<String, Object> published = data(post("/api/posts/" + postId + "/publish", token, null));
+        assertEquals("native content edited", published.get("content"));
+
+        assertEquals(400, httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/categories/1"))
+                .header("Authorization", "Bearer " + token)
+                .DELETE()
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode());
+
+        long rssMb = residentMemoryMb();
+        assertTrue(rssMb < RSS_BUDGET_MB, "Resident memory is " + rssMb + " MB, budget is " + RSS_BUDGET_MB + " MB");
+    }
+
+    private static HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> post(String path, String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> data(HttpResponse<String> response) throws IOException {
+        assertEquals(200, response.statusCode(), response.body());
+        return (Map<String, Object>) objectMapper.readValue(response.body(), Map.class).get("data");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> dataList(HttpResponse<String> response) throws IOException {
+        assertEquals(200, response.statusCode(), response.body());
+        return (List<Map<String, Object>>) objectMapper.readValue(response.body(), Map.class).get("data");
+    }
+
+    private static long residentMemoryMb() throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(process.pid()), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+            }
+        }
+        return 0;
+    }
+}
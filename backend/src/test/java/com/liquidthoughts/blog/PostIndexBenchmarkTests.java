@@ -0,0 +1,146 @@
+package com.liquidthoughts.blog;
+
+import com.liquidthoughts.blog.SeededDatabases.KeyDatabases;
+import com.liquidthoughts.blog.SeededDatabases.PageQuery;
+import com.liquidthoughts.blog.service.PostCatalogService;
+import com.liquidthoughts.blog.service.PostService;
+import com.liquidthoughts.blog.service.PostSuggestService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times the in-memory post indexes against the database on the posts of {@link SeededDatabases}, title suggestions
+ * while views and likes are counted, and metric lookups by text and integer post keys, and logs the results.
+ * Correctness is checked by {@link PostIndexTests}; these only run with {@code mvn test -Pbenchmarks}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ContextConfiguration(initializers = SeededDatabases.class)
+class PostIndexBenchmarkTests {
+
+    private static final int CATALOG_ROUNDS = Integer.getInteger("catalog.benchmark-rounds", 20);
+    private static final int KEY_POSTS = Integer.getInteger("keys.benchmark-posts", 20000);
+    private static final int KEY_ROUNDS = Integer.getInteger("keys.benchmark-rounds", 2000);
+    private static final int SUGGEST_QUERIES = Integer.getInteger("suggest.benchmark-queries", 5000);
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostCatalogService postCatalogService;
+
+    @Autowired
+    private PostSuggestService postSuggestService;
+
+    @BeforeEach
+    void seed() {
+        SeededDatabases.seedPosts(context);
+    }
+
+    @Test
+    void benchmarkCatalogAgainstDatabase() {
+        List<PageQuery> queries = SeededDatabases.pageQueries();
+        long catalogNanos = 0;
+        long databaseNanos = 0;
+        for (int round = 0; round < CATALOG_ROUNDS; round++) {
+            for (PageQuery query : queries) {
+                long startedAt = System.nanoTime();
+                query.fromCatalog(postService);
+                catalogNanos += System.nanoTime() - startedAt;
+
+                startedAt = System.nanoTime();
+                query.fromDatabase(postService);
+                databaseNanos += System.nanoTime() - startedAt;
+            }
+        }
+        int calls = CATALOG_ROUNDS * queries.size();
+        log.info("Post page over {} posts, {} calls: catalog {} ms/call, database {} ms/call", postCatalogService.size(),
+                calls, millis(catalogNanos / (double) calls), millis(databaseNanos / (double) calls));
+    }
+
+    @Test
+    void benchmarkLookupsByTextAndIntegerKeys() throws Exception {
+        KeyDatabases databases = SeededDatabases.keyDatabases(KEY_POSTS);
+        try (Connection before = SeededDatabases.open(databases.legacy());
+             Connection after = SeededDatabases.open(databases.migrated())) {
+            Random random = new Random(7);
+            long textKeyNanos = 0;
+            long rowIdNanos = 0;
+            for (int round = 0; round < KEY_ROUNDS; round++) {
+                List<String> page = SeededDatabases.randomPage(databases.postIds(), random);
+                long startedAt = System.nanoTime();
+                SeededDatabases.sumViews(before, SeededDatabases.TEXT_KEY_LOOKUP, page);
+                textKeyNanos += System.nanoTime() - startedAt;
+                startedAt = System.nanoTime();
+                SeededDatabases.sumViews(after, SeededDatabases.ROW_ID_LOOKUP, page);
+                rowIdNanos += System.nanoTime() - startedAt;
+            }
+
+            long startedAt = System.nanoTime();
+            SeededDatabases.count(before, SeededDatabases.TEXT_KEY_JOIN);
+            long textKeyJoinNanos = System.nanoTime() - startedAt;
+            startedAt = System.nanoTime();
+            SeededDatabases.count(after, SeededDatabases.ROW_ID_JOIN);
+            long rowIdJoinNanos = System.nanoTime() - startedAt;
+
+            log.info("Metric IN lookup of {} posts over {} posts: text key {} us, row id {} us",
+                    SeededDatabases.KEY_PAGE_SIZE, KEY_POSTS, String.format("%.1f", textKeyNanos / (double) KEY_ROUNDS / 1000),
+                    String.format("%.1f", rowIdNanos / (double) KEY_ROUNDS / 1000));
+            log.info("Post and metric join over {} posts: text key {} ms, row id {} ms", KEY_POSTS,
+                    millis(textKeyJoinNanos), millis(rowIdJoinNanos));
+            log.info("Database size: text key {} KB, row id {} KB", Files.size(databases.legacy()) / 1024,
+                    Files.size(databases.migrated()) / 1024);
+        }
+    }
+
+    @Test
+    void benchmarkSuggestLatency() throws InterruptedException {
+        List<String> titles = SeededDatabases.publishedTitles(context);
+        Random warmup = new Random(3);
+        for (int index = 0; index < SUGGEST_QUERIES; index++) {
+            postSuggestService.suggest(SeededDatabases.typedPrefix(titles.get(warmup.nextInt(titles.size())), warmup), 10);
+        }
+
+        AtomicBoolean querying = new AtomicBoolean(true);
+        Thread counter = SeededDatabases.countMetrics(postSuggestService, querying);
+        Random random = new Random(7);
+        long[] nanos = new long[SUGGEST_QUERIES];
+        try {
+            for (int index = 0; index < nanos.length; index++) {
+                String query = SeededDatabases.typedPrefix(titles.get(random.nextInt(titles.size())), random);
+                long startedAt = System.nanoTime();
+                postSuggestService.suggest(query, 10);
+                nanos[index] = System.nanoTime() - startedAt;
+            }
+        } finally {
+            querying.set(false);
+            counter.join();
+        }
+        Arrays.sort(nanos);
+        log.info("Title suggestions over {} posts, {} calls: p50 {} ms, p99 {} ms, max {} ms", postSuggestService.size(),
+                SUGGEST_QUERIES, millis(nanos[SUGGEST_QUERIES / 2]), millis(nanos[SUGGEST_QUERIES * 99 / 100]),
+                millis(nanos[SUGGEST_QUERIES - 1]));
+    }
+
+    private String millis(double nanos) {
+        return String.format("%.3f", nanos / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,231 @@
+package com.liquidthoughts.blog;
+
+import com.liquidthoughts.blog.SeededDatabases.KeyDatabases;
+import com.liquidthoughts.blog.SeededDatabases.PageQuery;
+import com.liquidthoughts.blog.config.NodeProperties;
+import com.liquidthoughts.blog.dto.PagedResponse;
+import com.liquidthoughts.blog.dto.PostSuggestionResponse;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.event.PostChangedEvent;
+import com.liquidthoughts.blog.mapper.PostMapper;
+import com.liquidthoughts.blog.service.PostCatalogService;
+import com.liquidthoughts.blog.service.PostIdGenerator;
+import com.liquidthoughts.blog.service.PostService;
+import com.liquidthoughts.blog.service.PostSuggestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the in-memory post indexes against the database on the posts of {@link SeededDatabases}, title suggestions
+ * against the typed prefix and a p99 of {@code suggest.p99-budget-us} while views and likes are counted, and the
+ * integer post keys against the text keys they replaced.
+ */
+@SpringBootTest
+@ContextConfiguration(initializers = SeededDatabases.class)
+class PostIndexTests {
+
+    private static final int ID_THREADS = 8;
+    private static final int IDS_PER_THREAD = 5000;
+    private static final int SUGGEST_WARMUP = 5000;
+    private static final int SUGGEST_QUERIES = 2000;
+    private static final int SUGGEST_ROUNDS = 3;
+    private static final long SUGGEST_P99_BUDGET_US = Long.getLong("suggest.p99-budget-us", 1000);
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostCatalogService postCatalogService;
+
+    @Autowired
+    private PostSuggestService postSuggestService;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        SeededDatabases.seedPosts(context);
+    }
+
+    @Test
+    void shouldMatchDatabaseQueriesFromCatalog() {
+        assertCatalogMatchesDatabase();
+
+        // Inserts, backdates and deletes away from the newest end, so the catalog has to shift rows in its bitmaps.
+        Random random = new Random(11);
+        for (int index = 0; index < 50; index++) {
+            long created = SeededDatabases.BASE.plusSeconds(random.nextInt(SeededDatabases.POSTS) * 60L + 30).toEpochMilli();
+            String id = "inserted-" + index;
+            jdbcTemplate.update("INSERT INTO posts (id, title, content, summary, status, category_id, created_at, updated_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    id, "Inserted post " + index, "content", "summary", random.nextBoolean() ? "draft" : "published",
+                    1 + random.nextInt(5), created, created);
+            postCatalogService.onPostChanged(new PostChangedEvent(null, postMapper.selectById(id)));
+        }
+        for (int index = 0; index < 50; index++) {
+            String id = "inserted-" + random.nextInt(50);
+            PostEntity previous = postMapper.selectById(id);
+            if (previous == null) {
+                continue;
+            }
+            if (index % 2 == 0) {
+                jdbcTemplate.update("DELETE FROM posts WHERE id = ?", id);
+                postCatalogService.onPostChanged(new PostChangedEvent(previous, null));
+            } else {
+                jdbcTemplate.update("UPDATE posts SET created_at = ?, category_id = ? WHERE id = ?",
+                        previous.getCreatedAt() - random.nextInt(SeededDatabases.POSTS / 2) * 60_000L,
+                        1 + random.nextInt(5), id);
+                postCatalogService.onPostChanged(new PostChangedEvent(previous, postMapper.selectById(id)));
+            }
+        }
+        assertCatalogMatchesDatabase();
+    }
+
+    @Test
+    void shouldGenerateUniqueTimeOrderedIdsAcrossThreads() throws Exception {
+        PostIdGenerator generator = new PostIdGenerator(new NodeProperties());
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(ID_THREADS);
+        try {
+            List<Future<Boolean>> ordered = new ArrayList<>();
+            for (int thread = 0; thread < ID_THREADS; thread++) {
+                ordered.add(executor.submit(() -> {
+                    long previous = 0;
+                    for (int index = 0; index < IDS_PER_THREAD; index++) {
+                        long id = Long.parseLong(generator.nextId());
+                        if (id <= previous || !ids.add(id)) {
+                            return false;
+                        }
+                        previous = id;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : ordered) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(ID_THREADS * IDS_PER_THREAD, ids.size());
+        assertTrue(Long.parseLong(generator.nextId()) > Collections.max(ids));
+    }
+
+    @Test
+    void shouldMigrateToIntegerKeysAndKeepMetricLookups() throws Exception {
+        KeyDatabases databases = SeededDatabases.keyDatabases(2000);
+        try (Connection before = SeededDatabases.open(databases.legacy());
+             Connection after = SeededDatabases.open(databases.migrated())) {
+            assertEquals(0, SeededDatabases.count(after, "SELECT COUNT(*) FROM pragma_foreign_key_check"));
+            for (String table : List.of("posts", "post_metrics", "post_revisions")) {
+                assertEquals(SeededDatabases.count(before, "SELECT COUNT(*) FROM " + table),
+                        SeededDatabases.count(after, "SELECT COUNT(*) FROM " + table), table);
+            }
+            Random random = new Random(7);
+            for (int round = 0; round < 100; round++) {
+                List<String> page = SeededDatabases.randomPage(databases.postIds(), random);
+                assertEquals(SeededDatabases.sumViews(before, SeededDatabases.TEXT_KEY_LOOKUP, page),
+                        SeededDatabases.sumViews(after, SeededDatabases.ROW_ID_LOOKUP, page));
+            }
+            assertEquals(SeededDatabases.count(before, SeededDatabases.TEXT_KEY_JOIN),
+                    SeededDatabases.count(after, SeededDatabases.ROW_ID_JOIN));
+        }
+    }
+
+    @Test
+    void shouldSuggestMatchingTitlesByPopularity() throws InterruptedException {
+        List<String> titles = SeededDatabases.publishedTitles(context);
+        Random warmup = new Random(3);
+        for (int index = 0; index < SUGGEST_WARMUP; index++) {
+            postSuggestService.suggest(SeededDatabases.typedPrefix(titles.get(warmup.nextInt(titles.size())), warmup), 10);
+        }
+
+        // The best p99 of a few rounds, so a round the scheduler happens to interrupt does not fail the build.
+        AtomicBoolean querying = new AtomicBoolean(true);
+        Thread counter = SeededDatabases.countMetrics(postSuggestService, querying);
+        Random random = new Random(7);
+        List<Long> p99s = new ArrayList<>();
+        try {
+            for (int round = 0; round < SUGGEST_ROUNDS; round++) {
+                p99s.add(suggestP99(titles, random));
+            }
+        } finally {
+            querying.set(false);
+            counter.join();
+        }
+        assertEquals(List.of(), postSuggestService.suggest("不存在的标题", 10));
+        assertTrue(postSuggestService.suggest("metric traffic", 1).get(0).getViewCount() > 0);
+        assertTrue(Collections.min(p99s) <= TimeUnit.MICROSECONDS.toNanos(SUGGEST_P99_BUDGET_US),
+                "p99 of " + p99s + " ns, budget is " + SUGGEST_P99_BUDGET_US + " us");
+    }
+
+    private long suggestP99(List<String> titles, Random random) {
+        long[] nanos = new long[SUGGEST_QUERIES];
+        for (int index = 0; index < nanos.length; index++) {
+            String query = SeededDatabases.typedPrefix(titles.get(random.nextInt(titles.size())), random);
+            long startedAt = System.nanoTime();
+            List<PostSuggestionResponse> suggestions = postSuggestService.suggest(query, 10);
+            nanos[index] = System.nanoTime() - startedAt;
+
+            assertFalse(suggestions.isEmpty(), query);
+            for (int rank = 0; rank < suggestions.size(); rank++) {
+                PostSuggestionResponse suggestion = suggestions.get(rank);
+                assertTrue(suggestion.getTitle().toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT)),
+                        suggestion.getTitle() + " does not match " + query);
+                if (rank > 0) {
+                    assertTrue(popularity(suggestions.get(rank - 1)) >= popularity(suggestion));
+                }
+            }
+        }
+        Arrays.sort(nanos);
+        return nanos[SUGGEST_QUERIES * 99 / 100];
+    }
+
+    private void assertCatalogMatchesDatabase() {
+        for (PageQuery query : SeededDatabases.pageQueries()) {
+            PagedResponse<PostEntity> fromCatalog = query.fromCatalog(postService);
+            PagedResponse<PostEntity> fromDatabase = query.fromDatabase(postService);
+            assertEquals(fromDatabase.getTotal(), fromCatalog.getTotal(), query.toString());
+            assertEquals(ids(fromDatabase), ids(fromCatalog), query.toString());
+        }
+    }
+
+    private List<String> ids(PagedResponse<PostEntity> page) {
+        return page.getRecords().stream().map(PostEntity::getId).toList();
+    }
+
+    private long popularity(PostSuggestionResponse suggestion) {
+        return suggestion.getViewCount() + 5L * suggestion.getLikeCount();
+    }
+}
@@ -0,0 +1,223 @@
+package com.liquidthoughts.blog;
+
+import com.liquidthoughts.blog.config.S3StorageProperties;
+import com.liquidthoughts.blog.service.S3AssetStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link S3AssetStore} against an in-process stand-in for the S3 API that keeps objects and multipart uploads in
+ * memory.
+ */
+class S3AssetStoreTests {
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private final FakeS3Client s3 = new FakeS3Client();
+    private final S3StorageProperties properties = new S3StorageProperties();
+    private final S3Presigner presigner = S3Presigner.builder()
+            .region(Region.US_EAST_1)
+            .endpointOverride(URI.create("http://minio.local:9000"))
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("access", "secret")))
+            .build();
+    private S3AssetStore store;
+
+    @AfterEach
+    void shutdown() {
+        if (store != null) {
+            store.shutdown();
+        }
+        presigner.close();
+    }
+
+    @Test
+    void shouldPutSmallFilesInOneRequest() throws Exception {
+        store = newStore();
+        Path source = write("small.png", 1024);
+        byte[] expected = Files.readAllBytes(source);
+
+        store.put("articles/202601/small.png", source, "image/png").join();
+
+        assertTrue(Arrays.equals(expected, s3.objects.get("uploads/articles/202601/small.png")));
+        assertEquals(0, s3.partRequests.get());
+        assertFalse(Files.exists(source));
+    }
+
+    @Test
+    void shouldSendLargeFilesAsParallelMultipartUploads() throws Exception {
+        store = newStore();
+        s3.partDelayMs = 100;
+        Path source = write("clip.mp4", PART_SIZE * 3 + 1234);
+        byte[] expected = Files.readAllBytes(source);
+
+        store.put("media/clip.mp4", source, "video/mp4").join();
+
+        assertTrue(Arrays.equals(expected, s3.objects.get("uploads/media/clip.mp4")));
+        assertEquals(4, s3.partRequests.get());
+        assertTrue(s3.maxConcurrentParts.get() > 1);
+        assertFalse(Files.exists(source));
+    }
+
+    @Test
+    void shouldAbortMultipartUploadWhenAPartFails() throws Exception {
+        store = newStore();
+        s3.failPart = 2;
+        Path source = write("broken.mp4", PART_SIZE * 2 + 10);
+
+        assertThrows(CompletionException.class, () -> store.put("media/broken.mp4", source, null).join());
+
+        assertFalse(s3.objects.containsKey("uploads/media/broken.mp4"));
+        assertTrue(s3.uploads.isEmpty());
+        assertEquals(1, s3.aborted.get());
+        assertFalse(Files.exists(source));
+    }
+
+    @Test
+    void shouldPresignDownloadUrls() {
+        store = newStore();
+        URI url = store.downloadUrl("articles/202601/small.png").orElseThrow();
+
+        assertEquals("minio.local", url.getHost());
+        assertEquals("/assets/uploads/articles/202601/small.png", url.getPath());
+        assertTrue(url.getQuery().contains("X-Amz-Signature="));
+        assertTrue(url.getQuery().contains("X-Amz-Expires=900"));
+    }
+
+    private S3AssetStore newStore() {
+        properties.setBucket("assets");
+        properties.setMultipartThreshold(PART_SIZE);
+        properties.setPartSize(PART_SIZE);
+        properties.setUploadThreads(4);
+        return new S3AssetStore(s3, presigner, properties);
+    }
+
+    private Path write(String name, int size) throws IOException {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return Files.write(tempDir.resolve(name), bytes);
+    }
+
+    private static final class FakeS3Client implements S3Client {
+
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+        private final AtomicInteger partRequests = new AtomicInteger();
+        private final AtomicInteger concurrentParts = new AtomicInteger();
+        private final AtomicInteger maxConcurrentParts = new AtomicInteger();
+        private final AtomicInteger aborted = new AtomicInteger();
+        private volatile long partDelayMs;
+        private volatile int failPart;
+
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            objects.put(request.key(), read(body));
+            return PutObjectResponse.builder().eTag("etag").build();
+        }
+
+        @Override
+        public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+            String uploadId = request.key() + "#" + uploads.size();
+            uploads.put(uploadId, new ConcurrentHashMap<>());
+            return CreateMultipartUploadResponse.builder().uploadId(uploadId).build();
+        }
+
+        @Override
+        public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody body) {
+            partRequests.incrementAndGet();
+            maxConcurrentParts.accumulateAndGet(concurrentParts.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(partDelayMs);
+                if (request.partNumber() == failPart) {
+                    throw new IllegalStateException("connection reset");
+                }
+                uploads.get(request.uploadId()).put(request.partNumber(), read(body));
+                return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } finally {
+                concurrentParts.decrementAndGet();
+            }
+        }
+
+        @Override
+        public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+            Map<Integer, byte[]> parts = uploads.remove(request.uploadId());
+            ByteArrayOutputStream object = new ByteArrayOutputStream();
+            int expectedPart = 1;
+            for (CompletedPart part : request.multipartUpload().parts()) {
+                assertEquals(expectedPart++, part.partNumber());
+                assertEquals("etag-" + part.partNumber(), part.eTag());
+                object.writeBytes(parts.get(part.partNumber()));
+            }
+            objects.put(request.key(), object.toByteArray());
+            return CompleteMultipartUploadResponse.builder().build();
+        }
+
+        @Override
+        public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+            uploads.remove(request.uploadId());
+            aborted.incrementAndGet();
+            return AbortMultipartUploadResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private byte[] read(RequestBody body) {
+            try (InputStream stream = body.contentStreamProvider().newStream()) {
+                return stream.readAllBytes();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
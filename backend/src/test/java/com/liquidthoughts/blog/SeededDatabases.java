@@ -0,0 +1,317 @@
+package com.liquidthoughts.blog;
+
+import com.liquidthoughts.blog.dto.PagedResponse;
+import com.liquidthoughts.blog.entity.PostEntity;
+import com.liquidthoughts.blog.config.NodeProperties;
+import com.liquidthoughts.blog.event.NodeResyncEvent;
+import com.liquidthoughts.blog.event.PostMetricEvent;
+import com.liquidthoughts.blog.service.PostIdGenerator;
+import com.liquidthoughts.blog.service.PostService;
+import com.liquidthoughts.blog.service.PostSuggestService;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Test fixtures for {@link PostIndexTests} and {@link PostIndexBenchmarkTests}. As a context initializer it points the
+ * application at a fresh database under {@code target/}, so both classes share one context whose data set never
+ * reaches the database the other integration tests use. {@link #seedPosts} fills it with {@code index.posts} posts,
+ * and {@link #typedPrefix} makes up title suggestion queries for them.
+ * {@link #keyDatabases} builds a database on the schema before integer post keys and a migrated copy of it.
+ */
+class SeededDatabases implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    static final int POSTS = Integer.getInteger("index.posts", 5000);
+    static final Instant BASE = Instant.parse("2025-01-01T00:00:00Z");
+    static final int METRIC_POSTS = 100;
+    static final int KEY_PAGE_SIZE = 20;
+    static final String TEXT_KEY_LOOKUP = "SELECT post_id, view_count, like_count FROM post_metrics WHERE post_id IN ("
+            + String.join(", ", Collections.nCopies(KEY_PAGE_SIZE, "?")) + ")";
+    static final String ROW_ID_LOOKUP = "SELECT p.id, m.view_count, m.like_count FROM posts p "
+            + "JOIN post_metrics m ON m.post_row_id = p.row_id WHERE p.id IN ("
+            + String.join(", ", Collections.nCopies(KEY_PAGE_SIZE, "?")) + ")";
+    static final String TEXT_KEY_JOIN = "SELECT SUM(COALESCE(m.view_count, 0)) FROM posts p "
+            + "LEFT JOIN post_metrics m ON m.post_id = p.id";
+    static final String ROW_ID_JOIN = "SELECT SUM(COALESCE(m.view_count, 0)) FROM posts p "
+            + "LEFT JOIN post_metrics m ON m.post_row_id = p.row_id";
+    private static final String[] CHINESE = {
+            "微服务", "数据库", "缓存", "并发", "架构", "性能优化", "前端", "容器", "消息队列", "分布式", "索引", "事务"
+    };
+    private static final String[] ENGLISH = {
+            "Spring", "SQLite", "Kubernetes", "React", "Redis", "Kafka", "GraalVM", "Docker", "TypeScript", "Netty"
+    };
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        Path directory = temporaryDirectory("seeded-posts");
+        TestPropertyValues.of(
+                "BLOG_DB_PATH=" + directory.resolve("blog.db"),
+                "BLOG_STORAGE_PATH=" + directory.resolve("storage")
+        ).applyTo(context);
+    }
+
+    /**
+     * Seeds posts with mixed Chinese and English titles one minute apart from {@link #BASE}, a third of them drafts,
+     * over five categories and with views and likes, plus {@value #METRIC_POSTS} published posts without metrics titled
+     * "Metric traffic" before them, unless the context's database already has them. Then rebuilds the in-memory
+     * indexes from the database.
+     */
+    static synchronized void seedPosts(ApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts WHERE id = 'seed-0'", Integer.class) > 0) {
+            return;
+        }
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(POSTS + METRIC_POSTS);
+        List<Object[]> metrics = new ArrayList<>(POSTS);
+        for (int index = 0; index < POSTS; index++) {
+            Instant created = BASE.plusSeconds(index * 60L);
+            Instant updated = created.plusSeconds(random.nextInt(POSTS * 60));
+            rows.add(new Object[]{
+                    "seed-" + index,
+                    CHINESE[random.nextInt(CHINESE.length)] + ENGLISH[random.nextInt(ENGLISH.length)]
+                            + CHINESE[random.nextInt(CHINESE.length)] + " " + index,
+                    "content " + index,
+                    "summary " + index,
+                    random.nextInt(3) == 0 ? "draft" : "published",
+                    1 + random.nextInt(5),
+                    created.toEpochMilli(),
+                    updated.toEpochMilli()
+            });
+            metrics.add(new Object[]{random.nextInt(10_000), random.nextInt(500), "seed-" + index});
+        }
+        for (int index = 0; index < METRIC_POSTS; index++) {
+            long created = BASE.minusSeconds((index + 1) * 60L).toEpochMilli();
+            rows.add(new Object[]{"metric-" + index, "Metric traffic " + index, "content", "summary", "published", 1,
+                    created, created});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO posts (id, title, content, summary, status, category_id, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.batchUpdate("INSERT OR REPLACE INTO post_metrics (post_row_id, view_count, like_count, updated_at) "
+                + "SELECT row_id, ?, ?, '2025-01-01T00:00:00Z' FROM posts WHERE id = ?", metrics);
+        // The rows bypassed the services, as they do when a writer restarts behind a reader.
+        context.publishEvent(new NodeResyncEvent());
+    }
+
+    /**
+     * Titles of the published seeded posts, the ones title suggestions can return.
+     */
+    static List<String> publishedTitles(ApplicationContext context) {
+        return context.getBean(JdbcTemplate.class).queryForList(
+                "SELECT title FROM posts WHERE id LIKE 'seed-%' AND status = 'published'", String.class);
+    }
+
+    /**
+     * What a user would have typed so far: a few characters from anywhere in a Chinese word of the title, or the
+     * start of its English word.
+     */
+    static String typedPrefix(String title, Random random) {
+        if (random.nextBoolean()) {
+            String word = Arrays.stream(CHINESE).filter(title::contains).findFirst().orElseThrow();
+            int start = random.nextInt(word.length());
+            return word.substring(start, Math.min(word.length(), start + 1 + random.nextInt(3)));
+        }
+        String word = Arrays.stream(ENGLISH).filter(title::contains).findFirst().orElseThrow();
+        return word.substring(0, 2 + random.nextInt(word.length() - 1)).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Starts counting views and likes of the "Metric traffic" posts until {@code running} is cleared. No suggestion
+     * query matches them, so rankings do not move meanwhile. The thread pauses between batches so that on a machine
+     * with few cores it does not take the CPU from the queries being timed.
+     */
+    static Thread countMetrics(PostSuggestService postSuggestService, AtomicBoolean running) {
+        Thread counter = new Thread(() -> {
+            Random random = new Random(5);
+            while (running.get()) {
+                for (int index = 0; index < 100; index++) {
+                    postSuggestService.onMetric(new PostMetricEvent("metric-" + random.nextInt(METRIC_POSTS),
+                            1, random.nextInt(2), System.currentTimeMillis()));
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        });
+        counter.start();
+        return counter;
+    }
+
+    /**
+     * Seeds {@code posts} posts with metrics and some revisions into the schema before V6, then copies the database and
+     * migrates the copy to integer post keys the way the migration runs.
+     */
+    static KeyDatabases keyDatabases(int posts) throws SQLException, IOException {
+        Path directory = temporaryDirectory("post-keys");
+        Path legacy = directory.resolve("legacy.db");
+        Path migrated = directory.resolve("migrated.db");
+        List<String> postIds = new ArrayList<>(posts);
+        try (Connection connection = open(legacy)) {
+            for (String script : List.of("V1__baseline_schema.sql", "V2__seed_data.sql", "V3__post_word_count.sql",
+                    "V4__posts_created_at_index.sql")) {
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/" + script));
+            }
+            seedLegacyPosts(connection, posts, postIds);
+        }
+        Files.copy(legacy, migrated);
+        try (Connection connection = open(migrated)) {
+            execute(connection, "PRAGMA foreign_keys=OFF");
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V6__integer_post_keys.sql"));
+            execute(connection, "PRAGMA foreign_keys=ON");
+            execute(connection, "VACUUM");
+        }
+        return new KeyDatabases(legacy, migrated, postIds);
+    }
+
+    static Connection open(Path database) throws SQLException {
+        Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database + "?foreign_keys=true");
+        execute(connection, "PRAGMA journal_mode=DELETE");
+        return connection;
+    }
+
+    static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Picks {@value #KEY_PAGE_SIZE} random post ids, as a page of the post list asks metrics for.
+     */
+    static List<String> randomPage(List<String> postIds, Random random) {
+        List<String> page = new ArrayList<>(KEY_PAGE_SIZE);
+        for (int index = 0; index < KEY_PAGE_SIZE; index++) {
+            page.add(postIds.get(random.nextInt(postIds.size())));
+        }
+        return page;
+    }
+
+    static long sumViews(Connection connection, String lookup, List<String> page) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(lookup)) {
+            for (int index = 0; index < page.size(); index++) {
+                statement.setString(index + 1, page.get(index));
+            }
+            long views = 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    views += resultSet.getLong(2);
+                }
+            }
+            return views;
+        }
+    }
+
+    private static void seedLegacyPosts(Connection connection, int count, List<String> postIds) throws SQLException {
+        PostIdGenerator generator = new PostIdGenerator(new NodeProperties());
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try (PreparedStatement posts = connection.prepareStatement("INSERT INTO posts "
+                + "(id, title, content, summary, status, category_id, created_at, updated_at, word_count) "
+                + "VALUES (?, ?, ?, ?, 'published', ?, ?, ?, 2)");
+             PreparedStatement metrics = connection.prepareStatement(
+                     "INSERT INTO post_metrics (post_id, view_count, like_count, updated_at) VALUES (?, ?, ?, ?)");
+             PreparedStatement revisions = connection.prepareStatement("INSERT INTO post_revisions "
+                     + "(post_id, kind, title, summary, status, category_id, payload, content_length, created_at) "
+                     + "VALUES (?, 'snapshot', 't', 's', 'published', 1, 'content', 7, ?)")) {
+            for (int index = 0; index < count; index++) {
+                String id = generator.nextId();
+                String created = BASE.plusSeconds(index).toString();
+                postIds.add(id);
+                posts.setString(1, id);
+                posts.setString(2, "title " + index);
+                posts.setString(3, "content " + index);
+                posts.setString(4, "summary " + index);
+                posts.setInt(5, 1 + random.nextInt(5));
+                posts.setString(6, created);
+                posts.setString(7, created);
+                posts.addBatch();
+                metrics.setString(1, id);
+                metrics.setInt(2, random.nextInt(1000));
+                metrics.setInt(3, random.nextInt(100));
+                metrics.setString(4, created);
+                metrics.addBatch();
+                if (index % 10 == 0) {
+                    revisions.setString(1, id);
+                    revisions.setString(2, created);
+                    revisions.addBatch();
+                }
+            }
+            posts.executeBatch();
+            metrics.executeBatch();
+            revisions.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static Path temporaryDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(Files.createDirectories(Path.of("target")), prefix);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Filter combinations of {@code GET /api/posts/page} over the seeded posts.
+     */
+    static List<PageQuery> pageQueries() {
+        String from = BASE.plusSeconds(POSTS / 4 * 60L).toString();
+        String to = BASE.plusSeconds(POSTS / 2 * 60L).toString();
+        return List.of(
+                new PageQuery(1, 10, null, null, null, null, null, null, null),
+                new PageQuery(1, 10, null, "published", null, null, null, null, null),
+                new PageQuery(3, 20, null, "draft", 3, null, null, null, null),
+                new PageQuery(2, 10, null, "published", null, from, to, null, null),
+                new PageQuery(1, 10, null, null, 2, null, null, from, null),
+                new PageQuery(1, 10, "KAFKA", null, null, null, null, null, null),
+                new PageQuery(POSTS / 40, 10, null, null, null, null, null, null, null)
+        );
+    }
+
+    record KeyDatabases(Path legacy, Path migrated, List<String> postIds) {
+    }
+
+    record PageQuery(long page, long pageSize, String keyword, String status, Integer categoryId,
+                     String createdFrom, String createdTo, String updatedFrom, String updatedTo) {
+
+        PagedResponse<PostEntity> fromCatalog(PostService postService) {
+            return postService.listPageFromCatalog(page, pageSize, keyword, status, categoryId,
+                    createdFrom, createdTo, updatedFrom, updatedTo);
+        }
+
+        PagedResponse<PostEntity> fromDatabase(PostService postService) {
+            return postService.listPageFromDatabase(page, pageSize, keyword, status, categoryId,
+                    createdFrom, createdTo, updatedFrom, updatedTo);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.liquidthoughts.blog;
+
+import com.liquidthoughts.blog.config.CacheProperties;
+import com.liquidthoughts.blog.service.ReadCacheService;
+import com.liquidthoughts.blog.service.SingleFlightCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires concurrent reads at {@link SingleFlightCache} entries that are missing, stale or invalidated and counts the
+ * loads they trigger.
+ */
+class SingleFlightCacheTests {
+
+    private static final int THREADS = 32;
+
+    private final CacheProperties properties = new CacheProperties();
+    private final ReadCacheService readCacheService = new ReadCacheService(properties);
+    private final ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+        readCacheService.shutdown();
+    }
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        SingleFlightCache<String, Integer> cache = readCacheService.cache("test");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> results = submitAll(() -> cache.get("page-1", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return 42;
+        }));
+        release.countDown();
+
+        for (Future<Integer> result : results) {
+            assertEquals(42, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(42, cache.get("page-1", () -> 0));
+    }
+
+    @Test
+    void shouldServeStaleValueWhileOneRefreshRuns() throws Exception {
+        properties.setFreshMs(20);
+        properties.setStaleMs(60000);
+        SingleFlightCache<String, Integer> cache = readCacheService.cache("test");
+        assertEquals(1, cache.get("configs", () -> 1));
+        Thread.sleep(40);
+
+        AtomicInteger refreshes = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Integer>> results = submitAll(() -> cache.get("configs", () -> {
+            refreshes.incrementAndGet();
+            await(release);
+            return 2;
+        }));
+        for (Future<Integer> result : results) {
+            assertEquals(1, result.get(5, TimeUnit.SECONDS));
+        }
+        release.countDown();
+
+        awaitTrue(() -> cache.get("configs", () -> 3) == 2);
+        assertEquals(1, refreshes.get());
+    }
+
+    @Test
+    void shouldDropLoadsStartedBeforeInvalidation() throws Exception {
+        SingleFlightCache<String, Integer> cache = readCacheService.cache("test");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> before = callers.submit(() -> cache.get("page-1", () -> {
+            started.countDown();
+            await(release);
+            return 1;
+        }));
+        await(started);
+        readCacheService.invalidate("test");
+        release.countDown();
+
+        assertEquals(1, before.get(5, TimeUnit.SECONDS));
+        assertEquals(2, cache.get("page-1", () -> 2));
+    }
+
+    @Test
+    void shouldPassFailuresToEveryWaiterAndRetry() throws Exception {
+        SingleFlightCache<String, Integer> cache = readCacheService.cache("test");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Integer>> results = submitAll(() -> cache.get("page-1", () -> {
+            loads.incrementAndGet();
+            await(release);
+            throw new IllegalStateException("database is locked");
+        }));
+        release.countDown();
+
+        for (Future<Integer> result : results) {
+            Exception failure = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(1, loads.get());
+        assertEquals(7, cache.get("page-1", () -> 7));
+    }
+
+    private List<Future<Integer>> submitAll(Callable<Integer> read) throws InterruptedException {
+        AtomicInteger arrived = new AtomicInteger();
+        List<Future<Integer>> results = new ArrayList<>(THREADS);
+        for (int thread = 0; thread < THREADS; thread++) {
+            results.add(callers.submit(() -> {
+                arrived.incrementAndGet();
+                return read.call();
+            }));
+        }
+        awaitTrue(() -> arrived.get() == THREADS);
+        Thread.sleep(50);
+        return results;
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.liquidthoughts.blog;
+
+import com.liquidthoughts.blog.dto.StartupReport;
+import com.liquidthoughts.blog.service.StartupReportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the prod profile against an empty database and fails when the first request is served later than
+ * {@code startup.budget-ms} after the start of the boot.
+ */
+class StartupBudgetTests {
+
+    private static final long BUDGET_MS = Long.getLong("startup.budget-ms", 15000);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldServeFirstRequestWithinBudget() throws Exception {
+        long startedAt = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BlogBackendApplication.class)
+                .profiles("prod")
+                .applicationStartup(new BufferingApplicationStartup(BlogBackendApplication.STARTUP_STEPS))
+                .properties(
+                        "server.port=0",
+                        "BLOG_DB_PATH=" + tempDir.resolve("blog.db"),
+                        "BLOG_STORAGE_PATH=" + tempDir.resolve("storage")
+                )
+                .run()) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/categories")).build(),
+                    HttpResponse.BodyHandlers.ofString()
+            );
+            long firstRequestMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            assertEquals(200, response.statusCode());
+            assertTrue(firstRequestMs < BUDGET_MS,
+                    "First request served after " + firstRequestMs + " ms, budget is " + BUDGET_MS + " ms");
+
+            StartupReport report = context.getBean(StartupReportService.class).report();
+            assertTrue(report.getBeanCount() > 0);
+            assertFalse(report.getSlowestBeans().isEmpty());
+        }
+    }
+}
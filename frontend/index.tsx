@@ -158,6 +158,7 @@ const App = () => {
     createdTo?: string;
     updatedFrom?: string;
     updatedTo?: string;
+    facets?: boolean;
   }) => api.getPostsPage(params), []);
 
   const deletePost = useCallback(async (id: string) => {
@@ -299,6 +300,7 @@ const App = () => {
             categories={categories}
             onReadPost={(post) => openPostDetail(post, 'post-search')}
             onQueryPage={queryPostPage}
+            onSuggest={api.suggestPosts}
             initialCategoryId={publicSearchState.categoryId}
             seedToken={publicSearchState.seedToken}
             onBackToCategories={() => setView('categories')}
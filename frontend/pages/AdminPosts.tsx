@@ -2,7 +2,7 @@ import React, { useEffect, useMemo, useState } from 'react';
 import { Category, Post } from '../types';
 import { useLanguage } from '../context/LanguageContext';
 import { Pagination } from '../components/UI';
-import { PagedResponse } from '../services/apiService';
+import { PostFacets, PostPage } from '../services/apiService';
 import { ThemedSelect, ThemedSelectOption } from '../components/ThemedSelect';
 
 interface AdminPostsProps {
@@ -14,7 +14,8 @@ interface AdminPostsProps {
     keyword?: string;
     status?: 'draft' | 'published';
     categoryId?: number;
-  }) => Promise<PagedResponse<Post>>;
+    facets?: boolean;
+  }) => Promise<PostPage>;
   onCreatePost: () => void;
   onEditPost: (post: Post) => void;
 }
@@ -41,6 +42,7 @@ export const AdminPosts: React.FC<AdminPostsProps> = ({ categories, onDelete, on
   const [pageSize, setPageSize] = useState(10);
   const [total, setTotal] = useState(0);
   const [pagedPosts, setPagedPosts] = useState<Post[]>([]);
+  const [facets, setFacets] = useState<PostFacets | undefined>();
   const [loading, setLoading] = useState(false);
   const [reloadToken, setReloadToken] = useState(0);
 
@@ -60,12 +62,14 @@ export const AdminPosts: React.FC<AdminPostsProps> = ({ categories, onDelete, on
           pageSize,
           keyword: appliedFilters.keyword || undefined,
           status: appliedFilters.status === 'all' ? undefined : appliedFilters.status,
-          categoryId: appliedFilters.categoryId === 'all' ? undefined : appliedFilters.categoryId
+          categoryId: appliedFilters.categoryId === 'all' ? undefined : appliedFilters.categoryId,
+          facets: true
         });
 
         if (!active) return;
         setPagedPosts(result.records);
         setTotal(result.total);
+        setFacets(result.facets);
       } catch (error) {
         if (active) {
           alert(error instanceof Error ? error.message : 'Failed to query posts');
@@ -85,15 +89,18 @@ export const AdminPosts: React.FC<AdminPostsProps> = ({ categories, onDelete, on
 
   const totalPages = Math.max(1, Math.ceil(total / pageSize));
 
+  const withCount = (label: string, counts: Record<string, number> | undefined, key: string | number) =>
+    counts ? `${label} (${counts[String(key)] ?? 0})` : label;
+
   const statusOptions: Array<ThemedSelectOption<PostFilters['status']>> = [
     { value: 'all', label: '全部状态' },
-    { value: 'published', label: t('admin.editor.status_published') },
-    { value: 'draft', label: t('admin.editor.status_draft') }
+    { value: 'published', label: withCount(t('admin.editor.status_published'), facets?.status, 'published') },
+    { value: 'draft', label: withCount(t('admin.editor.status_draft'), facets?.status, 'draft') }
   ];
 
   const categoryOptions: Array<ThemedSelectOption<'all' | number>> = [
     { value: 'all', label: '全部分类' },
-    ...categories.map((category) => ({ value: category.id, label: category.name }))
+    ...categories.map((category) => ({ value: category.id, label: withCount(category.name, facets?.category, category.id) }))
   ];
 
   const pageSizeOptions: Array<ThemedSelectOption<number>> = PAGE_SIZE_OPTIONS.map((option) => ({
@@ -1,7 +1,7 @@
 import React, { useEffect, useMemo, useState } from 'react';
 import { motion } from 'framer-motion';
-import { Category, Post } from '../types';
-import { PagedResponse } from '../services/apiService';
+import { Category, Post, PostSuggestion } from '../types';
+import { PostFacets, PostPage } from '../services/apiService';
 import { Pagination } from '../components/UI';
 import { ThemedSelect, ThemedSelectOption } from '../components/ThemedSelect';
 
@@ -18,7 +18,9 @@ interface PublicPostSearchProps {
     createdTo?: string;
     updatedFrom?: string;
     updatedTo?: string;
-  }) => Promise<PagedResponse<Post>>;
+    facets?: boolean;
+  }) => Promise<PostPage>;
+  onSuggest: (query: string) => Promise<PostSuggestion[]>;
   initialCategoryId?: number;
   seedToken: number;
   onBackToCategories: () => void;
@@ -38,6 +40,7 @@ interface SearchFilters {
 }
 
 const PAGE_SIZE_OPTIONS = [6, 9, 12, 20];
+const SUGGEST_DELAY_MS = 120;
 
 const DATE_INPUT_CLASS =
   'w-full rounded-xl border border-slate-200 dark:border-white/10 bg-white/80 dark:bg-white/[0.05] px-4 py-3 pl-10 text-sm text-slate-900 dark:text-white focus:border-primary/50 focus:shadow-[0_0_0_3px_rgba(25,93,230,0.12)] outline-none transition-all [color-scheme:light] dark:[color-scheme:dark] [&::-webkit-calendar-picker-indicator]:opacity-75 dark:[&::-webkit-calendar-picker-indicator]:invert';
@@ -56,6 +59,7 @@ export const PublicPostSearch: React.FC<PublicPostSearchProps> = ({
   categories,
   onReadPost,
   onQueryPage,
+  onSuggest,
   initialCategoryId,
   seedToken,
   onBackToCategories
@@ -67,6 +71,9 @@ export const PublicPostSearch: React.FC<PublicPostSearchProps> = ({
   const [loading, setLoading] = useState(false);
   const [records, setRecords] = useState<Post[]>([]);
   const [total, setTotal] = useState(0);
+  const [facets, setFacets] = useState<PostFacets | undefined>();
+  const [suggestions, setSuggestions] = useState<PostSuggestion[]>([]);
+  const [showSuggestions, setShowSuggestions] = useState(false);
 
   const categoryMap = useMemo(
     () => new Map(categories.map((category) => [category.id, category.name])),
@@ -84,6 +91,28 @@ export const PublicPostSearch: React.FC<PublicPostSearchProps> = ({
     setCurrentPage(1);
   }, [initialCategoryId, seedToken]);
 
+  useEffect(() => {
+    const query = draftFilters.keyword.trim();
+    if (!query) {
+      setSuggestions([]);
+      return;
+    }
+    let active = true;
+    const timer = window.setTimeout(() => {
+      onSuggest(query)
+        .then((items) => {
+          if (active) setSuggestions(items);
+        })
+        .catch(() => {
+          if (active) setSuggestions([]);
+        });
+    }, SUGGEST_DELAY_MS);
+    return () => {
+      active = false;
+      window.clearTimeout(timer);
+    };
+  }, [draftFilters.keyword, onSuggest]);
+
   useEffect(() => {
     let active = true;
     const load = async () => {
@@ -98,12 +127,14 @@ export const PublicPostSearch: React.FC<PublicPostSearchProps> = ({
           createdFrom: appliedFilters.createdFrom || undefined,
           createdTo: appliedFilters.createdTo || undefined,
           updatedFrom: appliedFilters.updatedFrom || undefined,
-          updatedTo: appliedFilters.updatedTo || undefined
+          updatedTo: appliedFilters.updatedTo || undefined,
+          facets: true
         });
 
         if (!active) return;
         setRecords(page.records);
         setTotal(page.total);
+        setFacets(page.facets);
       } catch (error) {
         if (active) {
           alert(error instanceof Error ? error.message : '查询文章失败');
@@ -121,15 +152,22 @@ export const PublicPostSearch: React.FC<PublicPostSearchProps> = ({
 
   const totalPages = Math.max(1, Math.ceil(total / pageSize));
 
+  const withCount = (label: string, counts: Record<string, number> | undefined, key: string | number) =>
+    counts ? `${label} (${counts[String(key)] ?? 0})` : label;
+
   const statusOptions: Array<ThemedSelectOption<StatusFilter>> = [
     { value: 'all', label: '全部状态' },
-    { value: 'published', label: '已发布' },
-    { value: 'draft', label: '草稿' }
+    { value: 'published', label: withCount('已发布', facets?.status, 'published') },
+    { value: 'draft', label: withCount('草稿', facets?.status, 'draft') }
   ];
 
   const categoryOptions: Array<ThemedSelectOption<CategoryFilter>> = [
     { value: 'all', label: '全部分类' },
-    ...categories.map((category) => ({ value: category.id, label: category.name, icon: category.icon }))
+    ...categories.map((category) => ({
+      value: category.id,
+      label: withCount(category.name, facets?.category, category.id),
+      icon: category.icon
+    }))
   ];
 
   const pageSizeOptions: Array<ThemedSelectOption<number>> = PAGE_SIZE_OPTIONS.map((size) => ({
@@ -140,6 +178,15 @@ export const PublicPostSearch: React.FC<PublicPostSearchProps> = ({
   const applyFilters = () => {
     setCurrentPage(1);
     setAppliedFilters(draftFilters);
+    setShowSuggestions(false);
+  };
+
+  const applySuggestion = (suggestion: PostSuggestion) => {
+    const next = { ...draftFilters, keyword: suggestion.title };
+    setDraftFilters(next);
+    setAppliedFilters(next);
+    setCurrentPage(1);
+    setShowSuggestions(false);
   };
 
   const resetFilters = () => {
@@ -181,10 +228,37 @@ export const PublicPostSearch: React.FC<PublicPostSearchProps> = ({
               <span className="material-symbols-outlined absolute left-3 top-1/2 -translate-y-1/2 text-slate-400 dark:text-white/30 text-lg">search</span>
               <input
                 value={draftFilters.keyword}
-                onChange={(event) => setDraftFilters((prev) => ({ ...prev, keyword: event.target.value }))}
+                onChange={(event) => {
+                  setDraftFilters((prev) => ({ ...prev, keyword: event.target.value }));
+                  setShowSuggestions(true);
+                }}
+                onKeyDown={(event) => {
+                  if (event.key === 'Enter') applyFilters();
+                  if (event.key === 'Escape') setShowSuggestions(false);
+                }}
+                onBlur={() => setShowSuggestions(false)}
                 placeholder="输入标题关键字进行模糊搜索"
                 className="w-full rounded-xl border border-slate-200 dark:border-white/10 bg-white/80 dark:bg-white/[0.05] px-10 py-3 text-sm text-slate-900 dark:text-white placeholder:text-slate-400 dark:placeholder:text-white/25 focus:border-primary/50 focus:shadow-[0_0_0_3px_rgba(25,93,230,0.12)] outline-none transition-all"
               />
+              {showSuggestions && suggestions.length > 0 && (
+                <ul className="absolute left-0 right-0 top-full mt-2 z-50 rounded-xl border border-slate-200 dark:border-white/10 bg-white dark:bg-slate-900 shadow-xl overflow-hidden">
+                  {suggestions.map((suggestion) => (
+                    <li key={suggestion.id}>
+                      <button
+                        type="button"
+                        onMouseDown={(event) => {
+                          event.preventDefault();
+                          applySuggestion(suggestion);
+                        }}
+                        className="w-full flex items-center justify-between gap-3 px-4 py-2.5 text-left text-sm text-slate-700 dark:text-white/80 hover:bg-slate-100 dark:hover:bg-white/[0.06] transition-colors"
+                      >
+                        <span className="truncate">{suggestion.title}</span>
+                        <span className="shrink-0 text-xs text-slate-400 dark:text-white/35">{suggestion.view_count} 次阅读</span>
+                      </button>
+                    </li>
+                  ))}
+                </ul>
+              )}
             </div>
           </div>
 
@@ -1,4 +1,4 @@
-﻿import { Category, Config, Post } from '../types';
+﻿import { Category, Config, Post, PostSuggestion, TagCount } from '../types';
 import { apiRequest, clearAuthToken, getAuthToken, setAuthToken } from './apiClient';
 
 interface LoginResult {
@@ -18,6 +18,54 @@ export interface UploadedAsset {
   size: number;
 }
 
+interface UploadSession {
+  upload_id: string;
+  chunk_size: number;
+  chunk_count: number;
+  received_chunks: number[];
+}
+
+const CHUNKED_UPLOAD_THRESHOLD = 8 * 1024 * 1024;
+const CHUNK_RETRIES = 3;
+
+const sha256Hex = async (data: Blob): Promise<string | undefined> => {
+  if (!globalThis.crypto?.subtle) {
+    return undefined;
+  }
+  const digest = await crypto.subtle.digest('SHA-256', await data.arrayBuffer());
+  return Array.from(new Uint8Array(digest), (byte) => byte.toString(16).padStart(2, '0')).join('');
+};
+
+const uploadInChunks = async (file: File, folder?: string): Promise<UploadedAsset> => {
+  const session = await apiRequest<UploadSession>('/assets/uploads', {
+    method: 'POST',
+    body: JSON.stringify({ file_name: file.name, size: file.size, folder })
+  });
+  const received = new Set(session.received_chunks);
+  for (let index = 0; index < session.chunk_count; index++) {
+    if (received.has(index)) continue;
+    const first = index * session.chunk_size;
+    const last = Math.min(first + session.chunk_size, file.size) - 1;
+    const chunk = file.slice(first, last + 1);
+    const headers: Record<string, string> = {
+      'Content-Type': 'application/octet-stream',
+      'Content-Range': `bytes ${first}-${last}/${file.size}`
+    };
+    const checksum = await sha256Hex(chunk);
+    if (checksum) headers['X-Chunk-Sha256'] = checksum;
+
+    for (let attempt = 1; ; attempt++) {
+      try {
+        await apiRequest<UploadSession>(`/assets/uploads/${session.upload_id}`, { method: 'PUT', headers, body: chunk });
+        break;
+      } catch (error) {
+        if (attempt >= CHUNK_RETRIES) throw error;
+      }
+    }
+  }
+  return apiRequest<UploadedAsset>(`/assets/uploads/${session.upload_id}/complete`, { method: 'POST' });
+};
+
 export interface PagedResponse<T> {
   records: T[];
   total: number;
@@ -25,6 +73,16 @@ export interface PagedResponse<T> {
   page_size: number;
 }
 
+export interface PostFacets {
+  status: Record<string, number>;
+  category: Record<string, number>;
+  tags: Record<string, number>;
+}
+
+export interface PostPage extends PagedResponse<Post> {
+  facets?: PostFacets;
+}
+
 export interface PostMetricResult {
   post_id: string;
   view_count: number;
@@ -46,7 +104,10 @@ export const api = {
     createdTo?: string;
     updatedFrom?: string;
     updatedTo?: string;
-  }): Promise<PagedResponse<Post>> {
+    tags?: string[];
+    tagMode?: 'all' | 'any';
+    facets?: boolean;
+  }): Promise<PostPage> {
     const searchParams = new URLSearchParams();
     if (params?.page) searchParams.set('page', String(params.page));
     if (params?.pageSize) searchParams.set('page_size', String(params.pageSize));
@@ -57,9 +118,21 @@ export const api = {
     if (params?.createdTo) searchParams.set('created_to', params.createdTo);
     if (params?.updatedFrom) searchParams.set('updated_from', params.updatedFrom);
     if (params?.updatedTo) searchParams.set('updated_to', params.updatedTo);
+    params?.tags?.forEach((tag) => searchParams.append('tags', tag));
+    if (params?.tagMode) searchParams.set('tag_mode', params.tagMode);
+    if (params?.facets) searchParams.set('facets', 'true');
 
     const query = searchParams.toString();
-    return apiRequest<PagedResponse<Post>>(`/posts/page${query ? `?${query}` : ''}`, { method: 'GET' }, false);
+    return apiRequest<PostPage>(`/posts/page${query ? `?${query}` : ''}`, { method: 'GET' }, false);
+  },
+
+  async suggestPosts(query: string, limit = 8): Promise<PostSuggestion[]> {
+    const searchParams = new URLSearchParams({ q: query, limit: String(limit) });
+    return apiRequest<PostSuggestion[]>(`/posts/suggest?${searchParams.toString()}`, { method: 'GET' }, false);
+  },
+
+  async getTags(status?: 'draft' | 'published'): Promise<TagCount[]> {
+    return apiRequest<TagCount[]>(`/posts/tags${status ? `?status=${status}` : ''}`, { method: 'GET' }, false);
   },
 
   async savePost(post: Partial<Post>): Promise<Post> {
@@ -130,16 +203,25 @@ export const api = {
   },
 
   async uploadAssets(files: File[], folder?: string): Promise<UploadedAsset[]> {
-    const formData = new FormData();
-    files.forEach((file) => formData.append('files', file));
-    if (folder) {
-      formData.append('folder', folder);
-    }
+    const small = files.filter((file) => file.size <= CHUNKED_UPLOAD_THRESHOLD);
+    const large = files.filter((file) => file.size > CHUNKED_UPLOAD_THRESHOLD);
+    const uploaded: UploadedAsset[] = [];
 
-    return apiRequest<UploadedAsset[]>('/assets/upload', {
-      method: 'POST',
-      body: formData
-    });
+    if (small.length > 0) {
+      const formData = new FormData();
+      small.forEach((file) => formData.append('files', file));
+      if (folder) {
+        formData.append('folder', folder);
+      }
+      uploaded.push(...await apiRequest<UploadedAsset[]>('/assets/upload', {
+        method: 'POST',
+        body: formData
+      }));
+    }
+    for (const file of large) {
+      uploaded.push(await uploadInChunks(file, folder));
+    }
+    return uploaded;
   },
 
   async getConfigs(): Promise<Config[]> {
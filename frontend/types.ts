@@ -9,6 +9,19 @@ export interface Post {
   updated_at: string;
   view_count?: number;
   like_count?: number;
+  tags?: string[];
+}
+
+export interface PostSuggestion {
+  id: string;
+  title: string;
+  view_count: number;
+  like_count: number;
+}
+
+export interface TagCount {
+  name: string;
+  post_count: number;
 }
 
 export interface Config {
@@ -16,6 +16,10 @@ export default defineConfig(({ mode }) => {
           '/uploads': {
             target: env.VITE_BACKEND_URL || 'http://localhost:9002',
             changeOrigin: true
+          },
+          '^/(sitemap(-\\d+)?|rss|atom)\\.xml$': {
+            target: env.VITE_BACKEND_URL || 'http://localhost:9002',
+            changeOrigin: true
           }
         }
       },